@@ -0,0 +1,82 @@
+/**
+ *  BenchmarkRunner.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * It runs JaCoP benchmarks. It accepts the same arguments as JMH, but 
+ * unless specified otherwise the results are written in JSON format to 
+ * file jmh-result.json, so they can be compared across releases.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class BenchmarkRunner {
+
+	/**
+	 * It executes benchmarks selected by the arguments. 
+	 * @param args JMH command line arguments, e.g. regexp selecting benchmarks.
+	 * @throws Exception thrown if arguments are incorrect or benchmarks can not be run.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+		if (cmdOptions.shouldHelp()) {
+			cmdOptions.showHelp();
+			return;
+		}
+
+		if (cmdOptions.shouldList()) {
+			new Runner(cmdOptions).list();
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+
+		if (!cmdOptions.getResultFormat().hasValue())
+			options.resultFormat(ResultFormatType.JSON);
+
+		if (!cmdOptions.getResult().hasValue())
+			options.result("jmh-result.json");
+
+		new Runner(options.build()).run();
+
+	}
+
+}
@@ -0,0 +1,146 @@
+/**
+ *  ExampleSolveBenchmark.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.examples.fd.ExampleFD;
+import org.jacop.examples.fd.Golomb;
+import org.jacop.examples.fd.Queens;
+import org.jacop.examples.fd.Sudoku;
+import org.jacop.examples.fd.carsequencing.CarSequencing;
+import org.jacop.examples.fd.filters.DFQ;
+import org.jacop.examples.fd.filters.FilterBenchmark;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+import org.jacop.search.SmallestDomain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * It measures end-to-end solving (model creation and search) of selected 
+ * examples. Satisfaction problems are solved for all solutions, optimization
+ * problems are solved to optimality. 
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExampleSolveBenchmark {
+
+	/**
+	 * The name of the example being solved.
+	 */
+	@Param({"Queens", "Golomb", "Sudoku", "CarSequencing", "FilterBenchmark"})
+	public String example;
+
+	/**
+	 * It creates the model of the example.
+	 * @return example with the model imposed.
+	 */
+	ExampleFD create() {
+
+		if (example.equals("Queens")) {
+			Queens queens = new Queens();
+			queens.numberQ = 10;
+			queens.modelBasic();
+			return queens;
+		}
+
+		if (example.equals("Golomb")) {
+			Golomb golomb = new Golomb();
+			golomb.noMarks = 9;
+			golomb.model();
+			return golomb;
+		}
+
+		if (example.equals("Sudoku")) {
+			Sudoku sudoku = new Sudoku();
+			sudoku.model();
+			return sudoku;
+		}
+
+		if (example.equals("CarSequencing")) {
+			CarSequencing cars = new CarSequencing();
+			CarSequencing.readFromArray(CarSequencing.problem, cars);
+			cars.model();
+			return cars;
+		}
+
+		throw new IllegalArgumentException("Unknown example " + example);
+
+	}
+
+	@Benchmark
+	public boolean solve() {
+
+		if (example.equals("FilterBenchmark")) {
+			// It schedules DFQ filter with one adder and two multipliers.
+			FilterBenchmark.experiment1(new Store(), new DFQ(), 1, 2);
+			return true;
+		}
+
+		ExampleFD model = create();
+
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(model.vars.toArray(new IntVar[1]),
+				new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+
+		if (model.cost != null)
+			return search.labeling(model.store, select, model.cost);
+
+		search.getSolutionListener().searchAll(true);
+		return search.labeling(model.store, select);
+
+	}
+
+}
@@ -0,0 +1,152 @@
+/**
+ *  IntervalDomainBenchmark.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.IntervalDomain;
+import org.jacop.core.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * It measures basic operations of IntervalDomain for domains consisting of 
+ * a given number of intervals. Operations in and inComplement change the 
+ * domain of a variable at a new store level, which is removed afterwards, 
+ * so each invocation starts from the same domain.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntervalDomainBenchmark {
+
+	/**
+	 * The number of intervals within the domain.
+	 */
+	@Param({"1", "10", "100"})
+	public int intervals;
+
+	IntervalDomain domain;
+
+	IntervalDomain other;
+
+	Store store;
+
+	IntVar var;
+
+	int middle;
+
+	/**
+	 * It creates domains {0..5, 10..15, ...} and {3..8, 13..18, ...}.
+	 */
+	@Setup
+	public void setup() {
+
+		domain = new IntervalDomain(intervals + 1);
+		other = new IntervalDomain(intervals + 1);
+
+		for (int i = 0; i < intervals; i++) {
+			domain.unionAdapt(i * 10, i * 10 + 5);
+			other.unionAdapt(i * 10 + 3, i * 10 + 8);
+		}
+
+		middle = (intervals / 2) * 10 + 2;
+
+		store = new Store();
+		var = new IntVar(store, "x", domain.cloneLight());
+
+	}
+
+	@Benchmark
+	public IntDomain intersect() {
+		return domain.intersect(other);
+	}
+
+	@Benchmark
+	public IntDomain subtract() {
+		return domain.subtract(other);
+	}
+
+	@Benchmark
+	public IntDomain union() {
+		return domain.union(other);
+	}
+
+	@Benchmark
+	public int in() {
+
+		store.setLevel(store.level + 1);
+
+		var.domain.in(store.level, var, 1, domain.max() - 1);
+		int size = var.getSize();
+
+		store.removeLevel(store.level);
+		store.setLevel(store.level - 1);
+
+		return size;
+
+	}
+
+	@Benchmark
+	public int inComplement() {
+
+		store.setLevel(store.level + 1);
+
+		var.domain.inComplement(store.level, var, middle);
+		int size = var.getSize();
+
+		store.removeLevel(store.level);
+		store.setLevel(store.level - 1);
+
+		return size;
+
+	}
+
+}
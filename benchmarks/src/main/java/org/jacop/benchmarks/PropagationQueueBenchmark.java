@@ -0,0 +1,147 @@
+/**
+ *  PropagationQueueBenchmark.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jacop.core.IntVar;
+import org.jacop.examples.fd.ExampleFD;
+import org.jacop.examples.fd.Golomb;
+import org.jacop.examples.fd.Langford;
+import org.jacop.examples.fd.MagicSquares;
+import org.jacop.examples.fd.Queens;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.MostConstrainedStatic;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * It compares hash set based queue of changed constraints with the array
+ * based propagation queue on a few models from examples.fd. Satisfaction 
+ * problems are solved for all solutions, optimization problems are solved 
+ * to optimality. 
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropagationQueueBenchmark {
+
+	/**
+	 * The name of the example being solved.
+	 */
+	@Param({"Queens", "Golomb", "Langford", "MagicSquares"})
+	public String example;
+
+	/**
+	 * It specifies if array based propagation queue is used by the store.
+	 */
+	@Param({"false", "true"})
+	public boolean arrayBasedQueue;
+
+	/**
+	 * It creates the model of the example.
+	 * @return example with the model imposed.
+	 */
+	ExampleFD create() {
+
+		if (example.equals("Queens")) {
+			Queens queens = new Queens();
+			queens.numberQ = 10;
+			queens.modelBasic();
+			return queens;
+		}
+
+		if (example.equals("Golomb")) {
+			Golomb golomb = new Golomb();
+			golomb.noMarks = 9;
+			golomb.model();
+			return golomb;
+		}
+
+		if (example.equals("Langford")) {
+			Langford langford = new Langford();
+			langford.n = 3;
+			langford.m = 10;
+			langford.model();
+			return langford;
+		}
+
+		if (example.equals("MagicSquares")) {
+			MagicSquares magic = new MagicSquares();
+			magic.model();
+			return magic;
+		}
+
+		throw new IllegalArgumentException("Unknown example " + example);
+
+	}
+
+	@Benchmark
+	public boolean solve() {
+
+		ExampleFD model = create();
+
+		model.store.setArrayBasedQueue(arrayBasedQueue);
+
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(model.vars.toArray(new IntVar[1]),
+				new MostConstrainedStatic<IntVar>(), new IndomainMin<IntVar>());
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+
+		if (model.cost != null)
+			return search.labeling(model.store, select, model.cost);
+
+		search.getSolutionListener().searchAll(true);
+		return search.labeling(model.store, select);
+
+	}
+
+}
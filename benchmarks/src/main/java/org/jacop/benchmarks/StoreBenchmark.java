@@ -0,0 +1,162 @@
+/**
+ *  StoreBenchmark.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jacop.constraints.XneqY;
+import org.jacop.constraints.XplusCeqZ;
+import org.jacop.core.IntVar;
+import org.jacop.core.IntervalDomain;
+import org.jacop.core.Store;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * It measures the store on the basic model of n-queens problem with interval 
+ * domains. Benchmark consistency places the first queen and computes the 
+ * fixpoint, benchmark removeLevel changes domains of all queens and restores 
+ * them by removing the level. Each invocation leaves the store in its initial 
+ * state. 
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+	/**
+	 * The number of queens.
+	 */
+	@Param({"20", "100"})
+	public int n;
+
+	/**
+	 * It specifies if array based propagation queue is used by the store.
+	 */
+	@Param({"false", "true"})
+	public boolean arrayBasedQueue;
+
+	/**
+	 * It specifies if interval domains are changed in place and restored 
+	 * from the domain trail instead of being copied at each level.
+	 */
+	@Param({"false", "true"})
+	public boolean domainTrail;
+
+	Store store;
+
+	IntVar[] queens;
+
+	@Setup
+	public void setup() {
+
+		store = new Store();
+
+		// The model of Queens.modelBasic() with IntervalDomain given explicitly, 
+		// as ranges of up to 64 values are otherwise encoded by SmallDenseDomain 
+		// which is not trailed in place.
+		queens = new IntVar[n];
+		for (int i = 0; i < n; i++)
+			queens[i] = new IntVar(store, "Q" + (i + 1), new IntervalDomain(1, n));
+
+		for (int i = 0; i < n; i++)
+			for (int j = i - 1; j >= 0; j--)
+				store.impose(new XneqY(queens[i], queens[j]));
+
+		for (int i = 0; i < n; i++)
+			for (int j = i + 1; j < n; j++) {
+
+				IntVar temporary = new IntVar(store, new IntervalDomain(-2 * n, 2 * n));
+				store.impose(new XplusCeqZ(queens[j], j - i, temporary));
+				store.impose(new XneqY(queens[i], temporary));
+
+				temporary = new IntVar(store, new IntervalDomain(-2 * n, 2 * n));
+				store.impose(new XplusCeqZ(queens[j], -(j - i), temporary));
+				store.impose(new XneqY(queens[i], temporary));
+
+			}
+
+		store.setArrayBasedQueue(arrayBasedQueue);
+		store.setDomainTrail(domainTrail);
+
+		if (!store.consistency())
+			throw new IllegalStateException("Model is inconsistent");
+
+	}
+
+	@Benchmark
+	public boolean consistency() {
+
+		store.setLevel(store.level + 1);
+
+		queens[0].domain.in(store.level, queens[0], n / 2, n / 2);
+		boolean result = store.consistency();
+
+		store.removeLevel(store.level);
+		store.setLevel(store.level - 1);
+
+		return result;
+
+	}
+
+	@Benchmark
+	public int removeLevel() {
+
+		store.setLevel(store.level + 1);
+
+		for (IntVar q : queens)
+			q.domain.in(store.level, q, 2, n);
+
+		store.removeLevel(store.level);
+		store.setLevel(store.level - 1);
+
+		return queens[0].getSize();
+
+	}
+
+}
@@ -40,7 +40,7 @@ import java.util.LinkedHashSet;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 
@@ -139,7 +139,7 @@ public class Alldiff extends Alldifferent {
 			v.putModelConstraint(this, getConsistencyPruningEvent(v));
 			queueVariable(level, v);
 		}
-		grounded = new TimeStamp<Integer>(store, 0);
+		grounded = new TimeStampInt(store, 0);
 		
 		store.addChanged(this);
 		store.countConstraint();
@@ -177,7 +177,7 @@ public class Alldiff extends Alldifferent {
 			}
 
 			if (queueIndex + 1 < store.queueNo) {
-				store.changed[queueIndex + 1].add(this);
+				store.addChanged(this, queueIndex + 1);
 				return;
 			}
 
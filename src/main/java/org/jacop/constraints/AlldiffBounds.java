@@ -0,0 +1,318 @@
+/**
+ *  AlldiffBounds.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * AlldiffBounds constraint assures that all FDVs has different values. It 
+ * achieves the same bounds consistency as Alldiff but in time O(n log n), 
+ * using the algorithm based on union-find of Hall intervals as described in 
+ * the paper by A. Lopez-Ortiz, C.-G. Quimper, J. Tromp and P. van Beek, 
+ * "A fast and simple algorithm for bounds consistency of the alldifferent 
+ * constraint", in Proceedings of the 18th International Joint Conference 
+ * on Artificial Intelligence (IJCAI '03), 2003. 
+ * 
+ * Before using bounds consistency it calls consistency method from 
+ * Alldifferent constraint which removes values of grounded variables.
+ * 
+ * @author Krzysztof Kuchcinski and Radoslaw Szymanek
+ * @version 4.0
+ */
+
+public class AlldiffBounds extends Alldiff {
+
+	/**
+	 * It specifies the arguments required to be saved by an XML format as well as 
+	 * the constructor being called to recreate an object from an XML format.
+	 */
+	public static String[] xmlAttributes = {"list"};
+
+	// bounds of variables, upper bound is exclusive 
+	int[] lower, upper;
+
+	// positions of variables sorted by lower and by upper bounds
+	int[] minSorted, maxSorted;
+
+	// ranks of bounds of variables within array bounds
+	int[] minRank, maxRank;
+
+	long[] keys;
+
+	// sorted distinct bounds of variables with sentinels
+	int[] bounds;
+
+	int nb;
+
+	// tree links between bounds, critical capacities and Hall interval links
+	int[] t, d, h;
+
+	/**
+	 * It constructs the alldiff constraint for the supplied variable.
+	 * @param variables variables which are constrained to take different values.
+	 */
+	public AlldiffBounds(IntVar[] variables) {
+
+		super(variables);
+
+		int n = variables.length;
+		lower = new int[n];
+		upper = new int[n];
+		minSorted = new int[n];
+		maxSorted = new int[n];
+		minRank = new int[n];
+		maxRank = new int[n];
+		keys = new long[n];
+
+		bounds = new int[2 * n + 2];
+		t = new int[2 * n + 2];
+		d = new int[2 * n + 2];
+		h = new int[2 * n + 2];
+	}
+
+	/**
+	 * It constructs the alldiff constraint for the supplied variable.
+	 * @param variables variables which are constrained to take different values.
+	 */
+	public AlldiffBounds(ArrayList<? extends IntVar> variables) {
+		this(variables.toArray(new IntVar[variables.size()]));
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		store.propagationHasOccurred = false;
+
+		super.consistency(store);
+
+		// changes of this constraint are not reported to it by the store, it is queued
+		// again to remove values of variables grounded by its bounds pruning
+		if (store.propagationHasOccurred)
+			store.addChanged(this, queueIndex);
+
+	}
+
+	/**
+	 * It sorts the bounds of variables and computes ranks of the bounds.
+	 */
+	void sortIntervals() {
+
+		int n = listAlldiff.length;
+
+		for (int i = 0; i < n; i++) {
+			lower[i] = listAlldiff[i].min();
+			upper[i] = listAlldiff[i].max() + 1;
+		}
+
+		sort(lower, minSorted);
+		sort(upper, maxSorted);
+
+		int min = lower[minSorted[0]];
+		int max = upper[maxSorted[0]];
+		int last = min - 2;
+		nb = 0;
+		bounds[0] = last;
+
+		int i = 0, j = 0;
+		while (true) {
+			if (i < n && min <= max) {
+				if (min != last)
+					bounds[++nb] = last = min;
+				minRank[minSorted[i]] = nb;
+				if (++i < n)
+					min = lower[minSorted[i]];
+			} else {
+				if (max != last)
+					bounds[++nb] = last = max;
+				maxRank[maxSorted[j]] = nb;
+				if (++j == n)
+					break;
+				max = upper[maxSorted[j]];
+			}
+		}
+		bounds[nb + 1] = bounds[nb] + 2;
+
+	}
+
+	void sort(int[] key, int[] order) {
+
+		int n = listAlldiff.length;
+		for (int i = 0; i < n; i++)
+			keys[i] = ((long) key[i] << 32) | i;
+		Arrays.sort(keys, 0, n);
+		for (int i = 0; i < n; i++)
+			order[i] = (int) keys[i];
+
+	}
+
+	@Override
+	void maxPass() {
+
+		if (listAlldiff.length == 0)
+			return;
+
+		sortIntervals();
+
+		for (int i = 1; i <= nb + 1; i++) {
+			t[i] = h[i] = i - 1;
+			d[i] = bounds[i] - bounds[i - 1];
+		}
+
+		for (int k = 0; k < listAlldiff.length; k++) {
+
+			int i = maxSorted[k];
+			int x = minRank[i];
+			int y = maxRank[i];
+
+			int z = pathMax(t, x + 1);
+			int j = t[z];
+			if (--d[z] == 0) {
+				t[z] = z + 1;
+				z = pathMax(t, t[z]);
+				t[z] = j;
+			}
+			pathSet(t, x + 1, z, z);
+
+			if (d[z] < bounds[z] - bounds[y])
+				throw Store.failException;
+
+			if (h[x] > x) {
+				int w = pathMax(h, h[x]);
+				listAlldiff[i].domain.inMin(store.level, listAlldiff[i], bounds[w]);
+				pathSet(h, x, w, w);
+			}
+
+			// [bounds[j], bounds[y]) is a Hall interval
+			if (d[z] == bounds[z] - bounds[y]) {
+				pathSet(h, h[y], j - 1, y);
+				h[y] = j - 1;
+			}
+		}
+
+	}
+
+	@Override
+	void minPass() {
+
+		if (listAlldiff.length == 0)
+			return;
+
+		sortIntervals();
+
+		for (int i = 0; i <= nb; i++) {
+			t[i] = h[i] = i + 1;
+			d[i] = bounds[i + 1] - bounds[i];
+		}
+
+		for (int k = listAlldiff.length - 1; k >= 0; k--) {
+
+			int i = minSorted[k];
+			int x = maxRank[i];
+			int y = minRank[i];
+
+			int z = pathMin(t, x - 1);
+			int j = t[z];
+			if (--d[z] == 0) {
+				t[z] = z - 1;
+				z = pathMin(t, t[z]);
+				t[z] = j;
+			}
+			pathSet(t, x - 1, z, z);
+
+			if (d[z] < bounds[y] - bounds[z])
+				throw Store.failException;
+
+			if (h[x] < x) {
+				int w = pathMin(h, h[x]);
+				listAlldiff[i].domain.inMax(store.level, listAlldiff[i], bounds[w] - 1);
+				pathSet(h, x, w, w);
+			}
+
+			// [bounds[y], bounds[j]) is a Hall interval
+			if (d[z] == bounds[y] - bounds[z]) {
+				pathSet(h, h[y], j + 1, y);
+				h[y] = j + 1;
+			}
+		}
+
+	}
+
+	static void pathSet(int[] t, int start, int end, int to) {
+
+		int k, l = start;
+		while ((k = l) != end) {
+			l = t[k];
+			t[k] = to;
+		}
+
+	}
+
+	static int pathMin(int[] t, int i) {
+
+		while (t[i] < i)
+			i = t[i];
+		return i;
+
+	}
+
+	static int pathMax(int[] t, int i) {
+
+		while (t[i] > i)
+			i = t[i];
+		return i;
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+		result.append(" : alldiffBounds([");
+
+		for (int i = 0; i < listAlldiff.length; i++) {
+			result.append(listAlldiff[i]);
+			if (i < listAlldiff.length - 1)
+				result.append(", ");
+		}
+
+		result.append("])");
+
+		return result.toString();
+
+	}
+
+}
@@ -42,7 +42,7 @@ import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -68,7 +68,7 @@ public class Alldifferent extends Constraint {
 
 	protected HashMap<IntVar, Integer> positionMapping;
 	
-	protected TimeStamp<Integer> grounded;
+	protected TimeStampInt grounded;
 	
 	/**
 	 * It specifies the arguments required to be saved by an XML format as well as 
@@ -217,7 +217,7 @@ public class Alldifferent extends Constraint {
 			v.putModelConstraint(this, getConsistencyPruningEvent(v));
 			queueVariable(level, v);
 		}
-		grounded = new TimeStamp<Integer>(store, 0);
+		grounded = new TimeStampInt(store, 0);
 		
 		store.addChanged(this);
 		store.countConstraint();
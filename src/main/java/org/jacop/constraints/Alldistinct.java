@@ -32,6 +32,7 @@
 package org.jacop.constraints;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -39,11 +40,12 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 
+import org.jacop.core.DomainDelta;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.ValueEnumeration;
 import org.jacop.core.Var;
 import org.jacop.util.SimpleArrayList;
@@ -108,7 +110,7 @@ public class Alldistinct extends Constraint {
 	// can be directly used.
 	// If a matched edge was removed then the remains of maximum matching
 	// are used to compute a new maximum matching.
-	IdentityHashMap<IntVar, TimeStamp<Integer>> matching;
+	IdentityHashMap<IntVar, TimeStampInt> matching;
 
 	boolean maximumMatchingNotRecomputed = true;
 
@@ -116,7 +118,7 @@ public class Alldistinct extends Constraint {
 	// Probably vn can be replaced by n.
 	int n;
 
-	TimeStamp<Integer> nStamp;
+	TimeStampInt nStamp;
 
 	boolean permutationConsistency = true;
 
@@ -131,21 +133,17 @@ public class Alldistinct extends Constraint {
 	// be reused.
 	IdentityHashMap<IntVar, Integer> scc;
 
-	IdentityHashMap<IntVar, TimeStamp<Integer>> sccStamp;
+	IdentityHashMap<IntVar, TimeStampInt> sccStamp;
 
 	// All grounded variables are not taken into account, they have
 	// their consistent value and can be simply omitted in any kind of
 	// analysis.
-	TimeStamp<Integer> stampNotGroundedVariables;
+	TimeStampInt stampNotGroundedVariables;
 
 	// Stores how many variables were reached by free values. for
 	// efficiency purposes. If equal number of variables where reached
 	// then previously then we can stop doing reachability analysis.
-	TimeStamp<Integer> stampReachability;
-
-	// stamps specify the position of the last fdv which posses given integer
-	// it decrease with increase of the store level.
-	HashMap<Integer, TimeStamp<Integer>> stamps;
+	TimeStampInt stampReachability;
 
 	// Variables for revisited Tarjan scc algorithm Reuse of scc
 	// numbers previously computed, is only possible when matching is
@@ -162,7 +160,7 @@ public class Alldistinct extends Constraint {
 	// It also can say when to stop looking for free values since
 	// it is easy to compute number of free values
 	// "stampValues.value() - x.length"
-	TimeStamp<Integer> stampValues;
+	TimeStampInt stampValues;
 
 	// Stores index for values in array potentialFreeValues it speeds
 	// up significantly the swap operation when a value is not free
@@ -170,11 +168,26 @@ public class Alldistinct extends Constraint {
 	// array.
 	HashMap<Integer, Integer> valueIndex;
 
-	// valueMapVariable specifies which Variable posses given integer
-	HashMap<Integer, SimpleArrayList<IntVar>> valueMapVariable;
-
 	LinkedHashSet<IntVar> variableQueue = new LinkedHashSet<IntVar>();
 
+	// deltas specify for each variable the values removed from its domain
+	// since the variable has been processed last time. 
+	IdentityHashMap<IntVar, DomainDelta> deltas;
+
+	// values of the value graph in increasing order, the arrays below keep 
+	// the information about the value at the same position, so removed values
+	// are processed without boxing.
+	int[] values;
+
+	Integer[] valueObjects;
+
+	// valueVariables specifies which Variable posses given integer
+	SimpleArrayList<IntVar>[] valueVariables;
+
+	// valueStamps specify the position of the last fdv which posses given integer
+	// it decrease with increase of the store level.
+	TimeStampInt[] valueStamps;
+
 	int vn;
 
 	/**
@@ -192,6 +205,7 @@ public class Alldistinct extends Constraint {
 	 * It constructs an alldistinct constraint. 
 	 * @param list an array of variables.
 	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public Alldistinct(IntVar[] list) {
 
 		queueIndex = 2;
@@ -203,10 +217,8 @@ public class Alldistinct extends Constraint {
 		for (int i = 0; i < list.length; i++)
 			this.list[i] = list[i];
 
-		valueMapVariable = new HashMap<Integer, SimpleArrayList<IntVar>>();
-		stamps = new HashMap<Integer, TimeStamp<Integer>>();
-		matching = new IdentityHashMap<IntVar, TimeStamp<Integer>>();
-		sccStamp = new IdentityHashMap<IntVar, TimeStamp<Integer>>();
+		matching = new IdentityHashMap<IntVar, TimeStampInt>();
+		sccStamp = new IdentityHashMap<IntVar, TimeStampInt>();
 
 		IntDomain sum = new IntervalDomain(5);
 
@@ -221,6 +233,11 @@ public class Alldistinct extends Constraint {
 
 		potentialFreeValues = new Integer[sum.getSize()];
 
+		values = new int[sum.getSize()];
+		valueObjects = new Integer[sum.getSize()];
+		valueVariables = new SimpleArrayList[sum.getSize()];
+		valueStamps = new TimeStampInt[sum.getSize()];
+
 		valueIndex = new HashMap<Integer, Integer>(sum.getSize(), 0.5f);
 		int m = 0;
 
@@ -231,13 +248,16 @@ public class Alldistinct extends Constraint {
 			potentialFreeValues[m] = valueInteger;
 
 			valueIndex.put(valueInteger, m);
-			m++;
 
 			currentSimpleArrayList = new SimpleArrayList<IntVar>();
 			for (int i = 0; i < this.list.length; i++)
 				if (this.list[i].domain.contains(value))
 					currentSimpleArrayList.add(this.list[i]);
-			valueMapVariable.put(valueInteger, currentSimpleArrayList);
+
+			values[m] = value;
+			valueObjects[m] = valueInteger;
+			valueVariables[m] = currentSimpleArrayList;
+			m++;
 
 		}
 
@@ -265,6 +285,33 @@ public class Alldistinct extends Constraint {
 		return variables;
 	}
 
+	/**
+	 * It returns the position of the smallest value of the value graph 
+	 * which is not smaller than a given value.
+	 */
+	int valuePosition(int value) {
+
+		int position = Arrays.binarySearch(values, value);
+
+		return position >= 0 ? position : -position - 1;
+
+	}
+
+	/**
+	 * It returns the variables which have a given value in their domain.
+	 */
+	SimpleArrayList<IntVar> variablesOf(int value) {
+		return valueVariables[Arrays.binarySearch(values, value)];
+	}
+
+	/**
+	 * It returns the stamp specifying the position of the last variable 
+	 * which has a given value in its domain.
+	 */
+	TimeStampInt stampOf(int value) {
+		return valueStamps[Arrays.binarySearch(values, value)];
+	}
+
 	@Override
 	public void removeLevel(int level) {
 		variableQueue = new LinkedHashSet<IntVar>();
@@ -294,7 +341,7 @@ public class Alldistinct extends Constraint {
 			}
 
 			if (queueIndex + 2 < store.queueNo) {
-				store.changed[queueIndex + 2].add(this);
+				store.addChanged(this, queueIndex + 2);
 				return;
 			}
 
@@ -319,7 +366,7 @@ public class Alldistinct extends Constraint {
 		IntDomain Qdom = null;
 		Integer zero = 0;
 		SimpleArrayList<IntVar> currentSimpleArrayList = null;
-		TimeStamp<Integer> stamp = null;
+		TimeStampInt stamp = null;
 
 		SimpleHashSet<IntVar> singletons = new SimpleHashSet<IntVar>();
 
@@ -346,12 +393,12 @@ public class Alldistinct extends Constraint {
 							break;
 						}
 
-					currentSimpleArrayList = valueMapVariable.get(qValue);
+					currentSimpleArrayList = variablesOf(qValue);
 
 					// Timestamp variable which points to the position of
 					// the last variable which still has qValue in its
 					// domain
-					stamp = stamps.get(qValue);
+					stamp = stampOf(qValue);
 
 					int lastPosition = stamp.value();
 
@@ -397,113 +444,113 @@ public class Alldistinct extends Constraint {
 
 		if (debugAll) {
 			System.out.println("Before");
-			System.out.println("Mapping Value->Variable" + valueMapVariable);
+			System.out.println("Mapping Value->Variable" + Arrays.toString(valueVariables));
 			System.out.println("Stamps for size of Mapping Value->Variable"
-					+ stamps);
+					+ Arrays.toString(valueStamps));
 			System.out.println("Maximum Matching " + matching);
 		}
 
 		for (; iter.hasNext();) {
 
 			IntVar V = iter.next();
-			IntDomain vPrunedDomain = V.recentDomainPruning();
+			DomainDelta vDelta = deltas.get(V);
+			vDelta.update();
 
 			if (debugAll) {
 				System.out.println("Variable changed " + V);
-				System.out.println("Pruned Domain " + vPrunedDomain);
+				System.out.println("Pruned Domain " + vDelta);
 			}
 
-			if (!vPrunedDomain.isEmpty()) {
+			if (!vDelta.isEmpty()) {
 
 				// Check if any removed value was a edge in maximum matching
-				Integer matchedValue = matching.get(V).value();
+				int matchedValue = matching.get(V).value();
 
-				// vPrunedDomain contains edge in maximum matching
+				// vDelta contains edge in maximum matching
 				// this variable needs recomputation
-				if (vPrunedDomain.contains(matchedValue))
+				if (vDelta.contains(matchedValue))
 					freeVariables.add(V);
 
 				if (debugAll) {
 					System.out.println(" V " + V + " matchedValue "
-							+ matchedValue + " prunedDom " + vPrunedDomain
+							+ matchedValue + " prunedDom " + vDelta
 							+ "contains? "
-							+ vPrunedDomain.contains(matchedValue));
+							+ vDelta.contains(matchedValue));
 				}
 
-				for (ValueEnumeration enumer = vPrunedDomain.valueEnumeration(); enumer
-						.hasMoreElements();) {
+				for (int k = 0; k < vDelta.size; k++)
+					for (int i = valuePosition(vDelta.min[k]); i < values.length && values[i] <= vDelta.max[k]; i++) {
 
-					int value = enumer.nextElement();
-					Integer integerValue = value;
+						Integer integerValue = valueObjects[i];
 
-					currentSimpleArrayList = valueMapVariable.get(integerValue);
+						currentSimpleArrayList = valueVariables[i];
 
-					stamp = stamps.get(integerValue);
+						stamp = valueStamps[i];
 
-					int lastPosition = stamp.value();
+						int lastPosition = stamp.value();
 
-					int positionV = currentSimpleArrayList.indexOf(V,
-							lastPosition);
+						int positionV = currentSimpleArrayList.indexOf(V,
+								lastPosition);
 
-					if (positionV == -1)
-						continue;
+						if (positionV == -1)
+							continue;
 
-					if (lastPosition > positionV) {
+						if (lastPosition > positionV) {
 
-						stamp.update(lastPosition - 1);
+							stamp.update(lastPosition - 1);
 
-						currentSimpleArrayList.setElementAt(
-								currentSimpleArrayList.get(lastPosition),
-								positionV);
-						currentSimpleArrayList.setElementAt(V, lastPosition);
+							currentSimpleArrayList.setElementAt(
+									currentSimpleArrayList.get(lastPosition),
+									positionV);
+							currentSimpleArrayList.setElementAt(V, lastPosition);
 
-						continue;
-					}
+							continue;
+						}
 
-					if (lastPosition == positionV) {
-						stamp.update(lastPosition - 1);
+						if (lastPosition == positionV) {
+							stamp.update(lastPosition - 1);
 
-						if (lastPosition == 0) {
+							if (lastPosition == 0) {
 
-							// index of last existing value
-							int stampValue = stampValues.value() - 1;
-							// Move value to the position pointed by stampValue
+								// index of last existing value
+								int stampValue = stampValues.value() - 1;
+								// Move value to the position pointed by stampValue
 
-							// indexDeletedValue is a current position of
-							// deleted Value
+								// indexDeletedValue is a current position of
+								// deleted Value
 
-							int indexDeletedValue = valueIndex
-									.get(integerValue);
+								int indexDeletedValue = valueIndex
+										.get(integerValue);
 
-							if (indexDeletedValue < stampValue) {
-								// Deleted value is NOT last in array of values
-								// if last then no moving necessary
+								if (indexDeletedValue < stampValue) {
+									// Deleted value is NOT last in array of values
+									// if last then no moving necessary
 
-								// Update indexes in valueIndex hashtable
-								valueIndex.put(
-										potentialFreeValues[indexDeletedValue],
-										stampValue);
-								valueIndex.put(potentialFreeValues[stampValue],
-										indexDeletedValue);
+									// Update indexes in valueIndex hashtable
+									valueIndex.put(
+											potentialFreeValues[indexDeletedValue],
+											stampValue);
+									valueIndex.put(potentialFreeValues[stampValue],
+											indexDeletedValue);
 
-								// integerValue points to an integer from
-								// potentialFreeValues
-								// previous integerValue equals
-								// potentialFreeValues[indexDeletedValue]
-								integerValue = potentialFreeValues[indexDeletedValue];
+									// integerValue points to an integer from
+									// potentialFreeValues
+									// previous integerValue equals
+									// potentialFreeValues[indexDeletedValue]
+									integerValue = potentialFreeValues[indexDeletedValue];
 
-								// Exchange values in potentialFreeValues array
-								// use integerValue as swap
-								potentialFreeValues[indexDeletedValue] = potentialFreeValues[stampValue];
-								potentialFreeValues[stampValue] = integerValue;
-							}
-							// A value is not possible to be taken, decrease
-							// number of values.
-							stampValues.update(stampValues.value() - 1);
+									// Exchange values in potentialFreeValues array
+									// use integerValue as swap
+									potentialFreeValues[indexDeletedValue] = potentialFreeValues[stampValue];
+									potentialFreeValues[stampValue] = integerValue;
+								}
+								// A value is not possible to be taken, decrease
+								// number of values.
+								stampValues.update(stampValues.value() - 1);
 
+							}
 						}
 					}
-				}
 
 			}
 
@@ -519,9 +566,9 @@ public class Alldistinct extends Constraint {
 
 		if (debugAll) {
 			System.out.println("After");
-			System.out.println("Mapping Value->Variable" + valueMapVariable);
+			System.out.println("Mapping Value->Variable" + Arrays.toString(valueVariables));
 			System.out.println("Stamps for size of Mapping Value->Variable"
-					+ stamps);
+					+ Arrays.toString(valueStamps));
 		}
 
 		if (debugAll) {
@@ -582,7 +629,7 @@ public class Alldistinct extends Constraint {
 			freeVariables.clear();
 		} else {
 
-			// Put all matched variables in valueMapVariable on the first
+			// Put all matched variables in valueVariables on the first
 			// position
 			// It is required during backtracking, old matching is reused
 			// no need to recompute hopcroft algorithm but there is a need
@@ -599,7 +646,7 @@ public class Alldistinct extends Constraint {
 				variable = list[i];
 				
 				matchedValue = matching.get(variable).value();
-				currentSimpleArrayList = valueMapVariable.get(matchedValue);
+				currentSimpleArrayList = variablesOf(matchedValue);
 
 				positionMatched = currentSimpleArrayList.indexOf(variable);
 				if (positionMatched != 0) {
@@ -663,7 +710,7 @@ public class Alldistinct extends Constraint {
 					System.out.println("Tarjan start, changed variabled "
 							+ list[i]);
 					System.out.println("Tarjan start, value mapping "
-							+ valueMapVariable);
+							+ Arrays.toString(valueVariables));
 				}
 
 				if (scc.get(list[i]) == null)
@@ -764,9 +811,9 @@ public class Alldistinct extends Constraint {
 
 				matched = matching.get(variable).value();
 
-				currentSimpleArrayList = valueMapVariable.get(matched);
+				currentSimpleArrayList = variablesOf(matched);
 
-				stamp = stamps.get(matched);
+				stamp = stampOf(matched);
 
 				lastPosition = stamp.value();
 
@@ -852,23 +899,23 @@ public class Alldistinct extends Constraint {
 
 				currentlyUsedPotentialFreeValue++;
 
-				stamp = stamps.get(value);
+				stamp = stampOf(value);
 
 				stampValue = stamp.value();
 
 				if (stampValue == 0) {
 
-					if (valueMapVariable.get(value).get(0).dom().getSize() > 1) {
+					if (variablesOf(value).get(0).dom().getSize() > 1) {
 						System.out
 								.println("Transformation Alldistinct-Permutation and "
 										+ "missing propagation ");
 
-						valueMapVariable.get(value).get(0).domain.in(
+						variablesOf(value).get(0).domain.in(
 								store.level,
-								valueMapVariable.get(value).get(0), value,
+								variablesOf(value).get(0), value,
 								value);
 
-						variableQueue.add(valueMapVariable.get(value).get(0));
+						variableQueue.add(variablesOf(value).get(0));
 
 						narrowingEvent = true;
 					}
@@ -936,8 +983,7 @@ public class Alldistinct extends Constraint {
 
 				if (backtrackOccured) {
 
-					SimpleArrayList<IntVar> currentSimpleArrayList = valueMapVariable
-							.get(matched);
+					SimpleArrayList<IntVar> currentSimpleArrayList = variablesOf(matched);
 
 					// Correcting matching in ValueMapVariable for
 					// notGroundedYetVariable.
@@ -968,7 +1014,7 @@ public class Alldistinct extends Constraint {
 		int currentlyUsedPotentialFreeValue = 0;
 
 		Integer value;
-		TimeStamp<Integer> stamp;
+		TimeStampInt stamp;
 		int stampValue;
 
 		while (currentlyUsedPotentialFreeValue < sizePotentialFreeValues) {
@@ -977,7 +1023,7 @@ public class Alldistinct extends Constraint {
 
 			currentlyUsedPotentialFreeValue++;
 
-			stamp = stamps.get(value);
+			stamp = stampOf(value);
 
 			stampValue = stamp.value();
 
@@ -995,7 +1041,7 @@ public class Alldistinct extends Constraint {
 			}
 
 			HashSet<Integer> visitedValues = new HashSet<Integer>(
-					valueMapVariable.size());
+					values.length);
 			HashSet<IntVar> visitedVariables = new HashSet<IntVar>(matching
 					.size());
 
@@ -1057,7 +1103,7 @@ public class Alldistinct extends Constraint {
 
 					if (debugAll)
 						System.out.println("Values for last path element "
-								+ valueMapVariable.get(top));
+								+ variablesOf(top));
 
 					// MAKE SURE you have increase level before worrying about
 					// Null Pointer exception
@@ -1084,7 +1130,7 @@ public class Alldistinct extends Constraint {
 						}
 
 					// Value has still some edges pointing at variables
-					first = valueMapVariable.get(top).get(notYetUsedVariable);
+					first = variablesOf(top).get(notYetUsedVariable);
 
 					// Take any edge and mark it as used.
 					notYetUsedVariablePointer.put(top, notYetUsedVariable - 1);
@@ -1174,10 +1220,9 @@ public class Alldistinct extends Constraint {
 
 					matching.get(matchedVariable).update(matchedValue);
 
-					// Update valueMapVariable with new matched value
+					// Update valueVariables with new matched value
 
-					SimpleArrayList<IntVar> currentSimpleArrayList = valueMapVariable
-							.get(matchedValue);
+					SimpleArrayList<IntVar> currentSimpleArrayList = variablesOf(matchedValue);
 					int positionMatched = currentSimpleArrayList
 							.indexOf(matchedVariable);
 					if (positionMatched != 0) {
@@ -1210,7 +1255,7 @@ public class Alldistinct extends Constraint {
 
 					currentlyUsedPotentialFreeValue++;
 
-					stamp = stamps.get(value);
+					stamp = stampOf(value);
 
 					stampValue = stamp.value();
 
@@ -1229,31 +1274,32 @@ public class Alldistinct extends Constraint {
 
 		store.registerRemoveLevelListener(this);
 
-		stampValues = new TimeStamp<Integer>(store, valueMapVariable.size());
+		stampValues = new TimeStampInt(store, values.length);
 
-		stampReachability = new TimeStamp<Integer>(store, list.length);
+		stampReachability = new TimeStampInt(store, list.length);
 
-		nStamp = new TimeStamp<Integer>(store, 0);
+		nStamp = new TimeStampInt(store, 0);
 
-		stampNotGroundedVariables = new TimeStamp<Integer>(store, list.length - 1);
+		stampNotGroundedVariables = new TimeStampInt(store, list.length - 1);
 
 		Integer zero = 0;
 
+		// the deltas are created only when the constraint is imposed, as each 
+		// delta makes the pruning of its variable record the removed values.
+		deltas = new IdentityHashMap<IntVar, DomainDelta>();
+
 		for (IntVar var : list) {
+			deltas.put(var, var.domainDelta());
 			var.putModelConstraint(this, getConsistencyPruningEvent(var));
 			queueVariable(store.level, var);
-			matching.put(var, new TimeStamp<Integer>(store, zero));
-			sccStamp.put(var, new TimeStamp<Integer>(store, zero));
+			matching.put(var, new TimeStampInt(store, zero));
+			sccStamp.put(var, new TimeStampInt(store, zero));
 		}
 		store.addChanged(this);
 		store.countConstraint();
 
-		Integer value = null;
-
-		for (Iterator<Integer> e = valueMapVariable.keySet().iterator(); e
-				.hasNext();) {
-			value = e.next();
-			stamps.put(value, new TimeStamp<Integer>(store, valueMapVariable.get(value).size() - 1));
+		for (int i = 0; i < values.length; i++) {
+			valueStamps[i] = new TimeStampInt(store, valueVariables[i].size() - 1);
 		}
 
 		// the initial maximum matching needs to be computed
@@ -1290,7 +1336,7 @@ public class Alldistinct extends Constraint {
 		nStamp.update(n + 1);
 
 		if (debugAll) {
-			System.out.println("Mapping Value->Variable" + valueMapVariable);
+			System.out.println("Mapping Value->Variable" + Arrays.toString(valueVariables));
 			System.out.println("Maximum Matching " + matching);
 		}
 
@@ -1306,10 +1352,9 @@ public class Alldistinct extends Constraint {
 			System.out.println("Start mark reachable variables " + value);
 		}
 
-		SimpleArrayList<IntVar> currentSimpleArrayList = valueMapVariable
-				.get(value);
+		SimpleArrayList<IntVar> currentSimpleArrayList = variablesOf(value);
 
-		TimeStamp<Integer> stamp = stamps.get(value);
+		TimeStampInt stamp = stampOf(value);
 
 		int lastPosition = stamp.value();
 
@@ -1377,14 +1422,13 @@ public class Alldistinct extends Constraint {
 		if (debugAll)
 			System.out.println("Matched value " + matchedValue + " for " + x);
 
-		SimpleArrayList<IntVar> currentSimpleArrayList = valueMapVariable
-				.get(matchedValue);
+		SimpleArrayList<IntVar> currentSimpleArrayList = variablesOf(matchedValue);
 
 		if (debugAll)
 			System.out.println("Mapped variables to Matched value "
 					+ currentSimpleArrayList);
 
-		TimeStamp<Integer> stamp = stamps.get(matchedValue);
+		TimeStampInt stamp = stampOf(matchedValue);
 
 		int lastPosition = stamp.value();
 
@@ -1523,14 +1567,13 @@ public class Alldistinct extends Constraint {
 		if (debugAll)
 			System.out.println("Matched value " + matchedValue + " for " + x);
 
-		SimpleArrayList<IntVar> currentSimpleArrayList = valueMapVariable
-				.get(matchedValue);
+		SimpleArrayList<IntVar> currentSimpleArrayList = variablesOf(matchedValue);
 
 		if (debugAll)
 			System.out.println("Mapped variables to Matched value "
 					+ currentSimpleArrayList);
 
-		TimeStamp<Integer> stamp = stamps.get(matchedValue);
+		TimeStampInt stamp = stampOf(matchedValue);
 
 		int lastPosition = stamp.value();
 
@@ -1650,10 +1693,8 @@ public class Alldistinct extends Constraint {
 						if (pruningFirstValue > minCurrentPruning) {
 
 							// Lack of equal sign means greedy in propagation
-							if (stamps.get(firstValue).value() < stamps.get(
-									secondValue).value()
-									|| (stamps.get(firstValue).value() == stamps
-											.get(secondValue).value() && !greedy)) {
+							if (stampOf(firstValue).value() < stampOf(secondValue).value()
+									|| (stampOf(firstValue).value() == stampOf(secondValue).value() && !greedy)) {
 								// Value with lower number of variables has a
 								// higher change to have this value
 								guideVariable = list[i];
@@ -1670,10 +1711,8 @@ public class Alldistinct extends Constraint {
 								&& pruningSecondValue > maxCurrentPruning) {
 
 							// Lack of equal sign means greedy in propagation
-							if (stamps.get(firstValue).value() < stamps.get(
-									secondValue).value()
-									|| (stamps.get(firstValue).value() == stamps
-											.get(secondValue).value() && !greedy)) {
+							if (stampOf(firstValue).value() < stampOf(secondValue).value()
+									|| (stampOf(firstValue).value() == stampOf(secondValue).value() && !greedy)) {
 								// Value with lower number of variables has a
 								// higher change to have this value
 
@@ -1694,10 +1733,8 @@ public class Alldistinct extends Constraint {
 							
 							// Lack of equal sign means no greedy in propagation
 							// Equal sign means greedy in propagation
-							if (stamps.get(firstValue).value() <= stamps.get(
-									secondValue).value()
-									|| (stamps.get(firstValue).value() == stamps
-											.get(secondValue).value() && greedy)) {
+							if (stampOf(firstValue).value() <= stampOf(secondValue).value()
+									|| (stampOf(firstValue).value() == stampOf(secondValue).value() && greedy)) {
 								// Value with lower number of variables has a
 								// higher change to have this value
 								guideVariable = list[i];
@@ -1714,10 +1751,8 @@ public class Alldistinct extends Constraint {
 								&& pruningFirstValue > maxCurrentPruning) {
 							
 							// Equal sign means greedy in propagation
-							if (stamps.get(firstValue).value() <= stamps.get(
-									secondValue).value()
-									|| (stamps.get(firstValue).value() == stamps
-											.get(secondValue).value() && greedy)) {
+							if (stampOf(firstValue).value() <= stampOf(secondValue).value()
+									|| (stampOf(firstValue).value() == stampOf(secondValue).value() && greedy)) {
 								// Value with lower number of variables has a
 								// higher change to have this value
 							    guideVariable = list[i];
@@ -1749,7 +1784,7 @@ public class Alldistinct extends Constraint {
 			int currentlyUsedPotentialFreeValue = 0;
 
 			Integer value;
-			TimeStamp<Integer> stamp;
+			TimeStampInt stamp;
 			int stampValue;
 
 			SimpleArrayList<IntVar> currentSimpleArrayList = null;
@@ -1760,14 +1795,14 @@ public class Alldistinct extends Constraint {
 
 				currentlyUsedPotentialFreeValue++;
 
-				stamp = stamps.get(value);
+				stamp = stampOf(value);
 
 				stampValue = stamp.value();
 
 				// Value with two variables
 				if (stampValue == 1) {
 
-					currentSimpleArrayList = valueMapVariable.get(value);
+					currentSimpleArrayList = variablesOf(value);
 
 					int pruningFirstVariable = estimatePruning(
 							currentSimpleArrayList.get(0), value);
@@ -1899,9 +1934,9 @@ public class Alldistinct extends Constraint {
 		for (int i = 0; i < exploredV.size(); i++) {
 
 			value = exploredV.get(i);
-			currentSimpleArrayList = valueMapVariable.get(value);
+			currentSimpleArrayList = variablesOf(value);
 
-			TimeStamp<Integer> stamp = stamps.get(value);
+			TimeStampInt stamp = stampOf(value);
 
 			int lastPosition = stamp.value();
 
@@ -1935,7 +1970,7 @@ public class Alldistinct extends Constraint {
 		IntDomain xDom = xVar.dom();
 		pruning = xDom.getSize() - 1;
 
-		TimeStamp<Integer> stamp = null;
+		TimeStampInt stamp = null;
 		SimpleArrayList<IntVar> currentSimpleArrayList = null;
 		ValueEnumeration enumer = xDom.valueEnumeration();
 		
@@ -1946,7 +1981,7 @@ public class Alldistinct extends Constraint {
 				if (!exploredV.contains(i)) {
 					Integer iInteger = i;
 
-					stamp = stamps.get(iInteger);
+					stamp = stampOf(iInteger);
 
 					int lastPosition = stamp.value();
 
@@ -1954,7 +1989,7 @@ public class Alldistinct extends Constraint {
 					// is atmost one variable for value
 					if (lastPosition < exploredX.size() + 1) {
 
-						currentSimpleArrayList = valueMapVariable.get(iInteger);
+						currentSimpleArrayList = variablesOf(iInteger);
 
 						IntVar singleVar = null;
 						boolean single = true;
@@ -2000,8 +2035,8 @@ public class Alldistinct extends Constraint {
 			}
 
 		enumer = null;
-		stamp = stamps.get(v);
-		currentSimpleArrayList = valueMapVariable.get(v);
+		stamp = stampOf(v);
+		currentSimpleArrayList = variablesOf(v);
 
 		int lastPosition = stamp.value();
 
@@ -0,0 +1,576 @@
+/**
+ *  AlldistinctIncremental.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * AlldistinctIncremental assures that all FDVs have different values. It 
+ * achieves the same pruning as Alldistinct (Regin algorithm) but the value 
+ * graph is kept in int arrays indexed by positions of variables and by values 
+ * shifted by the smallest value of all domains.
+ * 
+ * The maximum matching is not backtracked, a matching found deeper in the 
+ * search stays valid after backtracking since domains only grow. Only variables 
+ * which matched value has been removed are matched again using augmenting paths. 
+ * 
+ * Strongly connected components of the value graph are remembered for each 
+ * variable. Pruning only splits components, therefore Tarjan algorithm, 
+ * implemented without recursion, is executed only for components containing 
+ * changed variables. 
+ * 
+ * The memory use is linear in the number of variables and the size of the 
+ * range of values, domain like 0..1000000 makes the constraint inefficient.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class AlldistinctIncremental extends Constraint {
+
+	static int idNumber = 1;
+
+	/**
+	 * It specifies all variables which have to have different values.
+	 */
+	public IntVar[] list;
+
+	/**
+	 * It specifies the arguments required to be saved by an XML format as well as 
+	 * the constructor being called to recreate an object from an XML format.
+	 */
+	public static String[] xmlAttributes = {"list"};
+
+	final int n;
+
+	// value v is represented by v - offset
+	final int offset;
+
+	final int values;
+
+	// maximum matching between positions of variables and values, -1 if not matched
+	final int[] matchOfVariable, matchOfValue;
+
+	// component of each variable, given by a node of the value graph
+	final int[] component;
+
+	// changes of components restored upon backtracking
+	int[] trailVariable, trailComponent, trailLevel;
+
+	int trailSize;
+
+	final HashMap<Var, Integer> positions;
+
+	// variables changed since the last consistency call
+	final boolean[] changed;
+
+	final int[] changedList;
+
+	int changedCount;
+
+	// changes caused by pruning of this constraint do not change components
+	boolean pruning;
+
+	// variables of the components which are recomputed
+	final int[] region;
+
+	int regionSize;
+
+	// stamps of components which are recomputed
+	final int[] touched;
+
+	int touchedStamp;
+
+	// augmenting path search, value parents and queue of variables
+	final int[] valueStamp, parent, queue, freeVariables;
+
+	int stamp;
+
+	// nodes of the value graph are variables 0..n-1, values n..n+values-1 and sink
+	final int sink;
+
+	// Tarjan algorithm, component of a node is given by its root node
+	final int[] index, low, nodeComponent, cursor, callStack, sccStack, nodeStamp;
+
+	final boolean[] onStack;
+
+	int tarjanStamp;
+
+	final int[] removed;
+
+	/**
+	 * It constructs an alldistinct constraint. 
+	 * @param list an array of variables.
+	 */
+	public AlldistinctIncremental(IntVar[] list) {
+
+		assert (list != null) : "List of variables is null";
+
+		queueIndex = 2;
+		numberId = idNumber++;
+		numberArgs = (short) list.length;
+
+		n = list.length;
+		this.list = new IntVar[n];
+		positions = new HashMap<Var, Integer>(); 
+
+		int min = IntDomain.MaxInt, max = IntDomain.MinInt;
+		for (int i = 0; i < n; i++) {
+
+			assert (list[i] != null) : i + "-th variable in the list is null";
+
+			this.list[i] = list[i];
+			Integer previous = positions.put(list[i], i);
+
+			assert (previous == null) : "Variable " + list[i] + " occurs more than once in the list";
+
+			min = Math.min(min, list[i].min());
+			max = Math.max(max, list[i].max());
+		}
+
+		if (n > 0 && (long) max - min + 1 > Integer.MAX_VALUE / 4)
+			throw new IllegalArgumentException("\nRange of values is too large for AlldistinctIncremental");
+
+		offset = n > 0 ? min : 0;
+		values = n > 0 ? max - min + 1 : 0;
+
+		matchOfVariable = new int[n];
+		matchOfValue = new int[values];
+		Arrays.fill(matchOfVariable, -1);
+		Arrays.fill(matchOfValue, -1);
+
+		component = new int[n];
+		trailVariable = new int[n];
+		trailComponent = new int[n];
+		trailLevel = new int[n];
+
+		changed = new boolean[n];
+		changedList = new int[n];
+		region = new int[n];
+
+		valueStamp = new int[values];
+		parent = new int[values];
+		queue = new int[n];
+		freeVariables = new int[n];
+
+		int nodes = n + values + 1;
+		sink = nodes - 1;
+		touched = new int[nodes];
+		index = new int[nodes];
+		low = new int[nodes];
+		nodeComponent = new int[nodes];
+		cursor = new int[nodes];
+		callStack = new int[nodes];
+		sccStack = new int[nodes];
+		nodeStamp = new int[nodes];
+		onStack = new boolean[nodes];
+
+		removed = new int[values];
+
+	}
+
+	/**
+	 * It constructs an alldistinct constraint.
+	 * @param list arraylist of variables.
+	 */
+	public AlldistinctIncremental(ArrayList<? extends IntVar> list) {
+
+		this(list.toArray(new IntVar[list.size()]));
+
+	}
+
+	@Override
+	public ArrayList<Var> arguments() {
+
+		ArrayList<Var> variables = new ArrayList<Var>(n);
+
+		for (IntVar var : list)
+			variables.add(var);
+
+		return variables;
+	}
+
+	@Override
+	public void removeLevel(int level) {
+
+		while (trailSize > 0 && trailLevel[trailSize - 1] >= level) {
+			trailSize--;
+			component[trailVariable[trailSize]] = trailComponent[trailSize];
+		}
+
+	}
+
+	@Override
+	public void queueVariable(int level, Var var) {
+
+		if (pruning)
+			return;
+
+		Integer position = positions.get(var);
+		if (position != null && !changed[position]) {
+			changed[position] = true;
+			changedList[changedCount++] = position;
+		}
+
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		if (changedCount == 0)
+			return;
+
+		touchedStamp++;
+		for (int k = 0; k < changedCount; k++) {
+			int i = changedList[k];
+			changed[i] = false;
+			touched[component[i]] = touchedStamp;
+		}
+		changedCount = 0;
+
+		regionSize = 0;
+		for (int i = 0; i < n; i++)
+			if (touched[component[i]] == touchedStamp)
+				region[regionSize++] = i;
+
+		repairMatching();
+
+		tarjan();
+
+		for (int k = 0; k < regionSize; k++) {
+			int i = region[k];
+			if (component[i] != nodeComponent[i])
+				setComponent(store.level, i, nodeComponent[i]);
+		}
+
+		// edges between different components do not belong to any maximum matching
+		pruning = true;
+		try {
+			for (int k = 0; k < regionSize; k++) {
+
+				int i = region[k];
+				IntDomain dom = list[i].domain;
+				int removedCount = 0;
+
+				for (int value = dom.min(); ; value = dom.nextValue(value)) {
+					int v = value - offset;
+					if (v != matchOfVariable[i] && nodeComponent[n + v] != nodeComponent[i])
+						removed[removedCount++] = value;
+					if (value == dom.max())
+						break;
+				}
+
+				for (int r = 0; r < removedCount; r++)
+					list[i].domain.inComplement(store.level, list[i], removed[r]);
+			}
+		}
+		finally {
+			pruning = false;
+		}
+
+	}
+
+	void setComponent(int level, int i, int newComponent) {
+
+		if (trailSize == trailLevel.length) {
+			trailVariable = Arrays.copyOf(trailVariable, 2 * trailSize);
+			trailComponent = Arrays.copyOf(trailComponent, 2 * trailSize);
+			trailLevel = Arrays.copyOf(trailLevel, 2 * trailSize);
+		}
+
+		trailVariable[trailSize] = i;
+		trailComponent[trailSize] = component[i];
+		trailLevel[trailSize] = level;
+		trailSize++;
+
+		component[i] = newComponent;
+
+	}
+
+	/**
+	 * It matches again the variables of the region which matched values have been removed.
+	 */
+	void repairMatching() {
+
+		int free = 0;
+		for (int k = 0; k < regionSize; k++) {
+			int i = region[k];
+			int v = matchOfVariable[i];
+			if (v == -1 || !list[i].domain.contains(v + offset)) {
+				if (v != -1) {
+					matchOfValue[v] = -1;
+					matchOfVariable[i] = -1;
+				}
+				freeVariables[free++] = i;
+			}
+		}
+
+		for (int k = 0; k < free; k++)
+			if (!augment(freeVariables[k]))
+				throw Store.failException;
+
+	}
+
+	/**
+	 * It searches in a breadth-first manner for an alternating path from variable 
+	 * x to a free value and flips the matching along this path.
+	 * @return true if x has been matched, false if no augmenting path exists.
+	 */
+	boolean augment(int x) {
+
+		stamp++;
+		int head = 0, tail = 0;
+		queue[tail++] = x;
+
+		while (head < tail) {
+
+			int y = queue[head++];
+			IntDomain dom = list[y].domain;
+
+			for (int value = dom.min(); ; value = dom.nextValue(value)) {
+
+				int v = value - offset;
+				if (valueStamp[v] != stamp) {
+
+					valueStamp[v] = stamp;
+					parent[v] = y;
+
+					if (matchOfValue[v] == -1) {
+						while (true) {
+							int w = parent[v];
+							int previous = matchOfVariable[w];
+							matchOfVariable[w] = v;
+							matchOfValue[v] = w;
+							if (w == x)
+								return true;
+							v = previous;
+						}
+					}
+
+					queue[tail++] = matchOfValue[v];
+				}
+
+				if (value == dom.max())
+					break;
+			}
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * It computes strongly connected components of the value graph restricted to 
+	 * the region. Unmatched edges lead from variables to values, matched edges 
+	 * lead from values to variables, free values lead to the sink and the sink 
+	 * leads to all variables, so edges on alternating paths from free values 
+	 * are within the component of the sink.
+	 */
+	void tarjan() {
+
+		tarjanStamp++;
+		int counter = 0, sccSize = 0;
+
+		for (int k = 0; k < regionSize; k++) {
+
+			if (nodeStamp[region[k]] == tarjanStamp)
+				continue;
+
+			int depth = 0;
+			enter(region[k], counter++, sccSize++);
+			callStack[depth++] = region[k];
+
+			while (depth > 0) {
+
+				int node = callStack[depth - 1];
+				int next = nextSuccessor(node);
+
+				if (next != -1) {
+					if (nodeStamp[next] != tarjanStamp) {
+						enter(next, counter++, sccSize++);
+						callStack[depth++] = next;
+					}
+					else if (onStack[next] && index[next] < low[node])
+						low[node] = index[next];
+					continue;
+				}
+
+				depth--;
+				if (low[node] == index[node]) {
+					int w;
+					do {
+						w = sccStack[--sccSize];
+						onStack[w] = false;
+						nodeComponent[w] = node;
+					} while (w != node);
+				}
+
+				if (depth > 0 && low[node] < low[callStack[depth - 1]])
+					low[callStack[depth - 1]] = low[node];
+			}
+		}
+
+	}
+
+	void enter(int node, int number, int position) {
+
+		nodeStamp[node] = tarjanStamp;
+		index[node] = number;
+		low[node] = number;
+		cursor[node] = -1;
+		sccStack[position] = node;
+		onStack[node] = true;
+
+	}
+
+	/**
+	 * @return the next successor of the node in the value graph, -1 if there is none.
+	 */
+	int nextSuccessor(int node) {
+
+		if (node < n) {
+
+			IntDomain dom = list[node].domain;
+			int v = cursor[node];
+			do {
+				if (v == -1)
+					v = dom.min() - offset;
+				else if (v + offset == dom.max())
+					return -1;
+				else
+					v = dom.nextValue(v + offset) - offset;
+			} while (v == matchOfVariable[node]);
+
+			cursor[node] = v;
+			return n + v;
+		}
+
+		if (node == sink) {
+			int position = ++cursor[node];
+			return position < regionSize ? region[position] : -1;
+		}
+
+		if (cursor[node] == 0)
+			return -1;
+		cursor[node] = 0;
+
+		int matched = matchOfValue[node - n];
+
+		assert (matched == -1 || touched[component[matched]] == touchedStamp) 
+			: "Value matched to a variable outside of the recomputed components";
+
+		return matched != -1 ? matched : sink;
+
+	}
+
+	@Override
+	public int getConsistencyPruningEvent(Var var) {
+
+		// If consistency function mode
+		if (consistencyPruningEvents != null) {
+			Integer possibleEvent = consistencyPruningEvents.get(var);
+			if (possibleEvent != null)
+				return possibleEvent;
+		}
+		return IntDomain.ANY;
+	}
+
+	@Override
+	public void impose(Store store) {
+
+		store.registerRemoveLevelListener(this);
+
+		for (IntVar var : list) {
+			var.putModelConstraint(this, getConsistencyPruningEvent(var));
+			queueVariable(store.level, var);
+		}
+
+		store.addChanged(this);
+		store.countConstraint();
+	}
+
+	@Override
+	public void removeConstraint() {
+		for (IntVar var : list)
+			var.removeConstraint(this);
+	}
+
+	@Override
+	public boolean satisfied() {
+
+		stamp++;
+		for (IntVar var : list) {
+			if (!var.singleton())
+				return false;
+			int v = var.value() - offset;
+			if (valueStamp[v] == stamp)
+				return false;
+			valueStamp[v] = stamp;
+		}
+		return true;
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+
+		result.append(" : alldistinctIncremental([");
+
+		for (int i = 0; i < n; i++) {
+			result.append(list[i]);
+			if (i < n - 1)
+				result.append(", ");
+		}
+
+		result.append("])");
+		return result.toString();
+	}
+
+	@Override
+	public void increaseWeight() {
+		if (increaseWeight) {
+			for (IntVar var : list)
+				var.weight++;
+		}
+	}
+
+}
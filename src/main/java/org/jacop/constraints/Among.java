@@ -39,7 +39,7 @@ import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -82,10 +82,10 @@ public class Among extends Constraint {
 	// because if X was in between lbS and ubS than
 	// it can have the between (x intersects S <> empty and x doesn't belong to
 	// S) values being shrinked.
-	private TimeStamp<Integer> lowerBorder;
+	private TimeStampInt lowerBorder;
 
 	// number of x who may still intersect K (Kset)
-	private TimeStamp<Integer> upperBorder;
+	private TimeStampInt upperBorder;
 
 	LinkedHashSet<IntVar> variableQueue = new LinkedHashSet<IntVar>();
 
@@ -303,8 +303,8 @@ public class Among extends Constraint {
 	public void impose(Store store) {
 
 		store.registerRemoveLevelListener(this);
-		this.lowerBorder = new TimeStamp<Integer>(store, 0);
-		this.upperBorder = new TimeStamp<Integer>(store, list.length);
+		this.lowerBorder = new TimeStampInt(store, 0);
+		this.upperBorder = new TimeStampInt(store, list.length);
 
 		int level = store.level;
 		int pos = 0;
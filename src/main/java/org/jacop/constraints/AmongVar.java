@@ -45,7 +45,7 @@ import org.jacop.core.MutableDomain;
 import org.jacop.core.MutableDomainValue;
 import org.jacop.core.MutableVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -91,11 +91,11 @@ public class AmongVar extends Constraint {
 	private LinkedHashSet<Integer> variableQueueY = new LinkedHashSet<Integer>();
 	
 	//Time stamps
-	private TimeStamp<Integer> lb0TS;
-	private TimeStamp<Integer> ub0TS;
+	private TimeStampInt lb0TS;
+	private TimeStampInt ub0TS;
 	
-	private TimeStamp<Integer> yGrounded;
-	private TimeStamp<Integer> xGrounded;
+	private TimeStampInt yGrounded;
+	private TimeStampInt xGrounded;
 
 	/**
 	 * List of variables x which values are checked against values of variables y. Each x 
@@ -1139,11 +1139,11 @@ public class AmongVar extends Constraint {
 		lbS = new MutableDomain(store);
 		futureLbS = new MutableDomain(store);
 		
-		lb0TS = new TimeStamp<Integer>(store, 0);
-		ub0TS = new TimeStamp<Integer>(store, listOfX.length);
+		lb0TS = new TimeStampInt(store, 0);
+		ub0TS = new TimeStampInt(store, listOfX.length);
 		
-		xGrounded = new TimeStamp<Integer>(store, gx);
-		yGrounded = new TimeStamp<Integer>(store, 0);
+		xGrounded = new TimeStampInt(store, gx);
+		yGrounded = new TimeStampInt(store, 0);
 		
 		store.addChanged(this);
 		store.countConstraint();
@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 
+import org.jacop.core.DomainDelta;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
@@ -78,6 +79,10 @@ public class Assignment extends Constraint {
 	
 	HashMap<IntVar, Integer> xs;
 	
+	// It specifies for each variable values removed since the variable
+	// has been processed last time.
+	DomainDelta[] xDeltas;
+	DomainDelta[] dDeltas;
 
 	LinkedHashSet<IntVar> variableQueue = new LinkedHashSet<IntVar>();
 	boolean firstConsistencyCheck = true;
@@ -228,6 +233,11 @@ public class Assignment extends Constraint {
 
 		if (firstConsistencyCheck) {
 
+			for (int i = 0; i < x.length; i++) {
+				xDeltas[i].reset();
+				dDeltas[i].reset();
+			}
+
 			rangeX = new IntervalDomain(0 + shiftX, x.length - 1
 					+ shiftX);
 
@@ -297,57 +307,48 @@ public class Assignment extends Constraint {
 
 			for (IntVar V : fdvs) {
 
-				IntDomain vPrunedDomain = V.recentDomainPruning();
-
-				if (!vPrunedDomain.isEmpty()) {
-
-					Integer position = xs.get(V);
-					if (position == null) {
-						// d variable has been changed
-						position = ds.get(V);
-
-						vPrunedDomain = vPrunedDomain.intersect(rangeX);
-
-						if (vPrunedDomain.isEmpty())
-							continue;
+				Integer position = xs.get(V);
+				if (position == null) {
+					// d variable has been changed
+					position = ds.get(V);
 
-						for (ValueEnumeration enumer = vPrunedDomain
-								.valueEnumeration(); enumer.hasMoreElements();) {
+					DomainDelta delta = dDeltas[position - shiftD];
+					if (!delta.update())
+						continue;
 
-							int dValue = enumer.nextElement() - shiftX;
+					for (int k = 0; k < delta.size; k++) {
 
-							if (dValue >= 0 && dValue < x.length)
-								x[dValue].domain.inComplement(store.level,
-										x[dValue], position);
-						}
+						int min = Math.max(delta.min[k] - shiftX, 0);
+						int max = Math.min(delta.max[k] - shiftX, x.length - 1);
 
-						if (V.singleton())
-							x[V.value() - shiftX].domain.in(store.level, x[V.value() - shiftX], position, position);
-
-					} else {
-						// x variable has been changed
-
-						vPrunedDomain = vPrunedDomain.intersect(rangeD);
-
-						if (vPrunedDomain.isEmpty())
-							continue;
+						for (int dValue = min; dValue <= max; dValue++)
+							x[dValue].domain.inComplement(store.level,
+									x[dValue], position);
+					}
 
-						for (ValueEnumeration enumer = vPrunedDomain
-								.valueEnumeration(); enumer.hasMoreElements();) {
+					if (V.singleton())
+						x[V.value() - shiftX].domain.in(store.level, x[V.value() - shiftX], position, position);
 
-							int xValue = enumer.nextElement() - shiftD;
+				} else {
+					// x variable has been changed
 
-							if (xValue >= 0 && xValue < d.length)
-								d[xValue].domain.inComplement(store.level,
-										d[xValue], position);
+					DomainDelta delta = xDeltas[position - shiftX];
+					if (!delta.update())
+						continue;
 
-							if (V.singleton())
-								d[V.value() - shiftD].domain.in(store.level, d[V.value() - shiftD], position, position);
+					for (int k = 0; k < delta.size; k++) {
 
-						}
+						int min = Math.max(delta.min[k] - shiftD, 0);
+						int max = Math.min(delta.max[k] - shiftD, d.length - 1);
 
+						for (int xValue = min; xValue <= max; xValue++)
+							d[xValue].domain.inComplement(store.level,
+									d[xValue], position);
 					}
 
+					if (V.singleton())
+						d[V.value() - shiftD].domain.in(store.level, d[V.value() - shiftD], position, position);
+
 				}
 
 			}
@@ -374,7 +375,12 @@ public class Assignment extends Constraint {
 
 		store.registerRemoveLevelListener(this);
 
+		xDeltas = new DomainDelta[x.length];
+		dDeltas = new DomainDelta[d.length];
+
 		for (int i = 0; i < x.length; i++) {
+			xDeltas[i] = x[i].domainDelta();
+			dDeltas[i] = d[i].domainDelta();
 			x[i].putModelConstraint(this, getConsistencyPruningEvent(x[i]));
 			d[i].putModelConstraint(this, getConsistencyPruningEvent(d[i]));
 		}
@@ -0,0 +1,396 @@
+/**
+ *  BoundsNoGood.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.jacop.core.ExplanationTrail;
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * BoundsNoGood disallows a conjunction of bound literals, each literal being 
+ * either x >= v or x <= v. It is learned from failures by explanation trail 
+ * (see Store.setExplanations). Similarly to NoGood it watches two literals 
+ * which are not true and propagates the negation of the last literal which is 
+ * not true. The watches are not restored upon backtracking.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class BoundsNoGood extends Constraint implements Explainable {
+
+	static int idNumber = 1;
+
+	/**
+	 * It specifies the variables of the literals.
+	 */
+	public IntVar listOfVars[];
+
+	/**
+	 * It specifies if the literal is of form x >= v (true) or x <= v (false).
+	 */
+	public boolean listOfGeq[];
+
+	/**
+	 * It specifies the bounds of the literals.
+	 */
+	public int listOfValues[];
+
+	int firstWatch = -1;
+
+	int secondWatch = -1;
+
+	/**
+	 * It creates a no-good disallowing the conjunction of bound literals.
+	 * @param listOfVars the variables of the literals.
+	 * @param listOfGeq true for literal x >= v, false for literal x <= v.
+	 * @param listOfValues the bounds of the literals.
+	 */
+	public BoundsNoGood(IntVar[] listOfVars, boolean[] listOfGeq, int[] listOfValues) {
+
+		assert (listOfVars.length == listOfGeq.length && listOfVars.length == listOfValues.length) 
+			: "\nLength of vectors different in BoundsNoGood";
+
+		this.queueIndex = 0;
+		this.numberId = idNumber++;
+		this.listOfVars = new IntVar[listOfVars.length];
+		this.listOfGeq = new boolean[listOfGeq.length];
+		this.listOfValues = new int[listOfValues.length];
+		System.arraycopy(listOfVars, 0, this.listOfVars, 0, listOfVars.length);
+		System.arraycopy(listOfGeq, 0, this.listOfGeq, 0, listOfGeq.length);
+		System.arraycopy(listOfValues, 0, this.listOfValues, 0, listOfValues.length);
+		numberArgs += listOfVars.length;
+
+	}
+
+	/**
+	 * It creates a no-good disallowing the conjunction of bound literals.
+	 * @param listOfVars the variables of the literals.
+	 * @param listOfGeq true for literal x >= v, false for literal x <= v.
+	 * @param listOfValues the bounds of the literals.
+	 */
+	public BoundsNoGood(ArrayList<? extends IntVar> listOfVars, ArrayList<Boolean> listOfGeq, 
+						ArrayList<Integer> listOfValues) {
+
+		this(listOfVars.toArray(new IntVar[listOfVars.size()]), toBooleanArray(listOfGeq), toIntArray(listOfValues));
+
+	}
+
+	static boolean[] toBooleanArray(ArrayList<Boolean> list) {
+		boolean[] result = new boolean[list.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = list.get(i);
+		return result;
+	}
+
+	static int[] toIntArray(ArrayList<Integer> list) {
+		int[] result = new int[list.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = list.get(i);
+		return result;
+	}
+
+	boolean isTrue(int i) {
+		if (listOfGeq[i])
+			return listOfVars[i].min() >= listOfValues[i];
+		else
+			return listOfVars[i].max() <= listOfValues[i];
+	}
+
+	boolean isFalse(int i) {
+		if (listOfGeq[i])
+			return listOfVars[i].max() < listOfValues[i];
+		else
+			return listOfVars[i].min() > listOfValues[i];
+	}
+
+	void falsify(Store store, int i) {
+		if (listOfGeq[i])
+			listOfVars[i].domain.inMax(store.level, listOfVars[i], listOfValues[i] - 1);
+		else
+			listOfVars[i].domain.inMin(store.level, listOfVars[i], listOfValues[i] + 1);
+	}
+
+	/**
+	 * It finds the literal which is not true and not watched, -1 if there is none. 
+	 * A false literal is preferred as the no-good is then satisfied.
+	 */
+	int findWatch() {
+
+		int result = -1;
+		for (int i = 0; i < listOfVars.length; i++)
+			if (i != firstWatch && i != secondWatch && !isTrue(i)) {
+				if (isFalse(i))
+					return i;
+				if (result == -1)
+					result = i;
+			}
+		return result;
+
+	}
+
+	void moveWatch(Store store, boolean first, int to) {
+
+		int from = first ? firstWatch : secondWatch;
+		int other = first ? secondWatch : firstWatch;
+
+		if (listOfVars[from] != listOfVars[other] && listOfVars[from] != listOfVars[to])
+			store.deregisterWatchedLiteralConstraint(listOfVars[from], this);
+
+		if (first)
+			firstWatch = to;
+		else
+			secondWatch = to;
+
+		store.registerWatchedLiteralConstraint(listOfVars[to], this);
+
+	}
+
+	@Override
+	public ArrayList<Var> arguments() {
+
+		ArrayList<Var> variables = new ArrayList<Var>(listOfVars.length);
+
+		for (Var v : listOfVars)
+			variables.add(v);
+
+		return variables;
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		if (listOfVars.length == 0)
+			throw Store.failException;
+
+		if (listOfVars.length == 1) {
+			if (!isFalse(0))
+				falsify(store, 0);
+			return;
+		}
+
+		// no-good satisfied
+		if (isFalse(firstWatch) || isFalse(secondWatch))
+			return;
+
+		if (isTrue(firstWatch)) {
+			int next = findWatch();
+			if (next == -1) {
+				if (isTrue(secondWatch))
+					throw Store.failException;
+				falsify(store, secondWatch);
+				return;
+			}
+			moveWatch(store, true, next);
+			if (isFalse(next))
+				return;
+		}
+
+		if (isTrue(secondWatch)) {
+			int next = findWatch();
+			if (next == -1) {
+				falsify(store, firstWatch);
+				return;
+			}
+			moveWatch(store, false, next);
+		}
+
+	}
+
+	@Override
+	public int getConsistencyPruningEvent(Var var) {
+
+		// If consistency function mode
+		if (consistencyPruningEvents != null) {
+			Integer possibleEvent = consistencyPruningEvents.get(var);
+			if (possibleEvent != null)
+				return possibleEvent;
+		}
+		return IntDomain.BOUND;
+	}
+
+	// registers the constraint in the constraint store
+	// using watched literals functionality.
+	@Override
+	public void impose(Store store) {
+
+		if (store.watchedConstraints == null)
+			store.watchedConstraints = new HashMap<Var, HashSet<Constraint>>();
+
+		if (listOfVars.length < 2) {
+			if (listOfVars.length == 1)
+				store.registerWatchedLiteralConstraint(listOfVars[0], this);
+			// To obtain immediate pruning when consistency is called
+			store.addChanged(this);
+			return;
+		}
+
+		// Literals which are not true are watched. If there are not enough
+		// of them then the literals which became true most recently are watched,
+		// as they are the first to become not true upon backtracking.
+		ExplanationTrail trail = store.explanationTrail;
+
+		int[] order = new int[listOfVars.length];
+		for (int i = 0; i < order.length; i++) {
+			if (!isTrue(i))
+				order[i] = Integer.MAX_VALUE;
+			else if (trail != null)
+				order[i] = trail.implyingPosition(listOfVars[i], listOfGeq[i], listOfValues[i]);
+			else
+				order[i] = -1;
+		}
+
+		firstWatch = 0;
+		secondWatch = 1;
+		if (order[1] > order[0]) {
+			firstWatch = 1;
+			secondWatch = 0;
+		}
+		for (int i = 2; i < order.length; i++)
+			if (order[i] > order[firstWatch]) {
+				secondWatch = firstWatch;
+				firstWatch = i;
+			}
+			else if (order[i] > order[secondWatch])
+				secondWatch = i;
+
+		store.registerWatchedLiteralConstraint(listOfVars[firstWatch], this);
+		store.registerWatchedLiteralConstraint(listOfVars[secondWatch], this);
+
+		if (order[secondWatch] != Integer.MAX_VALUE)
+			store.addChanged(this);
+
+	}
+
+	/**
+	 * This function does nothing as constraints can not be removed for a given
+	 * level. In addition, watched literals mechanism makes sure that constraint
+	 * is not put in the queue when it can not propagate.
+	 */
+	@Override
+	public void removeConstraint() {
+	}
+
+	/**
+	 * Watched constraint takes care in other way if it is satisfied. It 
+	 * returns false by default.
+	 */
+	@Override
+	public boolean satisfied() {
+		return false;
+	}
+
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+
+		for (int i = 0; i < listOfVars.length; i++) {
+
+			// the negation of literal i implies the requested literal.
+			if (listOfVars[i] != var || listOfGeq[i] == geq)
+				continue;
+			if (geq ? listOfValues[i] + 1 < value : listOfValues[i] - 1 > value)
+				continue;
+
+			boolean others = true;
+			for (int j = 0; j < listOfVars.length && others; j++)
+				if (j != i)
+					others = listOfGeq[j] ? trail.min(listOfVars[j], position) >= listOfValues[j] 
+							: trail.max(listOfVars[j], position) <= listOfValues[j];
+
+			if (!others)
+				continue;
+
+			for (int j = 0; j < listOfVars.length; j++)
+				if (j != i) {
+					if (listOfGeq[j])
+						trail.addGeq(listOfVars[j], listOfValues[j]);
+					else
+						trail.addLeq(listOfVars[j], listOfValues[j]);
+				}
+
+			return true;
+		}
+
+		return false;
+
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+
+		for (int j = 0; j < listOfVars.length; j++)
+			if (listOfGeq[j] ? trail.min(listOfVars[j], position) < listOfValues[j] 
+					: trail.max(listOfVars[j], position) > listOfValues[j])
+				return false;
+
+		for (int j = 0; j < listOfVars.length; j++)
+			if (listOfGeq[j])
+				trail.addGeq(listOfVars[j], listOfValues[j]);
+			else
+				trail.addLeq(listOfVars[j], listOfValues[j]);
+
+		return true;
+
+	}
+
+	@Override
+	public void increaseWeight() {
+		if (increaseWeight) {
+			for (Var v : listOfVars) v.weight++;
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+
+		result.append(" : boundsNoGood([");
+
+		for (int i = 0; i < listOfVars.length; i++) {
+			if (i == firstWatch || i == secondWatch)
+				result.append("@");
+			result.append(listOfVars[i].id()).append(listOfGeq[i] ? " >= " : " <= ").append(listOfValues[i]);
+			if (i < listOfVars.length - 1)
+				result.append(", ");
+		}
+
+		result.append("])");
+
+		return result.toString();
+	}
+
+}
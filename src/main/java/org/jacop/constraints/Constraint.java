@@ -65,6 +65,24 @@ public abstract class Constraint extends DecomposedConstraint {
 	 */
 	public String id;
 
+	/**
+	 * It specifies the dense id of the constraint given by the array based
+	 * propagation queue of the store. It is -1 if no id was given yet.
+	 */
+	public int queueId = -1;
+
+	/**
+	 * It specifies in how many queues of the store the constraint waits for 
+	 * reevaluation. It is valid only if queueStamp is equal to the queue stamp 
+	 * of the store, as clearing the queues does not visit the constraints.
+	 */
+	public int queuedCount = 0;
+
+	/**
+	 * It specifies the queue stamp of the store at which queuedCount was valid.
+	 */
+	public long queueStamp = 0;
+
 	/**
 	 * It returns the variables in a scope of the constraint.
 	 * @return variables in a scope of the constraint.
@@ -151,6 +169,20 @@ public abstract class Constraint extends DecomposedConstraint {
 	public void queueVariable(final int level, final Var var) {
 	}
 
+	/**
+	 * This function is called when store uses event based scheduling and 
+	 * constraint has registered at the variable with a delivery mask containing
+	 * the pruning event which has occurred. The index is the one given by the
+	 * constraint at registration (Store.registerEvents), so the constraint does
+	 * not have to look the variable up. By default it calls queueVariable(level, var).
+	 * @param level the level of the store at which the change has occurred.
+	 * @param var variable which has changed.
+	 * @param index the index of the variable given at registration.
+	 */
+	public void queueVariable(final int level, final Var var, final int index) {
+		queueVariable(level, var);
+	}
+
 	/**
 	 * It removes the constraint by removing this constraint from all variables.
 	 */
@@ -0,0 +1,853 @@
+/**
+ *  CumulativeEdgeFinding.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * CumulativeEdgeFinding implements the cumulative/4 constraint with algorithms 
+ * suitable for resources with thousands of tasks. All the working data is kept 
+ * in arrays allocated when the constraint is created. 
+ * 
+ * The strength of the propagation is selected by one of the levels below, each 
+ * level performs also all the reasoning of the weaker levels.
+ * 
+ * TIMETABLE - the profile of compulsory parts is built by a sweep in O(n log n) 
+ * and starts of tasks are pushed over the profile peaks they can not fit into.
+ * 
+ * EDGE_FINDING - cumulative edge-finding by Vilim, O(kn log n) where k is the 
+ * number of distinct resource requirements, based on Theta-Lambda trees. It 
+ * adjusts both earliest starts and latest completion times. 
+ * 
+ * TIMETABLE_EDGE_FINDING - O(n^2 log n) reasoning over windows [est, lct) 
+ * where the energy within the window is the energy of compulsory parts plus 
+ * the energy of free parts of tasks contained in the window.
+ * 
+ * ENERGETIC - energetic reasoning over O(n^2) windows using minimal intersections
+ * of tasks with a window. It requires O(n^3) time so it is suitable only for 
+ * resources with small number of tasks.
+ * 
+ * Variable durations and resource usages are relaxed to their minimal values. 
+ * The constraint prunes starts of tasks, the minimal value of the limit and 
+ * maximal values of resource usages.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class CumulativeEdgeFinding extends Constraint {
+
+	static int idNumber = 1;
+
+	/**
+	 * Only the timetable reasoning is used.
+	 */
+	public static final int TIMETABLE = 0;
+
+	/**
+	 * Timetable and edge-finding reasoning is used.
+	 */
+	public static final int EDGE_FINDING = 1;
+
+	/**
+	 * Timetable, edge-finding and timetable edge-finding reasoning is used.
+	 */
+	public static final int TIMETABLE_EDGE_FINDING = 2;
+
+	/**
+	 * All the above and energetic reasoning is used.
+	 */
+	public static final int ENERGETIC = 3;
+
+	/**
+	 * It specifies the strength of the propagation.
+	 */
+	public int strength;
+
+	/**
+	 * It specifies the limit of the profile of cumulative use of resources.
+	 */
+	public IntVar limit;
+
+	/**
+	 * It specifies/stores start variables for each corresponding task. 
+	 */
+	public IntVar[] starts;
+
+	/**
+	 * It specifies/stores duration variables for each corresponding task. 
+	 */
+	public IntVar[] durations;
+
+	/**
+	 * It specifies/stores resource variable for each corresponding task. 
+	 */
+	public IntVar[] resources;
+
+	/**
+	 * It specifies the arguments required to be saved by an XML format as well as 
+	 * the constructor being called to recreate an object from an XML format.
+	 */
+	public static String[] xmlAttributes = {"starts", "durations", "resources", "limit", "strength"};
+
+	final int n;
+
+	// snapshot of task bounds, lct is computed with minimal duration
+	final int[] est, lst, lct, dur, res;
+
+	final long[] energy;
+
+	// mirrored bounds and the bounds computed by edge-finding
+	final int[] mirrorEst, mirrorLct, newBound;
+
+	final long[] keys;
+
+	final int[] estOrder, lctOrder, leafPosition, prec;
+
+	final long[] update;
+
+	ThetaLambdaTree tree, capacityTree;
+
+	// profile of compulsory parts
+	final int[] compStart, compEnd;
+
+	final int[] segStart, segEnd, segHeight;
+
+	final long[] segEnergy;
+
+	int segments;
+
+	int maxHeight;
+
+	/**
+	 * It creates a cumulative constraint.
+	 * @param starts variables denoting starts of the tasks.
+	 * @param durations variables denoting durations of the tasks.
+	 * @param resources variables denoting resource usage of the tasks.
+	 * @param limit the overall limit of resources which has to be used.
+	 * @param strength the strength of the propagation, one of TIMETABLE, EDGE_FINDING, 
+	 * TIMETABLE_EDGE_FINDING, ENERGETIC.
+	 */
+	public CumulativeEdgeFinding(IntVar[] starts,
+			IntVar[] durations,
+			IntVar[] resources,
+			IntVar limit,
+			int strength) {
+
+		assert ( starts != null ) : "Variable in starts list is null";
+		assert ( durations != null ) : "Variable in durations list is null";
+		assert ( resources != null ) : "Variable in resource list is null";
+		assert ( limit != null ) : "Variable limit is null";
+
+		if (starts.length != durations.length || durations.length != resources.length)
+			throw new IllegalArgumentException( "\nNot equal sizes of Variable vectors in cumulative" );
+
+		if (strength < TIMETABLE || strength > ENERGETIC)
+			throw new IllegalArgumentException( "\nUnknown strength of cumulative propagation " + strength );
+
+		this.n = starts.length;
+		this.numberArgs = (short) (3 * n + 1);
+		this.queueIndex = 2;
+		this.numberId = idNumber++;
+
+		this.starts = new IntVar[n];
+		this.durations = new IntVar[n];
+		this.resources = new IntVar[n];
+
+		for (int i = 0; i < n; i++) {
+
+			assert (starts[i] != null) : i + "-th variable in starts list is null"; 
+			assert (durations[i] != null) : i + "-th variable in durations list is null"; 
+			assert (resources[i] != null) : i + "-th variable in resources list is null"; 
+
+			if (durations[i].min() < 0 || resources[i].min() < 0)
+				throw new IllegalArgumentException("\nDurations and resources must be >= 0 in cumulative");
+
+			this.starts[i] = starts[i];
+			this.durations[i] = durations[i];
+			this.resources[i] = resources[i];
+		}
+
+		if (limit.min() < 0)
+			throw new IllegalArgumentException( "\nResource limit must be >= 0 in cumulative" );
+
+		this.limit = limit;
+		this.strength = strength;
+
+		est = new int[n];
+		lst = new int[n];
+		lct = new int[n];
+		dur = new int[n];
+		res = new int[n];
+		energy = new long[n];
+		mirrorEst = new int[n];
+		mirrorLct = new int[n];
+		newBound = new int[n];
+
+		keys = new long[2 * n];
+		estOrder = new int[n];
+		lctOrder = new int[n];
+		leafPosition = new int[n];
+		prec = new int[n];
+		update = new long[n];
+
+		compStart = new int[n];
+		compEnd = new int[n];
+		segStart = new int[2 * n];
+		segEnd = new int[2 * n];
+		segHeight = new int[2 * n];
+		segEnergy = new long[2 * n + 1];
+
+		if (strength >= EDGE_FINDING) {
+			tree = new ThetaLambdaTree(n);
+			capacityTree = new ThetaLambdaTree(n);
+		}
+
+	}
+
+	/**
+	 * It creates a cumulative constraint with edge-finding strength.
+	 * @param starts variables denoting starts of the tasks.
+	 * @param durations variables denoting durations of the tasks.
+	 * @param resources variables denoting resource usage of the tasks.
+	 * @param limit the overall limit of resources which has to be used.
+	 */
+	public CumulativeEdgeFinding(IntVar[] starts,
+			IntVar[] durations,
+			IntVar[] resources,
+			IntVar limit) {
+
+		this(starts, durations, resources, limit, EDGE_FINDING);
+
+	}
+
+	/**
+	 * It creates a cumulative constraint.
+	 * @param starts variables denoting starts of the tasks.
+	 * @param durations variables denoting durations of the tasks.
+	 * @param resources variables denoting resource usage of the tasks.
+	 * @param limit the overall limit of resources which has to be used.
+	 * @param strength the strength of the propagation.
+	 */
+	public CumulativeEdgeFinding(ArrayList<? extends IntVar> starts,
+			ArrayList<? extends IntVar> durations, 
+			ArrayList<? extends IntVar> resources,
+			IntVar limit, 
+			int strength) {
+
+		this(starts.toArray(new IntVar[starts.size()]), 
+			 durations.toArray(new IntVar[durations.size()]), 
+			 resources.toArray(new IntVar[resources.size()]),
+			 limit,
+			 strength);
+
+	}
+
+	@Override
+	public ArrayList<Var> arguments() {
+
+		ArrayList<Var> variables = new ArrayList<Var>(3 * n + 1);
+
+		for (Var v : starts)
+			variables.add(v);
+		for (Var v : durations)
+			variables.add(v);
+		for (Var v : resources)
+			variables.add(v);
+		variables.add(limit);
+		return variables;
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		do {
+
+			store.propagationHasOccurred = false;
+
+			int limitMax = limit.max();
+			for (int i = 0; i < n; i++)
+				if (durations[i].min() > 0)
+					resources[i].domain.inMax(store.level, resources[i], limitMax);
+
+			readBounds();
+			timetable(store);
+
+			if (!store.propagationHasOccurred && strength >= EDGE_FINDING) {
+				readBounds();
+				edgeFinding(store);
+			}
+
+			if (!store.propagationHasOccurred && strength >= TIMETABLE_EDGE_FINDING) {
+				readBounds();
+				buildProfile();
+				timetableEdgeFinding(store);
+			}
+
+			if (!store.propagationHasOccurred && strength >= ENERGETIC) {
+				readBounds();
+				energeticReasoning(store);
+			}
+
+		} while (store.propagationHasOccurred);
+
+	}
+
+	void readBounds() {
+
+		for (int i = 0; i < n; i++) {
+			est[i] = starts[i].min();
+			lst[i] = starts[i].max();
+			dur[i] = durations[i].min();
+			res[i] = resources[i].min();
+			lct[i] = lst[i] + dur[i];
+			energy[i] = (long) dur[i] * res[i];
+		}
+
+	}
+
+	/**
+	 * It sorts the tasks according to the given key, ties are broken by task index.
+	 */
+	void sort(int[] key, int[] order) {
+
+		for (int i = 0; i < n; i++)
+			keys[i] = ((long) key[i] << 32) | i;
+		Arrays.sort(keys, 0, n);
+		for (int i = 0; i < n; i++)
+			order[i] = (int) keys[i];
+
+	}
+
+	/**
+	 * It builds the profile of compulsory parts [lst, est + dur) of the tasks 
+	 * as a sorted list of segments with non-zero height.
+	 */
+	void buildProfile() {
+
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			compStart[i] = lst[i];
+			compEnd[i] = est[i] + dur[i];
+			if (res[i] > 0 && compStart[i] < compEnd[i]) {
+				// ends of compulsory parts are ordered before starts at the same time
+				keys[m++] = ((long) compStart[i] << 32) | (n + i);
+				keys[m++] = ((long) compEnd[i] << 32) | i;
+			}
+		}
+		Arrays.sort(keys, 0, m);
+
+		segments = 0;
+		maxHeight = 0;
+		segEnergy[0] = 0;
+
+		int height = 0;
+		int previous = 0;
+		for (int k = 0; k < m; k++) {
+
+			int time = (int) (keys[k] >> 32);
+			int event = (int) keys[k];
+
+			if (height > 0 && time > previous) {
+				segStart[segments] = previous;
+				segEnd[segments] = time;
+				segHeight[segments] = height;
+				segEnergy[segments + 1] = segEnergy[segments] + (long) height * (time - previous);
+				segments++;
+			}
+
+			if (event >= n) {
+				height += res[event - n];
+				if (height > maxHeight)
+					maxHeight = height;
+			}
+			else
+				height -= res[event];
+
+			previous = time;
+		}
+
+	}
+
+	/**
+	 * It pushes starts of tasks so they do not overlap with parts of the profile 
+	 * of compulsory parts where there is not enough resource left for them.
+	 */
+	void timetable(Store store) {
+
+		buildProfile();
+
+		limit.domain.inMin(store.level, limit, maxHeight);
+
+		int capacity = limit.max();
+
+		for (int i = 0; i < n; i++) {
+
+			if (res[i] == 0 || dur[i] == 0)
+				continue;
+
+			// earliest start
+			int s = est[i];
+			int k = firstSegmentEndingAfter(s);
+			while (k < segments && segStart[k] < s + dur[i]) {
+				if (height(k, i) + res[i] > capacity)
+					s = segEnd[k];
+				k++;
+			}
+			if (s > est[i])
+				starts[i].domain.inMin(store.level, starts[i], s);
+
+			// latest completion
+			int e = lct[i];
+			k = firstSegmentStartingFrom(e) - 1;
+			while (k >= 0 && segEnd[k] > e - dur[i]) {
+				if (height(k, i) + res[i] > capacity)
+					e = segStart[k];
+				k--;
+			}
+			if (e < lct[i])
+				starts[i].domain.inMax(store.level, starts[i], e - dur[i]);
+
+		}
+
+	}
+
+	/**
+	 * @return height of the k-th segment excluding the compulsory part of task i.
+	 */
+	int height(int k, int i) {
+
+		if (segStart[k] >= compStart[i] && segEnd[k] <= compEnd[i])
+			return segHeight[k] - res[i];
+		else
+			return segHeight[k];
+
+	}
+
+	/**
+	 * @return index of the first segment which ends after time t.
+	 */
+	int firstSegmentEndingAfter(int t) {
+
+		int low = 0, high = segments;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (segEnd[middle] > t)
+				high = middle;
+			else
+				low = middle + 1;
+		}
+		return low;
+	}
+
+	/**
+	 * @return index of the first segment which starts at or after time t.
+	 */
+	int firstSegmentStartingFrom(int t) {
+
+		int low = 0, high = segments;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (segStart[middle] >= t)
+				high = middle;
+			else
+				low = middle + 1;
+		}
+		return low;
+	}
+
+	/**
+	 * @return energy of the profile of compulsory parts before time t.
+	 */
+	long profileEnergyBefore(int t) {
+
+		int k = firstSegmentEndingAfter(t);
+		if (k < segments && segStart[k] < t)
+			return segEnergy[k] + (long) segHeight[k] * (t - segStart[k]);
+		else
+			return segEnergy[k];
+
+	}
+
+	void edgeFinding(Store store) {
+
+		edgeFinding(store, est, lct);
+		for (int i = 0; i < n; i++)
+			if (newBound[i] > est[i])
+				starts[i].domain.inMin(store.level, starts[i], newBound[i]);
+
+		for (int i = 0; i < n; i++) {
+			mirrorEst[i] = -lct[i];
+			mirrorLct[i] = -est[i];
+		}
+
+		edgeFinding(store, mirrorEst, mirrorLct);
+		for (int i = 0; i < n; i++)
+			if (newBound[i] > mirrorEst[i])
+				starts[i].domain.inMax(store.level, starts[i], - newBound[i] - dur[i]);
+
+	}
+
+	/**
+	 * It performs overload checking and edge-finding for the tasks with the given 
+	 * earliest starts and latest completion times. The improved earliest 
+	 * starts are stored in newBound. 
+	 */
+	void edgeFinding(Store store, int[] e, int[] l) {
+
+		long capacity = limit.max();
+
+		sort(e, estOrder);
+		sort(l, lctOrder);
+		for (int p = 0; p < n; p++)
+			leafPosition[estOrder[p]] = p;
+		for (int i = 0; i < n; i++) {
+			newBound[i] = e[i];
+			prec[i] = -1;
+		}
+
+		// detection, lct order positions 0..prec[i] define set Omega which must end before task i
+		tree.clear(capacity);
+		for (int i = 0; i < n; i++)
+			if (energy[i] > 0)
+				tree.addToTheta(leafPosition[i], e[i], energy[i]);
+
+		boolean detected = false;
+		for (int q = n - 1; q >= 0; q--) {
+
+			int j = lctOrder[q];
+			if (energy[j] == 0)
+				continue;
+
+			if (tree.envelope() > capacity * l[j])
+				throw Store.failException;
+
+			while (tree.envelopeLambda() > capacity * l[j]) {
+				int responsible = tree.responsibleLambda();
+				if (responsible < 0)
+					break;
+				prec[estOrder[responsible]] = q;
+				detected = true;
+				tree.remove(responsible);
+			}
+
+			tree.moveToLambda(leafPosition[j]);
+		}
+
+		if (!detected)
+			return;
+
+		// adjustment, computed separately for each distinct resource requirement
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (prec[i] >= 0)
+				keys[m++] = ((long) res[i] << 32) | i;
+		Arrays.sort(keys, 0, m);
+
+		int first = 0;
+		while (first < m) {
+
+			int c = (int) (keys[first] >> 32);
+			int last = first;
+			int maxPrec = 0;
+			while (last < m && (int) (keys[last] >> 32) == c) {
+				maxPrec = Math.max(maxPrec, prec[(int) keys[last]]);
+				last++;
+			}
+
+			tree.clear(capacity);
+			capacityTree.clear(capacity - c);
+
+			long best = Long.MIN_VALUE;
+			for (int q = 0; q <= maxPrec; q++) {
+
+				int j = lctOrder[q];
+				if (energy[j] > 0) {
+
+					tree.addToTheta(leafPosition[j], e[j], energy[j]);
+					capacityTree.addToTheta(leafPosition[j], e[j], energy[j]);
+
+					long bound = (capacity - c) * l[j];
+					int leaf = capacityTree.rightmostEnvelope(bound);
+					if (leaf >= 0) {
+						long value = Math.max(tree.envelopeBefore(leaf), capacity * tree.est(leaf))
+								+ tree.energy() - tree.energyBefore(leaf);
+						long diff = divideRoundingUp(value - bound, c);
+						if (diff > best)
+							best = diff;
+					}
+				}
+
+				update[q] = best;
+			}
+
+			for (int k = first; k < last; k++) {
+				int i = (int) keys[k];
+				if (update[prec[i]] > newBound[i])
+					newBound[i] = (int) update[prec[i]];
+			}
+
+			first = last;
+		}
+
+	}
+
+	static long divideRoundingUp(long a, long b) {
+		if (a >= 0)
+			return (a + b - 1) / b;
+		else
+			return - ((- a) / b);
+	}
+
+	/**
+	 * It checks windows [est_a, lct_b). The energy required in a window is 
+	 * the energy of compulsory parts within the window plus the energy of free 
+	 * parts of tasks contained in the window. For each lct_b the window with 
+	 * the smallest slack is used to adjust the tasks not contained in it.
+	 */
+	void timetableEdgeFinding(Store store) {
+
+		long capacity = limit.max();
+
+		sort(est, estOrder);
+		sort(lct, lctOrder);
+
+		for (int q = 0; q < n; q++) {
+
+			int b = lctOrder[q];
+			if (q < n - 1 && lct[lctOrder[q + 1]] == lct[b])
+				continue;
+
+			int end = lct[b];
+			long endEnergy = profileEnergyBefore(end);
+
+			long inside = 0;
+			long minSlack = Long.MAX_VALUE;
+			int begin = 0;
+
+			for (int p = n - 1; p >= 0; p--) {
+
+				int a = estOrder[p];
+				if (est[a] >= end)
+					continue;
+
+				if (lct[a] <= end)
+					inside += energy[a] - (long) res[a] * Math.max(0, compEnd[a] - compStart[a]);
+
+				if (p > 0 && est[estOrder[p - 1]] == est[a])
+					continue;
+
+				long slack = capacity * (end - est[a]) - inside - (endEnergy - profileEnergyBefore(est[a]));
+				if (slack < 0)
+					throw Store.failException;
+
+				if (slack < minSlack) {
+					minSlack = slack;
+					begin = est[a];
+				}
+			}
+
+			if (minSlack == Long.MAX_VALUE)
+				continue;
+
+			for (int i = 0; i < n; i++) {
+
+				if (res[i] == 0 || dur[i] == 0 || (est[i] >= begin && lct[i] <= end))
+					continue;
+
+				long own = Math.max(0, Math.min(compEnd[i], end) - Math.max(compStart[i], begin));
+				adjust(store, i, begin, end, minSlack + res[i] * own);
+			}
+		}
+
+	}
+
+	/**
+	 * It checks windows [t1, t2) with t1 being est or lst of some task and t2 being
+	 * ect or lct of some task. The energy required in a window is the sum of minimal 
+	 * intersections of all tasks with the window.
+	 */
+	void energeticReasoning(Store store) {
+
+		long capacity = limit.max();
+
+		for (int x = 0; x < 2 * n; x++) {
+
+			int t1 = x < n ? est[x] : lst[x - n];
+
+			for (int y = 0; y < 2 * n; y++) {
+
+				int t2 = y < n ? est[y] + dur[y] : lct[y - n];
+				if (t2 <= t1)
+					continue;
+
+				long required = 0;
+				for (int k = 0; k < n; k++)
+					required += minimalIntersection(k, t1, t2);
+
+				long available = capacity * (t2 - t1);
+				if (required > available)
+					throw Store.failException;
+
+				for (int i = 0; i < n; i++)
+					if (res[i] > 0 && dur[i] > 0)
+						adjust(store, i, t1, t2, available - required + minimalIntersection(i, t1, t2));
+			}
+		}
+
+	}
+
+	/**
+	 * @return the energy task k has to spend in window [t1, t2) wherever it starts.
+	 */
+	long minimalIntersection(int k, int t1, int t2) {
+
+		int length = Math.min(Math.min(t2 - t1, dur[k]), 
+							  Math.min(est[k] + dur[k] - t1, t2 - lst[k]));
+		if (length <= 0)
+			return 0;
+		return (long) length * res[k];
+
+	}
+
+	/**
+	 * It adjusts the start of task i so it uses at most the given energy in 
+	 * window [t1, t2). Task i may use at most q time units of the window, so 
+	 * it can not start within [t1 + q - dur + 1, t2 - q - 1].
+	 */
+	void adjust(Store store, int i, int t1, int t2, long available) {
+
+		long q = available / res[i];
+		if (q >= dur[i] || q >= t2 - t1)
+			return;
+
+		long low = t1 + q - dur[i] + 1;
+		long high = t2 - q - 1;
+
+		IntVar start = starts[i];
+		if (start.min() >= low && start.min() <= high)
+			start.domain.inMin(store.level, start, (int) (high + 1));
+		if (start.max() >= low && start.max() <= high)
+			start.domain.inMax(store.level, start, (int) (low - 1));
+
+	}
+
+	@Override
+	public int getConsistencyPruningEvent(Var var) {
+
+		// If consistency function mode
+		if (consistencyPruningEvents != null) {
+			Integer possibleEvent = consistencyPruningEvents.get(var);
+			if (possibleEvent != null)
+				return possibleEvent;
+		}
+		return IntDomain.BOUND;
+	}
+
+	@Override
+	public void impose(Store store) {
+
+		for (int i = 0; i < n; i++) {
+			starts[i].putModelConstraint(this, getConsistencyPruningEvent(starts[i]));
+			durations[i].putModelConstraint(this, getConsistencyPruningEvent(durations[i]));
+			resources[i].putModelConstraint(this, getConsistencyPruningEvent(resources[i]));
+		}
+
+		limit.putModelConstraint(this, getConsistencyPruningEvent(limit));
+
+		store.addChanged(this);
+		store.countConstraint();
+	}
+
+	@Override
+	public void removeConstraint() {
+
+		for (int i = 0; i < n; i++) {
+			starts[i].removeConstraint(this);
+			durations[i].removeConstraint(this);
+			resources[i].removeConstraint(this);
+		}
+		limit.removeConstraint(this);
+	}
+
+	@Override
+	public boolean satisfied() {
+
+		for (int i = 0; i < n; i++)
+			if (!starts[i].singleton() || !durations[i].singleton() || !resources[i].singleton())
+				return false;
+
+		readBounds();
+		buildProfile();
+		return maxHeight <= limit.min();
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+
+		result.append(" : cumulativeEdgeFinding([ ");
+		for (int i = 0; i < n; i++) {
+			result.append("[").append(starts[i]).append(", ").append(durations[i]);
+			result.append(", ").append(resources[i]).append("]");
+			if (i < n - 1)
+				result.append(", ");
+		}
+
+		result.append(" ]").append(", limit = ").append(limit);
+		result.append(", strength = ").append(strength).append(" )");
+
+		return result.toString();
+
+	}
+
+	@Override
+	public void increaseWeight() {
+		if (increaseWeight) {
+			limit.weight++;
+			for (int i = 0; i < n; i++) {
+				starts[i].weight++;
+				durations[i].weight++;
+				resources[i].weight++;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,765 @@
+/**
+ *  Diff2Sweep.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * Diff2Sweep assures that two dimensional rectangles do not overlap. It is 
+ * intended for large number of rectangles, its memory use is linear in the 
+ * number of rectangles. 
+ * 
+ * The pruning is based on compulsory parts of rectangles. The compulsory part 
+ * of a rectangle defines a forbidden region for the origin of any other rectangle. 
+ * For each rectangle and each direction (minimum and maximum of both origins) 
+ * the sweep-line algorithm by Beldiceanu and Carlsson finds the first position of 
+ * the origin where some value of the other origin is not covered by forbidden 
+ * regions. The events of forbidden regions are kept in sorted arrays and the 
+ * coverage of the other dimension is maintained by a segment tree. Only the 
+ * forbidden regions close to the rectangle are considered, they are found by 
+ * binary search over compulsory parts sorted by their position.
+ * 
+ * The propagation is incremental, only rectangles which have changed and 
+ * rectangles which can be placed over compulsory parts of changed rectangles 
+ * are swept again.
+ * 
+ * Rectangles with zero minimal length in any dimension do not take any space. 
+ * Variable lengths are relaxed to their minimal values.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class Diff2Sweep extends Constraint {
+
+	static int idNumber = 1;
+
+	/**
+	 * It specifies the rectangles which can not overlap.
+	 */
+	public Rectangle[] rectangles;
+
+	/**
+	 * It specifies the arguments required to be saved by an XML format as well as 
+	 * the constructor being called to recreate an object from an XML format.
+	 */
+	public static String[] xmlAttributes = {"rectangles"};
+
+	final int n;
+
+	// snapshot of origin bounds and minimal lengths in both dimensions
+	final int[][] min, max, length;
+
+	// compulsory parts [start, end) in both dimensions, empty if start >= end
+	final int[][] compStart, compEnd;
+
+	// data of the current sweep direction, dimension a is swept, dimension b is covered
+	int[] aMin, aMax, aLength, bMin, bMax, bLength, caStart, caEnd, cbStart, cbEnd;
+
+	final int[] aMinMirror, aMaxMirror, caStartMirror, caEndMirror;
+
+	// compulsory parts sorted by their start in dimension a
+	final int[] sorted, sortedStart;
+
+	int compulsoryParts, maxWidth;
+
+	// forbidden regions of the swept rectangle, inclusive bounds
+	final int[] faStart, faEnd, fbStart, fbEnd;
+
+	final int[] startOrder, endOrder, coordinates;
+
+	final long[] keys;
+
+	// segment tree over elementary intervals of dimension b
+	final int[] cover, added;
+
+	int intervals;
+
+	/**
+	 * It maps variables to the rectangles which contain them.
+	 */
+	final HashMap<Var, int[]> rectanglesOf = new HashMap<Var, int[]>();
+
+	// rectangles changed since the last consistency call
+	final boolean[] changed;
+
+	final int[] changedList;
+
+	int changedCount;
+
+	boolean sweepAll = true;
+
+	final boolean[] affected;
+
+	// number of changed rectangles checked one by one, above it their bounding box is used
+	static final int changedLimit = 16;
+
+	// number of linear passes over forbidden regions before they are sorted
+	static final int coverPasses = 4;
+
+	/**
+	 * It creates a diff2 constraint.
+	 * @param rectangles two dimensional rectangles which can not overlap.
+	 */
+	public Diff2Sweep(Rectangle[] rectangles) {
+
+		assert (rectangles != null) : "Rectangles list is null";
+
+		this.n = rectangles.length;
+		this.queueIndex = 2;
+		this.numberId = idNumber++;
+		this.numberArgs = (short) (4 * n);
+
+		this.rectangles = new Rectangle[n];
+		for (int i = 0; i < n; i++) {
+
+			assert (rectangles[i] != null) : i + "-th rectangle in the list is null";
+
+			if (rectangles[i].dim() != 2)
+				throw new IllegalArgumentException("\nRectangles of dimension different than 2 are not supported by Diff2Sweep");
+
+			for (int d = 0; d < 2; d++)
+				if (rectangles[i].length[d].min() < 0)
+					throw new IllegalArgumentException("\nLengths of rectangles must be >= 0 in Diff2Sweep");
+
+			this.rectangles[i] = new Rectangle(rectangles[i]);
+		}
+
+		min = new int[2][n];
+		max = new int[2][n];
+		length = new int[2][n];
+		compStart = new int[2][n];
+		compEnd = new int[2][n];
+
+		aMinMirror = new int[n];
+		aMaxMirror = new int[n];
+		caStartMirror = new int[n];
+		caEndMirror = new int[n];
+
+		sorted = new int[n];
+		sortedStart = new int[n];
+
+		faStart = new int[n];
+		faEnd = new int[n];
+		fbStart = new int[n];
+		fbEnd = new int[n];
+		startOrder = new int[n];
+		endOrder = new int[n];
+		coordinates = new int[2 * n + 2];
+		keys = new long[2 * n + 2];
+
+		cover = new int[8 * n + 8];
+		added = new int[8 * n + 8];
+
+		changed = new boolean[n];
+		changedList = new int[n];
+		affected = new boolean[n];
+
+		for (int i = 0; i < n; i++)
+			for (int d = 0; d < 2; d++) {
+				mapVariable(this.rectangles[i].origin[d], i);
+				mapVariable(this.rectangles[i].length[d], i);
+			}
+
+	}
+
+	void mapVariable(Var var, int rectangle) {
+
+		int[] previous = rectanglesOf.get(var);
+		if (previous == null)
+			rectanglesOf.put(var, new int[] {rectangle});
+		else if (previous[previous.length - 1] != rectangle) {
+			int[] result = new int[previous.length + 1];
+			System.arraycopy(previous, 0, result, 0, previous.length);
+			result[previous.length] = rectangle;
+			rectanglesOf.put(var, result);
+		}
+
+	}
+
+	/**
+	 * It creates a diff2 constraint.
+	 * @param rectangles list of rectangles, each given as [origin1, origin2, length1, length2].
+	 */
+	public Diff2Sweep(IntVar[][] rectangles) {
+
+		this(toRectangles(rectangles));
+
+	}
+
+	/**
+	 * It creates a diff2 constraint.
+	 * @param o1 list of variables denoting the origin in the first dimension.
+	 * @param o2 list of variables denoting the origin in the second dimension.
+	 * @param l1 list of variables denoting the length in the first dimension.
+	 * @param l2 list of variables denoting the length in the second dimension.
+	 */
+	public Diff2Sweep(IntVar[] o1, IntVar[] o2, IntVar[] l1, IntVar[] l2) {
+
+		this(toRectangles(o1, o2, l1, l2));
+
+	}
+
+	/**
+	 * It creates a diff2 constraint.
+	 * @param rectangles list of rectangles, each given as [origin1, origin2, length1, length2].
+	 */
+	public Diff2Sweep(ArrayList<? extends ArrayList<? extends IntVar>> rectangles) {
+
+		this(toRectangles(rectangles));
+
+	}
+
+	static Rectangle[] toRectangles(IntVar[][] rectangles) {
+
+		Rectangle[] result = new Rectangle[rectangles.length];
+		for (int i = 0; i < rectangles.length; i++) {
+			if (rectangles[i].length != 4)
+				throw new IllegalArgumentException("\nRectangle has to be specified by two origins and two lengths in Diff2Sweep");
+			result[i] = new Rectangle(rectangles[i]);
+		}
+		return result;
+
+	}
+
+	static Rectangle[] toRectangles(IntVar[] o1, IntVar[] o2, IntVar[] l1, IntVar[] l2) {
+
+		if (o1.length != o2.length || o1.length != l1.length || o1.length != l2.length)
+			throw new IllegalArgumentException("\nNot equal sizes of Variable vectors in Diff2Sweep");
+
+		Rectangle[] result = new Rectangle[o1.length];
+		for (int i = 0; i < o1.length; i++)
+			result[i] = new Rectangle(new IntVar[] {o1[i], o2[i], l1[i], l2[i]});
+		return result;
+
+	}
+
+	static Rectangle[] toRectangles(ArrayList<? extends ArrayList<? extends IntVar>> rectangles) {
+
+		Rectangle[] result = new Rectangle[rectangles.size()];
+		for (int i = 0; i < result.length; i++) {
+			if (rectangles.get(i).size() != 4)
+				throw new IllegalArgumentException("\nRectangle has to be specified by two origins and two lengths in Diff2Sweep");
+			result[i] = new Rectangle(rectangles.get(i));
+		}
+		return result;
+
+	}
+
+	@Override
+	public ArrayList<Var> arguments() {
+
+		ArrayList<Var> variables = new ArrayList<Var>(4 * n);
+
+		for (Rectangle r : rectangles) {
+			variables.add(r.origin[0]);
+			variables.add(r.origin[1]);
+			variables.add(r.length[0]);
+			variables.add(r.length[1]);
+		}
+		return variables;
+	}
+
+	@Override
+	public void queueVariable(int level, Var var) {
+
+		int[] list = rectanglesOf.get(var);
+		if (list != null)
+			for (int r : list)
+				if (!changed[r]) {
+					changed[r] = true;
+					changedList[changedCount++] = r;
+				}
+
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		// changes made by this constraint are queued too, so it runs until no rectangle changes 
+		while (sweepAll || changedCount > 0) {
+
+			readBounds();
+			selectAffected();
+
+			for (int a = 0; a < 2; a++) {
+
+				select(a, false);
+				for (int r = 0; r < n; r++)
+					if (affected[r] && aLength[r] > 0 && bLength[r] > 0) {
+						int origin = sweep(r);
+						if (origin > aMin[r])
+							rectangles[r].origin[a].domain.inMin(store.level, rectangles[r].origin[a], origin);
+					}
+
+				select(a, true);
+				for (int r = 0; r < n; r++)
+					if (affected[r] && aLength[r] > 0 && bLength[r] > 0) {
+						int origin = sweep(r);
+						if (origin > aMin[r])
+							rectangles[r].origin[a].domain.inMax(store.level, rectangles[r].origin[a], - origin - aLength[r]);
+					}
+			}
+
+		}
+
+	}
+
+	/**
+	 * It selects rectangles to be swept and clears the list of changed rectangles. 
+	 * Compulsory parts only grow between the consistency calls and the bounds of 
+	 * origins were feasible after the previous call, so the sweep of a rectangle 
+	 * can only change if the rectangle has changed or if it overlaps the compulsory 
+	 * part of a changed rectangle when one of its origins is at its bound.
+	 */
+	void selectAffected() {
+
+		if (sweepAll) {
+			Arrays.fill(affected, true);
+			sweepAll = false;
+		}
+		else if (changedCount <= changedLimit) {
+			for (int r = 0; r < n; r++) {
+				affected[r] = changed[r];
+				for (int k = 0; k < changedCount && !affected[r]; k++) {
+					int c = changedList[k];
+					affected[r] = overlapsAtBound(r, compStart[0][c], compEnd[0][c], compStart[1][c], compEnd[1][c]);
+				}
+			}
+		}
+		else {
+			int[] boxStart = {IntDomain.MaxInt, IntDomain.MaxInt};
+			int[] boxEnd = {IntDomain.MinInt, IntDomain.MinInt};
+			for (int k = 0; k < changedCount; k++) {
+				int c = changedList[k];
+				if (compStart[0][c] < compEnd[0][c] && compStart[1][c] < compEnd[1][c])
+					for (int d = 0; d < 2; d++) {
+						boxStart[d] = Math.min(boxStart[d], compStart[d][c]);
+						boxEnd[d] = Math.max(boxEnd[d], compEnd[d][c]);
+					}
+			}
+			for (int r = 0; r < n; r++)
+				affected[r] = changed[r] || overlapsAtBound(r, boxStart[0], boxEnd[0], boxStart[1], boxEnd[1]);
+		}
+
+		for (int k = 0; k < changedCount; k++)
+			changed[changedList[k]] = false;
+		changedCount = 0;
+
+	}
+
+	/**
+	 * @return true if rectangle r, with the origin in one dimension at its minimum or maximum
+	 * and the origin in the other dimension anywhere, can overlap the area [start0, end0) x [start1, end1).
+	 */
+	boolean overlapsAtBound(int r, int start0, int end0, int start1, int end1) {
+
+		if (start0 >= end0 || start1 >= end1)
+			return false;
+
+		boolean within0 = overlaps(min[0][r], max[0][r] + length[0][r], start0, end0);
+		boolean within1 = overlaps(min[1][r], max[1][r] + length[1][r], start1, end1);
+
+		return within1 && (overlaps(min[0][r], min[0][r] + length[0][r], start0, end0)
+				   || overlaps(max[0][r], max[0][r] + length[0][r], start0, end0))
+			|| within0 && (overlaps(min[1][r], min[1][r] + length[1][r], start1, end1)
+				   || overlaps(max[1][r], max[1][r] + length[1][r], start1, end1));
+
+	}
+
+	static boolean overlaps(int start, int end, int otherStart, int otherEnd) {
+		return start < otherEnd && otherStart < end;
+	}
+
+	void readBounds() {
+
+		for (int i = 0; i < n; i++)
+			for (int d = 0; d < 2; d++) {
+				IntVar origin = rectangles[i].origin[d];
+				min[d][i] = origin.min();
+				max[d][i] = origin.max();
+				length[d][i] = rectangles[i].length[d].min();
+				compStart[d][i] = max[d][i];
+				compEnd[d][i] = min[d][i] + length[d][i];
+			}
+
+	}
+
+	/**
+	 * It prepares sweeping over dimension a, mirrored sweep computes the maximal 
+	 * origins as the minimal origins of rectangles reflected around zero.
+	 */
+	void select(int a, boolean mirrored) {
+
+		int b = 1 - a;
+
+		if (mirrored) {
+			for (int i = 0; i < n; i++) {
+				aMinMirror[i] = - max[a][i] - length[a][i];
+				aMaxMirror[i] = - min[a][i] - length[a][i];
+				caStartMirror[i] = - compEnd[a][i];
+				caEndMirror[i] = - compStart[a][i];
+			}
+			aMin = aMinMirror;
+			aMax = aMaxMirror;
+			caStart = caStartMirror;
+			caEnd = caEndMirror;
+		}
+		else {
+			aMin = min[a];
+			aMax = max[a];
+			caStart = compStart[a];
+			caEnd = compEnd[a];
+		}
+
+		aLength = length[a];
+		bMin = min[b];
+		bMax = max[b];
+		bLength = length[b];
+		cbStart = compStart[b];
+		cbEnd = compEnd[b];
+
+		compulsoryParts = 0;
+		maxWidth = 0;
+		for (int i = 0; i < n; i++)
+			if (caStart[i] < caEnd[i] && cbStart[i] < cbEnd[i]) {
+				keys[compulsoryParts++] = ((long) caStart[i] << 32) | i;
+				maxWidth = Math.max(maxWidth, caEnd[i] - caStart[i]);
+			}
+		Arrays.sort(keys, 0, compulsoryParts);
+		for (int k = 0; k < compulsoryParts; k++) {
+			sorted[k] = (int) keys[k];
+			sortedStart[k] = caStart[sorted[k]];
+		}
+
+	}
+
+	/**
+	 * It finds the smallest origin of rectangle r in dimension a for which 
+	 * some origin in dimension b is not forbidden by compulsory parts of 
+	 * other rectangles.
+	 * @return the smallest feasible origin, greater than aMax[r] if there is none.
+	 */
+	int sweep(int r) {
+
+		// compulsory part s forbids origins [caStart - aLength + 1, caEnd - 1] of r
+		int low = firstStartFrom((long) aMin[r] + 1 - maxWidth);
+
+		// in most cases the current minimal origin is feasible
+		if (!covered(r, low))
+			return aMin[r];
+
+		int high = firstStartFrom((long) aMax[r] + aLength[r]);
+
+		int k = 0;
+		for (int p = low; p < high; p++) {
+
+			int s = sorted[p];
+			if (s == r)
+				continue;
+
+			int fa1 = caStart[s] - aLength[r] + 1;
+			int fa2 = caEnd[s] - 1;
+			int fb1 = Math.max(cbStart[s] - bLength[r] + 1, bMin[r]);
+			int fb2 = Math.min(cbEnd[s] - 1, bMax[r]);
+
+			if (fa2 < aMin[r] || fa1 > aMax[r] || fb1 > fb2)
+				continue;
+
+			faStart[k] = fa1;
+			faEnd[k] = fa2;
+			fbStart[k] = fb1;
+			fbEnd[k] = fb2;
+			k++;
+		}
+
+		if (k == 0)
+			return aMin[r];
+
+		sortRegions(k, faStart, startOrder);
+		sortRegions(k, faEnd, endOrder);
+
+		// elementary intervals of dimension b between consecutive coordinates
+		int m = 0;
+		keys[m++] = bMin[r];
+		keys[m++] = (long) bMax[r] + 1;
+		for (int i = 0; i < k; i++) {
+			keys[m++] = fbStart[i];
+			keys[m++] = (long) fbEnd[i] + 1;
+		}
+		Arrays.sort(keys, 0, m);
+		int c = 0;
+		for (int i = 0; i < m; i++)
+			if (c == 0 || keys[i] != coordinates[c - 1])
+				coordinates[c++] = (int) keys[i];
+		intervals = c - 1;
+		Arrays.fill(cover, 0, 4 * intervals, 0);
+		Arrays.fill(added, 0, 4 * intervals, 0);
+
+		int x = aMin[r];
+		int started = 0, ended = 0;
+
+		while (true) {
+
+			while (started < k && faStart[startOrder[started]] <= x) {
+				int i = startOrder[started++];
+				update(1, 0, intervals - 1, interval(fbStart[i]), interval(fbEnd[i] + 1) - 1, 1);
+			}
+
+			while (ended < k && faEnd[endOrder[ended]] < x) {
+				int i = endOrder[ended++];
+				update(1, 0, intervals - 1, interval(fbStart[i]), interval(fbEnd[i] + 1) - 1, -1);
+			}
+
+			if (cover[1] == 0)
+				return x;
+
+			// coverage can only decrease after the end of some region
+			x = faEnd[endOrder[ended]] + 1;
+			if (x > aMax[r])
+				return x;
+		}
+
+	}
+
+	/**
+	 * It checks if all origins of r in dimension b are forbidden for origin aMin[r] 
+	 * in dimension a. Only compulsory parts from position low onwards are considered.
+	 */
+	boolean covered(int r, int low) {
+
+		int x = aMin[r];
+		int high = firstStartFrom((long) x + aLength[r]);
+
+		int k = 0;
+		for (int p = low; p < high; p++) {
+
+			int s = sorted[p];
+			if (s == r || caEnd[s] - 1 < x)
+				continue;
+
+			int fb1 = Math.max(cbStart[s] - bLength[r] + 1, bMin[r]);
+			int fb2 = Math.min(cbEnd[s] - 1, bMax[r]);
+			if (fb1 > fb2)
+				continue;
+
+			fbStart[k] = fb1;
+			fbEnd[k] = fb2;
+			k++;
+		}
+
+		// a few linear passes extending the covered prefix of [bMin, bMax] avoid sorting in most cases
+		long reach = bMin[r];
+		for (int pass = 0; pass < coverPasses && k > 0; pass++) {
+			boolean extended = false;
+			int kept = 0;
+			for (int i = 0; i < k; i++)
+				if (fbStart[i] <= reach) {
+					if (fbEnd[i] + 1 > reach) {
+						reach = (long) fbEnd[i] + 1;
+						extended = true;
+					}
+				}
+				else {
+					fbStart[kept] = fbStart[i];
+					fbEnd[kept] = fbEnd[i];
+					kept++;
+				}
+			if (reach > bMax[r])
+				return true;
+			if (!extended)
+				return false;
+			k = kept;
+		}
+
+		sortRegions(k, fbStart, startOrder);
+
+		for (int i = 0; i < k; i++) {
+			int region = startOrder[i];
+			if (fbStart[region] > reach)
+				return false;
+			reach = Math.max(reach, (long) fbEnd[region] + 1);
+			if (reach > bMax[r])
+				return true;
+		}
+		return false;
+
+	}
+
+	/**
+	 * @return position of the first compulsory part with start not smaller than t.
+	 */
+	int firstStartFrom(long t) {
+
+		int low = 0, high = compulsoryParts;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sortedStart[middle] >= t)
+				high = middle;
+			else
+				low = middle + 1;
+		}
+		return low;
+
+	}
+
+	void sortRegions(int k, int[] key, int[] order) {
+
+		for (int i = 0; i < k; i++)
+			keys[i] = ((long) key[i] << 32) | i;
+		Arrays.sort(keys, 0, k);
+		for (int i = 0; i < k; i++)
+			order[i] = (int) keys[i];
+
+	}
+
+	/**
+	 * @return index of the elementary interval starting at coordinate t.
+	 */
+	int interval(int t) {
+
+		return Arrays.binarySearch(coordinates, 0, intervals + 1, t);
+
+	}
+
+	/**
+	 * It adds value to the coverage of elementary intervals [from, to], node 
+	 * covers intervals [low, high]. The cover of a node is the minimal coverage 
+	 * within its intervals.
+	 */
+	void update(int node, int low, int high, int from, int to, int value) {
+
+		if (from <= low && high <= to) {
+			cover[node] += value;
+			added[node] += value;
+			return;
+		}
+
+		int middle = (low + high) >>> 1;
+		if (from <= middle)
+			update(2 * node, low, middle, from, to, value);
+		if (to > middle)
+			update(2 * node + 1, middle + 1, high, from, to, value);
+
+		cover[node] = Math.min(cover[2 * node], cover[2 * node + 1]) + added[node];
+
+	}
+
+	@Override
+	public int getConsistencyPruningEvent(Var var) {
+
+		// If consistency function mode
+		if (consistencyPruningEvents != null) {
+			Integer possibleEvent = consistencyPruningEvents.get(var);
+			if (possibleEvent != null)
+				return possibleEvent;
+		}
+		return IntDomain.BOUND;
+	}
+
+	@Override
+	public void impose(Store store) {
+
+		for (Rectangle r : rectangles)
+			for (int d = 0; d < 2; d++) {
+				r.origin[d].putModelConstraint(this, getConsistencyPruningEvent(r.origin[d]));
+				r.length[d].putModelConstraint(this, getConsistencyPruningEvent(r.length[d]));
+			}
+
+		store.addChanged(this);
+		store.countConstraint();
+	}
+
+	@Override
+	public void removeConstraint() {
+
+		for (Rectangle r : rectangles)
+			for (int d = 0; d < 2; d++) {
+				r.origin[d].removeConstraint(this);
+				r.length[d].removeConstraint(this);
+			}
+	}
+
+	@Override
+	public boolean satisfied() {
+
+		for (Rectangle r : rectangles)
+			for (int d = 0; d < 2; d++)
+				if (!r.origin[d].singleton() || !r.length[d].singleton())
+					return false;
+
+		// fixed rectangles are their own compulsory parts
+		readBounds();
+		select(0, false);
+		for (int r = 0; r < n; r++)
+			if (aLength[r] > 0 && bLength[r] > 0 && sweep(r) != aMin[r])
+				return false;
+		return true;
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+
+		result.append(" : diff2Sweep([ ");
+		for (int i = 0; i < n; i++) {
+			result.append(rectangles[i]);
+			if (i < n - 1)
+				result.append(", ");
+		}
+		result.append(" ] )");
+
+		return result.toString();
+
+	}
+
+	@Override
+	public void increaseWeight() {
+		if (increaseWeight) {
+			for (Rectangle r : rectangles)
+				for (int d = 0; d < 2; d++) {
+					r.origin[d].weight++;
+					r.length[d].weight++;
+				}
+		}
+	}
+
+}
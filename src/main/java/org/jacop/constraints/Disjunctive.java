@@ -0,0 +1,644 @@
+/**
+ *  Disjunctive.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * Disjunctive implements the unary resource constraint, tasks given by their 
+ * starts and durations can not overlap in time. It uses O(n log n) algorithms 
+ * by Vilim based on Theta-Lambda trees: overload checking, detectable precedences, 
+ * not-first/not-last and edge-finding. 
+ * 
+ * Tasks can be optional, each optional task has a 0/1 presence variable. Only 
+ * tasks which are certainly present restrict other tasks. An optional task 
+ * which can not be scheduled together with the present ones is made absent, the 
+ * start of an optional task is pruned only when the task becomes present.
+ * 
+ * Tasks with zero duration can be scheduled at any time. Variable durations are 
+ * relaxed to their minimal values.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class Disjunctive extends Constraint {
+
+	static int idNumber = 1;
+
+	/**
+	 * It specifies/stores start variables for each corresponding task. 
+	 */
+	public IntVar[] starts;
+
+	/**
+	 * It specifies/stores duration variables for each corresponding task. 
+	 */
+	public IntVar[] durations;
+
+	/**
+	 * It specifies/stores presence variables of the tasks, null if all the 
+	 * tasks are present.
+	 */
+	public IntVar[] presences;
+
+	/**
+	 * It specifies the arguments required to be saved by an XML format as well as 
+	 * the constructor being called to recreate an object from an XML format.
+	 */
+	public static String[] xmlAttributes = {"starts", "durations", "presences"};
+
+	/**
+	 * Tasks of the resource, the resource usage of a task is its presence variable 
+	 * or null for tasks which are always present.
+	 */
+	Task[] Ts;
+
+	final int n;
+
+	// snapshot of task bounds, lct is computed with minimal duration
+	final int[] est, lct, dur;
+
+	final boolean[] present, optional, inTheta;
+
+	final int[] mirrorEst, mirrorLct, key, bound;
+
+	final int[] estOrder, order, queue, leafPosition;
+
+	final long[] keys;
+
+	final ThetaLambdaTree tree;
+
+	/**
+	 * It creates a disjunctive constraint.
+	 * @param starts variables denoting starts of the tasks.
+	 * @param durations variables denoting durations of the tasks.
+	 * @param presences 0/1 variables denoting if the task is present, null if all tasks are present.
+	 */
+	public Disjunctive(IntVar[] starts, IntVar[] durations, IntVar[] presences) {
+
+		assert ( starts != null ) : "Variable in starts list is null";
+		assert ( durations != null ) : "Variable in durations list is null";
+
+		if (starts.length != durations.length || (presences != null && presences.length != starts.length))
+			throw new IllegalArgumentException( "\nNot equal sizes of Variable vectors in disjunctive" );
+
+		this.n = starts.length;
+		this.numberArgs = (short) ((presences == null ? 2 : 3) * n);
+		this.queueIndex = 2;
+		this.numberId = idNumber++;
+
+		this.starts = new IntVar[n];
+		this.durations = new IntVar[n];
+		if (presences != null)
+			this.presences = new IntVar[n];
+		this.Ts = new Task[n];
+
+		for (int i = 0; i < n; i++) {
+
+			assert (starts[i] != null) : i + "-th variable in starts list is null"; 
+			assert (durations[i] != null) : i + "-th variable in durations list is null"; 
+
+			if (durations[i].min() < 0)
+				throw new IllegalArgumentException("\nDurations must be >= 0 in disjunctive");
+
+			this.starts[i] = starts[i];
+			this.durations[i] = durations[i];
+
+			if (presences != null) {
+				assert (presences[i] != null) : i + "-th variable in presences list is null"; 
+				if (presences[i].min() < 0 || presences[i].max() > 1)
+					throw new IllegalArgumentException("\nPresence variables must be 0/1 in disjunctive");
+				this.presences[i] = presences[i];
+			}
+
+			Ts[i] = new Task(starts[i], durations[i], presences == null ? null : presences[i]);
+		}
+
+		est = new int[n];
+		lct = new int[n];
+		dur = new int[n];
+		present = new boolean[n];
+		optional = new boolean[n];
+		inTheta = new boolean[n];
+		mirrorEst = new int[n];
+		mirrorLct = new int[n];
+		key = new int[n];
+		bound = new int[n];
+		estOrder = new int[n];
+		order = new int[n];
+		queue = new int[n];
+		leafPosition = new int[n];
+		keys = new long[n];
+
+		tree = new ThetaLambdaTree(n);
+
+	}
+
+	/**
+	 * It creates a disjunctive constraint with all tasks present.
+	 * @param starts variables denoting starts of the tasks.
+	 * @param durations variables denoting durations of the tasks.
+	 */
+	public Disjunctive(IntVar[] starts, IntVar[] durations) {
+
+		this(starts, durations, null);
+
+	}
+
+	/**
+	 * It creates a disjunctive constraint.
+	 * @param starts variables denoting starts of the tasks.
+	 * @param durations variables denoting durations of the tasks.
+	 * @param presences 0/1 variables denoting if the task is present.
+	 */
+	public Disjunctive(ArrayList<? extends IntVar> starts,
+			ArrayList<? extends IntVar> durations, 
+			ArrayList<? extends IntVar> presences) {
+
+		this(starts.toArray(new IntVar[starts.size()]), 
+			 durations.toArray(new IntVar[durations.size()]), 
+			 presences == null ? null : presences.toArray(new IntVar[presences.size()]));
+
+	}
+
+	@Override
+	public ArrayList<Var> arguments() {
+
+		ArrayList<Var> variables = new ArrayList<Var>(3 * n);
+
+		for (Var v : starts)
+			variables.add(v);
+		for (Var v : durations)
+			variables.add(v);
+		if (presences != null)
+			for (Var v : presences)
+				variables.add(v);
+		return variables;
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		do {
+
+			store.propagationHasOccurred = false;
+
+			readBounds();
+			overloadChecking(store);
+
+			if (!store.propagationHasOccurred) {
+				readBounds();
+				detectablePrecedences(est, lct);
+				raiseEst(store, false);
+				mirror();
+				detectablePrecedences(mirrorEst, mirrorLct);
+				raiseEst(store, true);
+			}
+
+			if (!store.propagationHasOccurred) {
+				readBounds();
+				notLast(est, lct);
+				lowerLct(store, false);
+				mirror();
+				notLast(mirrorEst, mirrorLct);
+				lowerLct(store, true);
+			}
+
+			if (!store.propagationHasOccurred) {
+				readBounds();
+				edgeFinding(store, est, lct);
+				raiseEst(store, false);
+				mirror();
+				edgeFinding(store, mirrorEst, mirrorLct);
+				raiseEst(store, true);
+			}
+
+		} while (store.propagationHasOccurred);
+
+	}
+
+	/**
+	 * It reads the bounds of the tasks. Tasks which are absent or have zero 
+	 * duration are neither present nor optional and they are not considered.
+	 */
+	void readBounds() {
+
+		for (int i = 0; i < n; i++) {
+
+			Task t = Ts[i];
+			est[i] = t.EST();
+			lct[i] = t.LCT();
+			dur[i] = t.dur.min();
+
+			if (dur[i] == 0 || (t.res != null && t.res.max() == 0)) {
+				present[i] = false;
+				optional[i] = false;
+			}
+			else {
+				present[i] = t.res == null || t.res.min() == 1;
+				optional[i] = !present[i];
+			}
+		}
+
+	}
+
+	void mirror() {
+
+		for (int i = 0; i < n; i++) {
+			mirrorEst[i] = -lct[i];
+			mirrorLct[i] = -est[i];
+		}
+
+	}
+
+	/**
+	 * It sorts the tasks according to key, only present tasks are included 
+	 * unless withOptional is true.
+	 * @return number of the sorted tasks.
+	 */
+	int sort(int[] key, int[] result, boolean withOptional) {
+
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (present[i] || (withOptional && optional[i]))
+				keys[m++] = ((long) key[i] << 32) | i;
+		Arrays.sort(keys, 0, m);
+		for (int k = 0; k < m; k++)
+			result[k] = (int) keys[k];
+		return m;
+
+	}
+
+	/**
+	 * It sorts all considered tasks by est and records their positions in the tree.
+	 * @return number of considered tasks.
+	 */
+	int placeLeaves(int[] e) {
+
+		int m = sort(e, estOrder, true);
+		for (int p = 0; p < m; p++)
+			leafPosition[estOrder[p]] = p;
+		return m;
+
+	}
+
+	/**
+	 * It makes the optional task absent.
+	 */
+	void exclude(Store store, int i) {
+
+		presences[i].domain.in(store.level, presences[i], 0, 0);
+
+	}
+
+	/**
+	 * It checks that present tasks with lct not greater than lct of any task can be 
+	 * scheduled before that lct. Optional tasks which can not be added to such 
+	 * a set are made absent.
+	 */
+	void overloadChecking(Store store) {
+
+		placeLeaves(est);
+		int m = sort(lct, order, true);
+
+		tree.clear(1);
+		for (int q = 0; q < m; q++) {
+
+			int j = order[q];
+			tree.addToTheta(leafPosition[j], est[j], dur[j]);
+			if (optional[j])
+				tree.moveToLambda(leafPosition[j]);
+
+			if (tree.envelope() > lct[j])
+				throw Store.failException;
+
+			while (tree.envelopeLambda() > lct[j]) {
+				int responsible = tree.responsibleLambda();
+				if (responsible < 0)
+					break;
+				exclude(store, estOrder[responsible]);
+				tree.remove(responsible);
+			}
+		}
+
+	}
+
+	/**
+	 * It computes earliest starts of tasks implied by the detectable precedences. 
+	 * Task j precedes task i if ect_i > lst_j, so i can not start before 
+	 * the earliest completion time of all such tasks j.
+	 */
+	void detectablePrecedences(int[] e, int[] l) {
+
+		int m = placeLeaves(e);
+
+		for (int i = 0; i < n; i++) {
+			key[i] = l[i] - dur[i];
+			bound[i] = e[i];
+			inTheta[i] = false;
+		}
+		int k = sort(key, queue, false);
+
+		for (int i = 0; i < n; i++)
+			key[i] = e[i] + dur[i];
+		sort(key, order, true);
+
+		tree.clear(1);
+		int q = 0;
+		for (int p = 0; p < m; p++) {
+
+			int i = order[p];
+			while (q < k && e[i] + dur[i] > l[queue[q]] - dur[queue[q]]) {
+				int j = queue[q++];
+				tree.addToTheta(leafPosition[j], e[j], dur[j]);
+				inTheta[j] = true;
+			}
+
+			long ect = ectWithout(i, e);
+			if (ect > bound[i])
+				bound[i] = (int) ect;
+		}
+
+	}
+
+	/**
+	 * @return earliest completion time of set Theta without task i.
+	 */
+	long ectWithout(int i, int[] e) {
+
+		if (!inTheta[i])
+			return tree.envelope();
+
+		tree.remove(leafPosition[i]);
+		long ect = tree.envelope();
+		tree.addToTheta(leafPosition[i], e[i], dur[i]);
+		return ect;
+
+	}
+
+	/**
+	 * It computes latest completion times of tasks implied by not-last rule. 
+	 * If the tasks Omega with lst smaller than lct_i can not be completed 
+	 * before lst_i then task i has to end before the last start of Omega.
+	 */
+	void notLast(int[] e, int[] l) {
+
+		int m = placeLeaves(e);
+
+		for (int i = 0; i < n; i++) {
+			key[i] = l[i] - dur[i];
+			bound[i] = l[i];
+			inTheta[i] = false;
+		}
+		int k = sort(key, queue, false);
+		sort(l, order, true);
+
+		tree.clear(1);
+		int q = 0;
+		int last = -1, previous = -1;
+		for (int p = 0; p < m; p++) {
+
+			int i = order[p];
+			while (q < k && l[i] > l[queue[q]] - dur[queue[q]]) {
+				int j = queue[q++];
+				tree.addToTheta(leafPosition[j], e[j], dur[j]);
+				inTheta[j] = true;
+				previous = last;
+				last = j;
+			}
+
+			int latest = last == i ? previous : last;
+			if (latest >= 0 && ectWithout(i, e) > l[i] - dur[i]) {
+				int lst = l[latest] - dur[latest];
+				if (lst < bound[i])
+					bound[i] = lst;
+			}
+		}
+
+	}
+
+	/**
+	 * It computes earliest starts of tasks implied by edge-finding. If the 
+	 * earliest completion time of set Omega extended with task i exceeds 
+	 * lct of Omega then task i has to be scheduled after Omega.
+	 */
+	void edgeFinding(Store store, int[] e, int[] l) {
+
+		int m = placeLeaves(e);
+		int k = sort(l, order, false);
+
+		tree.clear(1);
+		for (int p = 0; p < m; p++) {
+			int i = estOrder[p];
+			bound[i] = e[i];
+			tree.addToTheta(p, e[i], dur[i]);
+			if (optional[i])
+				tree.moveToLambda(p);
+		}
+
+		for (int q = k - 1; q >= 0; q--) {
+
+			int j = order[q];
+
+			if (tree.envelope() > l[j])
+				throw Store.failException;
+
+			while (tree.envelopeLambda() > l[j]) {
+
+				int responsible = tree.responsibleLambda();
+				if (responsible < 0)
+					break;
+
+				int i = estOrder[responsible];
+				long ect = tree.envelope();
+
+				if (present[i]) {
+					if (ect > bound[i])
+						bound[i] = (int) ect;
+				}
+				else if (l[i] <= l[j] || ect + dur[i] > l[i])
+					exclude(store, i);
+
+				tree.remove(responsible);
+			}
+
+			tree.moveToLambda(leafPosition[j]);
+		}
+
+	}
+
+	/**
+	 * It applies the earliest starts computed in bound, in mirrored 
+	 * case they are the negated latest completion times.
+	 */
+	void raiseEst(Store store, boolean mirrored) {
+
+		for (int i = 0; i < n; i++) {
+
+			int e = mirrored ? mirrorEst[i] : est[i];
+			int l = mirrored ? mirrorLct[i] : lct[i];
+
+			if ((!present[i] && !optional[i]) || bound[i] <= e)
+				continue;
+
+			if (optional[i]) {
+				if (bound[i] + dur[i] > l)
+					exclude(store, i);
+			}
+			else if (mirrored)
+				starts[i].domain.inMax(store.level, starts[i], - bound[i] - dur[i]);
+			else
+				starts[i].domain.inMin(store.level, starts[i], bound[i]);
+		}
+
+	}
+
+	/**
+	 * It applies the latest completion times computed in bound, in mirrored 
+	 * case they are the negated earliest starts.
+	 */
+	void lowerLct(Store store, boolean mirrored) {
+
+		for (int i = 0; i < n; i++) {
+
+			int e = mirrored ? mirrorEst[i] : est[i];
+			int l = mirrored ? mirrorLct[i] : lct[i];
+
+			if ((!present[i] && !optional[i]) || bound[i] >= l)
+				continue;
+
+			if (optional[i]) {
+				if (bound[i] - dur[i] < e)
+					exclude(store, i);
+			}
+			else if (mirrored)
+				starts[i].domain.inMin(store.level, starts[i], - bound[i]);
+			else
+				starts[i].domain.inMax(store.level, starts[i], bound[i] - dur[i]);
+		}
+
+	}
+
+	@Override
+	public int getConsistencyPruningEvent(Var var) {
+
+		// If consistency function mode
+		if (consistencyPruningEvents != null) {
+			Integer possibleEvent = consistencyPruningEvents.get(var);
+			if (possibleEvent != null)
+				return possibleEvent;
+		}
+		return IntDomain.BOUND;
+	}
+
+	@Override
+	public void impose(Store store) {
+
+		for (int i = 0; i < n; i++) {
+			starts[i].putModelConstraint(this, getConsistencyPruningEvent(starts[i]));
+			durations[i].putModelConstraint(this, getConsistencyPruningEvent(durations[i]));
+			if (presences != null)
+				presences[i].putModelConstraint(this, getConsistencyPruningEvent(presences[i]));
+		}
+
+		store.addChanged(this);
+		store.countConstraint();
+	}
+
+	@Override
+	public void removeConstraint() {
+
+		for (int i = 0; i < n; i++) {
+			starts[i].removeConstraint(this);
+			durations[i].removeConstraint(this);
+			if (presences != null)
+				presences[i].removeConstraint(this);
+		}
+	}
+
+	@Override
+	public boolean satisfied() {
+
+		for (int i = 0; i < n; i++)
+			if (!starts[i].singleton() || !durations[i].singleton() 
+				|| (presences != null && !presences[i].singleton()))
+				return false;
+
+		readBounds();
+		int m = sort(est, order, false);
+		for (int p = 1; p < m; p++)
+			if (est[order[p - 1]] + dur[order[p - 1]] > est[order[p]])
+				return false;
+		return true;
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+
+		result.append(" : disjunctive([ ");
+		for (int i = 0; i < n; i++) {
+			result.append("[").append(starts[i]).append(", ").append(durations[i]);
+			if (presences != null)
+				result.append(", ").append(presences[i]);
+			result.append("]");
+			if (i < n - 1)
+				result.append(", ");
+		}
+		result.append(" ] )");
+
+		return result.toString();
+
+	}
+
+	@Override
+	public void increaseWeight() {
+		if (increaseWeight) {
+			for (int i = 0; i < n; i++) {
+				starts[i].weight++;
+				durations[i].weight++;
+				if (presences != null)
+					presences[i].weight++;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ *  Explainable.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.constraints;
+
+import org.jacop.core.ExplanationTrail;
+import org.jacop.core.IntVar;
+
+/**
+ * Defines an interface of constraints which explain their pruning of bounds 
+ * of variables and their failures. An explanation consists of bound literals 
+ * (x >= v or x <= v) of the constraint variables which were true at the given 
+ * position of the explanation trail and which imply the bound (or the failure) 
+ * by bounds reasoning over the constraint only. The literals are added to the 
+ * trail by functions addGeq and addLeq. 
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public interface Explainable {
+
+	/**
+	 * It explains the bound of the variable pruned by this constraint.
+	 * 
+	 * @param trail the explanation trail which collects the explanation.
+	 * @param position the position of the trail at which the bound was pruned. 
+	 * @param var the variable which bound was pruned.
+	 * @param geq true if the literal var >= value is explained, false if literal var <= value is explained.
+	 * @param value the value of the bound.
+	 * @return false if the bound can not be explained by the bounds of the variables, true otherwise.
+	 */
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value);
+
+	/**
+	 * It explains the failure of this constraint.
+	 * 
+	 * @param trail the explanation trail which collects the explanation.
+	 * @param position the position of the trail at which the constraint failed.
+	 * @return false if the failure can not be explained by the bounds of the variables, true otherwise.
+	 */
+	public boolean explainFailure(ExplanationTrail trail, int position);
+
+}
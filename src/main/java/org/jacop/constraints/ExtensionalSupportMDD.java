@@ -37,7 +37,7 @@ import java.util.ArrayList;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 import org.jacop.util.IndexDomainView;
 import org.jacop.util.MDD;
@@ -70,7 +70,7 @@ public class ExtensionalSupportMDD extends Constraint {
 
 	static int IdNumber = 1;
 
-	TimeStamp<Integer> G_no_size;
+	TimeStampInt G_no_size;
 
 	SparseSet G_no;
 
@@ -125,7 +125,7 @@ public class ExtensionalSupportMDD extends Constraint {
 		for (int i = 0; i < mdd.vars.length; i++)
 			mdd.vars[i].putConstraint(this);
 
-		this.G_no_size = new TimeStamp<Integer>(store, 0);
+		this.G_no_size = new TimeStampInt(store, 0);
 
 		store.addChanged(this);
 		store.countConstraint();
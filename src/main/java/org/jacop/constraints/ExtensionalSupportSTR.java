@@ -42,7 +42,7 @@ import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 import org.jacop.util.IndexDomainView;
 import org.xml.sax.SAXException;
@@ -106,13 +106,13 @@ public class ExtensionalSupportSTR extends Constraint {
 	 * Gives the first position of the eliminated tuple at a given level.
 	 */
 	
-	public TimeStamp<Integer> headsOfEliminatedTuples;
+	public TimeStampInt headsOfEliminatedTuples;
 	
 	/**
 	 * Gives the last position of the eliminated tuple at a given level.
 	 */
 		
-	public TimeStamp<Integer> tailsOfEliminatedTuples;
+	public TimeStampInt tailsOfEliminatedTuples;
 
 	/**
 	 * The number of variable-value pairs which need to have support.
@@ -636,9 +636,9 @@ public class ExtensionalSupportSTR extends Constraint {
 				System.out.println("Variable " + var);
 		}
 				
-		headsOfEliminatedTuples = new TimeStamp<Integer>(store, -1 );
+		headsOfEliminatedTuples = new TimeStampInt(store, -1 );
 		
-		tailsOfEliminatedTuples = new TimeStamp<Integer>(store, -1 );
+		tailsOfEliminatedTuples = new TimeStampInt(store, -1 );
 		
 		nbValuesToBeSupported = new int[list.length];		
 		validityVariablePositions = new int[list.length];
@@ -45,7 +45,7 @@ import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
 import org.jacop.core.IntervalDomainValueEnumeration;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -133,7 +133,7 @@ public class GCC extends Constraint {
 	HashMap<IntVar, Integer> xNodesHash;
 	HashSet<IntVar> xVariableToChange;
 
-	TimeStamp<Integer> stamp;
+	TimeStampInt stamp;
 
 	int stampValue;
 	int firstConsistencyLevel;
@@ -495,7 +495,7 @@ public class GCC extends Constraint {
 	@Override
 	public void impose(Store store) {
 
-		stamp = new TimeStamp<Integer>(store, xSize);
+		stamp = new TimeStampInt(store, xSize);
 		
 		// first I will put all the xNodes in a hashTable to be able to use
 		// it with the queueVariable function
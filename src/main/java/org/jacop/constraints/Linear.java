@@ -34,10 +34,11 @@ package org.jacop.constraints;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import org.jacop.core.ExplanationTrail;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -49,7 +50,7 @@ import org.jacop.core.Var;
  * @version 3.1
  */
 
-public class Linear extends PrimitiveConstraint {
+public class Linear extends PrimitiveConstraint implements Explainable {
     Store store;
 	static int counter = 1;
 
@@ -98,19 +99,37 @@ public class Linear extends PrimitiveConstraint {
 
 	int[] lMaxArray;
 
+	/**
+	 * It maps a variable to its current position in list. It is not updated 
+	 * after the constraint is imposed with event based scheduling, so it maps
+	 * a variable to the index given at registration, position is used to find
+	 * the current position.
+	 */
 	HashMap<Var, Integer> positionMaping;
 
+	/**
+	 * It maps the index given to a variable at registration (event based 
+	 * scheduling) to the current position of the variable in list. It is 
+	 * null if the constraint is attached to variables by pruning events.
+	 */
+	int[] position;
+
+	/**
+	 * It maps the position in list to the index given at registration.
+	 */
+	int[] registrationIndex;
+
 	boolean backtrackHasOccured = false;
 
 	/**
 	 * The sum of grounded variables.
 	 */
-	private TimeStamp<Integer> sumGrounded;
+	private TimeStampInt sumGrounded;
 
 	/**
 	 * The position for the next grounded variable.
 	 */
-	private TimeStamp<Integer> nextGroundedPosition;	
+	private TimeStampInt nextGroundedPosition;	
 
     boolean reified = true;
 
@@ -176,8 +195,8 @@ public class Linear extends PrimitiveConstraint {
 			i++;
 		}
 
-		sumGrounded = new TimeStamp<Integer>(store, 0);
-		nextGroundedPosition = new TimeStamp<Integer>(store, 0);
+		sumGrounded = new TimeStampInt(store, 0);
+		nextGroundedPosition = new TimeStampInt(store, 0);
 		int capacity = list.length*4/3+1;
 		if (capacity < 16)
 		    capacity = 16;
@@ -503,8 +522,22 @@ public class Linear extends PrimitiveConstraint {
 
 	    reified = false;
 
-	    for (Var V : list)
-		V.putModelConstraint(this, getConsistencyPruningEvent(V));
+	    if (store.eventScheduling) {
+
+		position = new int[list.length];
+		registrationIndex = new int[list.length];
+
+		for (int i = 0; i < list.length; i++) {
+		    position[i] = i;
+		    registrationIndex[i] = i;
+		    int mask = store.eventMask(list[i], getConsistencyPruningEvent(list[i]));
+		    store.registerEvents(list[i], this, mask, mask, i);
+		}
+
+	    }
+	    else
+		for (Var V : list)
+		    V.putModelConstraint(this, getConsistencyPruningEvent(V));
 
 	    store.addChanged(this);
 	    store.countConstraint();
@@ -513,13 +546,23 @@ public class Linear extends PrimitiveConstraint {
 
 	@Override
 	public void queueVariable(int level, Var var) {
+		if (position == null)
+			queueVariableAt(var, positionMaping.get(var));
+		else
+			queueVariable(level, var, positionMaping.get(var));
+	}
+
+	@Override
+	public void queueVariable(int level, Var var, int index) {
+		queueVariableAt(var, position[index]);
+	}
+
+	private void queueVariableAt(Var var, int i) {
 
 		if (var.singleton()) {
 
 			int pointer = nextGroundedPosition.value();
 
-			int i = positionMaping.get(var);
-
 			if (i < pointer)
 				return;
 
@@ -534,8 +577,17 @@ public class Linear extends PrimitiveConstraint {
 				list[i] = list[pointer];
 				list[pointer] = grounded;
 
-				positionMaping.put(list[i], i);
-				positionMaping.put(list[pointer], pointer);
+				if (position != null) {
+					int index = registrationIndex[i];
+					registrationIndex[i] = registrationIndex[pointer];
+					registrationIndex[pointer] = index;
+					position[registrationIndex[i]] = i;
+					position[registrationIndex[pointer]] = pointer;
+				}
+				else {
+					positionMaping.put(list[i], i);
+					positionMaping.put(list[pointer], pointer);
+				}
 
 				int temp = lMinArray[i];
 				lMinArray[i] = lMinArray[pointer];
@@ -566,8 +618,6 @@ public class Linear extends PrimitiveConstraint {
 
 		else {
 
-			int i = positionMaping.get(var);
-
 			int mul1 = ((IntVar)var).min() * weights[i];
 			int mul2 = ((IntVar)var).max() * weights[i];
 
@@ -793,4 +843,56 @@ public class Linear extends PrimitiveConstraint {
 			for (Var v : list) v.weight++;
 		}
 	}
+
+	/**
+	 * It returns the weights of this constraint written as a sum less or equal 
+	 * (or equal) to a constant, null for relation ne which is not explained.
+	 */
+	private int[] explanationWeights() {
+
+		switch (relationType) {
+		case eq : case lt : case le : 
+			return weights;
+		case gt : case ge :
+			int[] negated = new int[weights.length];
+			for (int i = 0; i < weights.length; i++)
+				negated[i] = -weights[i];
+			return negated;
+		default :
+			return null;
+		}
+	}
+
+	/**
+	 * It returns the constant of this constraint written as a sum less or equal 
+	 * (or equal) to a constant.
+	 */
+	private long explanationSum() {
+
+		switch (relationType) {
+		case lt : return (long) sum - 1;
+		case gt : return - (long) sum - 1;
+		case ge : return - (long) sum;
+		default : return sum;
+		}
+	}
+
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+
+		int[] a = explanationWeights();
+		if (a == null)
+			return false;
+
+		return trail.explainLinear(list, a, explanationSum(), relationType == eq, position, var, geq, value);
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+
+		int[] a = explanationWeights();
+		if (a == null)
+			return false;
+
+		return trail.explainLinearFailure(list, a, explanationSum(), relationType == eq, position);
+	}
+
 }
@@ -49,7 +49,8 @@ import org.jacop.core.Var;
  * 
  * Do not be fooled by watched literals, if you add thousands of no-goods then
  * traversing even 1/10 of them if they are watched by variable which has been 
- * grounded can slow down search considerably. 
+ * grounded can slow down search considerably. Large number of no-goods should
+ * be added to NoGoodDatabase instead.
  * 
  * NoGoods constraints are imposed at all levels once added. Do not use in 
  * subsearches, as it will not take into account the assignments performed in
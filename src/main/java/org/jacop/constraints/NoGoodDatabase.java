@@ -0,0 +1,1035 @@
+/**
+ *  NoGoodDatabase.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.jacop.core.ExplanationTrail;
+import org.jacop.core.IntVar;
+import org.jacop.core.IntDomain;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * NoGoodDatabase is a single propagator for a large number of no-goods. 
+ * Each no-good disallows a conjunction of literals, a literal being x = v, 
+ * x >= v, or x <= v. All no-goods are kept in flat int arrays, the first two 
+ * literals of each no-good are watched. Watch lists of literals x = v are 
+ * indexed by the literal (variable and value), so grounding a variable visits 
+ * only the no-goods watching its value. The literal of a variable and a value is 
+ * found in an int table of the variable indexed by the value. Watch lists of bound literals are kept
+ * per variable and are visited upon bound changes, which are reported to watched 
+ * constraints only if explanations are switched on (see Store.setExplanations).
+ * 
+ * No-goods are implied by the model, therefore any of them can be removed. If the 
+ * number of no-goods exceeds maxNoGoods then half of them with the lowest activity
+ * is removed. The activity of no-good is increased each time it propagates or fails.
+ * 
+ * No-goods are kept at all levels once added. Similarly as for NoGood the 
+ * propagation done when no-good was added may be lost upon backtracking 
+ * until one of its watched literals changes.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class NoGoodDatabase extends Constraint implements Explainable {
+
+	static int idNumber = 1;
+
+	/**
+	 * It denotes literal x = v.
+	 */
+	public final static int EQ = 0;
+
+	/**
+	 * It denotes literal x >= v.
+	 */
+	public final static int GEQ = 1;
+
+	/**
+	 * It denotes literal x <= v.
+	 */
+	public final static int LEQ = 2;
+
+	// Key of watch list of all bound literals of a variable.
+	final static int BOUNDS = 3;
+
+	/**
+	 * It specifies the maximal number of no-goods kept in the database.
+	 */
+	public int maxNoGoods = 100000;
+
+	/**
+	 * It specifies how fast the activity of no-goods decays, it is applied each 
+	 * time no-good is added.
+	 */
+	public double activityDecay = 0.999;
+
+	double activityIncrement = 1.0;
+
+	Store store;
+
+	// Literals, the variable is given by its index in the store.
+	int[] literalVar = new int[64];
+	int[] literalKind = new int[64];
+	int[] literalValue = new int[64];
+	int literalsNo = 0;
+
+	/**
+	 * It specifies the maximal number of values covered by the literal table of 
+	 * one variable. Literals of variables with values spread wider are kept in 
+	 * a hash table with primitive keys.
+	 */
+	public int maxTableSpan = 1 << 16;
+
+	// Literal ids of the variable with given index, the literal of kind k and value v 
+	// is at position (v - literalOffset[index]) * 3 + k, zero if there is no such literal
+	// and the id plus one otherwise. It is null if the variable has no literal table.
+	int[][] literalTable = new int[0][];
+	int[] literalOffset = new int[0];
+
+	// Variables which literals are kept in the hash table.
+	boolean[] wide = new boolean[0];
+
+	// Open addressing hash table of literals of wide variables, the key is made of 
+	// the variable index, the kind and the value, zero id denotes an empty slot.
+	long[] wideKeys = new long[16];
+	int[] wideIds = new int[16];
+	int wideSize = 0;
+
+	// The literal of kind BOUNDS of each variable, -1 if there is none.
+	int[] boundsKey = new int[0];
+
+	// Watch lists indexed by literal.
+	int[][] watches = new int[64][];
+	int[] watchesSize = new int[64];
+
+	// No-goods, literals of no-good i are at positions start[i] .. start[i] + length[i] - 1.
+	int[] literals = new int[256];
+	int literalsUsed = 0;
+	int[] start = new int[64];
+	int[] length = new int[64];
+	double[] activity = new double[64];
+	int size = 0;
+
+	// Variables of the literals.
+	boolean[] registered = new boolean[0];
+	ArrayList<Var> variables = new ArrayList<Var>();
+
+	// Variables reported by store since the last consistency.
+	int[] pending = new int[16];
+	boolean[] pendingMark = new boolean[0];
+	int pendingSize = 0;
+
+	// No-goods added since the last consistency.
+	int[] toCheck = new int[16];
+	int toCheckSize = 0;
+
+	// No-goods which have pruned bounds and trail positions of the prunings.
+	int[] reasonPositions = new int[64];
+	int[] reasonNoGoods = new int[64];
+	int reasonsSize = 0;
+
+	// No-good being propagated, used to explain failure.
+	int failedNoGood = -1;
+
+	/**
+	 * It counts the prunings done by no-goods.
+	 */
+	public long propagations = 0;
+
+	/**
+	 * It counts the failures caused by no-goods.
+	 */
+	public long conflicts = 0;
+
+	/**
+	 * It counts the no-goods removed from the database.
+	 */
+	public long removed = 0;
+
+	/**
+	 * It creates an empty no-good database.
+	 */
+	public NoGoodDatabase() {
+
+		this.queueIndex = 0;
+		this.numberId = idNumber++;
+
+	}
+
+	/**
+	 * It returns the number of no-goods in the database.
+	 * @return the number of no-goods.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * It adds a no-good disallowing the assignment of values to variables.
+	 * @param vars the variables of the no-good.
+	 * @param values the values of the no-good.
+	 */
+	public void addNoGood(IntVar[] vars, int[] values) {
+
+		int[] kinds = new int[vars.length];
+		Arrays.fill(kinds, EQ);
+		addNoGood(vars, kinds, values);
+
+	}
+
+	/**
+	 * It adds a no-good disallowing the assignment of values to variables.
+	 * @param vars the variables of the no-good.
+	 * @param values the values of the no-good.
+	 */
+	public void addNoGood(ArrayList<? extends IntVar> vars, ArrayList<Integer> values) {
+
+		int[] intValues = new int[values.size()];
+		for (int i = 0; i < intValues.length; i++)
+			intValues[i] = values.get(i);
+
+		addNoGood(vars.toArray(new IntVar[vars.size()]), intValues);
+
+	}
+
+	/**
+	 * It adds a no-good disallowing the conjunction of literals. The database 
+	 * has to be imposed before no-goods are added.
+	 * 
+	 * @param vars the variables of the literals.
+	 * @param kinds the kinds of the literals (EQ, GEQ or LEQ).
+	 * @param values the values of the literals.
+	 */
+	public void addNoGood(IntVar[] vars, int[] kinds, int[] values) {
+
+		assert (store != null) : "NoGoodDatabase has to be imposed before no-goods are added";
+		assert (vars.length == kinds.length && vars.length == values.length) 
+			: "\nLength of vectors different in NoGoodDatabase";
+
+		activityIncrement /= activityDecay;
+		if (activityIncrement > 1e100) {
+			for (int i = 0; i < size; i++)
+				activity[i] *= 1e-100;
+			activityIncrement *= 1e-100;
+		}
+
+		if (size >= maxNoGoods)
+			reduce();
+
+		int n = vars.length;
+
+		if (size == start.length) {
+			start = copy(start, size * 2);
+			length = copy(length, size * 2);
+			activity = Arrays.copyOf(activity, size * 2);
+		}
+		while (literalsUsed + n > literals.length)
+			literals = copy(literals, literals.length * 2);
+
+		int ng = size++;
+		start[ng] = literalsUsed;
+		length[ng] = n;
+		activity[ng] = activityIncrement;
+
+		// Literals which are not true are watched. If there are not enough
+		// of them then the literals which became true most recently are watched,
+		// as they are the first to become not true upon backtracking.
+		long[] order = new long[n];
+		for (int i = 0; i < n; i++) {
+			int lit = literal(vars[i], kinds[i], values[i]);
+			literals[literalsUsed++] = lit;
+			order[i] = isTrue(lit) ? trueSince(lit) : Long.MAX_VALUE;
+		}
+
+		int s = start[ng];
+		for (int w = 0; w < 2 && w < n; w++) {
+			int best = w;
+			for (int i = w + 1; i < n; i++)
+				if (order[i] > order[best])
+					best = i;
+			swap(s + w, s + best);
+			long tmp = order[w];
+			order[w] = order[best];
+			order[best] = tmp;
+		}
+
+		if (n > 0)
+			addWatch(watchKey(literals[s]), ng);
+		if (n > 1)
+			addWatch(watchKey(literals[s + 1]), ng);
+
+		if (n < 2 || order[1] != Long.MAX_VALUE) {
+			if (toCheckSize == toCheck.length)
+				toCheck = copy(toCheck, toCheckSize * 2);
+			toCheck[toCheckSize++] = ng;
+			store.addChanged(this);
+		}
+
+	}
+
+	void swap(int i, int j) {
+		int tmp = literals[i];
+		literals[i] = literals[j];
+		literals[j] = tmp;
+	}
+
+	/**
+	 * It returns the id of the literal, the literal is created if needed.
+	 */
+	int literal(IntVar var, int kind, int value) {
+
+		int index = var.index;
+
+		register(var);
+
+		int id = kind == BOUNDS ? boundsKey[index] : findLiteral(index, kind, value);
+		if (id != -1)
+			return id;
+
+		if (literalsNo == literalVar.length) {
+			int length = literalsNo * 2;
+			literalVar = copy(literalVar, length);
+			literalKind = copy(literalKind, length);
+			literalValue = copy(literalValue, length);
+			watchesSize = copy(watchesSize, length);
+			int[][] tmp = new int[length][];
+			System.arraycopy(watches, 0, tmp, 0, literalsNo);
+			watches = tmp;
+		}
+
+		int lit = literalsNo++;
+		literalVar[lit] = index;
+		literalKind[lit] = kind;
+		literalValue[lit] = value;
+		watches[lit] = null;
+		watchesSize[lit] = 0;
+		if (kind != BOUNDS)
+			putLiteral(var, kind, value, lit);
+
+		if (kind != EQ && kind != BOUNDS && boundsKey[index] == -1)
+			boundsKey[index] = literal(var, BOUNDS, 0);
+
+		return lit;
+
+	}
+
+	/**
+	 * It returns the id of the literal, -1 if there is no such literal.
+	 */
+	int findLiteral(int index, int kind, int value) {
+
+		if (wide[index])
+			return wideGet(wideKey(index, kind, value));
+
+		int[] table = literalTable[index];
+		if (table == null)
+			return -1;
+
+		long position = ((long) value - literalOffset[index]) * 3 + kind;
+		if (position < 0 || position >= table.length)
+			return -1;
+
+		return table[(int) position] - 1;
+
+	}
+
+	/**
+	 * It stores the id of a new literal, the literal table of the variable is 
+	 * extended to cover the value if needed.
+	 */
+	void putLiteral(IntVar var, int kind, int value, int lit) {
+
+		int index = var.index;
+
+		if (!wide[index]) {
+
+			int[] table = literalTable[index];
+
+			long min = value, max = value;
+			if (table == null) {
+				// the table covers the current domain and the value if it is not too large.
+				long domainMin = Math.min(var.min(), value);
+				long domainMax = Math.max(var.max(), value);
+				if (domainMax - domainMin + 1 <= maxTableSpan) {
+					min = domainMin;
+					max = domainMax;
+				}
+			}
+			else {
+				long oldMin = literalOffset[index];
+				long oldMax = oldMin + table.length / 3 - 1;
+				min = Math.min(oldMin, value);
+				max = Math.max(oldMax, value);
+				// the table at least doubles as long as it does not become too large.
+				long span = Math.min(2 * (oldMax - oldMin + 1), maxTableSpan);
+				if (value < oldMin)
+					min = Math.min(min, max - span + 1);
+				else if (value > oldMax)
+					max = Math.max(max, min + span - 1);
+			}
+
+			if (max - min + 1 > maxTableSpan)
+				toWide(index);
+			else {
+
+				if (table == null || min != literalOffset[index] || (max - min + 1) * 3 != table.length) {
+					int[] result = new int[(int) (max - min + 1) * 3];
+					if (table != null)
+						System.arraycopy(table, 0, result, (int) (literalOffset[index] - min) * 3, table.length);
+					literalTable[index] = table = result;
+					literalOffset[index] = (int) min;
+				}
+
+				table[(value - literalOffset[index]) * 3 + kind] = lit + 1;
+				return;
+			}
+
+		}
+
+		widePut(wideKey(index, kind, value), lit);
+
+	}
+
+	/**
+	 * It moves the literals of the variable from its literal table to the hash table.
+	 */
+	void toWide(int index) {
+
+		int[] table = literalTable[index];
+		int offset = literalOffset[index];
+
+		wide[index] = true;
+		literalTable[index] = null;
+
+		for (int i = 0; i < table.length; i++)
+			if (table[i] != 0)
+				widePut(wideKey(index, i % 3, offset + i / 3), table[i] - 1);
+
+	}
+
+	static long wideKey(int index, int kind, int value) {
+		return ((long) index << 34) | ((long) kind << 32) | (value & 0xffffffffL);
+	}
+
+	static int wideSlot(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	int wideGet(long key) {
+
+		int mask = wideKeys.length - 1;
+		for (int i = wideSlot(key, mask); wideIds[i] != 0; i = (i + 1) & mask)
+			if (wideKeys[i] == key)
+				return wideIds[i] - 1;
+
+		return -1;
+
+	}
+
+	void widePut(long key, int lit) {
+
+		if (2 * (wideSize + 1) > wideKeys.length) {
+			long[] oldKeys = wideKeys;
+			int[] oldIds = wideIds;
+			wideKeys = new long[oldKeys.length * 2];
+			wideIds = new int[oldKeys.length * 2];
+			wideSize = 0;
+			for (int i = 0; i < oldKeys.length; i++)
+				if (oldIds[i] != 0)
+					widePut(oldKeys[i], oldIds[i] - 1);
+		}
+
+		int mask = wideKeys.length - 1;
+		int i = wideSlot(key, mask);
+		while (wideIds[i] != 0)
+			i = (i + 1) & mask;
+
+		wideKeys[i] = key;
+		wideIds[i] = lit + 1;
+		wideSize++;
+
+	}
+
+	void register(IntVar var) {
+
+		int index = var.index;
+
+		if (index >= registered.length) {
+			int length = Math.max(index + 1, registered.length * 2);
+			registered = Arrays.copyOf(registered, length);
+			pendingMark = Arrays.copyOf(pendingMark, length);
+			wide = Arrays.copyOf(wide, length);
+			literalOffset = copy(literalOffset, length);
+			literalTable = Arrays.copyOf(literalTable, length);
+			int old = boundsKey.length;
+			boundsKey = copy(boundsKey, length);
+			for (int i = old; i < length; i++)
+				boundsKey[i] = -1;
+		}
+
+		if (!registered[index]) {
+			registered[index] = true;
+			variables.add(var);
+			store.registerWatchedLiteralConstraint(var, this);
+		}
+
+	}
+
+	int watchKey(int lit) {
+		if (literalKind[lit] == EQ)
+			return lit;
+		return boundsKey[literalVar[lit]];
+	}
+
+	void addWatch(int key, int ng) {
+
+		if (watches[key] == null)
+			watches[key] = new int[4];
+		else if (watchesSize[key] == watches[key].length)
+			watches[key] = copy(watches[key], watchesSize[key] * 2);
+
+		watches[key][watchesSize[key]++] = ng;
+
+	}
+
+	IntVar var(int lit) {
+		return (IntVar) store.vars[literalVar[lit]];
+	}
+
+	boolean isTrue(int lit) {
+
+		IntVar var = var(lit);
+		int value = literalValue[lit];
+
+		switch (literalKind[lit]) {
+		case EQ : return var.singleton(value);
+		case GEQ : return var.min() >= value;
+		default : return var.max() <= value;
+		}
+
+	}
+
+	boolean isFalse(int lit) {
+
+		IntVar var = var(lit);
+		int value = literalValue[lit];
+
+		switch (literalKind[lit]) {
+		case EQ : return !var.domain.contains(value);
+		case GEQ : return var.max() < value;
+		default : return var.min() > value;
+		}
+
+	}
+
+	/**
+	 * It returns the time since the true literal holds, the trail position if 
+	 * explanations are recorded and the store level otherwise.
+	 */
+	long trueSince(int lit) {
+
+		IntVar var = var(lit);
+		ExplanationTrail trail = store.explanationTrail;
+
+		if (trail == null)
+			return var.domain.stamp();
+
+		int value = literalValue[lit];
+
+		switch (literalKind[lit]) {
+		case EQ : return Math.max(trail.implyingPosition(var, true, value), trail.implyingPosition(var, false, value));
+		case GEQ : return trail.implyingPosition(var, true, value);
+		default : return trail.implyingPosition(var, false, value);
+		}
+
+	}
+
+	void falsify(int ng, int lit) {
+
+		IntVar var = var(lit);
+		int value = literalValue[lit];
+
+		ExplanationTrail trail = store.explanationTrail;
+		int position = trail != null ? trail.size() : 0;
+
+		failedNoGood = ng;
+		propagations++;
+		activity[ng] += activityIncrement;
+
+		switch (literalKind[lit]) {
+		case EQ : var.domain.inComplement(store.level, var, value); break;
+		case GEQ : var.domain.inMax(store.level, var, value - 1); break;
+		default : var.domain.inMin(store.level, var, value + 1);
+		}
+
+		if (trail != null && trail.size() > position) {
+			// prunings undone by backtracking are forgotten.
+			while (reasonsSize > 0 && reasonPositions[reasonsSize - 1] >= position)
+				reasonsSize--;
+			if (reasonsSize == reasonPositions.length) {
+				reasonPositions = copy(reasonPositions, reasonsSize * 2);
+				reasonNoGoods = copy(reasonNoGoods, reasonsSize * 2);
+			}
+			reasonPositions[reasonsSize] = position;
+			reasonNoGoods[reasonsSize++] = ng;
+		}
+
+		failedNoGood = -1;
+
+	}
+
+	void fail(int ng) {
+
+		failedNoGood = ng;
+		conflicts++;
+		activity[ng] += activityIncrement;
+		throw Store.failException;
+
+	}
+
+	/**
+	 * It checks the no-good which has been added. It fails if all literals are 
+	 * true and propagates if all literals but one are true.
+	 */
+	void check(int ng) {
+
+		int s = start[ng];
+		int nonTrue = -1;
+
+		for (int k = s; k < s + length[ng]; k++) {
+			int lit = literals[k];
+			if (!isTrue(lit)) {
+				if (nonTrue != -1 || isFalse(lit))
+					return;
+				nonTrue = lit;
+			}
+		}
+
+		if (nonTrue == -1)
+			fail(ng);
+
+		falsify(ng, nonTrue);
+
+	}
+
+	boolean matches(int lit, int key) {
+
+		if (literalKind[key] == BOUNDS)
+			return literalKind[lit] != EQ && literalVar[lit] == literalVar[key];
+
+		return lit == key;
+
+	}
+
+	/**
+	 * It visits no-goods watching the key which may have become true.
+	 */
+	void propagate(int key) {
+
+		int i = 0;
+		while (i < watchesSize[key]) {
+
+			int ng = watches[key][i];
+			int s = start[ng];
+			int n = length[ng];
+
+			int p;
+			if (matches(literals[s], key) && isTrue(literals[s]))
+				p = 0;
+			else if (n > 1 && matches(literals[s + 1], key) && isTrue(literals[s + 1]))
+				p = 1;
+			else {
+				i++;
+				continue;
+			}
+
+			if (n == 1)
+				fail(ng);
+
+			int other = literals[s + 1 - p];
+			if (isFalse(other)) {
+				i++;
+				continue;
+			}
+
+			int next = -1;
+			for (int k = s + 2; k < s + n; k++)
+				if (!isTrue(literals[k])) {
+					next = k;
+					if (isFalse(literals[k]))
+						break;
+				}
+
+			if (next != -1) {
+				swap(s + p, next);
+				watches[key][i] = watches[key][--watchesSize[key]];
+				addWatch(watchKey(literals[s + p]), ng);
+				continue;
+			}
+
+			if (isTrue(other))
+				fail(ng);
+
+			falsify(ng, other);
+			i++;
+
+		}
+
+	}
+
+	@Override
+	public ArrayList<Var> arguments() {
+
+		return new ArrayList<Var>(variables);
+
+	}
+
+	@Override
+	public void consistency(Store store) {
+
+		while (toCheckSize > 0)
+			check(toCheck[--toCheckSize]);
+
+		while (pendingSize > 0) {
+
+			int index = pending[--pendingSize];
+			pendingMark[index] = false;
+
+			IntVar var = (IntVar) store.vars[index];
+
+			if (var.singleton()) {
+				int lit = findLiteral(index, EQ, var.value());
+				if (lit != -1)
+					propagate(lit);
+			}
+
+			if (boundsKey[index] != -1)
+				propagate(boundsKey[index]);
+
+		}
+
+	}
+
+	@Override
+	public void queueVariable(int level, Var var) {
+
+		int index = var.index;
+
+		if (index < pendingMark.length && !pendingMark[index]) {
+			pendingMark[index] = true;
+			if (pendingSize == pending.length)
+				pending = copy(pending, pendingSize * 2);
+			pending[pendingSize++] = index;
+		}
+
+	}
+
+	@Override
+	public void cleanAfterFailure() {
+
+		while (pendingSize > 0)
+			pendingMark[pending[--pendingSize]] = false;
+
+		failedNoGood = -1;
+
+	}
+
+	@Override
+	public int getConsistencyPruningEvent(Var var) {
+
+		// If consistency function mode
+		if (consistencyPruningEvents != null) {
+			Integer possibleEvent = consistencyPruningEvents.get(var);
+			if (possibleEvent != null)
+				return possibleEvent;
+		}
+		return IntDomain.BOUND;
+	}
+
+	// registers the constraint in the constraint store
+	// using watched literals functionality.
+	@Override
+	public void impose(Store store) {
+
+		this.store = store;
+
+		if (store.watchedConstraints == null)
+			store.watchedConstraints = new HashMap<Var, HashSet<Constraint>>();
+
+	}
+
+	/**
+	 * It removes half of the no-goods with the lowest activity. The no-goods 
+	 * of size two or less, the no-goods which have not been checked yet, and 
+	 * the no-goods explaining current prunings are kept.
+	 */
+	void reduce() {
+
+		boolean[] keep = new boolean[size];
+
+		ExplanationTrail trail = store.explanationTrail;
+		int trailSize = trail != null ? trail.size() : 0;
+		while (reasonsSize > 0 && reasonPositions[reasonsSize - 1] >= trailSize)
+			reasonsSize--;
+
+		for (int i = 0; i < reasonsSize; i++)
+			keep[reasonNoGoods[i]] = true;
+		for (int i = 0; i < toCheckSize; i++)
+			keep[toCheck[i]] = true;
+
+		double[] candidates = new double[size];
+		int candidatesNo = 0;
+		for (int i = 0; i < size; i++) {
+			if (length[i] <= 2)
+				keep[i] = true;
+			if (!keep[i])
+				candidates[candidatesNo++] = activity[i];
+		}
+
+		if (candidatesNo == 0)
+			return;
+
+		Arrays.sort(candidates, 0, candidatesNo);
+		double threshold = candidates[candidatesNo / 2];
+		int toRemove = candidatesNo / 2 + 1;
+
+		for (int i = 0; i < size; i++)
+			if (!keep[i] && toRemove > 0 && activity[i] <= threshold)
+				toRemove--;
+			else
+				keep[i] = true;
+
+		// Rebuild the database from kept no-goods.
+		int[] oldLiterals = literals;
+		int[] oldLiteralVar = literalVar;
+		int[] oldLiteralKind = literalKind;
+		int[] oldLiteralValue = literalValue;
+		int[] remap = new int[size];
+
+		literals = new int[Math.max(256, literalsUsed)];
+		literalsUsed = 0;
+		literalVar = new int[64];
+		literalKind = new int[64];
+		literalValue = new int[64];
+		literalsNo = 0;
+		for (int i = 0; i < literalTable.length; i++)
+			if (literalTable[i] != null)
+				Arrays.fill(literalTable[i], 0);
+		Arrays.fill(wideIds, 0);
+		wideSize = 0;
+		Arrays.fill(boundsKey, -1);
+		watches = new int[64][];
+		watchesSize = new int[64];
+
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+
+			if (!keep[i]) {
+				remap[i] = -1;
+				removed++;
+				continue;
+			}
+
+			int s = start[i];
+			start[newSize] = literalsUsed;
+			length[newSize] = length[i];
+			activity[newSize] = activity[i];
+			for (int k = s; k < s + length[i]; k++) {
+				int lit = oldLiterals[k];
+				literals[literalsUsed++] = literal((IntVar) store.vars[oldLiteralVar[lit]], 
+												  oldLiteralKind[lit], oldLiteralValue[lit]);
+			}
+
+			if (length[newSize] > 0)
+				addWatch(watchKey(literals[start[newSize]]), newSize);
+			if (length[newSize] > 1)
+				addWatch(watchKey(literals[start[newSize] + 1]), newSize);
+
+			remap[i] = newSize++;
+		}
+
+		size = newSize;
+
+		for (int i = 0; i < reasonsSize; i++)
+			reasonNoGoods[i] = remap[reasonNoGoods[i]];
+		for (int i = 0; i < toCheckSize; i++)
+			toCheck[i] = remap[toCheck[i]];
+
+	}
+
+	/**
+	 * No-goods can not be removed for a given level, this function does nothing.
+	 */
+	@Override
+	public void removeConstraint() {
+	}
+
+	/**
+	 * Watched constraint takes care in other way if it is satisfied. It 
+	 * returns false by default.
+	 */
+	@Override
+	public boolean satisfied() {
+		return false;
+	}
+
+	/**
+	 * It adds to the explanation the literals of the no-good which are true at 
+	 * the given position, except the literal at the given index. It returns false
+	 * if any of the literals is not true.
+	 */
+	boolean explainLiterals(ExplanationTrail trail, int ng, int position, int except) {
+
+		int s = start[ng];
+		int n = length[ng];
+
+		for (int k = s; k < s + n; k++) {
+			if (k == except)
+				continue;
+			int lit = literals[k];
+			IntVar var = var(lit);
+			int value = literalValue[lit];
+			if (literalKind[lit] != LEQ && trail.min(var, position) < value)
+				return false;
+			if (literalKind[lit] != GEQ && trail.max(var, position) > value)
+				return false;
+		}
+
+		for (int k = s; k < s + n; k++) {
+			if (k == except)
+				continue;
+			int lit = literals[k];
+			if (literalKind[lit] != LEQ)
+				trail.addGeq(var(lit), literalValue[lit]);
+			if (literalKind[lit] != GEQ)
+				trail.addLeq(var(lit), literalValue[lit]);
+		}
+
+		return true;
+
+	}
+
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+
+		int r = reasonsSize - 1;
+		while (r >= 0 && reasonPositions[r] > position)
+			r--;
+		if (r < 0 || reasonPositions[r] != position)
+			return false;
+
+		int ng = reasonNoGoods[r];
+		int s = start[ng];
+
+		for (int k = s; k < s + length[ng]; k++) {
+
+			int lit = literals[k];
+			if (literalVar[lit] != var.index)
+				continue;
+
+			int v = literalValue[lit];
+			switch (literalKind[lit]) {
+			case GEQ :
+				// x <= v - 1 implies the requested literal.
+				if (geq || v - 1 > value)
+					continue;
+				break;
+			case LEQ :
+				// x >= v + 1 implies the requested literal.
+				if (!geq || v + 1 < value)
+					continue;
+				break;
+			default :
+				// removal of v moves the bound only if v was the bound.
+				if (geq ? (value > v + 1 || trail.min(var, position) < v)
+						: (value < v - 1 || trail.max(var, position) > v))
+					continue;
+				if (!explainLiterals(trail, ng, position, k))
+					continue;
+				if (geq)
+					trail.addGeq(var, v);
+				else
+					trail.addLeq(var, v);
+				return true;
+			}
+
+			if (explainLiterals(trail, ng, position, k))
+				return true;
+		}
+
+		return false;
+
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+
+		if (failedNoGood == -1)
+			return false;
+
+		return explainLiterals(trail, failedNoGood, position, -1);
+
+	}
+
+	static int[] copy(int[] array, int length) {
+		int[] result = new int[length];
+		System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+		return result;
+	}
+
+	@Override
+	public void increaseWeight() {
+		if (increaseWeight) {
+			for (Var v : variables) v.weight++;
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer( id() );
+
+		result.append(" : noGoodDatabase(no-goods : ").append(size);
+		result.append(", propagations : ").append(propagations);
+		result.append(", conflicts : ").append(conflicts);
+		result.append(", removed : ").append(removed).append(")");
+
+		return result.toString();
+	}
+
+}
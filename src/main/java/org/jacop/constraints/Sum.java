@@ -36,7 +36,7 @@ import java.util.ArrayList;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -64,12 +64,12 @@ public class Sum extends Constraint {
 	/**
 	 * The sum of grounded variables.
 	 */
-	private TimeStamp<Integer> sumGrounded;
+	private TimeStampInt sumGrounded;
 	
 	/**
 	 * The position for the next grounded variable.
 	 */
-	private TimeStamp<Integer> nextGroundedPosition;	
+	private TimeStampInt nextGroundedPosition;	
 
 	/**
 	 * It specifies the arguments required to be saved by an XML format as well as 
@@ -222,8 +222,8 @@ public class Sum extends Constraint {
 	@Override
 	public void impose(Store store) {
 
-		sumGrounded = new TimeStamp<Integer>(store, 0);
-		nextGroundedPosition = new TimeStamp<Integer>(store, 0);
+		sumGrounded = new TimeStampInt(store, 0);
+		nextGroundedPosition = new TimeStampInt(store, 0);
 		
 		sum.putModelConstraint(this, getConsistencyPruningEvent(sum));
 		
@@ -37,7 +37,7 @@ import java.util.HashMap;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -175,12 +175,12 @@ public class SumWeight extends Constraint {
 	/**
 	 * The sum of grounded variables.
 	 */
-	private TimeStamp<Integer> sumGrounded;
+	private TimeStampInt sumGrounded;
 
 	/**
 	 * The position for the next grounded variable.
 	 */
-	private TimeStamp<Integer> nextGroundedPosition;	
+	private TimeStampInt nextGroundedPosition;	
 
 	@Override
 	public void consistency(Store store) {
@@ -287,27 +287,44 @@ public class SumWeight extends Constraint {
 	@Override
 	public void impose(Store store) {
 
-		sumGrounded = new TimeStamp<Integer>(store, 0);
-		nextGroundedPosition = new TimeStamp<Integer>(store, 0);
-		positionMaping = new HashMap<Var, Integer>();
-
+		sumGrounded = new TimeStampInt(store, 0);
+		nextGroundedPosition = new TimeStampInt(store, 0);
 		store.registerRemoveLevelLateListener(this);
 
-		sum.putModelConstraint(this, getConsistencyPruningEvent(sum));
-		for (Var V : list)
-			V.putModelConstraint(this, getConsistencyPruningEvent(V));
+		if (store.eventScheduling) {
+
+			store.registerEvents(sum, this, store.eventMask(sum, getConsistencyPruningEvent(sum)), 0, -1);
+
+			position = new int[list.length];
+			registrationIndex = new int[list.length];
+
+			for (int i = 0; i < list.length; i++) {
+				position[i] = i;
+				registrationIndex[i] = i;
+				int mask = store.eventMask(list[i], getConsistencyPruningEvent(list[i]));
+				store.registerEvents(list[i], this, mask, mask, i);
+			}
+
+		}
+		else {
+			sum.putModelConstraint(this, getConsistencyPruningEvent(sum));
+			for (Var V : list)
+				V.putModelConstraint(this, getConsistencyPruningEvent(V));
+		}
 
 		lMinArray = new int[list.length];
 		lMaxArray = new int[list.length];
 		lMin = 0;
 		lMax = 0;
 
+		positionMaping = new HashMap<Var, Integer>();
+
 		for (int i = 0; i < list.length; i++) {
 
 			assert (positionMaping.get(list[i]) == null) : "The variable occurs twice in the list, not able to make a maping from the variable to its list index.";
 
 			positionMaping.put(list[i], new Integer(i));
-			queueVariable(store.level, list[i]);
+			queueVariableAt(list[i], i);
 		}
 
 		store.addChanged(this);
@@ -322,8 +339,26 @@ public class SumWeight extends Constraint {
 
 	int[] lMaxArray;
 
+	/**
+	 * It maps a variable to its current position in list. It is not updated 
+	 * if the constraint uses event based scheduling, so it maps a variable to 
+	 * the index given at registration, position is used to find the current 
+	 * position.
+	 */
 	HashMap<Var, Integer> positionMaping;
 
+	/**
+	 * It maps the index given to a variable at registration (event based 
+	 * scheduling) to the current position of the variable in list. It is 
+	 * null if the constraint is attached to variables by pruning events.
+	 */
+	int[] position;
+
+	/**
+	 * It maps the position in list to the index given at registration.
+	 */
+	int[] registrationIndex;
+
 	boolean backtrackHasOccured = false;
 
 	@Override
@@ -332,12 +367,27 @@ public class SumWeight extends Constraint {
 		if (var == sum)
 			return;
 
+		if (position == null)
+			queueVariableAt(var, positionMaping.get(var));
+		else
+			queueVariable(level, var, positionMaping.get(var));
+	}
+
+	@Override
+	public void queueVariable(int level, Var var, int index) {
+
+		if (var == sum)
+			return;
+
+		queueVariableAt(var, position[index]);
+	}
+
+	private void queueVariableAt(Var var, int i) {
+
 		if (var.singleton()) {
 
 			int pointer = nextGroundedPosition.value();
 
-			int i = positionMaping.get(var);
-
 			if (i < pointer)
 				return;
 
@@ -352,8 +402,17 @@ public class SumWeight extends Constraint {
 				list[i] = list[pointer];
 				list[pointer] = grounded;
 
-				positionMaping.put(list[i], i);
-				positionMaping.put(list[pointer], pointer);
+				if (position != null) {
+					int index = registrationIndex[i];
+					registrationIndex[i] = registrationIndex[pointer];
+					registrationIndex[pointer] = index;
+					position[registrationIndex[i]] = i;
+					position[registrationIndex[pointer]] = pointer;
+				}
+				else {
+					positionMaping.put(list[i], i);
+					positionMaping.put(list[pointer], pointer);
+				}
 
 				int temp = lMinArray[i];
 				lMinArray[i] = lMinArray[pointer];
@@ -384,8 +443,6 @@ public class SumWeight extends Constraint {
 
 		else {
 
-			int i = positionMaping.get(var);
-
 			int mul1 = ((IntVar)var).min() * weights[i];
 			int mul2 = ((IntVar)var).max() * weights[i];
 			// int mul1 = IntDomain.multiply(((IntVar)var).min(), weights[i]);
@@ -38,7 +38,7 @@ import java.util.LinkedHashSet;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 import org.jacop.core.Interval;
 import org.jacop.core.IntervalDomain;
@@ -231,12 +231,12 @@ public class SumWeightDom extends Constraint {
     /**
      * The sum of grounded variables.
      */
-    private TimeStamp<Integer> sumGrounded;
+    private TimeStampInt sumGrounded;
 
     /**
      * The position for the next grounded variable.
      */
-    private TimeStamp<Integer> nextGroundedPosition;	
+    private TimeStampInt nextGroundedPosition;	
 
     @Override
 	public void consistency(Store store) {
@@ -330,8 +330,8 @@ public class SumWeightDom extends Constraint {
     @Override
 	public void impose(Store store) {
 
-	sumGrounded = new TimeStamp<Integer>(store, 0);
-	nextGroundedPosition = new TimeStamp<Integer>(store, 0);
+	sumGrounded = new TimeStampInt(store, 0);
+	nextGroundedPosition = new TimeStampInt(store, 0);
 	positionMaping = new HashMap<Var, Integer>();
 
 	store.registerRemoveLevelLateListener(this);
@@ -0,0 +1,319 @@
+/**
+ *  ThetaLambdaTree.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.constraints;
+
+/**
+ * ThetaLambdaTree is a balanced binary tree over tasks sorted by their earliest
+ * start times as used by Vilim's O(n log n) edge-finding algorithms. Each leaf is 
+ * either empty, a task in set Theta (white) or a task in set Lambda (gray). 
+ * Every node keeps the energy and the energy envelope of the Theta tasks in 
+ * its subtree as well as the same values when at most one Lambda task is added. 
+ * The envelope of a set of tasks is max(capacity * est + energy) over all 
+ * its subsets of tasks with est not smaller than given est. For unary resources 
+ * (capacity one and energy equal to duration) the envelope is the earliest 
+ * completion time of the set.
+ * 
+ * All the data is stored in arrays allocated once, so the tree can be cleared 
+ * and reused during each consistency call without creating any garbage.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+class ThetaLambdaTree {
+
+	/**
+	 * It denotes the envelope of an empty set, it is small enough to 
+	 * stay negative when energies are added to it.
+	 */
+	static final long EMPTY = Long.MIN_VALUE / 4;
+
+	/**
+	 * Number of leaves, always a power of two. Node 1 is the root and leaf 
+	 * at position p is stored as node leaves + p.
+	 */
+	final int leaves;
+
+	long capacity;
+
+	final long[] est;
+
+	final long[] energy;
+
+	final long[] envelope;
+
+	final long[] energyLambda;
+
+	final long[] envelopeLambda;
+
+	/**
+	 * Position of the gray leaf responsible for energyLambda, -1 if none.
+	 */
+	final int[] responsibleEnergy;
+
+	/**
+	 * Position of the gray leaf responsible for envelopeLambda, -1 if none.
+	 */
+	final int[] responsibleEnvelope;
+
+	/**
+	 * It creates a tree capable of holding the given number of tasks.
+	 * @param size the maximal number of tasks (leaves).
+	 */
+	ThetaLambdaTree(int size) {
+
+		int l = 1;
+		while (l < size)
+			l <<= 1;
+		leaves = l;
+
+		est = new long[2 * l];
+		energy = new long[2 * l];
+		envelope = new long[2 * l];
+		energyLambda = new long[2 * l];
+		envelopeLambda = new long[2 * l];
+		responsibleEnergy = new int[2 * l];
+		responsibleEnvelope = new int[2 * l];
+
+		clear(1);
+	}
+
+	/**
+	 * It removes all tasks from the tree and sets the capacity used to 
+	 * compute the envelopes.
+	 * @param capacity the multiplier of est in the envelope.
+	 */
+	void clear(long capacity) {
+
+		this.capacity = capacity;
+		for (int v = 1; v < 2 * leaves; v++) {
+			energy[v] = 0;
+			envelope[v] = EMPTY;
+			energyLambda[v] = 0;
+			envelopeLambda[v] = EMPTY;
+			responsibleEnergy[v] = -1;
+			responsibleEnvelope[v] = -1;
+		}
+
+	}
+
+	/**
+	 * It puts the task at the given position into set Theta.
+	 * @param pos position of the task in est order.
+	 * @param taskEst earliest start time of the task.
+	 * @param taskEnergy energy of the task.
+	 */
+	void addToTheta(int pos, long taskEst, long taskEnergy) {
+
+		int v = leaves + pos;
+		est[v] = taskEst;
+		energy[v] = taskEnergy;
+		envelope[v] = capacity * taskEst + taskEnergy;
+		energyLambda[v] = energy[v];
+		envelopeLambda[v] = envelope[v];
+		responsibleEnergy[v] = -1;
+		responsibleEnvelope[v] = -1;
+		update(v);
+
+	}
+
+	/**
+	 * It moves the task at the given position from set Theta to set Lambda.
+	 * @param pos position of the task in est order.
+	 */
+	void moveToLambda(int pos) {
+
+		int v = leaves + pos;
+		energyLambda[v] = energy[v];
+		envelopeLambda[v] = envelope[v];
+		energy[v] = 0;
+		envelope[v] = EMPTY;
+		responsibleEnergy[v] = pos;
+		responsibleEnvelope[v] = pos;
+		update(v);
+
+	}
+
+	/**
+	 * It removes the task at the given position from the tree.
+	 * @param pos position of the task in est order.
+	 */
+	void remove(int pos) {
+
+		int v = leaves + pos;
+		energy[v] = 0;
+		envelope[v] = EMPTY;
+		energyLambda[v] = 0;
+		envelopeLambda[v] = EMPTY;
+		responsibleEnergy[v] = -1;
+		responsibleEnvelope[v] = -1;
+		update(v);
+
+	}
+
+	void update(int v) {
+
+		for (v >>= 1; v > 0; v >>= 1) {
+
+			int l = 2 * v, r = l + 1;
+
+			energy[v] = energy[l] + energy[r];
+			envelope[v] = Math.max(envelope[l] + energy[r], envelope[r]);
+
+			long a = energyLambda[l] + energy[r];
+			long b = energy[l] + energyLambda[r];
+			if (a > b || (a == b && responsibleEnergy[r] == -1)) {
+				energyLambda[v] = a;
+				responsibleEnergy[v] = responsibleEnergy[l];
+			}
+			else {
+				energyLambda[v] = b;
+				responsibleEnergy[v] = responsibleEnergy[r];
+			}
+
+			long best = envelopeLambda[r];
+			int responsible = responsibleEnvelope[r];
+
+			long c = envelope[l] + energyLambda[r];
+			if (c > best || (c == best && responsible == -1)) {
+				best = c;
+				responsible = responsibleEnergy[r];
+			}
+
+			c = envelopeLambda[l] + energy[r];
+			if (c > best || (c == best && responsible == -1)) {
+				best = c;
+				responsible = responsibleEnvelope[l];
+			}
+
+			envelopeLambda[v] = best;
+			responsibleEnvelope[v] = responsible;
+		}
+
+	}
+
+	/**
+	 * @return energy of set Theta.
+	 */
+	long energy() {
+		return energy[1];
+	}
+
+	/**
+	 * @return envelope of set Theta.
+	 */
+	long envelope() {
+		return envelope[1];
+	}
+
+	/**
+	 * @return maximal envelope of set Theta extended with one task from Lambda.
+	 */
+	long envelopeLambda() {
+		return envelopeLambda[1];
+	}
+
+	/**
+	 * @return position of the Lambda task responsible for envelopeLambda, -1 if none.
+	 */
+	int responsibleLambda() {
+		return responsibleEnvelope[1];
+	}
+
+	/**
+	 * @param pos position of the leaf.
+	 * @return est of the task at the given leaf.
+	 */
+	long est(int pos) {
+		return est[leaves + pos];
+	}
+
+	/**
+	 * It finds the rightmost Theta task l such that capacity * est_l plus the energy 
+	 * of all Theta tasks with position not smaller than l exceeds the bound.
+	 * @param bound the bound the envelope is compared with.
+	 * @return position of the task, -1 if the envelope of Theta does not exceed the bound.
+	 */
+	int rightmostEnvelope(long bound) {
+
+		if (envelope[1] <= bound)
+			return -1;
+
+		long after = 0;
+		int v = 1;
+		while (v < leaves) {
+			int r = 2 * v + 1;
+			if (envelope[r] + after > bound)
+				v = r;
+			else {
+				after += energy[r];
+				v = 2 * v;
+			}
+		}
+
+		return v - leaves;
+	}
+
+	/**
+	 * @param pos position of the leaf.
+	 * @return envelope of the Theta tasks at positions smaller than pos.
+	 */
+	long envelopeBefore(int pos) {
+
+		long env = EMPTY, e = 0;
+
+		for (int v = leaves + pos; v > 1; v >>= 1)
+			if ((v & 1) == 1) {
+				// left sibling precedes everything collected so far
+				env = Math.max(envelope[v - 1] + e, env);
+				e += energy[v - 1];
+			}
+
+		return env;
+	}
+
+	/**
+	 * @param pos position of the leaf.
+	 * @return energy of the Theta tasks at positions smaller than pos.
+	 */
+	long energyBefore(int pos) {
+
+		long e = 0;
+
+		for (int v = leaves + pos; v > 1; v >>= 1)
+			if ((v & 1) == 1)
+				e += energy[v - 1];
+
+		return e;
+	}
+
+}
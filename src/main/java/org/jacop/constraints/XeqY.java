@@ -33,6 +33,7 @@ package org.jacop.constraints;
 
 import java.util.ArrayList;
 
+import org.jacop.core.ExplanationTrail;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
@@ -47,7 +48,7 @@ import org.jacop.core.Var;
  * @version 4.0
  */
 
-public class XeqY extends PrimitiveConstraint {
+public class XeqY extends PrimitiveConstraint implements Explainable {
 
 	static int idNumber = 1;
 
@@ -212,4 +213,12 @@ public class XeqY extends PrimitiveConstraint {
 		}
 	}
 
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+		return trail.explainLinear(new IntVar[] {x, y}, new int[] {1, -1}, 0, true, position, var, geq, value);
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+		return trail.explainLinearFailure(new IntVar[] {x, y}, new int[] {1, -1}, 0, true, position);
+	}
+
 }
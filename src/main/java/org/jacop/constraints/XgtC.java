@@ -34,6 +34,7 @@ package org.jacop.constraints;
 import java.util.ArrayList;
 
 import org.jacop.core.Domain;
+import org.jacop.core.ExplanationTrail;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
@@ -46,7 +47,7 @@ import org.jacop.core.Var;
  * @version 4.0
  */
 
-public class XgtC extends PrimitiveConstraint {
+public class XgtC extends PrimitiveConstraint implements Explainable {
 
 	static int idNumber = 1;
 
@@ -183,4 +184,12 @@ public class XgtC extends PrimitiveConstraint {
 		}
 	}
 
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+		return trail.explainLinear(new IntVar[] {x}, new int[] {-1}, - (long) c - 1, false, position, var, geq, value);
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+		return trail.explainLinearFailure(new IntVar[] {x}, new int[] {-1}, - (long) c - 1, false, position);
+	}
+
 }
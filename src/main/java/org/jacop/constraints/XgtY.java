@@ -33,6 +33,7 @@ package org.jacop.constraints;
 
 import java.util.ArrayList;
 
+import org.jacop.core.ExplanationTrail;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
@@ -45,7 +46,7 @@ import org.jacop.core.Var;
  * @version 4.0
  */
 
-public class XgtY extends PrimitiveConstraint {
+public class XgtY extends PrimitiveConstraint implements Explainable {
 
 	static int idNumber = 1;
 
@@ -187,6 +188,14 @@ public class XgtY extends PrimitiveConstraint {
 			x.weight++;
 			y.weight++;
 		}
-	}	
-	
+	}
+
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+		return trail.explainLinear(new IntVar[] {x, y}, new int[] {-1, 1}, -1, false, position, var, geq, value);
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+		return trail.explainLinearFailure(new IntVar[] {x, y}, new int[] {-1, 1}, -1, false, position);
+	}
+
 }
@@ -33,6 +33,7 @@ package org.jacop.constraints;
 
 import java.util.ArrayList;
 
+import org.jacop.core.ExplanationTrail;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
@@ -46,7 +47,7 @@ import org.jacop.core.Var;
  * @version 4.0
  */
 
-public class XplusCeqZ extends PrimitiveConstraint {
+public class XplusCeqZ extends PrimitiveConstraint implements Explainable {
 
 	static int idNumber = 1;
 
@@ -219,6 +220,14 @@ public class XplusCeqZ extends PrimitiveConstraint {
 			x.weight++;
 			z.weight++;
 		}
-	}	
+	}
+
+	public boolean explainBound(ExplanationTrail trail, int position, IntVar var, boolean geq, int value) {
+		return trail.explainLinear(new IntVar[] {x, z}, new int[] {1, -1}, - (long) c, true, position, var, geq, value);
+	}
+
+	public boolean explainFailure(ExplanationTrail trail, int position) {
+		return trail.explainLinearFailure(new IntVar[] {x, z}, new int[] {1, -1}, - (long) c, true, position);
+	}
 
 }
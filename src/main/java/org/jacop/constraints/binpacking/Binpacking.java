@@ -38,6 +38,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 
 import org.jacop.constraints.Constraint;
+import org.jacop.core.DomainDelta;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
@@ -86,6 +87,9 @@ public class Binpacking extends Constraint {
 	HashMap<IntVar, Integer> itemMap = new HashMap<IntVar, Integer>();
 	HashMap<IntVar, Integer> binMap = new HashMap<IntVar, Integer>();
 
+	// values removed from item variables since their last check.
+	DomainDelta[] itemDeltas;
+
 	/**
 	 * It specifies the arguments required to be saved by an XML format as well as 
 	 * the constructor being called to recreate an object from an XML format.
@@ -191,7 +195,10 @@ public class Binpacking extends Constraint {
 			while (itemQueue.size() != 0 ) {
 				IntVar var = itemQueue.removeFirst();
 				d.addDom(var.dom());
-				d.addDom(var.dom().recentDomainPruning(store.level));
+				DomainDelta delta = itemDeltas[itemMap.get(var)];
+				delta.update();
+				for (int k = 0; k < delta.size; k++)
+					d.unionAdapt(delta.min[k], delta.max[k]);
 			}
 
 			ArrayList<BinItem> candidates;
@@ -373,6 +380,10 @@ public class Binpacking extends Constraint {
 	@Override
 	public void impose(Store store) {
 
+		itemDeltas = new DomainDelta[item.length];
+		for (int i = 0; i < item.length; i++)
+			itemDeltas[i] = item[i].bin.domainDelta();
+
 		for (BinItem el : item) {
 			el.bin.putModelConstraint(this, getConsistencyPruningEvent(el.bin));
 			queueVariable(store.level, el.bin);
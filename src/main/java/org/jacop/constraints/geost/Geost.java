@@ -45,7 +45,7 @@ import org.jacop.core.Domain;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.ValueEnumeration;
 import org.jacop.core.Var;
 import org.jacop.util.SimpleArrayList;
@@ -249,7 +249,7 @@ public class Geost extends Constraint {
 	/**
 	 * It stores the position of the last variable grounded in the previous level. 
 	 */
-	TimeStamp<Integer> lastLevelLastVar;
+	TimeStampInt lastLevelLastVar;
 	
 	/**
 	 * It contains all the objects which have been updated in the previous levels. 
@@ -268,7 +268,7 @@ public class Geost extends Constraint {
 	 * it stores the index of the first object which have changed at current level. It allows 
 	 * to inform the external constraints about objects being changed due to backtracking.
 	 */
-	TimeStamp<Integer> setStart;
+	TimeStampInt setStart;
 
 	/**
 	 * It stores the information about left bound of the interval of objects which are 
@@ -1650,7 +1650,7 @@ public class Geost extends Constraint {
 		
 		this.store = store;
 		
-		lastLevelLastVar = new TimeStamp<Integer>(store, store.level);
+		lastLevelLastVar = new TimeStampInt(store, store.level);
 		lastLevelLastVar.update(0);
 		
 		genInternalConstraints();
@@ -1667,7 +1667,7 @@ public class Geost extends Constraint {
 		store.addChanged(this);
 		store.countConstraint();
 
-		setStart = new TimeStamp<Integer>(store, store.level);
+		setStart = new TimeStampInt(store, store.level);
 		setStart.update(0);
 		
 		objectList = new SimpleArrayList<GeostObject>();
@@ -39,7 +39,7 @@ import org.jacop.constraints.Constraint;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -81,7 +81,7 @@ public class Knapsack extends Constraint {
 	/**
 	 *  The current position of the critical item in the tree
 	 */
-	private TimeStamp<Integer> positionOfCriticalItem;
+	private TimeStampInt positionOfCriticalItem;
 
 	/**
 	 * It stores all the leaves of the knapsack tree in one array. The leaves
@@ -719,7 +719,7 @@ public class Knapsack extends Constraint {
 		
 		if ( knapsackCapacity.max() >= tree.alreadyUsedCapacity ) {
 			tree.updateCritical(knapsackCapacity.max() - tree.alreadyUsedCapacity);
-			positionOfCriticalItem = new TimeStamp<Integer>(store, tree.criticalLeaf.positionInTheTree);
+			positionOfCriticalItem = new TimeStampInt(store, tree.criticalLeaf.positionInTheTree);
 		}
 		else
 			impositionFailure = true;		
@@ -43,7 +43,7 @@ import org.jacop.constraints.netflow.simplex.Arc;
 import org.jacop.constraints.netflow.simplex.NetworkSimplex;
 import org.jacop.constraints.netflow.simplex.Node;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 
 /**
  * 
@@ -65,7 +65,7 @@ public class Network extends NetworkSimplex implements MutableNetwork {
 	public final List<Arc> deletedArcs;
 	
 	/** Number of deleted arcs at each level */
-	public TimeStamp<Integer> deletedSize;
+	public TimeStampInt deletedSize;
 	
 	/** Cost due to deleted arcs */
 	public long costOffset;
@@ -77,7 +77,7 @@ public class Network extends NetworkSimplex implements MutableNetwork {
 	public final List<ArcCompanion> modifiedArcs;
 	
 	/** Number of modified arcs at each level */
-	public TimeStamp<Integer> modifiedSize;
+	public TimeStampInt modifiedSize;
 	
 	/** Set of arcs modified at current level */
 	public final LinkedHashSet<ArcCompanion> lastModifiedArcs;
@@ -105,8 +105,8 @@ public class Network extends NetworkSimplex implements MutableNetwork {
 	public void initialize(Store store) {
 
 		this.store = store;
-		this.deletedSize = new TimeStamp<Integer>(store, 0);
-		this.modifiedSize = new TimeStamp<Integer>(store, 0);
+		this.deletedSize = new TimeStampInt(store, 0);
+		this.modifiedSize = new TimeStampInt(store, 0);
 	
 	}
 
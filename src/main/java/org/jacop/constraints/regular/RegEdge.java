@@ -32,7 +32,7 @@
 
 package org.jacop.constraints.regular;
 
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 
 /**
  * 
@@ -71,7 +71,7 @@ public class RegEdge {
 	 * @param activeLevels specifies last active states.
 	 * @return true if both origin and destination state are active.
 	 */
-	public boolean check(TimeStamp<Integer>[] activeLevels) {
+	public boolean check(TimeStampInt[] activeLevels) {
 
 	    if ( org.isActive(activeLevels) && dest.isActive(activeLevels) )
 	    	return true;
@@ -36,7 +36,7 @@ import java.util.HashMap;
 
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntervalDomain;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 
 /**
  * The state class representing a state in the regular automaton 
@@ -107,7 +107,7 @@ public abstract class RegState {
      * @return true is the state is still active.
      */
     
-    public abstract boolean isActive(TimeStamp<Integer>[] activeLevels);
+    public abstract boolean isActive(TimeStampInt[] activeLevels);
 	
     /**
      * It informs the state that the edge on the given position is no longer
@@ -36,7 +36,7 @@ import java.util.HashMap;
 
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntervalDomain;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.ValueEnumeration;
 
 /**
@@ -70,7 +70,7 @@ public class RegStateDom extends RegState {
     }
 
     @Override
-	public boolean isActive(TimeStamp<Integer>[] activeLevels) {
+	public boolean isActive(TimeStampInt[] activeLevels) {
 	
 	return (pos <  activeLevels[level].value());
     }
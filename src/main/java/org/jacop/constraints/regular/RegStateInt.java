@@ -37,7 +37,7 @@ import java.util.HashMap;
 import org.jacop.core.IntDomain;
 import org.jacop.core.Interval;
 import org.jacop.core.IntervalDomain;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 
 /**
  * It is an implementation of the Regular state which uses a separate successor for each 
@@ -102,7 +102,7 @@ public class RegStateInt extends RegState {
     }
 
     @Override
-	public boolean isActive(TimeStamp<Integer>[] activeLevels) {
+	public boolean isActive(TimeStampInt[] activeLevels) {
 	
     	return (pos <  activeLevels[level].value());
 	
@@ -48,11 +48,12 @@ import org.jacop.constraints.Constraint;
 import org.jacop.constraints.ExtensionalSupportSTR;
 import org.jacop.constraints.In;
 import org.jacop.constraints.XeqC;
+import org.jacop.core.DomainDelta;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
 import org.jacop.core.IntervalDomain;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.ValueEnumeration;
 import org.jacop.core.Var;
 import org.jacop.util.MDD;
@@ -185,18 +186,18 @@ public class Regular extends Constraint {
 	/**
 	 * The ith smallest level of Layered Graph which have changed.
 	 */
-	private TimeStamp<Integer> leftChange;
+	private TimeStampInt leftChange;
 
 	/**
 	 * The ith largest level of Layered Graph which have changed.
 	 */
-	private TimeStamp<Integer> rightChange;
+	private TimeStampInt rightChange;
 	
 	/**
 	 * The position of the currentTouchedIndex
 	 */
 
-	private TimeStamp<Integer> touchedIndex;
+	private TimeStampInt touchedIndex;
 	
 	/**
 	 * Stores the states of all graph levels
@@ -207,7 +208,7 @@ public class Regular extends Constraint {
 	 * Time-stamp for the number of active states in each level 
 
 	 */
-	private TimeStamp<Integer>[] activeLevels;
+	private TimeStampInt[] activeLevels;
 
 	private int activeLevelsTemp[];
 
@@ -227,6 +228,13 @@ public class Regular extends Constraint {
 	LinkedHashSet<IntVar> variableQueue = new LinkedHashSet<IntVar>();
 	
 	HashMap<IntVar, Integer> mapping = new HashMap<IntVar, Integer>();
+
+	/**
+	 * It specifies for each variable the values removed since the variable
+	 * has been processed last time. Variables which did not lose any value
+	 * are not swept by pruneArc.
+	 */
+	DomainDelta[] deltas;
 	
 	static int idNumber = 1;
 
@@ -961,9 +969,13 @@ public class Regular extends Constraint {
 		Arrays.fill(levelHadChanged, false);
 		
 		for (Var var : variableQueue) {
-			pruneArc(mapping.get(var));
+			int varIndex = mapping.get(var);
+			if (deltas[varIndex].update())
+				pruneArc(varIndex);
 		}
 
+		variableQueue.clear();
+
 		// if two consistency functions executed one after the other
 		// then timestamp may be asked to update to the same value. If that
 		// request does not create new level because value at older level
@@ -1038,6 +1050,8 @@ public class Regular extends Constraint {
 						}
 					}
 
+					// values removed above have no edges in the graph.
+					deltas[level].update();
 				}
 		}
 		else {
@@ -1064,6 +1078,9 @@ public class Regular extends Constraint {
 								+ " and now its " + varDom);
 					
 					list[level].domain.in(store.level, list[level], varDom);
+
+					// values removed above have no edges in the graph.
+					deltas[level].update();
 				}
 		}
 		
@@ -1095,14 +1112,14 @@ public class Regular extends Constraint {
 		store.countConstraint();
 
 		lastNumberOfActiveStates = new int[list.length+1];
-		activeLevels = new TimeStamp[list.length+1];
+		activeLevels = new TimeStampInt[list.length+1];
 		for (int i = list.length; i >= 0; i--)
-			activeLevels[i] = new TimeStamp<Integer>(store, activeLevelsTemp[i]);
+			activeLevels[i] = new TimeStampInt(store, activeLevelsTemp[i]);
 		
-		leftChange = new TimeStamp<Integer>(store, 0);
-		touchedIndex = new TimeStamp<Integer>(store, 0);
+		leftChange = new TimeStampInt(store, 0);
+		touchedIndex = new TimeStampInt(store, 0);
 		
-		rightChange = new TimeStamp<Integer>(store, list.length - 1);
+		rightChange = new TimeStampInt(store, list.length - 1);
 		
 		activeLevelsTemp = null;
 
@@ -1137,6 +1154,10 @@ public class Regular extends Constraint {
 		}
 		
 		levelHadChanged = new boolean[this.list.length + 1];
+
+		deltas = new DomainDelta[list.length];
+		for (int i = 0; i < list.length; i++)
+			deltas[i] = list[i].domainDelta();
 	}
 
 	@Override
@@ -0,0 +1,1425 @@
+/**
+ *  BitSetDomain.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jacop.constraints.Constraint;
+
+/**
+ * Defines a dense domain based on bits stored within an array of longs. It 
+ * is used for domains which are too large for SmallDenseDomain but still 
+ * small enough so the bits of the initial range can be kept (e.g. 0..2000). 
+ * Contrary to IntervalDomain removing a value from the middle of the domain 
+ * does not shift any array, it only clears a bit. The minimum, maximum, and 
+ * size of the domain are cached. 
+ * 
+ * The new domain created upon the first change at a given store level copies 
+ * only the words between the current minimum and maximum, words outside of 
+ * this range are always empty.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class BitSetDomain extends IntDomain {
+
+	/**
+	 * It specifies the size of the range (max - min + 1) up to which the 
+	 * union of domains is still encoded by bits, larger unions are 
+	 * represented by IntervalDomain.
+	 */
+	static final int unionLimit = 4096;
+
+	/**
+	 * The value which is represented by the least significant bit of the 
+	 * first word. 
+	 */
+	public int offset;
+
+	/**
+	 * It stores the information about presence of the elements in the domain. 
+	 * Value v is present if bit (v - offset) % 64 of word (v - offset) / 64 is set.
+	 */
+	public long[] words;
+
+	private int min;
+
+	private int max;
+
+	private int size;
+
+	/**
+	 * It specifies the previous domain which was used by this domain. The old
+	 * domain is stored here and can be easily restored if necessary.
+	 */
+	public IntDomain previousDomain;
+
+	/**
+	 * It creates an empty domain.
+	 */
+	public BitSetDomain() {
+
+		words = new long[1];
+		clearCaches();
+
+	}
+
+	/**
+	 * It creates a domain with values between min and max inclusive.
+	 * @param min the left bound of the domain.
+	 * @param max the right bound of the domain.
+	 */
+	public BitSetDomain(int min, int max) {
+
+		if (min <= max) {
+
+			offset = min;
+			words = new long[((max - min) >>> 6) + 1];
+			setBits(0, max - min);
+
+			this.min = min;
+			this.max = max;
+			this.size = max - min + 1;
+
+		}
+		else {
+			words = new long[1];
+			clearCaches();
+		}
+
+	}
+
+	/**
+	 * It creates a copy of the values of a given domain. Only the words 
+	 * between the minimum and maximum of the domain are copied.
+	 * @param source domain which values are copied.
+	 */
+	private BitSetDomain(BitSetDomain source) {
+
+		offset = source.offset;
+		words = new long[source.words.length];
+		min = source.min;
+		max = source.max;
+		size = source.size;
+
+		if (size > 0) {
+			int first = (min - offset) >>> 6;
+			int last = (max - offset) >>> 6;
+			System.arraycopy(source.words, first, words, first, last - first + 1);
+		}
+
+	}
+
+	private void clearCaches() {
+		size = 0;
+		min = Integer.MAX_VALUE;
+		max = Integer.MIN_VALUE;
+	}
+
+	// Operations on bits, indexes are relative to offset.
+
+	final int capacity() {
+		return words.length << 6;
+	}
+
+	final boolean getBit(int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	final int nextSetBit(int from) {
+
+		int w = from >>> 6;
+		if (w >= words.length)
+			return -1;
+
+		long word = words[w] & (-1L << from);
+
+		while (true) {
+			if (word != 0)
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			if (++w == words.length)
+				return -1;
+			word = words[w];
+		}
+
+	}
+
+	final int nextClearBit(int from) {
+
+		int w = from >>> 6;
+		if (w >= words.length)
+			return from;
+
+		long word = ~words[w] & (-1L << from);
+
+		while (true) {
+			if (word != 0)
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			if (++w == words.length)
+				return w << 6;
+			word = ~words[w];
+		}
+
+	}
+
+	final int previousSetBit(int from) {
+
+		if (from < 0)
+			return -1;
+
+		int w = from >>> 6;
+		long word = words[w] & (-1L >>> (63 - (from & 63)));
+
+		while (true) {
+			if (word != 0)
+				return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+			if (w-- == 0)
+				return -1;
+			word = words[w];
+		}
+
+	}
+
+	final int countBits(int from, int to) {
+
+		int fw = from >>> 6;
+		int tw = to >>> 6;
+		long fromMask = -1L << from;
+		long toMask = -1L >>> (63 - (to & 63));
+
+		if (fw == tw)
+			return Long.bitCount(words[fw] & fromMask & toMask);
+
+		int count = Long.bitCount(words[fw] & fromMask) + Long.bitCount(words[tw] & toMask);
+		for (int w = fw + 1; w < tw; w++)
+			count += Long.bitCount(words[w]);
+
+		return count;
+
+	}
+
+	final void clearBits(int from, int to) {
+
+		int fw = from >>> 6;
+		int tw = to >>> 6;
+		long fromMask = -1L << from;
+		long toMask = -1L >>> (63 - (to & 63));
+
+		if (fw == tw) {
+			words[fw] &= ~(fromMask & toMask);
+			return;
+		}
+
+		words[fw] &= ~fromMask;
+		for (int w = fw + 1; w < tw; w++)
+			words[w] = 0;
+		words[tw] &= ~toMask;
+
+	}
+
+	final void setBits(int from, int to) {
+
+		int fw = from >>> 6;
+		int tw = to >>> 6;
+		long fromMask = -1L << from;
+		long toMask = -1L >>> (63 - (to & 63));
+
+		if (fw == tw) {
+			words[fw] |= fromMask & toMask;
+			return;
+		}
+
+		words[fw] |= fromMask;
+		for (int w = fw + 1; w < tw; w++)
+			words[w] = -1L;
+		words[tw] |= toMask;
+
+	}
+
+	/**
+	 * It returns values from..from + 63 of this domain encoded as the bits of 
+	 * SmallDenseDomain, value from is represented by the most significant bit. 
+	 * It allows to combine both domains without creating any object.
+	 */
+	final long window(int from) {
+
+		if (size == 0 || (long) from + 63 < min || from > max)
+			return 0;
+
+		long index = (long) from - offset;
+		long w = index >> 6;
+		int shift = (int) (index & 63);
+
+		long result = word(w) >>> shift;
+		if (shift != 0)
+			result |= word(w + 1) << (64 - shift);
+
+		return Long.reverse(result);
+
+	}
+
+	private long word(long w) {
+		return w < 0 || w >= words.length ? 0 : words[(int) w];
+	}
+
+	/**
+	 * It counts the values of this domain within interval min..max.
+	 */
+	final int countValues(int min, int max) {
+
+		if (min < this.min)
+			min = this.min;
+		if (max > this.max)
+			max = this.max;
+		if (min > max)
+			return 0;
+
+		return countBits(min - offset, max - offset);
+
+	}
+
+	/**
+	 * It removes values min..max from the bits, caches are not updated.
+	 */
+	final void clearValues(int min, int max) {
+
+		if (min < this.min)
+			min = this.min;
+		if (max > this.max)
+			max = this.max;
+		if (min > max)
+			return;
+
+		clearBits(min - offset, max - offset);
+
+	}
+
+	/**
+	 * It recomputes the minimum and the maximum after the bits have been 
+	 * changed, the new size must be given.
+	 */
+	final void adaptBounds(int newSize) {
+
+		size = newSize;
+
+		if (newSize == 0) {
+			clearCaches();
+			return;
+		}
+
+		min = nextSetBit(min - offset) + offset;
+		max = previousSetBit(max - offset) + offset;
+
+	}
+
+	/**
+	 * It makes sure that values min..max can be encoded. It only moves the 
+	 * offset by the multiple of 64 so words are copied without shifting.
+	 */
+	final void ensureRange(int min, int max) {
+
+		if (min >= offset && max - offset < capacity())
+			return;
+
+		int newOffset = offset;
+		if (min < offset)
+			newOffset = offset - (((offset - min - 1) >>> 6) + 1) * 64;
+
+		int highest = Math.max(max, offset + capacity() - 1);
+		long[] newWords = new long[((highest - newOffset) >>> 6) + 1];
+		System.arraycopy(words, 0, newWords, (offset - newOffset) >>> 6, words.length);
+
+		words = newWords;
+		offset = newOffset;
+
+	}
+
+	/**
+	 * It returns the domain which can be changed at a given store level. It 
+	 * creates a new domain if the current one was created at earlier level.
+	 */
+	private BitSetDomain adaptable(int storeLevel, Var var) {
+
+		if (stamp == storeLevel)
+			return this;
+
+		assert stamp < storeLevel;
+
+		BitSetDomain result = new BitSetDomain(this);
+
+		result.modelConstraints = modelConstraints;
+		result.searchConstraints = searchConstraints;
+		result.stamp = storeLevel;
+		result.previousDomain = this;
+		result.modelConstraintsToEvaluate = modelConstraintsToEvaluate;
+		result.searchConstraintsToEvaluate = searchConstraintsToEvaluate;
+		((IntVar)var).domain = result;
+
+		return result;
+
+	}
+
+	private void notify(Var var, int previousMin, int previousMax) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		if (size == 1)
+			var.domainHasChanged(IntDomain.GROUND);
+		else if (min != previousMin || max != previousMax)
+			var.domainHasChanged(IntDomain.BOUND);
+		else
+			var.domainHasChanged(IntDomain.ANY);
+
+	}
+
+	/**
+	 * It counts the values of this domain which belong to domain shifted by shift.
+	 */
+	private int sizeOfIntersection(IntDomain domain, int shift) {
+
+		if (size == 0 || domain.isEmpty())
+			return 0;
+
+		int result = 0;
+
+		if (domain.domainID() == BitSetDomainID && ((BitSetDomain) domain).offset + shift == offset) {
+			BitSetDomain input = (BitSetDomain) domain;
+			int first = (min - offset) >>> 6;
+			int last = Math.min((max - offset) >>> 6, input.words.length - 1);
+			for (int w = first; w <= last; w++)
+				result += Long.bitCount(words[w] & input.words[w]);
+			return result;
+		}
+
+		if (domain.domainID() == IntervalDomainID) {
+			IntervalDomain input = (IntervalDomain) domain;
+			for (int i = 0; i < input.size; i++)
+				result += countValues(input.intervals[i].min + shift, input.intervals[i].max + shift);
+			return result;
+		}
+
+		IntervalEnumeration enumer = domain.intervalEnumeration();
+		while (enumer.hasMoreElements()) {
+			Interval next = enumer.nextElement();
+			result += countValues(next.min + shift, next.max + shift);
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * It removes values which do not belong to domain shifted by shift. 
+	 * Only bits are changed, caches must be adapted afterwards.
+	 */
+	private void retain(IntDomain domain, int shift) {
+
+		if (size == 0)
+			return;
+
+		if (domain.isEmpty()) {
+			clearValues(min, max);
+			return;
+		}
+
+		if (domain.domainID() == BitSetDomainID && ((BitSetDomain) domain).offset + shift == offset) {
+			BitSetDomain input = (BitSetDomain) domain;
+			int first = (min - offset) >>> 6;
+			int last = (max - offset) >>> 6;
+			for (int w = first; w <= last; w++)
+				if (w < input.words.length)
+					words[w] &= input.words[w];
+				else
+					words[w] = 0;
+			return;
+		}
+
+		int from = min;
+
+		if (domain.domainID() == IntervalDomainID) {
+			IntervalDomain input = (IntervalDomain) domain;
+			for (int i = 0; i < input.size && from <= max; i++) {
+				int lo = input.intervals[i].min + shift;
+				int hi = input.intervals[i].max + shift;
+				if (hi < from)
+					continue;
+				if (lo > from)
+					clearValues(from, lo - 1);
+				from = hi + 1;
+			}
+		}
+		else {
+			IntervalEnumeration enumer = domain.intervalEnumeration();
+			while (enumer.hasMoreElements() && from <= max) {
+				Interval next = enumer.nextElement();
+				int lo = next.min + shift;
+				int hi = next.max + shift;
+				if (hi < from)
+					continue;
+				if (lo > from)
+					clearValues(from, lo - 1);
+				from = hi + 1;
+			}
+		}
+
+		if (from <= max)
+			clearValues(from, max);
+
+	}
+
+	@Override
+	public void in(int storeLevel, Var var, int min, int max) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		assert (min <= max) : "Min value greater than max value " + min + " > " + max;
+
+		if (max < this.min || min > this.max)
+			throw failException;
+
+		if (min <= this.min && max >= this.max)
+			return;
+
+		int newSize = countValues(min, max);
+
+		if (newSize == 0)
+			throw failException;
+
+		removing(var, this.min, min - 1);
+		removing(var, max + 1, this.max);
+
+		int previousMin = this.min;
+		int previousMax = this.max;
+
+		BitSetDomain result = adaptable(storeLevel, var);
+
+		if (min > previousMin)
+			result.clearValues(previousMin, min - 1);
+		if (max < previousMax)
+			result.clearValues(max + 1, previousMax);
+
+		result.adaptBounds(newSize);
+		result.notify(var, previousMin, previousMax);
+
+	}
+
+	@Override
+	public void inMax(int storeLevel, Var var, int max) {
+
+		if (max < min)
+			throw failException;
+
+		in(storeLevel, var, min, max);
+
+	}
+
+	@Override
+	public void inMin(int storeLevel, Var var, int min) {
+
+		if (max < min)
+			throw failException;
+
+		in(storeLevel, var, min, max);
+
+	}
+
+	@Override
+	public void inComplement(int storeLevel, Var var, int complement) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		if (complement < min || complement > max || !getBit(complement - offset))
+			return;
+
+		if (size == 1)
+			throw failException;
+
+		removing(var, complement, complement);
+
+		int previousMin = min;
+		int previousMax = max;
+
+		BitSetDomain result = adaptable(storeLevel, var);
+
+		int index = complement - offset;
+		result.words[index >>> 6] &= ~(1L << index);
+		result.size--;
+
+		if (complement == previousMin)
+			result.min = result.nextSetBit(index) + offset;
+		if (complement == previousMax)
+			result.max = result.previousSetBit(index) + offset;
+
+		result.notify(var, previousMin, previousMax);
+
+	}
+
+	@Override
+	public void inComplement(int storeLevel, Var var, int minComplement, int maxComplement) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		int removed = countValues(minComplement, maxComplement);
+
+		if (removed == 0)
+			return;
+
+		if (removed == size)
+			throw failException;
+
+		removing(var, minComplement, maxComplement);
+
+		int previousMin = min;
+		int previousMax = max;
+
+		BitSetDomain result = adaptable(storeLevel, var);
+
+		result.clearValues(minComplement, maxComplement);
+		result.adaptBounds(size - removed);
+		result.notify(var, previousMin, previousMax);
+
+	}
+
+	@Override
+	public void in(int storeLevel, Var var, IntDomain domain) {
+
+		inShift(storeLevel, var, domain, 0);
+
+	}
+
+	@Override
+	public void inShift(int storeLevel, Var var, IntDomain domain, int shift) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		int newSize = sizeOfIntersection(domain, shift);
+
+		if (newSize == 0)
+			throw failException;
+
+		if (newSize == size)
+			return;
+
+		removingOutside(var, domain, shift);
+
+		int previousMin = min;
+		int previousMax = max;
+
+		BitSetDomain result = adaptable(storeLevel, var);
+
+		result.retain(domain, shift);
+		result.adaptBounds(newSize);
+		result.notify(var, previousMin, previousMax);
+
+	}
+
+	@Override
+	public boolean contains(int value) {
+
+		if (value < min || value > max)
+			return false;
+
+		return getBit(value - offset);
+
+	}
+
+	@Override
+	public boolean contains(int min, int max) {
+
+		if (min < this.min || max > this.max)
+			return false;
+
+		return countBits(min - offset, max - offset) == max - min + 1;
+
+	}
+
+	@Override
+	public boolean isIntersecting(int min, int max) {
+
+		if (min < this.min)
+			min = this.min;
+		if (max > this.max)
+			max = this.max;
+		if (min > max)
+			return false;
+
+		int next = nextSetBit(min - offset);
+		return next != -1 && next + offset <= max;
+
+	}
+
+	@Override
+	public IntDomain complement() {
+
+		return toIntervalDomain().complement();
+
+	}
+
+	@Override
+	public int nextValue(int value) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		if (value < min)
+			return min;
+
+		if (value >= max)
+			return value;
+
+		return nextSetBit(value + 1 - offset) + offset;
+
+	}
+
+	@Override
+	public int previousValue(int value) {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		if (value > max)
+			return max;
+
+		if (value <= min)
+			return value;
+
+		return previousSetBit(value - 1 - offset) + offset;
+
+	}
+
+	@Override
+	public ValueEnumeration valueEnumeration() {
+
+		return new BitSetDomainValueEnumeration(this);
+
+	}
+
+	@Override
+	public IntervalEnumeration intervalEnumeration() {
+
+		return new BitSetDomainIntervalEnumeration(this);
+
+	}
+
+	@Override
+	public int getSize() {
+
+		return size;
+
+	}
+
+	@Override
+	public int min() {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		return min;
+
+	}
+
+	@Override
+	public int max() {
+
+		assert checkInvariants() == null : checkInvariants();
+
+		return max;
+
+	}
+
+	@Override
+	public boolean singleton() {
+
+		return size == 1;
+
+	}
+
+	@Override
+	public boolean singleton(int c) {
+
+		return size == 1 && min == c;
+
+	}
+
+	@Override
+	public boolean isEmpty() {
+
+		return size == 0;
+
+	}
+
+	@Override
+	public IntDomain intersect(IntDomain domain) {
+
+		BitSetDomain result = cloneLight();
+		result.intersectAdapt(domain);
+		return result;
+
+	}
+
+	@Override
+	public IntDomain intersect(int min, int max) {
+
+		BitSetDomain result = cloneLight();
+		if (min <= max)
+			result.intersectAdapt(min, max);
+		else
+			result.clear();
+		return result;
+
+	}
+
+	@Override
+	public int intersectAdapt(IntDomain domain) {
+
+		int newSize = sizeOfIntersection(domain, 0);
+
+		if (newSize == size)
+			return Domain.NONE;
+
+		int previousMin = min;
+		int previousMax = max;
+
+		retain(domain, 0);
+		adaptBounds(newSize);
+
+		if (size <= 1)
+			return IntDomain.GROUND;
+
+		if (min != previousMin || max != previousMax)
+			return IntDomain.BOUND;
+
+		return IntDomain.ANY;
+
+	}
+
+	@Override
+	public int intersectAdapt(int min, int max) {
+
+		assert (min <= max) : "Min value greater than max value " + min + " > " + max;
+
+		int newSize = countValues(min, max);
+
+		if (newSize == size)
+			return Domain.NONE;
+
+		int previousMin = this.min;
+		int previousMax = this.max;
+
+		if (min > previousMin)
+			clearValues(previousMin, min - 1);
+		if (max < previousMax)
+			clearValues(max + 1, previousMax);
+
+		adaptBounds(newSize);
+
+		if (size <= 1)
+			return IntDomain.GROUND;
+
+		if (this.min != previousMin || this.max != previousMax)
+			return IntDomain.BOUND;
+
+		return IntDomain.ANY;
+
+	}
+
+	@Override
+	public IntDomain subtract(int min, int max) {
+
+		BitSetDomain result = cloneLight();
+		result.subtractAdapt(min, max);
+		return result;
+
+	}
+
+	@Override
+	public void subtractAdapt(int value) {
+
+		subtractAdapt(value, value);
+
+	}
+
+	@Override
+	public void subtractAdapt(int min, int max) {
+
+		int removed = countValues(min, max);
+
+		if (removed == 0)
+			return;
+
+		clearValues(min, max);
+		adaptBounds(size - removed);
+
+	}
+
+	@Override
+	public IntDomain union(IntDomain domain) {
+
+		if (domain.isEmpty())
+			return cloneLight();
+
+		if (isEmpty())
+			return domain.cloneLight();
+
+		// Very large unions are not encoded by bits.
+		if ((long) Math.max(max, domain.max()) - Math.min(min, domain.min()) >= Math.max(unionLimit, capacity()))
+			return toIntervalDomain().union(domain);
+
+		return super.union(domain);
+
+	}
+
+	@Override
+	public IntDomain union(int min, int max) {
+
+		if ((long) Math.max(this.max, max) - Math.min(this.min, min) >= Math.max(unionLimit, capacity()))
+			return toIntervalDomain().union(min, max);
+
+		return super.union(min, max);
+
+	}
+
+	@Override
+	public void unionAdapt(int min, int max) {
+
+		if (min > max)
+			return;
+
+		if (size == 0) {
+			if (max - min >= capacity()) 
+				words = new long[((max - min) >>> 6) + 1];
+			else 
+				Arrays.fill(words, 0);
+			offset = min;
+		}
+		else
+			ensureRange(min, max);
+
+		int added = (max - min + 1) - countValues(min, max);
+
+		if (added == 0)
+			return;
+
+		setBits(min - offset, max - offset);
+
+		size += added;
+		if (min < this.min)
+			this.min = min;
+		if (max > this.max)
+			this.max = max;
+
+	}
+
+	@Override
+	public void setDomain(IntDomain domain) {
+
+		clear();
+		addDom(domain);
+
+	}
+
+	@Override
+	public void setDomain(int min, int max) {
+
+		clear();
+		unionAdapt(min, max);
+
+	}
+
+	@Override
+	public void clear() {
+
+		if (size > 0)
+			clearValues(min, max);
+		clearCaches();
+
+	}
+
+	@Override
+	public int noIntervals() {
+
+		if (size == 0)
+			return 0;
+
+		int result = 0;
+		int last = max - offset;
+		int next = min - offset;
+
+		while (next != -1 && next <= last) {
+			result++;
+			next = nextSetBit(nextClearBit(next));
+		}
+
+		return result;
+
+	}
+
+	@Override
+	public Interval getInterval(int position) {
+
+		int next = min - offset;
+
+		for (int i = 0; i < position; i++)
+			next = nextSetBit(nextClearBit(next));
+
+		assert (next != -1 && next <= max - offset) : "Interval with a given number does not exist.";
+
+		return new Interval(next + offset, nextClearBit(next) - 1 + offset);
+
+	}
+
+	@Override
+	public int getElementAt(int index) {
+
+		assert (index >= 0) : "The index can not be negative";
+		assert (index < size) : "The domain does not have so many elements as specified by the index equal to " + index;
+
+		int w = (min - offset) >>> 6;
+		int count = Long.bitCount(words[w]);
+
+		while (index >= count) {
+			index -= count;
+			count = Long.bitCount(words[++w]);
+		}
+
+		long word = words[w];
+		for (int i = 0; i < index; i++)
+			word &= word - 1;
+
+		return (w << 6) + Long.numberOfTrailingZeros(word) + offset;
+
+	}
+
+	@Override
+	public IntDomain recentDomainPruning(int storeLevel) {
+
+		if (previousDomain == null)
+			return IntervalDomain.emptyDomain;
+
+		if (stamp < storeLevel)
+			return IntervalDomain.emptyDomain;
+
+		return previousDomain.subtract(this);
+
+	}
+
+	@Override
+	public IntDomain previousDomain() {
+
+		return previousDomain;
+
+	}
+
+	@Override
+	public String checkInvariants() {
+
+		if (size == 0) {
+			if (min != Integer.MAX_VALUE || max != Integer.MIN_VALUE)
+				return "Empty domain has incorrect bounds cache";
+			return null;
+		}
+
+		if (!getBit(min - offset) || !getBit(max - offset))
+			return "Bounds cache is not correct " + min + ".." + max;
+
+		if (countBits(0, capacity() - 1) != size || countBits(min - offset, max - offset) != size)
+			return "Size cache is not correct " + size;
+
+		return null;
+
+	}
+
+	@Override
+	public Domain clone() {
+
+		BitSetDomain cloned = cloneLight();
+
+		cloned.stamp = stamp;
+		cloned.previousDomain = previousDomain;
+
+		cloned.searchConstraints = searchConstraints;
+		cloned.searchConstraintsToEvaluate = searchConstraintsToEvaluate;
+
+		cloned.modelConstraints = modelConstraints;
+		cloned.modelConstraintsToEvaluate = modelConstraintsToEvaluate;
+
+		cloned.searchConstraintsCloned = searchConstraintsCloned;
+
+		return cloned;
+
+	}
+
+	/**
+	 * It clones the domain object, only data responsible for encoding domain
+	 * values is cloned. All other fields must be set separately.
+	 * @return It returns a clone of this domain.
+	 */
+	@Override
+	public BitSetDomain cloneLight() {
+
+		return new BitSetDomain(this);
+
+	}
+
+	@Override
+	public int domainID() {
+
+		return BitSetDomainID;
+
+	}
+
+	@Override
+	public boolean isNumeric() {
+
+		return true;
+
+	}
+
+	@Override
+	public boolean isSparseRepresentation() {
+
+		return false;
+
+	}
+
+	/**
+	 * It adds a constraint to a domain, it should only be called by
+	 * putConstraint function of Variable object. putConstraint function from
+	 * Variable must make a copy of a vector of constraints if vector was not
+	 * cloned.
+	 */
+	@Override
+	public void putModelConstraint(int storeLevel, Var var, Constraint C,
+			int pruningEvent) {
+
+		if (stamp < storeLevel) {
+			adaptable(storeLevel, var).putModelConstraint(storeLevel, var, C, pruningEvent);
+			return;
+		}
+
+		Constraint[] pruningEventConstraints = modelConstraints[pruningEvent];
+
+		if (pruningEventConstraints != null) {
+
+			boolean alreadyImposed = false;
+
+			if (modelConstraintsToEvaluate[pruningEvent] > 0)
+				for (int i = pruningEventConstraints.length - 1; i >= 0; i--)
+					if (pruningEventConstraints[i] == C)
+						alreadyImposed = true;
+
+			int pruningConstraintsToEvaluate = modelConstraintsToEvaluate[pruningEvent];
+
+			if (!alreadyImposed) {
+				Constraint[] newPruningEventConstraints = new Constraint[pruningConstraintsToEvaluate + 1];
+
+				System.arraycopy(pruningEventConstraints, 0,
+						newPruningEventConstraints, 0,
+						pruningConstraintsToEvaluate);
+				newPruningEventConstraints[pruningConstraintsToEvaluate] = C;
+
+				Constraint[][] newModelConstraints = new Constraint[3][];
+
+				newModelConstraints[0] = modelConstraints[0];
+				newModelConstraints[1] = modelConstraints[1];
+				newModelConstraints[2] = modelConstraints[2];
+
+				newModelConstraints[pruningEvent] = newPruningEventConstraints;
+
+				modelConstraints = newModelConstraints;
+
+				int[] newModelConstraintsToEvaluate = new int[3];
+
+				newModelConstraintsToEvaluate[0] = modelConstraintsToEvaluate[0];
+				newModelConstraintsToEvaluate[1] = modelConstraintsToEvaluate[1];
+				newModelConstraintsToEvaluate[2] = modelConstraintsToEvaluate[2];
+
+				newModelConstraintsToEvaluate[pruningEvent]++;
+
+				modelConstraintsToEvaluate = newModelConstraintsToEvaluate;
+
+			}
+
+		} else {
+
+			Constraint[] newPruningEventConstraints = new Constraint[1];
+
+			newPruningEventConstraints[0] = C;
+
+			Constraint[][] newModelConstraints = new Constraint[3][];
+
+			newModelConstraints[0] = modelConstraints[0];
+			newModelConstraints[1] = modelConstraints[1];
+			newModelConstraints[2] = modelConstraints[2];
+
+			newModelConstraints[pruningEvent] = newPruningEventConstraints;
+
+			modelConstraints = newModelConstraints;
+
+			int[] newModelConstraintsToEvaluate = new int[3];
+
+			newModelConstraintsToEvaluate[0] = modelConstraintsToEvaluate[0];
+			newModelConstraintsToEvaluate[1] = modelConstraintsToEvaluate[1];
+			newModelConstraintsToEvaluate[2] = modelConstraintsToEvaluate[2];
+
+			newModelConstraintsToEvaluate[pruningEvent] = 1;
+
+			modelConstraintsToEvaluate = newModelConstraintsToEvaluate;
+
+		}
+
+	}
+
+	@Override
+	public void putSearchConstraint(int storeLevel, Var var, Constraint C) {
+
+		if (!searchConstraints.contains(C)) {
+
+			if (stamp < storeLevel) {
+
+				BitSetDomain result = adaptable(storeLevel, var);
+
+				result.searchConstraints = new ArrayList<Constraint>(
+						searchConstraints.subList(0,
+								searchConstraintsToEvaluate));
+				result.searchConstraintsCloned = true;
+
+				result.putSearchConstraint(storeLevel, var, C);
+				return;
+			}
+
+			if (searchConstraints.size() == searchConstraintsToEvaluate) {
+				searchConstraints.add(C);
+				searchConstraintsToEvaluate++;
+			} else {
+				// Exchange the first satisfied constraint with just added
+				// constraint
+				// Order of satisfied constraints is not preserved
+
+				if (searchConstraintsCloned) {
+					Constraint firstSatisfied = searchConstraints
+							.get(searchConstraintsToEvaluate);
+					searchConstraints.set(searchConstraintsToEvaluate, C);
+					searchConstraints.add(firstSatisfied);
+					searchConstraintsToEvaluate++;
+				} else {
+					searchConstraints = new ArrayList<Constraint>(
+							searchConstraints.subList(0,
+									searchConstraintsToEvaluate));
+					searchConstraintsCloned = true;
+					searchConstraints.add(C);
+					searchConstraintsToEvaluate++;
+				}
+			}
+		}
+
+	}
+
+	@Override
+	public void removeLevel(int level, Var var) {
+
+		assert (this.stamp <= level);
+
+		if (this.stamp == level) {
+
+			((IntVar)var).domain = this.previousDomain;
+		}
+
+		assert (((IntVar)var).domain.stamp < level);
+
+	}
+
+	@Override
+	public void removeModelConstraint(int storeLevel, Var var, Constraint c) {
+
+		if (stamp < storeLevel) {
+			adaptable(storeLevel, var).removeModelConstraint(storeLevel, var, c);
+			return;
+		}
+
+		for (int pruningEvent = IntDomain.GROUND; pruningEvent <= IntDomain.ANY; pruningEvent++) {
+
+			Constraint[] pruningEventConstraints = modelConstraints[pruningEvent];
+
+			if (pruningEventConstraints == null)
+				continue;
+
+			int i;
+
+			for (i = modelConstraintsToEvaluate[pruningEvent] - 1; i >= 0; i--)
+				if (pruningEventConstraints[i] == c)
+					break;
+
+			if (i == -1)
+				continue;
+
+			if (i != modelConstraintsToEvaluate[pruningEvent] - 1) {
+
+				modelConstraints[pruningEvent][i] = modelConstraints[pruningEvent][modelConstraintsToEvaluate[pruningEvent] - 1];
+
+				modelConstraints[pruningEvent][modelConstraintsToEvaluate[pruningEvent] - 1] = c;
+			}
+
+			int[] newModelConstraintsToEvaluate = new int[3];
+
+			newModelConstraintsToEvaluate[0] = modelConstraintsToEvaluate[0];
+			newModelConstraintsToEvaluate[1] = modelConstraintsToEvaluate[1];
+			newModelConstraintsToEvaluate[2] = modelConstraintsToEvaluate[2];
+
+			newModelConstraintsToEvaluate[pruningEvent]--;
+
+			modelConstraintsToEvaluate = newModelConstraintsToEvaluate;
+
+			return;
+
+		}
+
+	}
+
+	@Override
+	public void removeSearchConstraint(int storeLevel, Var var, int position,
+			Constraint C) {
+
+		if (stamp < storeLevel) {
+			adaptable(storeLevel, var).removeSearchConstraint(storeLevel, var, position, C);
+			return;
+		}
+
+		assert (stamp == storeLevel);
+
+		assert (searchConstraints.get(position) == C) : "Position of the removed constraint not specified properly";
+
+		if (position < searchConstraintsToEvaluate) {
+
+			searchConstraints.set(position, searchConstraints
+					.get(searchConstraintsToEvaluate - 1));
+			searchConstraints.set(searchConstraintsToEvaluate - 1, C);
+			searchConstraintsToEvaluate--;
+
+		}
+
+	}
+
+	@Override
+	public int sizeConstraintsOriginal() {
+
+		IntDomain domain = this;
+
+		while (domain.domainID() == BitSetDomainID) {
+
+			BitSetDomain dom = (BitSetDomain) domain;
+
+			if (dom.previousDomain != null)
+				domain = dom.previousDomain;
+			else
+				break;
+		}
+
+		if (domain.domainID() == BitSetDomainID)
+			return (domain.modelConstraintsToEvaluate[0]
+					+ domain.modelConstraintsToEvaluate[1] + domain.modelConstraintsToEvaluate[2]);
+		else
+			return domain.sizeConstraintsOriginal();
+
+	}
+
+	@Override
+	public String toString() {
+
+		if (size == 1)
+			return String.valueOf(min);
+
+		StringBuffer result = new StringBuffer("{");
+
+		if (size > 0) {
+
+			int last = max - offset;
+			int next = min - offset;
+
+			while (true) {
+				int end = nextClearBit(next) - 1;
+				if (end == next)
+					result.append(next + offset);
+				else
+					result.append(next + offset).append("..").append(end + offset);
+				next = nextSetBit(end + 1);
+				if (next == -1 || next > last)
+					break;
+				result.append(", ");
+			}
+		}
+
+		result.append("}");
+
+		return result.toString();
+
+	}
+
+	@Override
+	public String toStringConstraints() {
+
+		return toString();
+
+	}
+
+	@Override
+	public String toStringFull() {
+
+		return toString();
+
+	}
+
+	/**
+	 * It returns the domain encoded as a list of intervals.
+	 * @return interval domain with the same values as this domain.
+	 */
+	public IntervalDomain toIntervalDomain() {
+
+		IntervalDomain result = new IntervalDomain(noIntervals() + 1);
+
+		if (size == 0)
+			return result;
+
+		int last = max - offset;
+		int next = min - offset;
+
+		while (next != -1 && next <= last) {
+			int end = nextClearBit(next) - 1;
+			result.unionAdapt(next + offset, end + offset);
+			next = nextSetBit(end + 1);
+		}
+
+		return result;
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ *  BitSetDomainIntervalEnumeration.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+/**
+ * Defines a methods for enumerating intervals contained in the BitSetDomain.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class BitSetDomainIntervalEnumeration extends IntervalEnumeration {
+
+	BitSetDomain domain;
+
+	// index of the first bit of the next interval, -1 if there are no more intervals.
+	int next;
+
+	/**
+	 * It create an enumeration for a given domain.
+	 * @param dom domain for which interval enumeration is created.
+	 */
+	public BitSetDomainIntervalEnumeration(BitSetDomain dom) {
+
+		domain = dom;
+		if (dom.isEmpty())
+			next = -1;
+		else
+			next = dom.min() - dom.offset;
+
+	}
+
+	@Override
+	public boolean hasMoreElements() {
+		return next != -1;
+	}
+
+	@Override
+	public Interval nextElement() {
+
+		if (next == -1)
+			throw new IllegalStateException("No more elements");
+
+		int min = next;
+		int max = domain.nextClearBit(min) - 1;
+		next = domain.nextSetBit(max + 1);
+
+		return new Interval(min + domain.offset, max + domain.offset);
+
+	}
+
+}
@@ -125,9 +125,9 @@ public class BooleanVar extends IntVar {
 		store.putVariable(this);
 
 		if (store.pointer4GroundedBooleanVariables == null) {
-			store.pointer4GroundedBooleanVariables = new TimeStamp<Integer>(store, 0);
+			store.pointer4GroundedBooleanVariables = new TimeStampInt(store, 0);
 			// Boolean Time stamp will be updated manually by store.
-			store.timeStamps.remove(store.pointer4GroundedBooleanVariables);
+			store.timeStampsInt.remove(store.pointer4GroundedBooleanVariables);
 			store.changeHistory4BooleanVariables = new BooleanVar[100];
 		}
 
@@ -190,7 +190,7 @@ public class BooleanVar extends IntVar {
 			if (domain.searchConstraints.get(i) == constraint)
 				domain.removeSearchConstraint(store.level, this, i, constraint);
 
-		if (i == -1)
+		if (i == -1 && (dispatch == null || !store.removeEvents(this, constraint)))
 			domain.removeModelConstraint(store.level, this, constraint);
 
 		store.recordBooleanChange(this);
@@ -204,6 +204,8 @@ public class BooleanVar extends IntVar {
 	 */
 	@Override
 	public int sizeConstraints() {
+		if (dispatch != null)
+			return domain.sizeConstraints() + dispatch.active;
 		return domain.sizeConstraints();
 	}
 
@@ -214,6 +216,8 @@ public class BooleanVar extends IntVar {
 	 */
 	@Override
 	public int sizeConstraintsOriginal() {
+		if (dispatch != null)
+			return domain.sizeConstraintsOriginal() + dispatch.size;
 		return domain.sizeConstraintsOriginal();
 	}
 
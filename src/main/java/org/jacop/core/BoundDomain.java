@@ -314,6 +314,9 @@ public class BoundDomain extends IntDomain {
 		if (min <= this.min && max >= this.max)
 			return;
 		
+		removing(var, this.min, min - 1);
+		removing(var, max + 1, this.max);
+
 		if (stamp == storeLevel) {
 
 			if (this.min < min )
@@ -382,6 +385,8 @@ public class BoundDomain extends IntDomain {
 		if (complement != this.min && complement != this.max)
 			return;
 		
+		removing(var, complement, complement);
+
 		if (stamp == storeLevel) {
 
 			if (this.min == complement )
@@ -447,6 +452,8 @@ public class BoundDomain extends IntDomain {
 		if (min > this.min && max < this.max)
 			return;
 		
+		removing(var, min, max);
+
 		if (stamp == storeLevel) {
 
 			if (max < this.max)
@@ -502,6 +509,8 @@ public class BoundDomain extends IntDomain {
 		if (max >= this.max)
 			return;
 		
+		removing(var, max + 1, this.max);
+
 		if (stamp == storeLevel) {
 			
 			this.max = max;
@@ -548,6 +557,8 @@ public class BoundDomain extends IntDomain {
 		if (min <= this.min)
 			return;
 		
+		removing(var, this.min, min - 1);
+
 		if (stamp == storeLevel) {
 
 			this.min = min;
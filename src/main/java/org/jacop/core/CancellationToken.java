@@ -0,0 +1,155 @@
+/**
+ *  CancellationToken.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+/**
+ * It allows to stop a search from any thread. The token is cancelled 
+ * explicitly by cancel() or when its deadline passes. The search checks 
+ * the token at each node and the store checks it between executions of 
+ * constraints (see Store.checkCancellation), so even long propagation stops 
+ * shortly after cancellation. The clock is read only every checkInterval 
+ * checks to keep the checks cheap.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class CancellationToken {
+
+	volatile boolean cancelled = false;
+
+	volatile long deadline = 0;
+
+	volatile boolean deadlineSet = false;
+
+	/**
+	 * The token whose cancellation also cancels this token, null if none.
+	 */
+	final CancellationToken parent;
+
+	/**
+	 * It specifies how many checks are performed between two readings of the clock.
+	 */
+	public int checkInterval = 32;
+
+	// It is not synchronized, a lost update only delays the reading of the clock.
+	int checks = 0;
+
+	/**
+	 * It creates a token which is not cancelled and has no deadline.
+	 */
+	public CancellationToken() {
+		parent = null;
+	}
+
+	/**
+	 * It creates a token which is cancelled after the given time.
+	 * @param timeOutMillis the time in milliseconds, counted from now, after which the token is cancelled.
+	 */
+	public CancellationToken(long timeOutMillis) {
+		parent = null;
+		setTimeOutMillis(timeOutMillis);
+	}
+
+	/**
+	 * It creates a token which is cancelled together with the parent token. 
+	 * Cancelling this token does not cancel the parent, so a search can stop 
+	 * its own workers without changing the token supplied by the user.
+	 * @param parent the token whose cancellation cancels this token, null if none.
+	 */
+	public CancellationToken(CancellationToken parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * It cancels the token, it can be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * It sets the deadline of the token. Contrary to Search.setTimeOut the time 
+	 * is given in milliseconds.
+	 * @param timeOutMillis the time in milliseconds, counted from now, after which the token is cancelled.
+	 */
+	public void setTimeOutMillis(long timeOutMillis) {
+		deadline = System.nanoTime() + timeOutMillis * 1000000L;
+		deadlineSet = true;
+		checks = 0;
+	}
+
+	/**
+	 * It checks if the token has been cancelled or its deadline has passed. 
+	 * The deadline is checked every checkInterval calls.
+	 * @return true if the token is cancelled, false otherwise.
+	 */
+	public boolean isCancelled() {
+
+		if (cancelled)
+			return true;
+
+		if (parent != null && parent.isCancelled()) {
+			cancelled = true;
+			return true;
+		}
+
+		if (!deadlineSet || ++checks < checkInterval)
+			return false;
+
+		checks = 0;
+
+		if (System.nanoTime() - deadline >= 0) {
+			cancelled = true;
+			return true;
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * It makes the token not cancelled and removes its deadline, so it can be reused.
+	 */
+	public void reset() {
+		deadlineSet = false;
+		cancelled = false;
+		checks = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "CancellationToken(cancelled : " + cancelled + ")";
+	}
+
+}
@@ -0,0 +1,192 @@
+/**
+ *  DomainDelta.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+/**
+ * It is a cursor over the values removed from the domain of a finite domain 
+ * variable. Each constraint keeps its own cursor for every variable it wants 
+ * to propagate incrementally. Method update() returns the intervals removed 
+ * since the previous call of update() (or reset()) by the same constraint. 
+ * The domains record removed intervals at the time of pruning in the log of 
+ * the variable (see PruningLog) and the cursor only remembers its position 
+ * in this log, hence computing the delta neither reads the whole domain nor 
+ * creates any object. The intervals are given in the order of removal.
+ * 
+ * If the store has backtracked since the last update then the delta is 
+ * computed with respect to the domain from the beginning of the current 
+ * level, the same way as recentDomainPruning() does. It assumes that the 
+ * state of the constraint is trailed and it has been restored to the state 
+ * corresponding to this domain.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public final class DomainDelta {
+
+	/**
+	 * It specifies the variable which domain is tracked by this cursor.
+	 */
+	public final IntVar var;
+
+	/**
+	 * It specifies the minimal values of the removed intervals.
+	 */
+	public int[] min = new int[4];
+
+	/**
+	 * It specifies the maximal values of the removed intervals.
+	 */
+	public int[] max = new int[4];
+
+	/**
+	 * It specifies the number of removed intervals.
+	 */
+	public int size;
+
+	final PruningLog log;
+
+	int position;
+
+	long backtracks;
+
+	/**
+	 * It creates a cursor for a given variable. The current domain of 
+	 * the variable is the starting point of the cursor.
+	 * @param var variable which domain changes are tracked.
+	 */
+	public DomainDelta(IntVar var) {
+		this.var = var;
+		this.log = var.pruningLog();
+		reset();
+	}
+
+	/**
+	 * It makes the current domain of the variable the starting point 
+	 * of the cursor. The delta becomes empty.
+	 */
+	public void reset() {
+
+		position = log.size.value();
+		size = 0;
+		backtracks = var.store.backtracks;
+
+	}
+
+	/**
+	 * It collects the intervals removed from the domain of the variable 
+	 * since the last update. The removed intervals are available in 
+	 * arrays min and max.
+	 * @return true if at least one value has been removed, false otherwise.
+	 */
+	public boolean update() {
+
+		if (backtracks != var.store.backtracks) {
+			backtracks = var.store.backtracks;
+			position = Math.min(position, log.levelStart());
+		}
+
+		int end = log.size.value();
+
+		size = end - position;
+
+		if (size > min.length) {
+			min = new int[size * 2];
+			max = new int[size * 2];
+		}
+
+		System.arraycopy(log.min, position, min, 0, size);
+		System.arraycopy(log.max, position, max, 0, size);
+
+		position = end;
+
+		return size > 0;
+
+	}
+
+	/**
+	 * It checks if the delta computed by the last update is empty.
+	 * @return true if no value has been removed, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * It checks if a given value has been removed according to the last update.
+	 * @param value the value being checked.
+	 * @return true if the value belongs to the delta, false otherwise.
+	 */
+	public boolean contains(int value) {
+
+		for (int i = 0; i < size; i++)
+			if (min[i] <= value && value <= max[i])
+				return true;
+
+		return false;
+
+	}
+
+	/**
+	 * It returns the number of values removed according to the last update.
+	 * @return the number of removed values.
+	 */
+	public int getSize() {
+
+		int result = 0;
+		for (int i = 0; i < size; i++)
+			result += max[i] - min[i] + 1;
+		return result;
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer(var.id());
+		result.append(" removed {");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				result.append(", ");
+			if (min[i] == max[i])
+				result.append(min[i]);
+			else
+				result.append(min[i]).append("..").append(max[i]);
+		}
+		result.append("}");
+
+		return result.toString();
+
+	}
+
+}
@@ -0,0 +1,257 @@
+/**
+ *  DomainTrail.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.core;
+
+/**
+ * It implements a shared trail of changes of interval domains. Instead of 
+ * creating a new domain at the first change within a level, a domain is 
+ * changed in place and it records on this trail the intervals which are 
+ * about to change. An entry keeps the old size and stamp of the domain and 
+ * the bounds of the old intervals from the first changed interval till 
+ * the end of the domain. Intervals before it are shared by the old and the
+ * new domain and they are not recorded.
+ * 
+ * The trail consists of primitive arrays only. They are reused after 
+ * backtracking, so trailing does not allocate memory once the arrays 
+ * have grown.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class DomainTrail {
+
+	/**
+	 * The number of integers describing one entry.
+	 */
+	static final int entrySize = 6;
+
+	static final int levelField = 0;
+
+	static final int stampField = 1;
+
+	static final int trailStampField = 2;
+
+	static final int sizeField = 3;
+
+	static final int prefixField = 4;
+
+	static final int positionField = 5;
+
+	/**
+	 * Domains which have recorded the entries.
+	 */
+	IntervalDomain[] domains = new IntervalDomain[64];
+
+	/**
+	 * The description of entries, entrySize integers per entry.
+	 */
+	int[] entries = new int[64 * entrySize];
+
+	/**
+	 * The bounds of recorded intervals, two integers per interval.
+	 */
+	int[] bounds = new int[256];
+
+	/**
+	 * The number of entries on the trail.
+	 */
+	int size = 0;
+
+	/**
+	 * The number of used positions within array bounds.
+	 */
+	int boundsSize = 0;
+
+	/**
+	 * The total number of entries recorded so far.
+	 */
+	public long recorded = 0;
+
+	/**
+	 * The total number of intervals recorded so far.
+	 */
+	public long recordedIntervals = 0;
+
+	/**
+	 * It records the state of the domain before it is changed in place 
+	 * at a given level.
+	 * @param level the level at which the change takes place.
+	 * @param domain the domain being changed.
+	 * @param prefix the number of leading intervals which will not change.
+	 */
+	void record(int level, IntervalDomain domain, int prefix) {
+
+		if (size == domains.length) {
+
+			IntervalDomain[] oldDomains = domains;
+			domains = new IntervalDomain[size * 2];
+			System.arraycopy(oldDomains, 0, domains, 0, size);
+
+			int[] oldEntries = entries;
+			entries = new int[size * 2 * entrySize];
+			System.arraycopy(oldEntries, 0, entries, 0, size * entrySize);
+
+		}
+
+		int recordedSize = domain.size - prefix;
+
+		if (boundsSize + 2 * recordedSize > bounds.length) {
+			int[] oldBounds = bounds;
+			bounds = new int[Math.max(bounds.length * 2, boundsSize + 2 * recordedSize)];
+			System.arraycopy(oldBounds, 0, bounds, 0, boundsSize);
+		}
+
+		int entry = size * entrySize;
+
+		domains[size] = domain;
+		entries[entry + levelField] = level;
+		entries[entry + stampField] = domain.stamp;
+		entries[entry + trailStampField] = domain.trailStamp;
+		entries[entry + sizeField] = domain.size;
+		entries[entry + prefixField] = prefix;
+		entries[entry + positionField] = boundsSize;
+
+		Interval[] intervals = domain.intervals;
+		for (int i = prefix; i < domain.size; i++) {
+			bounds[boundsSize++] = intervals[i].min;
+			bounds[boundsSize++] = intervals[i].max;
+		}
+
+		size++;
+		recorded++;
+		recordedIntervals += recordedSize;
+
+	}
+
+	/**
+	 * It restores all domains changed at the given level or later.
+	 * @param level the level being removed.
+	 */
+	public void removeLevel(int level) {
+
+		while (size > 0 && entries[(size - 1) * entrySize + levelField] >= level) {
+
+			size--;
+
+			IntervalDomain domain = domains[size];
+			domains[size] = null;
+
+			int entry = size * entrySize;
+			restore(domain, entry);
+			domain.stamp = entries[entry + stampField];
+			domain.trailStamp = entries[entry + trailStampField];
+			boundsSize = entries[entry + positionField];
+
+		}
+
+	}
+
+	/**
+	 * It brings back the intervals recorded by a given entry.
+	 */
+	private void restore(IntervalDomain domain, int entry) {
+
+		int oldSize = entries[entry + sizeField];
+		int position = entries[entry + positionField];
+
+		if (domain.intervals.length < oldSize) {
+			Interval[] oldIntervals = domain.intervals;
+			domain.intervals = new Interval[oldSize];
+			System.arraycopy(oldIntervals, 0, domain.intervals, 0, entries[entry + prefixField]);
+		}
+
+		for (int i = entries[entry + prefixField]; i < oldSize; i++, position += 2)
+			domain.intervals[i] = new Interval(bounds[position], bounds[position + 1]);
+
+		domain.size = oldSize;
+
+	}
+
+	/**
+	 * It reconstructs the domain as it was at the beginning of a given level. 
+	 * It takes into account the entries of the domain and the entries of the 
+	 * domains it was created from at that level.
+	 * @param domain the current domain.
+	 * @param level the level at which beginning the domain is reconstructed.
+	 * @return the domain at the beginning of the level, null if the domain has not changed in place at that level.
+	 */
+	IntervalDomain levelDomain(IntervalDomain domain, int level) {
+
+		IntervalDomain result = null;
+
+		for (int i = size - 1; i >= 0 && entries[i * entrySize + levelField] >= level; i--) {
+
+			if (entries[i * entrySize + levelField] != level)
+				continue;
+
+			IntervalDomain recorded = domains[i];
+
+			IntervalDomain dom = domain;
+			while (dom != null && dom != recorded)
+				dom = dom.stamp == level ? dom.previousDomain : null;
+
+			if (dom == null)
+				continue;
+
+			if (result == null)
+				result = domain.cloneLight();
+
+			restore(result, i * entrySize);
+
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * It returns the number of entries currently kept by the trail.
+	 * @return the number of entries.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer("DomainTrail(entries ");
+		result.append(size).append(", intervals ").append(boundsSize / 2);
+		result.append(", recorded ").append(recorded).append(" entries with ");
+		result.append(recordedIntervals).append(" intervals)");
+
+		return result.toString();
+
+	}
+
+}
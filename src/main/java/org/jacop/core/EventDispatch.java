@@ -0,0 +1,172 @@
+/**
+ *  EventDispatch.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.core;
+
+import org.jacop.constraints.Constraint;
+
+/**
+ * It is a compact dispatch array of a variable used when store schedules 
+ * constraints based on events (Store.setEventScheduling). Each entry holds 
+ * a constraint, the mask of pruning events which cause the constraint to be 
+ * scheduled for reevaluation, the mask of pruning events for which the 
+ * constraint wants to be informed about the change of the variable and the 
+ * index of the variable within the constraint. 
+ * 
+ * Entries of satisfied constraints are only marked as removed, so positions 
+ * of entries never change. Store trails all changes and restores them upon 
+ * backtracking.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class EventDispatch {
+
+	/**
+	 * Constraints registered at the variable.
+	 */
+	public Constraint[] constraints = new Constraint[4];
+
+	/**
+	 * For each entry the mask of pruning events (bit 1 &lt;&lt; event) which 
+	 * schedule the constraint for reevaluation.
+	 */
+	public int[] events = new int[4];
+
+	/**
+	 * For each entry the mask of pruning events for which the constraint 
+	 * function queueVariable(level, var, index) is called.
+	 */
+	public int[] deliveries = new int[4];
+
+	/**
+	 * For each entry the index of the variable given by the constraint.
+	 */
+	public int[] indexes = new int[4];
+
+	/**
+	 * For each entry it specifies if the constraint was removed from the variable. 
+	 */
+	public boolean[] removed = new boolean[4];
+
+	/**
+	 * The number of entries.
+	 */
+	public int size = 0;
+
+	/**
+	 * The number of entries which are not removed.
+	 */
+	public int active = 0;
+
+	/**
+	 * It adds an entry at the end of dispatch array.
+	 */
+	void add(Constraint c, int eventMask, int deliveryMask, int index) {
+
+		if (size == constraints.length) {
+
+			int newCapacity = size * 2;
+
+			Constraint[] oldConstraints = constraints;
+			constraints = new Constraint[newCapacity];
+			System.arraycopy(oldConstraints, 0, constraints, 0, size);
+
+			int[] oldEvents = events;
+			events = new int[newCapacity];
+			System.arraycopy(oldEvents, 0, events, 0, size);
+
+			int[] oldDeliveries = deliveries;
+			deliveries = new int[newCapacity];
+			System.arraycopy(oldDeliveries, 0, deliveries, 0, size);
+
+			int[] oldIndexes = indexes;
+			indexes = new int[newCapacity];
+			System.arraycopy(oldIndexes, 0, indexes, 0, size);
+
+			boolean[] oldRemoved = removed;
+			removed = new boolean[newCapacity];
+			System.arraycopy(oldRemoved, 0, removed, 0, size);
+
+		}
+
+		constraints[size] = c;
+		events[size] = eventMask;
+		deliveries[size] = deliveryMask;
+		indexes[size] = index;
+		removed[size] = false;
+
+		size++;
+		active++;
+
+	}
+
+	/**
+	 * It returns the position of the entry of given constraint which is not removed.
+	 * @return the position of the entry, -1 if there is none. 
+	 */
+	int position(Constraint c) {
+
+		for (int i = 0; i < size; i++)
+			if (constraints[i] == c && !removed[i])
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * It checks if the constraint has an entry which is not removed.
+	 * @param c constraint being checked.
+	 * @return true if constraint is registered and not removed, false otherwise.
+	 */
+	public boolean contains(Constraint c) {
+		return position(c) != -1;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer S = new StringBuffer("[");
+
+		for (int i = 0; i < size; i++) {
+			if (removed[i])
+				continue;
+			if (S.length() > 1)
+				S.append(", ");
+			S.append(constraints[i].id()).append("(").append(indexes[i]).append(")");
+		}
+
+		S.append("]");
+		return S.toString();
+	}
+
+}
@@ -0,0 +1,739 @@
+/**
+ *  ExplanationTrail.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import org.jacop.constraints.Constraint;
+import org.jacop.constraints.Explainable;
+import org.jacop.constraints.NoGoodDatabase;
+
+/**
+ * It implements explanation based no-good learning restricted to bounds of 
+ * integer variables. Every change of bounds is recorded on the trail together 
+ * with the constraint which has caused it. The constraint is asked to explain 
+ * the change only when the change takes part in a failure (lazy explanation).
+ * 
+ * When a constraint fails the conflict is explained by bound literals (x >= v, 
+ * x <= v). The literals set at the current store level are replaced by their 
+ * explanations, the most recent first, until only one literal from the current 
+ * level remains (first unique implication point). Literals which were set by 
+ * search, by constraints imposed during search, or by constraints which can not 
+ * explain them are not replaced. The resulting no-good is added to the no-good 
+ * database of the store (see NoGoodDatabase) when the store level is removed.
+ * 
+ * The explanations are sound with respect to the state of the store when the 
+ * trail was created, therefore the trail must be created after the model is 
+ * imposed and before search starts.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class ExplanationTrail {
+
+	Store store;
+
+	/**
+	 * The store level at which the trail was created. Constraints imposed above
+	 * this level are considered search decisions.
+	 */
+	public final int baseLevel;
+
+	/**
+	 * It specifies the maximal number of literals of learned no-good, larger 
+	 * no-goods are not imposed.
+	 */
+	public int maxNoGoodSize = 64;
+
+	/**
+	 * It specifies the maximal number of literals replaced by explanations 
+	 * during analysis of one failure.
+	 */
+	public int maxResolutions = 1000;
+
+	// Bounds of variables when the trail was created.
+	int[] rootMin;
+	int[] rootMax;
+
+	// The last entry of each variable, -1 if there is no entry.
+	int[] head;
+
+	// Entries of the trail.
+	IntVar[] vars = new IntVar[256];
+	Constraint[] reasons = new Constraint[256];
+	int[] oldMin = new int[256];
+	int[] oldMax = new int[256];
+	int[] newMin = new int[256];
+	int[] newMax = new int[256];
+	int[] levels = new int[256];
+	int[] previous = new int[256];
+
+	int size = 0;
+
+	/**
+	 * Constraints imposed during search together with the level of imposition.
+	 */
+	IdentityHashMap<Constraint, Integer> searchConstraints = new IdentityHashMap<Constraint, Integer>();
+
+	ArrayList<Constraint> searchConstraintsStack = new ArrayList<Constraint>();
+
+	// The set of literals being analysed, indexed by the variable index.
+	int[] geqMark;
+	int[] geqValue;
+	int[] leqMark;
+	int[] leqValue;
+	int[] varMark;
+	int mark = 0;
+	IntVar[] literalVars = new IntVar[64];
+	int literalVarsSize = 0;
+
+	// No-goods learned since the last removal of the level.
+	ArrayList<IntVar[]> learnedVars = new ArrayList<IntVar[]>();
+	ArrayList<int[]> learnedKinds = new ArrayList<int[]>();
+	ArrayList<int[]> learnedValues = new ArrayList<int[]>();
+
+	/**
+	 * It counts the learned no-goods.
+	 */
+	public long learnedNoGoods = 0;
+
+	/**
+	 * It counts the literals of the learned no-goods.
+	 */
+	public long learnedLiterals = 0;
+
+	/**
+	 * It counts the failures which could not be explained.
+	 */
+	public long unexplainedFailures = 0;
+
+	/**
+	 * It creates an explanation trail for the current state of the store.
+	 * @param store the store for which changes of bounds are recorded.
+	 */
+	public ExplanationTrail(Store store) {
+
+		this.store = store;
+		this.baseLevel = store.level;
+
+		int n = store.size();
+		rootMin = new int[n];
+		rootMax = new int[n];
+		head = new int[n];
+		geqMark = new int[n];
+		geqValue = new int[n];
+		leqMark = new int[n];
+		leqValue = new int[n];
+		varMark = new int[n];
+
+		for (int i = 0; i < n; i++) {
+			head[i] = -1;
+			if (store.vars[i] instanceof IntVar) {
+				rootMin[i] = ((IntVar) store.vars[i]).min();
+				rootMax[i] = ((IntVar) store.vars[i]).max();
+			}
+			else {
+				rootMin[i] = IntDomain.MinInt;
+				rootMax[i] = IntDomain.MaxInt;
+			}
+		}
+
+	}
+
+	/**
+	 * It records the change of bounds of the variable, if any.
+	 * 
+	 * @param var the variable which domain has changed.
+	 * @param reason the constraint which has changed the domain, null if it was changed by search.
+	 * @param level the store level of the change.
+	 */
+	public void record(IntVar var, Constraint reason, int level) {
+
+		int index = var.index;
+		if (index >= head.length)
+			grow(index + 1);
+
+		int h = head[index];
+		int min, max;
+		if (h >= 0) {
+			min = newMin[h];
+			max = newMax[h];
+		}
+		else {
+			min = rootMin[index];
+			max = rootMax[index];
+		}
+
+		if (var.min() == min && var.max() == max)
+			return;
+
+		if (size == vars.length)
+			growEntries();
+
+		vars[size] = var;
+		reasons[size] = reason;
+		oldMin[size] = min;
+		oldMax[size] = max;
+		newMin[size] = var.min();
+		newMax[size] = var.max();
+		levels[size] = level;
+		previous[size] = h;
+		head[index] = size;
+		size++;
+
+	}
+
+	/**
+	 * It records the constraint imposed during search, such constraint is 
+	 * not used to explain literals.
+	 * @param c the constraint imposed.
+	 * @param level the level at which the constraint is imposed.
+	 */
+	public void imposedAtSearch(Constraint c, int level) {
+
+		if (!searchConstraints.containsKey(c)) {
+			searchConstraints.put(c, level);
+			searchConstraintsStack.add(c);
+		}
+
+	}
+
+	/**
+	 * It removes entries of the given level and all levels above it. It adds
+	 * the no-goods learned at the removed levels to the no-good database.
+	 * @param level the level being removed.
+	 */
+	public void removeLevel(int level) {
+
+		while (size > 0 && levels[size - 1] >= level) {
+			size--;
+			head[vars[size].index] = previous[size];
+			vars[size] = null;
+			reasons[size] = null;
+		}
+
+		for (int i = searchConstraintsStack.size() - 1; i >= 0; i--) {
+			Constraint c = searchConstraintsStack.get(i);
+			if (searchConstraints.get(c) < level) 
+				break;
+			searchConstraints.remove(c);
+			searchConstraintsStack.remove(i);
+		}
+
+		if (learnedVars.isEmpty())
+			return;
+
+		NoGoodDatabase database = store.getNoGoodDatabase();
+		for (int i = 0; i < learnedVars.size(); i++)
+			database.addNoGood(learnedVars.get(i), learnedKinds.get(i), learnedValues.get(i));
+
+		learnedVars.clear();
+		learnedKinds.clear();
+		learnedValues.clear();
+
+	}
+
+	/**
+	 * It returns the number of entries in the trail.
+	 * @return the size of the trail.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * It returns the minimal value of the variable at the given position of the trail.
+	 * @param var the variable.
+	 * @param position the position of the trail.
+	 * @return the minimal value of the variable before the entry at the position.
+	 */
+	public int min(IntVar var, int position) {
+
+		if (position >= size)
+			return var.min();
+
+		int e = var.index < head.length ? head[var.index] : -1;
+		int result = var.min();
+		while (e >= 0) {
+			if (e < position)
+				return newMin[e];
+			result = oldMin[e];
+			e = previous[e];
+		}
+		return result;
+
+	}
+
+	/**
+	 * It returns the maximal value of the variable at the given position of the trail.
+	 * @param var the variable.
+	 * @param position the position of the trail.
+	 * @return the maximal value of the variable before the entry at the position.
+	 */
+	public int max(IntVar var, int position) {
+
+		if (position >= size)
+			return var.max();
+
+		int e = var.index < head.length ? head[var.index] : -1;
+		int result = var.max();
+		while (e >= 0) {
+			if (e < position)
+				return newMax[e];
+			result = oldMax[e];
+			e = previous[e];
+		}
+		return result;
+
+	}
+
+	/**
+	 * It adds the literal var >= value to the explanation being built.
+	 * @param var the variable of the literal.
+	 * @param value the bound of the literal.
+	 */
+	public void addGeq(IntVar var, int value) {
+
+		int index = var.index;
+		if (geqMark[index] == mark) {
+			if (geqValue[index] < value)
+				geqValue[index] = value;
+			return;
+		}
+
+		addLiteralVar(var);
+		geqMark[index] = mark;
+		geqValue[index] = value;
+
+	}
+
+	/**
+	 * It adds the literal var <= value to the explanation being built.
+	 * @param var the variable of the literal.
+	 * @param value the bound of the literal.
+	 */
+	public void addLeq(IntVar var, int value) {
+
+		int index = var.index;
+		if (leqMark[index] == mark) {
+			if (leqValue[index] > value)
+				leqValue[index] = value;
+			return;
+		}
+
+		addLiteralVar(var);
+		leqMark[index] = mark;
+		leqValue[index] = value;
+
+	}
+
+	void addLiteralVar(IntVar var) {
+
+		if (varMark[var.index] == mark)
+			return;
+		varMark[var.index] = mark;
+
+		if (literalVarsSize == literalVars.length) {
+			IntVar[] tmp = new IntVar[literalVars.length * 2];
+			System.arraycopy(literalVars, 0, tmp, 0, literalVarsSize);
+			literalVars = tmp;
+		}
+		literalVars[literalVarsSize++] = var;
+
+	}
+
+	/**
+	 * It explains the bound of the variable pruned by linear constraint 
+	 * sum(a[i] * x[i]) <= b, or sum(a[i] * x[i]) = b if equality is true.
+	 * 
+	 * @param x the variables of the constraint.
+	 * @param a the coefficients of the constraint.
+	 * @param b the right hand side of the constraint.
+	 * @param equality true if the constraint is an equality, false if it is inequality.
+	 * @param position the position of the trail at which the bound was pruned.
+	 * @param var the variable which bound was pruned.
+	 * @param geq true if the literal var >= value is explained, false if literal var <= value is explained.
+	 * @param value the value of the bound.
+	 * @return false if the bound does not follow from the bounds of the other variables.
+	 */
+	public boolean explainLinear(IntVar[] x, int[] a, long b, boolean equality, int position, 
+								 IntVar var, boolean geq, int value) {
+
+		if (explainLinear(x, a, 1, b, position, var, geq, value))
+			return true;
+
+		if (equality)
+			return explainLinear(x, a, -1, -b, position, var, geq, value);
+
+		return false;
+
+	}
+
+	boolean explainLinear(IntVar[] x, int[] a, int sign, long b, int position, 
+						  IntVar var, boolean geq, int value) {
+
+		long coefficient = 0;
+		long rest = 0;
+		for (int i = 0; i < x.length; i++) {
+			long ai = sign * (long) a[i];
+			if (x[i] == var)
+				coefficient += ai;
+			else 
+				rest += ai > 0 ? ai * min(x[i], position) : ai * max(x[i], position);
+		}
+
+		// coefficient * var <= b - rest
+		if (coefficient > 0 && !geq) {
+			if (floorDiv(b - rest, coefficient) > value)
+				return false;
+		}
+		else if (coefficient < 0 && geq) {
+			if (ceilDiv(rest - b, -coefficient) < value)
+				return false;
+		}
+		else
+			return false;
+
+		for (int i = 0; i < x.length; i++)
+			if (x[i] != var) {
+				if (sign * a[i] > 0)
+					addGeq(x[i], min(x[i], position));
+				else if (a[i] != 0)
+					addLeq(x[i], max(x[i], position));
+			}
+
+		return true;
+
+	}
+
+	/**
+	 * It explains the failure of linear constraint sum(a[i] * x[i]) <= b, or 
+	 * sum(a[i] * x[i]) = b if equality is true.
+	 * 
+	 * @param x the variables of the constraint.
+	 * @param a the coefficients of the constraint.
+	 * @param b the right hand side of the constraint.
+	 * @param equality true if the constraint is an equality, false if it is inequality.
+	 * @param position the position of the trail at which the constraint failed.
+	 * @return false if the failure does not follow from the bounds of the variables.
+	 */
+	public boolean explainLinearFailure(IntVar[] x, int[] a, long b, boolean equality, int position) {
+
+		if (explainLinearFailure(x, a, 1, b, position))
+			return true;
+
+		if (equality)
+			return explainLinearFailure(x, a, -1, -b, position);
+
+		return false;
+
+	}
+
+	boolean explainLinearFailure(IntVar[] x, int[] a, int sign, long b, int position) {
+
+		long sum = 0;
+		for (int i = 0; i < x.length; i++) {
+			long ai = sign * (long) a[i];
+			sum += ai > 0 ? ai * min(x[i], position) : ai * max(x[i], position);
+		}
+
+		if (sum <= b)
+			return false;
+
+		for (int i = 0; i < x.length; i++)
+			if (sign * a[i] > 0)
+				addGeq(x[i], min(x[i], position));
+			else if (a[i] != 0)
+				addLeq(x[i], max(x[i], position));
+
+		return true;
+
+	}
+
+	static long floorDiv(long a, long b) {
+		long q = a / b;
+		if ((a % b != 0) && ((a < 0) != (b < 0)))
+			q--;
+		return q;
+	}
+
+	static long ceilDiv(long a, long b) {
+		return -floorDiv(-a, b);
+	}
+
+	/**
+	 * It returns the entry which has made the literal true, -1 if the literal 
+	 * was true when the trail was created.
+	 */
+	int implyingEntry(IntVar var, boolean geq, int value) {
+
+		int result = -1;
+		int e = head[var.index];
+		while (e >= 0) {
+			if (geq ? newMin[e] < value : newMax[e] > value)
+				break;
+			result = e;
+			e = previous[e];
+		}
+
+		if (result >= 0 && (geq ? oldMin[result] >= value : oldMax[result] <= value))
+			return -1;
+
+		return result;
+
+	}
+
+	/**
+	 * It returns the position of the entry which has made the literal true.
+	 * 
+	 * @param var the variable of the literal.
+	 * @param geq true for literal var >= value, false for literal var <= value.
+	 * @param value the bound of the literal.
+	 * @return the position of the entry, -1 if the literal was true when the trail was created.
+	 */
+	public int implyingPosition(IntVar var, boolean geq, int value) {
+
+		if (var.index >= head.length)
+			return -1;
+
+		return implyingEntry(var, geq, value);
+
+	}
+
+	/**
+	 * It checks if the entry can be explained by its reason.
+	 */
+	boolean explainable(int entry) {
+
+		Constraint reason = reasons[entry];
+
+		return reason instanceof Explainable && !searchConstraints.containsKey(reason);
+
+	}
+
+	/**
+	 * It analyses the failure of the constraint and learns a no-good which is 
+	 * imposed when the current level is removed.
+	 * 
+	 * @param failed the constraint which has failed.
+	 */
+	public void analyze(Constraint failed) {
+
+		if (!(failed instanceof Explainable) || searchConstraints.containsKey(failed)) {
+			unexplainedFailures++;
+			return;
+		}
+
+		if (head.length < store.size())
+			grow(store.size());
+
+		mark++;
+		literalVarsSize = 0;
+
+		if (!((Explainable) failed).explainFailure(this, size)) {
+			unexplainedFailures++;
+			return;
+		}
+
+		int currentLevel = store.level;
+		boolean[] unexplained = null;
+
+		for (int step = 0; step < maxResolutions; step++) {
+
+			int current = 0;
+			int latest = -1;
+			IntVar latestVar = null;
+			boolean latestGeq = false;
+
+			for (int i = 0; i < literalVarsSize; i++) {
+
+				IntVar var = literalVars[i];
+				int index = var.index;
+
+				for (int k = 0; k < 2; k++) {
+					boolean geq = k == 0;
+					if (geq ? geqMark[index] != mark : leqMark[index] != mark)
+						continue;
+					int e = implyingEntry(var, geq, geq ? geqValue[index] : leqValue[index]);
+					if (e == -1) {
+						// literal holds in the root.
+						if (geq)
+							geqMark[index] = 0;
+						else
+							leqMark[index] = 0;
+						continue;
+					}
+					if (levels[e] < currentLevel)
+						continue;
+					current++;
+					if (e > latest && explainable(e) && (unexplained == null || !unexplained[e])) {
+						latest = e;
+						latestVar = var;
+						latestGeq = geq;
+					}
+				}
+
+			}
+
+			if (current <= 1 || latest == -1)
+				break;
+
+			int index = latestVar.index;
+			int value = latestGeq ? geqValue[index] : leqValue[index];
+
+			if (latestGeq)
+				geqMark[index] = 0;
+			else
+				leqMark[index] = 0;
+
+			if (!((Explainable) reasons[latest]).explainBound(this, latest, latestVar, latestGeq, value)) {
+				// the literal stays in the no-good.
+				if (latestGeq)
+					addGeq(latestVar, value);
+				else
+					addLeq(latestVar, value);
+				if (unexplained == null)
+					unexplained = new boolean[size];
+				unexplained[latest] = true;
+			}
+
+		}
+
+		int n = 0;
+		for (int i = 0; i < literalVarsSize; i++) {
+			int index = literalVars[i].index;
+			if (geqMark[index] == mark)
+				n++;
+			if (leqMark[index] == mark)
+				n++;
+		}
+
+		IntVar[] noGoodVars = new IntVar[n];
+		int[] noGoodKinds = new int[n];
+		int[] noGoodValues = new int[n];
+
+		n = 0;
+		for (int i = 0; i < literalVarsSize; i++) {
+			IntVar var = literalVars[i];
+			int index = var.index;
+			if (geqMark[index] == mark) {
+				noGoodVars[n] = var;
+				noGoodKinds[n] = NoGoodDatabase.GEQ;
+				noGoodValues[n++] = geqValue[index];
+			}
+			if (leqMark[index] == mark) {
+				noGoodVars[n] = var;
+				noGoodKinds[n] = NoGoodDatabase.LEQ;
+				noGoodValues[n++] = leqValue[index];
+			}
+			literalVars[i] = null;
+		}
+
+		if (n > maxNoGoodSize)
+			return;
+
+		learnedNoGoods++;
+		learnedLiterals += n;
+		learnedVars.add(noGoodVars);
+		learnedKinds.add(noGoodKinds);
+		learnedValues.add(noGoodValues);
+
+	}
+
+	void grow(int n) {
+
+		int length = Math.max(n, head.length * 2);
+		int old = head.length;
+
+		rootMin = copy(rootMin, length);
+		rootMax = copy(rootMax, length);
+		head = copy(head, length);
+		geqMark = copy(geqMark, length);
+		geqValue = copy(geqValue, length);
+		leqMark = copy(leqMark, length);
+		leqValue = copy(leqValue, length);
+		varMark = copy(varMark, length);
+
+		// variables created after the trail have unknown root bounds.
+		for (int i = old; i < length; i++) {
+			head[i] = -1;
+			rootMin[i] = IntDomain.MinInt;
+			rootMax[i] = IntDomain.MaxInt;
+		}
+
+	}
+
+	void growEntries() {
+
+		int length = vars.length * 2;
+
+		IntVar[] varsTmp = new IntVar[length];
+		System.arraycopy(vars, 0, varsTmp, 0, size);
+		vars = varsTmp;
+
+		Constraint[] reasonsTmp = new Constraint[length];
+		System.arraycopy(reasons, 0, reasonsTmp, 0, size);
+		reasons = reasonsTmp;
+
+		oldMin = copy(oldMin, length);
+		oldMax = copy(oldMax, length);
+		newMin = copy(newMin, length);
+		newMax = copy(newMax, length);
+		levels = copy(levels, length);
+		previous = copy(previous, length);
+
+	}
+
+	static int[] copy(int[] array, int length) {
+		int[] result = new int[length];
+		System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+		return result;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer buf = new StringBuffer();
+
+		buf.append("Explanation trail, entries : ").append(size);
+		buf.append(", learned no-goods : ").append(learnedNoGoods);
+		if (learnedNoGoods > 0)
+			buf.append(", average size : ").append((float) learnedLiterals / learnedNoGoods);
+		buf.append(", unexplained failures : ").append(unexplainedFailures);
+
+		return buf.toString();
+
+	}
+
+}
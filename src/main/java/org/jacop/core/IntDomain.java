@@ -112,6 +112,12 @@ public abstract class IntDomain extends Domain {
 
 	public static final int SmallDenseDomainID = 2;
 
+	/**
+	 * Unique identifier for a bit set domain type. Value 3 is used by SetDomain.
+	 */
+
+	public static final int BitSetDomainID = 4;
+
 	/**
 	 * It specifies an empty integer domain. 
 	 */
@@ -481,6 +487,40 @@ public abstract class IntDomain extends Domain {
 		return union(value, value);
 	}
 
+	/**
+	 * It records values of this domain within min..max as removed from the 
+	 * domain of the variable if the variable keeps the log of removed values. 
+	 * It is called by functions changing the domain before the values are removed.
+	 * @param var variable for which this domain is used.
+	 * @param min the left bound of the removed interval.
+	 * @param max the right bound of the removed interval.
+	 */
+
+	final void removing(Var var, int min, int max) {
+
+		PruningLog log = ((IntVar) var).pruningLog;
+		if (log != null && min <= max)
+			log.add(this, min, max);
+
+	}
+
+	/**
+	 * It records values of this domain which do not belong to domain shifted by 
+	 * shift as removed from the domain of the variable if the variable keeps 
+	 * the log of removed values.
+	 * @param var variable for which this domain is used.
+	 * @param domain the domain according to which this domain is updated.
+	 * @param shift the shift of the domain.
+	 */
+
+	final void removingOutside(Var var, IntDomain domain, int shift) {
+
+		PruningLog log = ((IntVar) var).pruningLog;
+		if (log != null)
+			log.addOutside(this, domain, shift);
+
+	}
+
 	/**
 	 * It updates the domain according to the minimum value and stamp value. It
 	 * informs the variable of a change if it occurred.
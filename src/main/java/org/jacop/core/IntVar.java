@@ -50,6 +50,12 @@ public class IntVar extends Var {
 	 */
 	public IntDomain domain;
 
+	/**
+	 * It keeps the values removed from the domain for cursors (DomainDelta), 
+	 * it is null if no cursor has been created for this variable.
+	 */
+	PruningLog pruningLog;
+
 	/**
 	 * It specifies the arguments required to be saved by an XML format as well as 
 	 * the constructor being called to recreate an object from an XML format.
@@ -137,7 +143,10 @@ public class IntVar extends Var {
 	
 	/**
 	 * This constructor creates a variable in a given store, with 
-	 * the domain specified by min..max and with the given name.
+	 * the domain specified by min..max and with the given name. Small
+	 * ranges are represented by SmallDenseDomain and the rest by IntervalDomain, 
+	 * unless the store uses BitSetDomain for medium ranges (see 
+	 * Store.setBitSetDomainThreshold).
 	 * @param store the store in which the variable is created.
 	 * @param name the name of the variable being created.
 	 * @param min the minimum value of the variables domain.
@@ -145,8 +154,12 @@ public class IntVar extends Var {
 	 */
 	public IntVar(Store store, String name, int min, int max) {
 		
-		if (max - min > 63)
-			commonInitialization(store, name, new IntervalDomain(min, max));
+		if ((long) max - min > 63) {
+			if ((long) max - min < store.bitSetDomainThreshold)
+				commonInitialization(store, name, new BitSetDomain(min, max));
+			else
+				commonInitialization(store, name, new IntervalDomain(min, max));
+		}
 		else
 			commonInitialization(store, name, new SmallDenseDomain(min, max));
 
@@ -248,7 +261,13 @@ public class IntVar extends Var {
 	}
 
 	/**
-	 * This function returns current domain of the variable.
+	 * This function returns current domain of the variable. The returned 
+	 * object is the live domain. It can be changed in place by later pruning 
+	 * at the same level and, if the store uses domain trail (see 
+	 * Store.setDomainTrail), also at deeper levels, being restored when the
+	 * levels are removed. A reference kept beyond the current consistency 
+	 * call (e.g. as a part of a recorded solution) should be a copy made by 
+	 * cloneLight().
 	 * @return the domain of the variable.
 	 */
 
@@ -344,6 +363,28 @@ public class IntVar extends Var {
 
 	}
 
+	/**
+	 * It creates a cursor which computes values removed from the domain of 
+	 * this variable in between the calls to its update function. Contrary 
+	 * to recentDomainPruning() it does not create any domain. Once a cursor 
+	 * is created the domain records all values it removes.
+	 * @return cursor starting at the current domain of the variable.
+	 */
+	public DomainDelta domainDelta() {
+
+		return new DomainDelta(this);
+
+	}
+
+	PruningLog pruningLog() {
+
+		if (pruningLog == null)
+			pruningLog = new PruningLog(store);
+
+		return pruningLog;
+
+	}
+
 	/**
 	 * It detaches constraint from the current variable, so change in variable
 	 * will not cause constraint reevaluation. It is only removed from the 
@@ -363,7 +404,7 @@ public class IntVar extends Var {
 			if (domain.searchConstraints.get(i) == c)
 				domain.removeSearchConstraint(store.level, this, i, c);
 
-		if (i == -1)
+		if (i == -1 && (dispatch == null || !store.removeEvents(this, c)))
 			domain.removeModelConstraint(store.level, this, c);
 
 		store.recordChange(this);
@@ -386,6 +427,8 @@ public class IntVar extends Var {
 	 * @return number of constraints attached to the variable.
 	 */
 	public int sizeConstraints() {
+		if (dispatch != null)
+			return domain.sizeConstraints() + dispatch.active;
 		return domain.sizeConstraints();
 	}
 
@@ -395,6 +438,8 @@ public class IntVar extends Var {
 	 * @return number of constraints attached at the earliest level of the variable.
 	 */
 	public int sizeConstraintsOriginal() {
+		if (dispatch != null)
+			return domain.sizeConstraintsOriginal() + dispatch.size;
 		return domain.sizeConstraintsOriginal();
 	}
 
@@ -77,6 +77,22 @@ public class IntervalDomain extends IntDomain {
 
 	public int size;
 
+	/**
+	 * It specifies the trail on which this domain records its intervals 
+	 * before it is changed in place. It is null if the domain has never 
+	 * been changed in place.
+	 */
+
+	DomainTrail trail;
+
+	/**
+	 * It specifies the level at which the stamp was set by a change in place.
+	 * Such domain was not created at that level, so it has to be copied before
+	 * its constraints are changed.
+	 */
+
+	int trailStamp = -1;
+
 	/**
 	 * Empty constructor, does not initialize anything.
 	 */
@@ -122,9 +138,73 @@ public class IntervalDomain extends IntDomain {
 	}
 
     public IntDomain previousDomain() {
+    	if (trail != null) {
+    		IntervalDomain result = trail.levelDomain(this, stamp);
+    		if (result != null)
+    			return result;
+    	}
         return previousDomain;
     }
 
+	/**
+	 * It records the intervals of this domain from a given position onwards on 
+	 * the trail of the store, if the store changes interval domains in place. 
+	 * @param storeLevel the current level of the store.
+	 * @param var the variable for which the domain is changed.
+	 * @param prefix the number of leading intervals which will not change.
+	 * @return true if the domain is to be changed in place, false if the store does not use the trail.
+	 */
+	private boolean trail(int storeLevel, Var var, int prefix) {
+
+		DomainTrail domainTrail = var.store.domainTrail;
+
+		if (domainTrail == null || !trailed(storeLevel))
+			return false;
+
+		domainTrail.record(storeLevel, this, prefix);
+		trail = domainTrail;
+
+		if (stamp < storeLevel) {
+			stamp = storeLevel;
+			trailStamp = storeLevel;
+		}
+
+		return true;
+
+	}
+
+	/**
+	 * It checks if a change of this domain at a given level has to be recorded. 
+	 * A domain which has no earlier version at this level (e.g. any domain at 
+	 * level 0) is changed in place without recording, as it is done without 
+	 * domain trail, so previousDomain() and recentDomainPruning() are the same 
+	 * in both modes.
+	 */
+	private boolean trailed(int storeLevel) {
+
+		return stamp < storeLevel || trailStamp == storeLevel || previousDomain != null;
+
+	}
+
+	/**
+	 * It records the intervals of this domain which are different within the 
+	 * domain result, if the store changes interval domains in place.
+	 */
+	private boolean trail(int storeLevel, Var var, IntervalDomain result) {
+
+		if (var.store.domainTrail == null || !trailed(storeLevel))
+			return false;
+
+		int prefix = 0;
+		while (prefix < size && prefix < result.size 
+			   && intervals[prefix].min == result.intervals[prefix].min 
+			   && intervals[prefix].max == result.intervals[prefix].max)
+			prefix++;
+
+		return trail(storeLevel, var, prefix);
+
+	}
+
 	/**
 	 * 
 	 * It updates an object of type IntervalDomain with the information 
@@ -2934,7 +3014,9 @@ public class IntervalDomain extends IntDomain {
 		if (min <= intervals[0].min)
 			return;
 
-		if (stamp == storeLevel) {
+		removing(var, intervals[0].min, min - 1);
+
+		if (trail(storeLevel, var, 0) || stamp == storeLevel) {
 
 			int pointer = 0;
 
@@ -3023,14 +3105,16 @@ public class IntervalDomain extends IntDomain {
 		if (max >= currentMax)
 			return;
 
+		removing(var, max + 1, currentMax);
+
 		int pointer = size - 1;
 
-		if (stamp == storeLevel) {
+		while (intervals[pointer].min > max) {
+			// intervals[pointer] = null;
+			pointer--;
+		}
 
-			while (intervals[pointer].min > max) {
-				// intervals[pointer] = null;
-				pointer--;
-			}
+		if (trail(storeLevel, var, pointer) || stamp == storeLevel) {
 
 			if (intervals[pointer].max > max)
 				intervals[pointer] = new Interval(intervals[pointer].min, max);
@@ -3051,10 +3135,6 @@ public class IntervalDomain extends IntDomain {
 
 			assert stamp < storeLevel;
 
-			while (intervals[pointer].min > max) {
-				pointer--;
-			}
-
 			IntervalDomain result = new IntervalDomain(pointer + 1);
 
 			for (int i = 0; i < pointer; i++)
@@ -3110,6 +3190,9 @@ public class IntervalDomain extends IntDomain {
 		if (min <= intervals[0].min && max >= currentMax)
 			return;
 
+		removing(var, intervals[0].min, min - 1);
+		removing(var, max + 1, currentMax);
+
 		int pointer = 0;
 
 		// pointer is always smaller than size as domains intersect
@@ -3143,7 +3226,7 @@ public class IntervalDomain extends IntDomain {
 			if (intervals[pointer].min <= max)
 				result.unionAdapt(new Interval(intervals[pointer].min, max));
 
-		if (stamp == storeLevel) {
+		if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 			// Copy all intervals
 			if (result.size <= intervals.length)
@@ -3198,6 +3281,10 @@ public class IntervalDomain extends IntDomain {
 		
 		assert this.stamp <= storeLevel;
 		
+		// bound and bit set domains are handled by other functions which record removed values.
+		if (domain.domainID() != BoundDomainID && domain.domainID() != BitSetDomainID)
+			removingOutside(var, domain, 0);
+
 		if (domain.domainID() == IntervalDomainID) {
 
 			IntervalDomain input = (IntervalDomain) domain;
@@ -3349,7 +3436,7 @@ public class IntervalDomain extends IntDomain {
 			else if (result.min() > min() || result.max() < max())
 				returnedEvent = IntDomain.BOUND;
 
-			if (stamp == storeLevel) {
+			if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 				// Copy all intervals
 				if (result.size <= intervals.length)
@@ -3398,6 +3485,15 @@ public class IntervalDomain extends IntDomain {
 			
 		}		
 
+		if (domain.domainID() == BitSetDomainID) {
+			BitSetDomain input = (BitSetDomain) domain;
+			if (containedIn(input, 0))
+				in(storeLevel, var, input.min(), input.max());
+			else
+				in(storeLevel, var, input.toIntervalDomain());
+			return;
+		}
+
 		// TODO, test special code for SmallDenseDomain. 
 		if (domain.domainID() == SmallDenseDomainID) {
 
@@ -3431,13 +3527,13 @@ public class IntervalDomain extends IntDomain {
 
 			assert (result.eq( this.intersect(input.toIntervalDomain()))) : "In function improperly implemented." + result + "d " + input;
 			
-			if (stamp == storeLevel) {
+			if (stamp == storeLevel && trailStamp != storeLevel) {
 
 				result.previousDomain = previousDomain;
 
 			} else {
 
-				assert stamp < storeLevel;
+				assert stamp < storeLevel || trailStamp == storeLevel;
 
 				result.previousDomain = this;
 				
@@ -3484,7 +3580,7 @@ public class IntervalDomain extends IntDomain {
 				else if (result.min() > min() || result.max() < max())
 					returnedEvent = IntDomain.BOUND;
 
-				if (stamp == storeLevel) {
+				if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 					// Copy all intervals
 					if (result.size <= intervals.length)
@@ -3675,7 +3771,7 @@ public class IntervalDomain extends IntDomain {
 				else if (result.min() > min() || result.max() < max())
 					returnedEvent = IntDomain.BOUND;
 
-				if (stamp == storeLevel) {
+				if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 					// Copy all intervals
 					if (result.size <= intervals.length)
@@ -3859,7 +3955,7 @@ public class IntervalDomain extends IntDomain {
 			else if (result.min() > min() || result.max() < max())
 				returnedEvent = IntDomain.BOUND;
 
-			if (stamp == storeLevel) {
+			if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 				// Copy all intervals
 				if (result.size <= intervals.length)
@@ -3952,7 +4048,9 @@ public class IntervalDomain extends IntDomain {
 		if (counter == -1)
 			return;
 
-		if (storeLevel == stamp) {
+		removing(var, complement, complement);
+
+		if (trail(storeLevel, var, counter) || storeLevel == stamp) {
 
 			if (intervals[counter].min == complement) {
 
@@ -4216,7 +4314,9 @@ public class IntervalDomain extends IntDomain {
 		if (min <= min() && max >= max())
 			throw failException;
 
-		if (storeLevel == stamp) {
+		removing(var, min, max);
+
+		if (trail(storeLevel, var, counter) || storeLevel == stamp) {
 
 			int noRemoved = 0;
 
@@ -4512,6 +4612,10 @@ public class IntervalDomain extends IntDomain {
 		assert checkInvariants() == null : checkInvariants() ;
 		assert this.stamp <= storeLevel;
 
+		// bound and bit set domains are handled by other functions which record removed values.
+		if (domain.domainID() != BoundDomainID && domain.domainID() != BitSetDomainID)
+			removingOutside(var, domain, shift);
+
 		if (domain.domainID() == IntervalDomainID) {
 
 			IntervalDomain input = (IntervalDomain) domain;
@@ -4669,7 +4773,7 @@ public class IntervalDomain extends IntDomain {
 				returnedEvent = IntDomain.BOUND;
 			}
 
-			if (stamp == storeLevel) {
+			if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 				// Copy all intervals
 				if (result.size <= intervals.length)
@@ -4712,6 +4816,15 @@ public class IntervalDomain extends IntDomain {
 			
 		}
 
+		if (domain.domainID() == BitSetDomainID) {
+			BitSetDomain input = (BitSetDomain) domain;
+			if (containedIn(input, shift))
+				in(storeLevel, var, input.min() + shift, input.max() + shift);
+			else
+				inShift(storeLevel, var, input.toIntervalDomain(), shift);
+			return;
+		}
+
 		// TODO, Test SmallDenseDomain input. 
 		if (domain.domainID() == SmallDenseDomainID) {
 
@@ -4740,13 +4853,13 @@ public class IntervalDomain extends IntDomain {
 			result.searchConstraintsToEvaluate = searchConstraintsToEvaluate;
 			((IntVar)var).domain = result;
 
-			if (stamp == storeLevel) {
+			if (stamp == storeLevel && trailStamp != storeLevel) {
 
 				result.previousDomain = previousDomain;
 
 			} else {
 
-				assert stamp < storeLevel;
+				assert stamp < storeLevel || trailStamp == storeLevel;
 
 				result.previousDomain = this;
 				
@@ -4789,7 +4902,7 @@ public class IntervalDomain extends IntDomain {
 				else if (result.min() > min() || result.max() < max())
 					returnedEvent = IntDomain.BOUND;
 
-				if (stamp == storeLevel) {
+				if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 					// Copy all intervals
 					if (result.size <= intervals.length)
@@ -4974,7 +5087,7 @@ public class IntervalDomain extends IntDomain {
 				else if (result.min() > min() || result.max() < max())
 					returnedEvent = IntDomain.BOUND;
 
-				if (stamp == storeLevel) {
+				if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 					// Copy all intervals
 					if (result.size <= intervals.length)
@@ -5159,7 +5272,7 @@ public class IntervalDomain extends IntDomain {
 			else if (result.min() > min() || result.max() < max())
 				returnedEvent = IntDomain.BOUND;
 
-			if (stamp == storeLevel) {
+			if (trail(storeLevel, var, result) || stamp == storeLevel) {
 
 				// Copy all intervals
 				if (result.size <= intervals.length)
@@ -5273,10 +5386,12 @@ public class IntervalDomain extends IntDomain {
 	public void putModelConstraint(int storeLevel, Var var, Constraint C,
 			int pruningEvent) {
 
-		if (stamp < storeLevel) {
+		if (stamp < storeLevel || trailStamp == storeLevel) {
 
 			IntervalDomain result = this.cloneLight();
 
+			result.trail = trail;
+
 			result.modelConstraints = modelConstraints;
 			result.searchConstraints = searchConstraints;
 			result.stamp = storeLevel;
@@ -5374,10 +5489,12 @@ public class IntervalDomain extends IntDomain {
 
 		if (!searchConstraints.contains(C)) {
 
-			if (stamp < storeLevel) {
+			if (stamp < storeLevel || trailStamp == storeLevel) {
 
 				IntervalDomain result = this.cloneLight();
 
+				result.trail = trail;
+
 				result.modelConstraints = modelConstraints;
 
 				result.searchConstraints = new ArrayList<Constraint>(
@@ -5431,10 +5548,12 @@ public class IntervalDomain extends IntDomain {
 	public void removeSearchConstraint(int storeLevel, Var var,
 			Constraint C) {
 
-		if (stamp < storeLevel) {
+		if (stamp < storeLevel || trailStamp == storeLevel) {
 
 			IntervalDomain result = this.cloneLight();
 
+			result.trail = trail;
+
 			result.modelConstraints = modelConstraints;
 			result.searchConstraints = searchConstraints;
 			result.stamp = storeLevel;
@@ -5476,10 +5595,12 @@ public class IntervalDomain extends IntDomain {
 	public void removeSearchConstraint(int storeLevel, Var var,
 			int position, Constraint C) {
 
-		if (stamp < storeLevel) {
+		if (stamp < storeLevel || trailStamp == storeLevel) {
 
 			IntervalDomain result = this.cloneLight();
 
+			result.trail = trail;
+
 			result.modelConstraints = modelConstraints;
 			result.searchConstraints = searchConstraints;
 			result.stamp = storeLevel;
@@ -5515,10 +5636,12 @@ public class IntervalDomain extends IntDomain {
 	@Override
 	public void removeModelConstraint(int storeLevel, Var var, Constraint C) {
 
-		if (stamp < storeLevel) {
+		if (stamp < storeLevel || trailStamp == storeLevel) {
 
 			IntervalDomain result = this.cloneLight();
 
+			result.trail = trail;
+
 			result.modelConstraints = modelConstraints;
 			result.searchConstraints = searchConstraints;
 			result.stamp = storeLevel;
@@ -5660,13 +5783,15 @@ public class IntervalDomain extends IntDomain {
 	@Override
 	public IntDomain recentDomainPruning(int storeLevel) {
 
-		if (previousDomain == null)
+		if (stamp < storeLevel)
 			return emptyDomain;
 
-		if (stamp < storeLevel)
+		IntDomain previous = previousDomain();
+
+		if (previous == null)
 			return emptyDomain;
 
-		return previousDomain.subtract(this);
+		return previous.subtract(this);
 
 	}
 
@@ -5945,6 +6070,30 @@ public class IntervalDomain extends IntDomain {
 	}
 
 	
+	/**
+	 * It checks if all values of this domain within the bounds of a given 
+	 * domain shifted by shift belong to that domain. In that case only the 
+	 * bounds of this domain change and the domain does not need to be converted.
+	 */
+	private boolean containedIn(BitSetDomain domain, int shift) {
+
+		if (size == 0 || domain.isEmpty())
+			return false;
+
+		int min = domain.min() + shift;
+		int max = domain.max() + shift;
+
+		for (int i = 0; i < size && intervals[i].min <= max; i++) {
+			int lo = Math.max(intervals[i].min, min);
+			int hi = Math.min(intervals[i].max, max);
+			if (lo <= hi && !domain.contains(lo - shift, hi - shift))
+				return false;
+		}
+
+		return true;
+
+	}
+	
 	@Override
 	public int intersectAdapt(IntDomain domain) {
 
@@ -6224,6 +6373,13 @@ public class IntervalDomain extends IntDomain {
 		
 		}
 
+		if (domain.domainID() == BitSetDomainID) {
+			BitSetDomain input = (BitSetDomain) domain;
+			if (containedIn(input, 0))
+				return intersectAdapt(input.min(), input.max());
+			return intersectAdapt(input.toIntervalDomain());
+		}
+
 		assert false : "Not implemented for other domain type " + domain.getClass();
 
 		// Only to satisfy the compiler.
@@ -0,0 +1,136 @@
+/**
+ *  PrimitiveTimeStamp.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+/**
+ * It keeps the stack of levels shared by timestamps specialized for primitive 
+ * types (TimeStampInt, TimeStampLong). The values are kept by the subclass in
+ * an array of primitive type parallel to the array of stamps, therefore updates 
+ * do not allocate any objects (no boxing) and removal of a level only moves 
+ * a pointer.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public abstract class PrimitiveTimeStamp {
+
+	int index;
+
+	public int pointer4Last = -1;
+
+	public transient int[] stamps = new int[10];
+
+	Store store;
+
+	/**
+	 * It adds a new position for the given level on top of the stack.
+	 * @param level the level of the new position.
+	 * @return the position at which the value of the level is stored.
+	 */
+	final int addLast(int level) {
+		pointer4Last++;
+		ensureCapacity(pointer4Last + 1);
+		stamps[pointer4Last] = level;
+		return pointer4Last;
+	}
+
+	/**
+	 * It returns the position at which the value of the current store level 
+	 * is stored. The position is added if the current level has no value yet.
+	 * @return the position of the value of the current level.
+	 */
+	final int currentPosition() {
+
+		assert (stamps[pointer4Last] <= store.level) : "Error - Timestamp" + this	+ "has greater level than store "
+							 + "- missing remove";
+
+		if (stamps[pointer4Last] == store.level)
+			return pointer4Last;
+
+		return addLast(store.level);
+	}
+
+	/**
+	 * Specify  least number of different values to be used by Timestamp.
+	 * @param minCapacity
+	 */
+	public void ensureCapacity(int minCapacity) {
+		int oldCapacity = stamps.length;
+		if (minCapacity > oldCapacity) {
+			int oldStamps[] = stamps;
+
+			int newCapacity = (oldCapacity * 3) / 2 + 1;
+
+			resizeValues(newCapacity);
+
+			stamps = new int[newCapacity];
+			System.arraycopy(oldStamps, 0, stamps, 0, pointer4Last);
+
+		}
+	}
+
+	/**
+	 * It resizes the array of values to the given capacity, keeping the values 
+	 * below pointer4Last.
+	 * @param newCapacity the new capacity of the array of values.
+	 */
+	abstract void resizeValues(int newCapacity);
+
+	final int index() {
+		return index;
+	}
+
+	/**
+	 * The function removes the level specified by the stamp. It assumes that
+	 * it removes all the levels from the most recent until the level (inclusive)
+	 * specified by the parameter.
+	 * 
+	 * @param level the number of the level. 
+	 */
+	public void removeLevel(int level) {
+
+		while (pointer4Last >= 0 && stamps[pointer4Last] >= level)
+			pointer4Last--;
+
+	}
+
+	/**
+	 * It returns the value of the most recent stamp used within that timestamp. 
+	 * @return the stamp value.
+	 */
+	public final int stamp() {
+		return stamps[pointer4Last];
+	}
+
+}
@@ -0,0 +1,303 @@
+/**
+ *  PropagationProfiler.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.jacop.constraints.Constraint;
+
+/**
+ * It collects statistics about execution of consistency functions of 
+ * constraints. For each constraint it records the number of consistency calls,
+ * wall and cpu time spent within the calls, the number of calls which have 
+ * pruned some domain, the number of calls which have failed and the number of 
+ * constraints added to the queue by the calls. Statistics can be also 
+ * aggregated per constraint class. 
+ * 
+ * Profiler is used by store only if it was set by Store.setProfiler, otherwise
+ * store executes its consistency loop without any instrumentation.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class PropagationProfiler {
+
+	/**
+	 * It holds statistics of a single constraint or a constraint class. 
+	 */
+	public static class Statistics {
+
+		/**
+		 * The id of the constraint or the name of the constraint class.
+		 */
+		public final String name;
+
+		/**
+		 * The number of consistency calls.
+		 */
+		public long calls;
+
+		/**
+		 * The wall time spent within consistency calls (in ns).
+		 */
+		public long wallTime;
+
+		/**
+		 * The cpu time spent within consistency calls (in ns). It is 0 if 
+		 * cpu time is not measured.
+		 */
+		public long cpuTime;
+
+		/**
+		 * The number of consistency calls which have changed any domain.
+		 */
+		public long prunings;
+
+		/**
+		 * The number of consistency calls which have failed.
+		 */
+		public long failures;
+
+		/**
+		 * The number of constraints added to the queue by consistency calls.
+		 */
+		public long queueEntries;
+
+		/**
+		 * It creates empty statistics.
+		 * @param name the id of the constraint or the name of the constraint class.
+		 */
+		public Statistics(String name) {
+			this.name = name;
+		}
+
+		void add(Statistics s) {
+			calls += s.calls;
+			wallTime += s.wallTime;
+			cpuTime += s.cpuTime;
+			prunings += s.prunings;
+			failures += s.failures;
+			queueEntries += s.queueEntries;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-40s %10d %10d %10d %10d %12.2f %12.2f", name, calls, prunings, failures, 
+					queueEntries, wallTime / 1e6, cpuTime / 1e6);
+		}
+
+	}
+
+	/**
+	 * Statistics of each constraint which consistency function was called. 
+	 */
+	IdentityHashMap<Constraint, Statistics> statistics = new IdentityHashMap<Constraint, Statistics>();
+
+	/**
+	 * It is used to measure cpu time of the current thread, null if cpu time is not measured.
+	 */
+	ThreadMXBean cpuTimer;
+
+	/**
+	 * It creates a profiler which measures both wall and cpu time. Cpu 
+	 * time is measured only if it is supported by JVM.
+	 */
+	public PropagationProfiler() {
+		this(true);
+	}
+
+	/**
+	 * It creates a profiler. Measuring cpu time requires a call to JVM 
+	 * management interface for each consistency call, which is considerably
+	 * more expensive than measuring wall time.
+	 * @param cpuTime true if cpu time should be measured, false otherwise.
+	 */
+	public PropagationProfiler(boolean cpuTime) {
+
+		if (cpuTime) {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean.isCurrentThreadCpuTimeSupported())
+				cpuTimer = bean;
+		}
+
+	}
+
+	/**
+	 * It returns the statistics of a given constraint, they are created if needed.
+	 * @param c constraint for which statistics are returned.
+	 * @return statistics of the constraint.
+	 */
+	public Statistics getStatistics(Constraint c) {
+
+		Statistics s = statistics.get(c);
+
+		if (s == null) {
+			s = new Statistics(c.id());
+			statistics.put(c, s);
+		}
+
+		return s;
+	}
+
+	/**
+	 * It returns the current cpu time of the thread, 0 if it is not measured.
+	 */
+	final long cpuTime() {
+		if (cpuTimer == null)
+			return 0;
+		return cpuTimer.getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * It records a single consistency call. 
+	 */
+	final void record(Statistics s, long wallStart, long cpuStart, 
+					  boolean pruned, boolean failed, int queueEntries) {
+
+		s.wallTime += System.nanoTime() - wallStart;
+		if (cpuTimer != null)
+			s.cpuTime += cpuTimer.getCurrentThreadCpuTime() - cpuStart;
+
+		s.calls++;
+		if (pruned)
+			s.prunings++;
+		if (failed)
+			s.failures++;
+		if (queueEntries > 0)
+			s.queueEntries += queueEntries;
+
+	}
+
+	/**
+	 * It returns statistics for each constraint sorted by decreasing wall time.
+	 * @return list of statistics for constraints.
+	 */
+	public List<Statistics> getConstraintStatistics() {
+
+		List<Statistics> result = new ArrayList<Statistics>(statistics.values());
+		sort(result);
+		return result;
+
+	}
+
+	/**
+	 * It returns statistics aggregated for each constraint class sorted 
+	 * by decreasing wall time.
+	 * @return list of statistics for constraint classes.
+	 */
+	public List<Statistics> getClassStatistics() {
+
+		HashMap<Class<?>, Statistics> classes = new HashMap<Class<?>, Statistics>();
+
+		for (Constraint c : statistics.keySet()) {
+
+			Statistics s = classes.get(c.getClass());
+			if (s == null) {
+				s = new Statistics(c.getClass().getSimpleName());
+				classes.put(c.getClass(), s);
+			}
+			s.add(statistics.get(c));
+
+		}
+
+		List<Statistics> result = new ArrayList<Statistics>(classes.values());
+		sort(result);
+		return result;
+
+	}
+
+	private static void sort(List<Statistics> list) {
+
+		Collections.sort(list, new Comparator<Statistics>() {
+			public int compare(Statistics a, Statistics b) {
+				if (a.wallTime == b.wallTime)
+					return 0;
+				return a.wallTime > b.wallTime ? -1 : 1;
+			}
+		});
+
+	}
+
+	/**
+	 * It removes all collected statistics.
+	 */
+	public void reset() {
+		statistics.clear();
+	}
+
+	/**
+	 * It creates a report containing statistics for constraint classes 
+	 * and statistics of the most expensive constraints.
+	 * @param prefix prefix of each line (e.g. comment mark).
+	 * @param noConstraints the maximal number of constraints listed in the report.
+	 * @return string containing the report.
+	 */
+	public String report(String prefix, int noConstraints) {
+
+		StringBuffer result = new StringBuffer();
+
+		String header = String.format("%-40s %10s %10s %10s %10s %12s %12s", "", "calls", "prunings", 
+				"failures", "queued", "wall [ms]", "cpu [ms]");
+
+		result.append(prefix).append("Propagation profile per constraint class\n");
+		result.append(prefix).append(header).append("\n");
+		for (Statistics s : getClassStatistics())
+			result.append(prefix).append(s).append("\n");
+
+		result.append(prefix).append("Propagation profile of ").append(noConstraints);
+		result.append(" most expensive constraints\n");
+		result.append(prefix).append(header).append("\n");
+
+		int i = 0;
+		for (Statistics s : getConstraintStatistics()) {
+			if (i++ == noConstraints)
+				break;
+			result.append(prefix).append(s).append("\n");
+		}
+
+		return result.toString();
+	}
+
+	@Override
+	public String toString() {
+		return report("", 20);
+	}
+
+}
@@ -0,0 +1,303 @@
+/**
+ *  PropagationQueue.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.core;
+
+import java.util.Arrays;
+
+import org.jacop.constraints.Constraint;
+
+/**
+ * It implements the queue of constraints scheduled for reevaluation without
+ * any allocation during search. Each constraint obtains a dense id when it is
+ * scheduled for the first time. Each priority level has its own ring buffer 
+ * of constraints and a mark per constraint id which tells if the constraint 
+ * is already in the queue of that priority. A mark is valid only if it is 
+ * equal to the current epoch of the priority, therefore clearing a priority 
+ * only resets the ring buffer and increments the epoch. 
+ * 
+ * Enqueue, dequeue and clear operations take constant time. Memory is 
+ * allocated only when the number of scheduled constraints grows beyond 
+ * the capacity reached so far.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class PropagationQueue {
+
+	/**
+	 * It maps dense id to the constraint which has obtained it. It is used 
+	 * to verify that id stored within constraint was given by this queue.
+	 */
+	Constraint[] registered;
+
+	/**
+	 * The number of ids given so far.
+	 */
+	int noRegistered = 0;
+
+	/**
+	 * For each priority and constraint id it stores the epoch in which the 
+	 * constraint was added to the queue of that priority.
+	 */
+	int[][] queued;
+
+	/**
+	 * The current epoch of each priority.
+	 */
+	int[] epoch;
+
+	/**
+	 * Ring buffers, one for each priority. Capacity is always a power of two.
+	 */
+	Constraint[][] buffer;
+
+	/**
+	 * The position of the first constraint within the ring buffer of each priority.
+	 */
+	int[] head;
+
+	/**
+	 * The number of constraints in the ring buffer of each priority.
+	 */
+	int[] count;
+
+	/**
+	 * It creates a queue with a given number of priority levels.
+	 * @param priorities the number of priority levels.
+	 * @param capacity the initial capacity of each priority level.
+	 */
+	public PropagationQueue(int priorities, int capacity) {
+
+		int size = 16;
+		while (size < capacity)
+			size <<= 1;
+
+		registered = new Constraint[size];
+		queued = new int[priorities][size];
+		epoch = new int[priorities];
+		buffer = new Constraint[priorities][size];
+		head = new int[priorities];
+		count = new int[priorities];
+
+		for (int i = 0; i < priorities; i++)
+			epoch[i] = 1;
+
+	}
+
+	/**
+	 * It returns the dense id of the constraint. The id is given if constraint
+	 * does not have one or it has obtained it from another queue.
+	 */
+	private int id(Constraint c) {
+
+		int id = c.queueId;
+
+		if (id >= 0 && id < noRegistered && registered[id] == c)
+			return id;
+
+		if (noRegistered == registered.length) {
+
+			int newSize = registered.length * 2;
+
+			Constraint[] oldRegistered = registered;
+			registered = new Constraint[newSize];
+			System.arraycopy(oldRegistered, 0, registered, 0, noRegistered);
+
+			for (int i = 0; i < queued.length; i++) {
+				int[] oldQueued = queued[i];
+				queued[i] = new int[newSize];
+				System.arraycopy(oldQueued, 0, queued[i], 0, noRegistered);
+			}
+
+		}
+
+		id = noRegistered++;
+		registered[id] = c;
+		c.queueId = id;
+
+		return id;
+
+	}
+
+	/**
+	 * It adds constraint to the queue of a given priority. The constraint is
+	 * not added if it is already present in that queue.
+	 * @param c constraint to be scheduled.
+	 * @param priority the priority level.
+	 * @return true if constraint has been added, false if it was already present.
+	 */
+	public boolean add(Constraint c, int priority) {
+
+		int id = id(c);
+
+		int[] marks = queued[priority];
+		if (marks[id] == epoch[priority])
+			return false;
+
+		marks[id] = epoch[priority];
+
+		Constraint[] ring = buffer[priority];
+		int n = count[priority];
+
+		if (n == ring.length) {
+
+			Constraint[] newRing = new Constraint[ring.length * 2];
+			int first = head[priority];
+			System.arraycopy(ring, first, newRing, 0, ring.length - first);
+			System.arraycopy(ring, 0, newRing, ring.length - first, first);
+
+			buffer[priority] = newRing;
+			head[priority] = 0;
+			ring = newRing;
+
+		}
+
+		ring[(head[priority] + n) & (ring.length - 1)] = c;
+		count[priority] = n + 1;
+
+		return true;
+
+	}
+
+	/**
+	 * It removes and returns the first constraint from the queue of given priority.
+	 * @param priority the priority level.
+	 * @return the first constraint, null if the queue is empty.
+	 */
+	public Constraint removeFirst(int priority) {
+
+		if (count[priority] == 0)
+			return null;
+
+		Constraint[] ring = buffer[priority];
+		int first = head[priority];
+
+		Constraint c = ring[first];
+		ring[first] = null;
+
+		head[priority] = (first + 1) & (ring.length - 1);
+		count[priority]--;
+
+		queued[priority][c.queueId] = 0;
+
+		return c;
+
+	}
+
+	/**
+	 * It checks if constraint is present in the queue of given priority.
+	 * @param c constraint being checked.
+	 * @param priority the priority level.
+	 * @return true if constraint is in the queue, false otherwise.
+	 */
+	public boolean contains(Constraint c, int priority) {
+
+		int id = c.queueId;
+
+		return id >= 0 && id < noRegistered && registered[id] == c 
+			&& queued[priority][id] == epoch[priority];
+
+	}
+
+	/**
+	 * It checks if the queue of given priority is empty.
+	 * @param priority the priority level.
+	 * @return true if there are no constraints of given priority, false otherwise.
+	 */
+	public boolean isEmpty(int priority) {
+		return count[priority] == 0;
+	}
+
+	/**
+	 * It returns the number of constraints in the queue of given priority.
+	 * @param priority the priority level.
+	 * @return the number of constraints.
+	 */
+	public int size(int priority) {
+		return count[priority];
+	}
+
+	/**
+	 * It removes all constraints from the queue of given priority. The ring
+	 * buffer keeps references to removed constraints until they are overwritten, 
+	 * so the constraints can not be garbage collected before the store itself. 
+	 * @param priority the priority level.
+	 */
+	public void clear(int priority) {
+
+		if (count[priority] == 0)
+			return;
+
+		head[priority] = 0;
+		count[priority] = 0;
+
+		epoch[priority]++;
+
+		if (epoch[priority] == Integer.MAX_VALUE) {
+			Arrays.fill(queued[priority], 0);
+			epoch[priority] = 1;
+		}
+
+	}
+
+	/**
+	 * It returns the number of priority levels.
+	 * @return the number of priority levels.
+	 */
+	public int priorities() {
+		return count.length;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer S = new StringBuffer();
+
+		for (int i = 0; i < count.length; i++) {
+
+			S.append("[");
+			Constraint[] ring = buffer[i];
+			for (int j = 0; j < count[i]; j++) {
+				if (j > 0)
+					S.append(", ");
+				S.append(ring[(head[i] + j) & (ring.length - 1)].id());
+			}
+			S.append("]\n");
+
+		}
+
+		return S.toString();
+
+	}
+
+}
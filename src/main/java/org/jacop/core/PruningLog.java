@@ -0,0 +1,283 @@
+/**
+ *  PruningLog.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+/**
+ * It keeps the intervals of values removed from the domain of a finite domain 
+ * variable in the order in which they have been removed. The domains record 
+ * the values in their in() and inComplement() functions, before the values 
+ * are removed, so nothing has to be compared afterwards. The size of the log 
+ * is kept by a timestamp, hence the intervals removed at a level are dropped 
+ * when the level is removed. Each interval also stores the store level at 
+ * which it was removed. 
+ * 
+ * The log is created by the variable when the first DomainDelta for it is 
+ * created, variables without the log do not record anything.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+final class PruningLog {
+
+	/**
+	 * It denotes that a domain does not have any more values.
+	 */
+	static final int NONE = Integer.MAX_VALUE;
+
+	final Store store;
+
+	/**
+	 * It specifies the number of intervals in the log, it is restored 
+	 * upon backtracking.
+	 */
+	final TimeStampInt size;
+
+	int[] min = new int[8];
+
+	int[] max = new int[8];
+
+	int[] level = new int[8];
+
+	PruningLog(Store store) {
+		this.store = store;
+		size = new TimeStampInt(store, 0);
+	}
+
+	/**
+	 * It returns the position of the first interval removed at the current 
+	 * level of the store.
+	 */
+	int levelStart() {
+
+		int position = size.value();
+		while (position > 0 && level[position - 1] == store.level)
+			position--;
+
+		return position;
+
+	}
+
+	/**
+	 * It records values of the domain within from..to.
+	 */
+	void add(IntDomain dom, int from, int to) {
+
+		int value = from;
+
+		while (value <= to) {
+
+			int start = runStart(dom, value);
+			if (start > to)
+				return;
+
+			int end = runEnd(dom, start);
+			if (end >= to) {
+				append(start, to);
+				return;
+			}
+
+			append(start, end);
+			value = end + 1;
+
+		}
+
+	}
+
+	/**
+	 * It records values of the domain dom which do not belong to domain 
+	 * shifted by shift.
+	 */
+	void addOutside(IntDomain dom, IntDomain domain, int shift) {
+
+		if (dom.isEmpty())
+			return;
+
+		// positions are given with respect to domain, before shifting.
+		int value = dom.min() - shift;
+		int last = dom.max() - shift;
+
+		while (value <= last) {
+
+			int start = runStart(domain, value);
+			if (start > last) {
+				add(dom, value + shift, last + shift);
+				return;
+			}
+
+			if (start > value)
+				add(dom, value + shift, start - 1 + shift);
+
+			value = runEnd(domain, start);
+			if (value >= last)
+				return;
+			value++;
+
+		}
+
+	}
+
+	/**
+	 * It records values encoded as in SmallDenseDomain, value min is 
+	 * represented by the most significant bit.
+	 */
+	void addBits(int min, long bits) {
+
+		while (bits != 0) {
+
+			int first = Long.numberOfLeadingZeros(bits);
+			int length = Long.numberOfLeadingZeros(~(bits << first));
+
+			append(min + first, min + first + length - 1);
+
+			if (first + length == 64)
+				return;
+			bits &= -1L >>> (first + length);
+
+		}
+
+	}
+
+	void append(int lo, int hi) {
+
+		int position = size.value();
+
+		if (position == min.length) {
+			int[] newMin = new int[position * 2];
+			int[] newMax = new int[position * 2];
+			int[] newLevel = new int[position * 2];
+			System.arraycopy(min, 0, newMin, 0, position);
+			System.arraycopy(max, 0, newMax, 0, position);
+			System.arraycopy(level, 0, newLevel, 0, position);
+			min = newMin;
+			max = newMax;
+			level = newLevel;
+		}
+
+		min[position] = lo;
+		max[position] = hi;
+		level[position] = store.level;
+		size.update(position + 1);
+
+	}
+
+	/**
+	 * It returns the smallest value of the domain not smaller than from, 
+	 * NONE if there is no such value.
+	 */
+	static int runStart(IntDomain dom, int from) {
+
+		if (dom.isEmpty() || from > dom.max())
+			return NONE;
+
+		if (from < dom.min())
+			from = dom.min();
+
+		if (dom.domainID() == IntDomain.IntervalDomainID) {
+			IntervalDomain d = (IntervalDomain) dom;
+			Interval next = d.intervals[intervalAt(d, from)];
+			return next.min > from ? next.min : from;
+		}
+
+		if (dom.domainID() == IntDomain.SmallDenseDomainID) {
+			SmallDenseDomain d = (SmallDenseDomain) dom;
+			return from + Long.numberOfLeadingZeros(d.bits << (from - d.min));
+		}
+
+		if (dom.domainID() == IntDomain.BitSetDomainID) {
+			BitSetDomain d = (BitSetDomain) dom;
+			return d.nextSetBit(from - d.offset) + d.offset;
+		}
+
+		if (dom.domainID() == IntDomain.BoundDomainID || dom.contains(from))
+			return from;
+
+		return dom.nextValue(from);
+
+	}
+
+	/**
+	 * It returns the largest value such that all values from start to 
+	 * this value belong to the domain, start must belong to the domain.
+	 */
+	static int runEnd(IntDomain dom, int start) {
+
+		if (dom.domainID() == IntDomain.IntervalDomainID) {
+			IntervalDomain d = (IntervalDomain) dom;
+			return d.intervals[intervalAt(d, start)].max;
+		}
+
+		if (dom.domainID() == IntDomain.SmallDenseDomainID) {
+			SmallDenseDomain d = (SmallDenseDomain) dom;
+			return start + Long.numberOfLeadingZeros(~(d.bits << (start - d.min))) - 1;
+		}
+
+		if (dom.domainID() == IntDomain.BitSetDomainID) {
+			BitSetDomain d = (BitSetDomain) dom;
+			return d.nextClearBit(start - d.offset) + d.offset - 1;
+		}
+
+		if (dom.domainID() == IntDomain.BoundDomainID)
+			return dom.max();
+
+		int end = start;
+		while (end < dom.max() && dom.contains(end + 1))
+			end++;
+
+		return end;
+
+	}
+
+	/**
+	 * It returns the position of the first interval which maximum is not 
+	 * smaller than value, the value must not be larger than the maximum of 
+	 * the domain.
+	 */
+	static int intervalAt(IntervalDomain dom, int value) {
+
+		int left = 0;
+		int right = dom.size - 1;
+
+		while (left < right) {
+			int middle = (left + right) >>> 1;
+			if (dom.intervals[middle].max < value)
+				left = middle + 1;
+			else
+				right = middle;
+		}
+
+		return left;
+
+	}
+
+}
@@ -493,6 +493,8 @@ public class SmallDenseDomain extends IntDomain {
 		assert (newSize < size) : "Incorrect in operation";
 		
 		// Pruning has occurred. 
+
+		removing(var, bitsResult);
 		
 		if (stamp == storeLevel) {
 
@@ -596,6 +598,18 @@ public class SmallDenseDomain extends IntDomain {
 		
 	}
 
+	/**
+	 * It records values which are not present in bitsResult as removed from 
+	 * the domain of the variable if the variable keeps the log of removed values.
+	 */
+	private void removing(Var var, long bitsResult) {
+
+		PruningLog log = ((IntVar) var).pruningLog;
+		if (log != null)
+			log.addBits(min, bits & ~bitsResult);
+
+	}
+
 	public void in(int storeLevel, Var var, long domain) {
 				
 		assert checkInvariants() == null : checkInvariants() ;
@@ -612,6 +626,8 @@ public class SmallDenseDomain extends IntDomain {
 			
 		// Pruning has occurred. 
 
+		removing(var, bitsResult);
+
 		int previousMin = min;
 		int previousMax = max;
 		
@@ -785,6 +801,11 @@ public class SmallDenseDomain extends IntDomain {
 			
 		}
 
+		if (domain.domainID() == IntDomain.BitSetDomainID) {
+			in(storeLevel, var, ((BitSetDomain) domain).window(min));
+			return;
+		}
+
 		assert ( domain.max() - domain.min() + 1 == domain.getSize() ) : "Loosing propagation" + domain;
 
 		// TODO, improve, it does not take yet holes in the domain. 
@@ -818,6 +839,8 @@ public class SmallDenseDomain extends IntDomain {
 			return;
 
 		// Pruning has occurred. 
+
+		removing(var, bitsResult);
 		
 		if (stamp == storeLevel) {
 
@@ -943,6 +966,8 @@ public class SmallDenseDomain extends IntDomain {
 			return;
 
 		// Pruning has occurred. 
+
+		removing(var, bitsResult);
 		
 		if (stamp == storeLevel) {
 
@@ -1155,6 +1180,11 @@ public class SmallDenseDomain extends IntDomain {
 		}
 		
 		
+		if (domain.domainID() == IntDomain.BitSetDomainID) {
+			in(storeLevel, var, ((BitSetDomain) domain).window(min - shift));
+			return;
+		}
+
 		assert ( domain.max() - domain.min() + 1 == domain.getSize() ) : "Loosing propagation" + domain;
 
 		// TODO, improve, it does not take yet holes in the domain. 
@@ -1278,6 +1308,9 @@ public class SmallDenseDomain extends IntDomain {
 			
 		}
 		
+		if (domain.domainID() == BitSetDomainID)
+			return new SmallDenseDomain(min, bits & ((BitSetDomain) domain).window(min));
+
 		assert false : "Not implemented for class " + domain.getClass();
 
 		return null;
@@ -1321,51 +1354,7 @@ public class SmallDenseDomain extends IntDomain {
 					inBits = 0;
 			}
 
-			assert checkInvariants() == null : checkInvariants() ;
-
-			long bitsResult = bits & inBits;
-
-			if (bitsResult == bits)
-				return IntDomain.NONE;
-
-			int newSize = getSize( bitsResult );
-
-			if (newSize == 0) {
-				clear();
-				return IntDomain.GROUND;
-			}
-
-			// Pruning has occurred. 
-
-			int previousMin = min;
-			int previousMax = max;
-
-			bits = bitsResult;
-			size = newSize;
-			if (newSize == 1)
-				singleton = true;
-
-			adaptMin();
-			max = previousValue(max + 1);
-
-			assert (max <= previousMax) : "Domain update incorrect.";
-			assert (min >= previousMin) : "Domain update incorrect.";
-
-			assert checkInvariants() == null : checkInvariants() ;
-
-		//	System.out.println("i<" + this );
-			
-			if (singleton) {
-				return IntDomain.GROUND;
-			} else {
-
-				if (previousMin != min || previousMax != max) {
-					return IntDomain.BOUND;
-				}
-				else {
-					return IntDomain.ANY;					
-				}
-			}
+			return intersectAdapt(inBits);
 
 		}
 
@@ -1428,12 +1417,69 @@ public class SmallDenseDomain extends IntDomain {
 
 		}
 
+		if (domain.domainID() == BitSetDomainID)
+			return intersectAdapt(((BitSetDomain) domain).window(min));
+
 		// TODO, used by in functions of BoundSetDomain.
 		assert false : "Not implemented for class " + domain.getClass();
 		return -1;
 		
 	}
 
+	/**
+	 * It removes values which are not present in domain encoded by bits 
+	 * aligned with the minimum of this domain.
+	 */
+	private int intersectAdapt(long inBits) {
+
+		assert checkInvariants() == null : checkInvariants() ;
+
+		long bitsResult = bits & inBits;
+
+		if (bitsResult == bits)
+			return IntDomain.NONE;
+
+		int newSize = getSize( bitsResult );
+
+		if (newSize == 0) {
+			clear();
+			return IntDomain.GROUND;
+		}
+
+		// Pruning has occurred. 
+
+		int previousMin = min;
+		int previousMax = max;
+
+		bits = bitsResult;
+		size = newSize;
+		if (newSize == 1)
+			singleton = true;
+
+		adaptMin();
+		max = previousValue(max + 1);
+
+		assert (max <= previousMax) : "Domain update incorrect.";
+		assert (min >= previousMin) : "Domain update incorrect.";
+
+		assert checkInvariants() == null : checkInvariants() ;
+
+	//	System.out.println("i<" + this );
+		
+		if (singleton) {
+			return IntDomain.GROUND;
+		} else {
+
+			if (previousMin != min || previousMax != max) {
+				return IntDomain.BOUND;
+			}
+			else {
+				return IntDomain.ANY;					
+			}
+		}
+
+	}
+
 	@Override
 	public int intersectAdapt(int min, int max) {
 
@@ -37,6 +37,7 @@ import java.util.HashSet;
 
 import org.jacop.constraints.Constraint;
 import org.jacop.constraints.DecomposedConstraint;
+import org.jacop.constraints.NoGoodDatabase;
 import org.jacop.util.SimpleHashSet;
 import org.jacop.util.SparseSet;
 
@@ -85,6 +86,74 @@ public class Store {
 
 	public SimpleHashSet<Constraint>[] changed;
 
+	/**
+	 * It stores constraints scheduled for reevaluation if array based queue 
+	 * is used instead of hash set based queue changed. It is null otherwise.
+	 */
+
+	public PropagationQueue propagationQueue = null;
+
+	/**
+	 * It stores the intervals of interval domains which have been changed in 
+	 * place. It is null if interval domains are copied at the first change 
+	 * within each level.
+	 */
+
+	public DomainTrail domainTrail = null;
+
+	/**
+	 * It records changes of bounds of integer variables together with their 
+	 * reasons, so failures can be explained and no-goods learned. It is null 
+	 * if no-goods are not learned.
+	 */
+
+	public ExplanationTrail explanationTrail = null;
+
+	/**
+	 * It keeps no-goods collected or learned during search, it is null until 
+	 * it is needed (see getNoGoodDatabase).
+	 */
+
+	public NoGoodDatabase noGoodDatabase = null;
+
+	/**
+	 * It allows to stop consistency, and the search using this store, from 
+	 * another thread. It is null if cancellation is not used.
+	 */
+
+	public CancellationToken cancellationToken = null;
+
+	/**
+	 * It specifies if constraints which support it register at variables 
+	 * with event masks (registerEvents) instead of pruning events 
+	 * (putModelConstraint). It has to be set before constraints are imposed.
+	 */
+
+	public boolean eventScheduling = false;
+
+	/**
+	 * It specifies the size of the range (max - min) below which IntVar 
+	 * created from min..max uses BitSetDomain instead of IntervalDomain. 
+	 * Ranges smaller than 64 are always encoded by SmallDenseDomain. By 
+	 * default it is 0, so BitSetDomain is only used if given explicitly.
+	 */
+
+	public int bitSetDomainThreshold = 0;
+
+	/**
+	 * It trails changes of dispatch arrays of variables, so they can be 
+	 * restored upon backtracking. Position -1 denotes added entry, otherwise
+	 * it is the position of the removed entry.
+	 */
+
+	EventDispatch[] dispatchTrail = new EventDispatch[16];
+
+	int[] dispatchTrailPosition = new int[16];
+
+	int[] dispatchTrailLevel = new int[16];
+
+	int dispatchTrailSize = 0;
+
 	/**
 	 * It stores boolean variables as soon as they change (become grounded or
 	 * number of constraints being attached is changed). Later each level
@@ -138,6 +207,12 @@ public class Store {
 
 	public int currentQueue = 0;
 
+	/**
+	 * It is increased each time all queues are cleared, so the queued counts 
+	 * kept by constraints (see Constraint.queuedCount) become invalid at once.
+	 */
+	long queueStamp = 1;
+
 	/**
 	 * It specifies long description of the store.
 	 */
@@ -175,6 +250,25 @@ public class Store {
 	
 	public boolean propagationHasOccurred = false;
 
+	/**
+	 * It counts the pruning events which have occurred in the store. It is used 
+	 * by the profiler to discover if consistency function has changed any domain, 
+	 * and by IndomainActivity to measure the activity of assignments.
+	 */
+	public long pruningEvents = 0;
+
+	/**
+	 * It counts the calls of removeLevel function. Cursors which remember the 
+	 * state of variables (e.g. DomainDelta) use it to discover backtracking.
+	 */
+	public long backtracks = 0;
+
+	/**
+	 * It collects statistics of constraints consistency functions. If it is 
+	 * null (default) then consistency is executed without any instrumentation.
+	 */
+	protected PropagationProfiler profiler = null;
+
 	/**
 	 * It stores the number of constraints which were imposed to the store.
 	 */
@@ -186,7 +280,7 @@ public class Store {
 	 * has to be maintained manually (within removeLevel function).
 	 */
 
-	public TimeStamp<Integer> pointer4GroundedBooleanVariables = null;
+	public TimeStampInt pointer4GroundedBooleanVariables = null;
 
 	/**
 	 * It stores number of queues used in this store. It has to be at least 1.
@@ -223,6 +317,34 @@ public class Store {
 	 */
 	
 	public boolean variableWeightManagement = false;
+
+	/**
+	 * It specifies if the activity of variables is increased at each pruning 
+	 * event of the variable. The activities decay at each consistency call, so 
+	 * recent pruning events count more.
+	 */
+
+	public boolean variableActivityManagement = false;
+
+	/**
+	 * It specifies how the activities of variables decay at each consistency call.
+	 */
+
+	public double activityDecay = 0.999;
+
+	/**
+	 * It specifies the value added to the activity of the variable at each pruning 
+	 * event. Instead of decaying all activities the increment grows.
+	 */
+
+	double activityIncrement = 1;
+
+	/**
+	 * It stores the variables which have non zero activity, so their activities 
+	 * can be scaled down (boolean variables are not stored in vars).
+	 */
+
+	ArrayList<Var> activeVariables = new ArrayList<Var>();
 	
 	/**
 	 * It switches on/off debuging of remove level facilities.
@@ -245,6 +367,17 @@ public class Store {
 	 */
 	protected ArrayList<TimeStamp<?>> timeStamps = new ArrayList<TimeStamp<?>>(100);
 
+	/**
+	 * Timestamps specialized for int values. They are kept separately from 
+	 * generic timestamps so no boxing occurs during search.
+	 */
+	protected ArrayList<TimeStampInt> timeStampsInt = new ArrayList<TimeStampInt>(100);
+
+	/**
+	 * Timestamps specialized for long values.
+	 */
+	protected ArrayList<TimeStampLong> timeStampsLong = new ArrayList<TimeStampLong>();
+
     /**
 	 * This keeps information about watched constraints by given variable.
 	 * Watched constraints are active all the time. Use this with care and do
@@ -399,10 +532,313 @@ public class Store {
 		if (c.queueIndex < currentQueue)
 			currentQueue = c.queueIndex;
 
-		changed[c.queueIndex].add(c);
+		boolean added;
+		if (propagationQueue != null)
+			added = propagationQueue.add(c, c.queueIndex);
+		else
+			added = changed[c.queueIndex].add(c);
+
+		if (added)
+			markQueued(c);
 		
 	}
 
+	/**
+	 * This function schedules given constraint for re-evaluation within the
+	 * queue different than the queue constraint is assigned to. It is used 
+	 * by constraints which postpone expensive part of their consistency.
+	 * @param c constraint which needs reevaluation.
+	 * @param queueIndex the index of the queue to which constraint is added.
+	 */
+
+	public void addChanged(Constraint c, int queueIndex) {
+
+		if (queueIndex < currentQueue)
+			currentQueue = queueIndex;
+
+		boolean added;
+		if (propagationQueue != null)
+			added = propagationQueue.add(c, queueIndex);
+		else
+			added = changed[queueIndex].add(c);
+
+		if (added)
+			markQueued(c);
+
+	}
+
+	/**
+	 * It records that the constraint has been added to one more queue.
+	 */
+	private void markQueued(Constraint c) {
+
+		if (c.queueStamp != queueStamp) {
+			c.queueStamp = queueStamp;
+			c.queuedCount = 0;
+		}
+
+		c.queuedCount++;
+
+	}
+
+	/**
+	 * It specifies how changes of interval domains are undone. By default 
+	 * a domain is copied at its first change within each level and the copy 
+	 * is dropped when the level is removed. If domain trail is used then 
+	 * a domain is changed in place and only the intervals which change are
+	 * recorded in the trail, so they can be restored when the level is 
+	 * removed. It should be set before the search starts.
+	 * @param trail true if interval domains are changed in place, false otherwise.
+	 */
+
+	public void setDomainTrail(boolean trail) {
+
+		if (trail == (domainTrail != null))
+			return;
+
+		assert domainTrail == null || domainTrail.size() == 0 : "Domain trail can not be switched off while it keeps changes";
+
+		domainTrail = trail ? new DomainTrail() : null;
+
+	}
+
+	/**
+	 * It returns the no-good database of this store. The database is created 
+	 * and imposed when this function is called for the first time.
+	 * @return the no-good database of this store.
+	 */
+
+	public NoGoodDatabase getNoGoodDatabase() {
+
+		if (noGoodDatabase == null) {
+			noGoodDatabase = new NoGoodDatabase();
+			noGoodDatabase.impose(this);
+		}
+
+		return noGoodDatabase;
+
+	}
+
+	/**
+	 * It switches on explanation based learning of no-goods. Changes of bounds 
+	 * of integer variables are recorded with the constraints causing them and 
+	 * each failure of a constraint which can explain itself (see Explainable) 
+	 * leads to a no-good imposed when the failed level is removed. It has to 
+	 * be switched on after the model is imposed and before the search starts.
+	 * @param learn true if no-goods are learned, false otherwise.
+	 */
+
+	public void setExplanations(boolean learn) {
+
+		if (learn == (explanationTrail != null))
+			return;
+
+		explanationTrail = learn ? new ExplanationTrail(this) : null;
+
+	}
+
+	/**
+	 * It specifies if constraints scheduled for reevaluation are kept in 
+	 * array based queue (PropagationQueue) or in hash sets. Array based queue
+	 * does not allocate any objects during search. Constraints already 
+	 * scheduled are moved to the new queue.
+	 * @param arrayBased true if array based queue should be used, false otherwise.
+	 */
+
+	public void setArrayBasedQueue(boolean arrayBased) {
+
+		if (arrayBased == (propagationQueue != null))
+			return;
+
+		if (arrayBased) {
+
+			PropagationQueue queue = new PropagationQueue(changed.length, numberOfConstraints);
+			for (int i = 0; i < changed.length; i++)
+				while (!changed[i].isEmpty())
+					queue.add(changed[i].removeFirst(), i);
+			propagationQueue = queue;
+
+		}
+		else {
+
+			for (int i = 0; i < changed.length; i++)
+				while (!propagationQueue.isEmpty(i))
+					changed[i].add(propagationQueue.removeFirst(i));
+			propagationQueue = null;
+
+		}
+
+	}
+
+	/**
+	 * It specifies if constraints register at variables with event masks. 
+	 * Only constraints imposed afterwards are affected. Constraints which do 
+	 * not support event masks always use putModelConstraint. 
+	 * @param eventScheduling true if event based scheduling should be used, false otherwise.
+	 */
+
+	public void setEventScheduling(boolean eventScheduling) {
+		this.eventScheduling = eventScheduling;
+	}
+
+	/**
+	 * It specifies the size of the range below which variables created from 
+	 * min..max use BitSetDomain. Only variables created afterwards are affected.
+	 * @param threshold the size of the range (max - min), 0 switches BitSetDomain off.
+	 */
+
+	public void setBitSetDomainThreshold(int threshold) {
+		this.bitSetDomainThreshold = threshold;
+	}
+
+	/**
+	 * It returns the mask of pruning events which cause reevaluation of a 
+	 * constraint attached to the variable with a given pruning event. For 
+	 * example, for finite domain variable and pruning event BOUND it contains
+	 * events GROUND and BOUND.
+	 * @param var variable for which the mask is computed.
+	 * @param pruningEvent pruning event as used by putModelConstraint.
+	 * @return mask of pruning events, event e is represented by bit 1 &lt;&lt; e. 
+	 */
+
+	public int eventMask(Var var, int pruningEvent) {
+
+		Domain dom = var.dom();
+		int mask = 0;
+
+		for (int event = 0; event < dom.modelConstraints.length; event++)
+			for (int included : dom.getEventsInclusion(event))
+				if (included == pruningEvent)
+					mask |= 1 << event;
+
+		return mask;
+	}
+
+	/**
+	 * It registers a constraint at a variable dispatch array. The constraint is
+	 * scheduled for reevaluation by pruning events from the event mask and its
+	 * function queueVariable(level, var, index) is called for pruning events
+	 * from the delivery mask. Constraint registered this way must not be 
+	 * attached to the variable by putModelConstraint. 
+	 * 
+	 * @param var variable at which the constraint is registered.
+	 * @param c constraint being registered.
+	 * @param eventMask pruning events which schedule the constraint.
+	 * @param deliveryMask pruning events which are delivered to the constraint. 
+	 * @param index the index of the variable which is delivered to the constraint.
+	 */
+
+	public void registerEvents(Var var, Constraint c, int eventMask, int deliveryMask, int index) {
+
+		if (var.dispatch == null)
+			var.dispatch = new EventDispatch();
+
+		var.dispatch.add(c, eventMask, deliveryMask, index);
+		trailDispatch(var.dispatch, -1);
+
+	}
+
+	/**
+	 * It removes a constraint from the variable dispatch array, as long as the 
+	 * current level is not removed.
+	 * @param var variable from which the constraint is removed.
+	 * @param c constraint being removed.
+	 * @return true if the constraint was registered at the variable, false otherwise.
+	 */
+
+	public boolean removeEvents(Var var, Constraint c) {
+
+		if (var.dispatch == null)
+			return false;
+
+		int position = var.dispatch.position(c);
+
+		if (position == -1)
+			return false;
+
+		var.dispatch.removed[position] = true;
+		var.dispatch.active--;
+		trailDispatch(var.dispatch, position);
+
+		return true;
+	}
+
+	private void trailDispatch(EventDispatch dispatch, int position) {
+
+		if (dispatchTrailSize == dispatchTrail.length) {
+
+			EventDispatch[] oldTrail = dispatchTrail;
+			dispatchTrail = new EventDispatch[dispatchTrailSize * 2];
+			System.arraycopy(oldTrail, 0, dispatchTrail, 0, dispatchTrailSize);
+
+			int[] oldPosition = dispatchTrailPosition;
+			dispatchTrailPosition = new int[dispatchTrailSize * 2];
+			System.arraycopy(oldPosition, 0, dispatchTrailPosition, 0, dispatchTrailSize);
+
+			int[] oldLevel = dispatchTrailLevel;
+			dispatchTrailLevel = new int[dispatchTrailSize * 2];
+			System.arraycopy(oldLevel, 0, dispatchTrailLevel, 0, dispatchTrailSize);
+
+		}
+
+		dispatchTrail[dispatchTrailSize] = dispatch;
+		dispatchTrailPosition[dispatchTrailSize] = position;
+		dispatchTrailLevel[dispatchTrailSize] = level;
+		dispatchTrailSize++;
+
+	}
+
+	/**
+	 * It returns true if array based queue is used to store constraints 
+	 * scheduled for reevaluation.
+	 * @return true if array based queue is used, false otherwise.
+	 */
+
+	public boolean getArrayBasedQueue() {
+		return propagationQueue != null;
+	}
+
+	/**
+	 * It checks if the queue of given index does not contain any constraint.
+	 */
+	private boolean isChangedEmpty(int queueIndex) {
+
+		if (propagationQueue != null)
+			return propagationQueue.isEmpty(queueIndex);
+		else
+			return changed[queueIndex].isEmpty();
+
+	}
+
+	/**
+	 * It checks if the constraint is in any of the queues. It reads only the 
+	 * fields of the constraint, so it does not depend on the kind of queue.
+	 */
+	private boolean isQueued(Constraint c) {
+
+		return c.queueStamp == queueStamp && c.queuedCount > 0;
+
+	}
+
+	/**
+	 * It clears all queues which may contain constraints.
+	 */
+	private void clearQueues() {
+
+		while (currentQueue < queueNo) {
+
+			if (propagationQueue != null)
+				propagationQueue.clear(currentQueue);
+			else
+				changed[currentQueue].clear();
+
+			currentQueue++;
+		}
+
+		queueStamp++;
+
+	}
+
 
 	/**
 	 * This function schedules all attached (not yet satisfied constraints) for
@@ -417,10 +853,20 @@ public class Store {
 	public void addChanged(Var var, int pruningEvent, int info) {
 		
 		propagationHasOccurred = true;
+		pruningEvents++;
+
+		if (variableActivityManagement) {
+			if (var.activity == 0)
+				activeVariables.add(var);
+			var.activity += activityIncrement;
+		}
 
 		// It records V as being changed so backtracking later on can be invoked for this variable.
 		recordChange(var);
 
+		if (explanationTrail != null && var instanceof IntVar)
+			explanationTrail.record((IntVar) var, currentConstraint, level);
+
 		Domain vDom = var.dom();
 		
 		Constraint[] addedConstraints = null;
@@ -463,8 +909,33 @@ public class Store {
 			}
 		}
 
-		// Watched constraints
-		if (watchedConstraints != null && pruningEvent == IntDomain.GROUND) {
+		// Constraints registered with event masks
+		EventDispatch dispatch = var.dispatch;
+
+		if (dispatch != null) {
+
+			int event = 1 << pruningEvent;
+			Constraint[] dispatchConstraints = dispatch.constraints;
+
+			for (int i = dispatch.size - 1; i >= 0; i--) {
+
+				if (dispatch.removed[i])
+					continue;
+
+				c = dispatchConstraints[i];
+
+				if ((dispatch.deliveries[i] & event) != 0)
+					c.queueVariable(level, var, dispatch.indexes[i]);
+
+				// Already queued constraints are skipped.
+				if ((dispatch.events[i] & event) != 0 && currentConstraint != c && !isQueued(c))
+					addChanged(c);
+			}
+		}
+
+		// Watched constraints, bound literals of learned no-goods are also watched for bound changes.
+		if (watchedConstraints != null 
+			&& (pruningEvent == IntDomain.GROUND || (pruningEvent == IntDomain.BOUND && explanationTrail != null))) {
 
 			HashSet<Constraint> list = watchedConstraints.get(var);
 
@@ -488,8 +959,7 @@ public class Store {
 
 	public void clearChanged() {
 
-		while (currentQueue < queueNo)
-			changed[currentQueue++].clear();
+		clearQueues();
 
 	}
 
@@ -509,13 +979,24 @@ public class Store {
 		if (this.sparseSetSize > 0 && this.sparseSet == null)
 			sparseSet = new SparseSet(sparseSetSize);
 
+		if (variableActivityManagement)
+			decayActivity();
+
 		try {
 			
-			while (currentQueue < queueNo) {
-				// Selects changed constraints from changed queue
-				// and evaluates them
-				if (currentQueue < queueNo)
-					while (!changed[currentQueue].isEmpty()) {
+			if (profiler != null)
+				profiledConsistency();
+			else
+				while (currentQueue < queueNo) {
+					// Selects changed constraints from changed queue
+					// and evaluates them
+					while (!isChangedEmpty(currentQueue)) {
+
+						if (cancellationToken != null) {
+							// the previous constraint has not failed.
+							currentConstraint = null;
+							checkCancellation();
+						}
 
 						currentConstraint = getFirstChanged();
 						
@@ -528,16 +1009,22 @@ public class Store {
 					
 					}
 								
-				currentQueue++;
-			}
+					currentQueue++;
+				}
 
 		} catch (FailException f) {
 
 			if (currentConstraint != null) {
 
+				// failure caused by cancellation is not a conflict.
+				boolean cancelled = cancellationToken != null && cancellationToken.cancelled;
+
+				if (explanationTrail != null && !cancelled)
+					explanationTrail.analyze(currentConstraint);
+
 				currentConstraint.cleanAfterFailure();
 
-				if (variableWeightManagement)
+				if (variableWeightManagement && !cancelled)
 					currentConstraint.increaseWeight();
 
 			}
@@ -555,6 +1042,118 @@ public class Store {
 	}
 	
 	
+	/**
+	 * It decays the activities of all variables. The activities are not changed, 
+	 * the increment used for future pruning events grows instead. If the increment
+	 * becomes too large all activities are scaled down.
+	 */
+	void decayActivity() {
+
+		activityIncrement /= activityDecay;
+
+		if (activityIncrement > 1e20) {
+			for (Var var : activeVariables)
+				var.activity *= 1e-20;
+			activityIncrement *= 1e-20;
+		}
+
+	}
+
+	/**
+	 * It fails if the cancellation token of the store has been cancelled. It is 
+	 * called by consistency before each execution of constraint and it can be 
+	 * called by constraints with long running consistency functions.
+	 * 
+	 * @throws FailException if the cancellation token is cancelled.
+	 */
+	public void checkCancellation() {
+
+		if (cancellationToken != null && cancellationToken.isCancelled())
+			throw failException;
+
+	}
+
+	/**
+	 * It is the consistency loop executed when profiler is used. It records
+	 * statistics of each consistency call.
+	 */
+	private void profiledConsistency() {
+
+		while (currentQueue < queueNo) {
+
+			while (!isChangedEmpty(currentQueue)) {
+
+				if (cancellationToken != null) {
+					// the previous constraint has not failed.
+					currentConstraint = null;
+					checkCancellation();
+				}
+
+				currentConstraint = getFirstChanged();
+
+				PropagationProfiler.Statistics statistics = profiler.getStatistics(currentConstraint);
+				long events = pruningEvents;
+				int queued = queuedConstraints();
+				long cpuStart = profiler.cpuTime();
+				long wallStart = System.nanoTime();
+				boolean failed = true;
+
+				try {
+					currentConstraint.consistency(this);
+					failed = false;
+				} finally {
+					profiler.record(statistics, wallStart, cpuStart, pruningEvents != events, 
+									failed, queuedConstraints() - queued);
+				}
+
+				if (removeConstraints && currentConstraint.satisfied()) {
+
+					currentConstraint.removeConstraint();
+				}
+
+			}
+
+			currentQueue++;
+		}
+
+	}
+
+	/**
+	 * It returns the number of constraints in all queues.
+	 */
+	private int queuedConstraints() {
+
+		int result = 0;
+
+		for (int i = 0; i < queueNo; i++)
+			if (propagationQueue != null)
+				result += propagationQueue.size(i);
+			else
+				result += changed[i].size();
+
+		return result;
+	}
+
+	/**
+	 * It sets the profiler which collects statistics of constraints consistency
+	 * functions (number of calls, time, pruning, failures, queue entries). If 
+	 * profiler is null then store does not collect any statistics.
+	 * @param profiler profiler to be used or null.
+	 */
+
+	public void setProfiler(PropagationProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * It returns profiler used by the store.
+	 * @return profiler used by the store, null if no profiler is used.
+	 */
+
+	public PropagationProfiler getProfiler() {
+		return profiler;
+	}
+
 	/**
 	 * This function is called when a counter of constraints should be
 	 * increased. It is most probable that this function will called from the
@@ -677,7 +1276,16 @@ public class Store {
 
 	public Constraint getFirstChanged() {
 
-		return changed[currentQueue].removeFirst();
+		Constraint c;
+		if (propagationQueue != null)
+			c = propagationQueue.removeFirst(currentQueue);
+		else
+			c = changed[currentQueue].removeFirst();
+
+		if (c != null)
+			c.queuedCount--;
+
+		return c;
 		
 	}
 
@@ -707,6 +1315,9 @@ public class Store {
 
 	public void impose(Constraint c) {
 
+		if (explanationTrail != null && level > explanationTrail.baseLevel)
+			explanationTrail.imposedAtSearch(c, level);
+
 		c.impose(this);
 
 	}
@@ -723,6 +1334,9 @@ public class Store {
 
 		assert (queueIndex < queueNo) : "Constraint queue number larger than permitted by store.";
 
+		if (explanationTrail != null && level > explanationTrail.baseLevel)
+			explanationTrail.imposedAtSearch(c, level);
+
 		c.impose(this, queueIndex);
 	}
 
@@ -737,6 +1351,9 @@ public class Store {
 
 	public void imposeWithConsistency(Constraint c) throws FailException {
 
+		if (explanationTrail != null && level > explanationTrail.baseLevel)
+			explanationTrail.imposedAtSearch(c, level);
+
 		c.impose(this);
 		
 		if (!consistency()) {
@@ -854,6 +1471,30 @@ public class Store {
 		return timeStamps.size() - 1;
 	}
 
+	/**
+	 * It registers a timestamp specialized for int values, so store can 
+	 * keep it consistent with the search.
+	 * @param value timestamp to be added and maintained by a store.
+	 * @return the position of timestamp at which it is being stored.
+	 */
+
+	public int putMutableVar(TimeStampInt value) {
+		timeStampsInt.add(value);
+		return timeStampsInt.size() - 1;
+	}
+
+	/**
+	 * It registers a timestamp specialized for long values, so store can 
+	 * keep it consistent with the search.
+	 * @param value timestamp to be added and maintained by a store.
+	 * @return the position of timestamp at which it is being stored.
+	 */
+
+	public int putMutableVar(TimeStampLong value) {
+		timeStampsLong.add(value);
+		return timeStampsLong.size() - 1;
+	}
+
 	/**
 	 * This function is used to register a variable within a store. It will be
 	 * most probably called from variable constructor. It returns the current
@@ -998,9 +1639,9 @@ public class Store {
 
 	public void removeLevel(int rLevel) {
 
-		while (currentQueue < queueNo) {
-			changed[currentQueue++].clear();
-		}
+		backtracks++;
+
+		clearQueues();
 
 		// It has to inform listeners first, as they may use values of
 		// mutables variables, just before they get deleted.
@@ -1012,6 +1653,12 @@ public class Store {
 		for (TimeStamp<?> var : timeStamps)
 			var.removeLevel(rLevel);
 
+		for (int i = timeStampsInt.size() - 1; i >= 0; i--)
+			timeStampsInt.get(i).removeLevel(rLevel);
+
+		for (int i = timeStampsLong.size() - 1; i >= 0; i--)
+			timeStampsLong.get(i).removeLevel(rLevel);
+
 		// Boolean Variables.
 
 		if (changeHistory4BooleanVariables != null) {
@@ -1040,6 +1687,31 @@ public class Store {
 			}
 		}
 
+		// Dispatch arrays of variables.
+		while (dispatchTrailSize > 0 && dispatchTrailLevel[dispatchTrailSize - 1] >= rLevel) {
+
+			dispatchTrailSize--;
+			EventDispatch dispatch = dispatchTrail[dispatchTrailSize];
+			int position = dispatchTrailPosition[dispatchTrailSize];
+			dispatchTrail[dispatchTrailSize] = null;
+
+			if (position == -1) {
+				dispatch.size--;
+				dispatch.active--;
+				dispatch.constraints[dispatch.size] = null;
+			}
+			else {
+				dispatch.removed[position] = false;
+				dispatch.active++;
+			}
+
+		}
+
+		// Domains changed in place must be restored before domains created 
+		// at this level are dropped.
+		if (domainTrail != null)
+			domainTrail.removeLevel(rLevel);
+
 		// TODO, added functionality.
 		trailManager.removeLevel(rLevel);
 		
@@ -1048,6 +1720,10 @@ public class Store {
 
 		for (Constraint C : removeLevelLateListeners)
 			C.removeLevelLate(rLevel);
+
+		// Learned no-goods are imposed once the failed level is removed.
+		if (explanationTrail != null)
+			explanationTrail.removeLevel(rLevel);
 		
 		assert checkInvariants() == null : checkInvariants();
 		
@@ -1186,8 +1862,11 @@ public class Store {
 
 		StringBuffer c = new StringBuffer();
 
-		for (int i = 0; i < queueNo; i++)
-			c.append(changed[i].toString() + "\n");
+		if (propagationQueue != null)
+			c.append(propagationQueue.toString());
+		else
+			for (int i = 0; i < queueNo; i++)
+				c.append(changed[i].toString() + "\n");
 
 		return c.toString();
 
@@ -1221,17 +1900,26 @@ public class Store {
 
 		while (currentQueue < queueNo) {
 
-			size = changed[currentQueue].size();
+			if (propagationQueue != null)
+				size = propagationQueue.size(currentQueue);
+			else
+				size = changed[currentQueue].size();
 
 			for (int i = 0; i < size; i++) {
 
-				c = changed[currentQueue].removeFirst();
+				if (propagationQueue != null)
+					c = propagationQueue.removeFirst(currentQueue);
+				else
+					c = changed[currentQueue].removeFirst();
 
 				if (classname.isInstance(c)) {
 					list.add(c);
 				}
 
-				changed[currentQueue].add(c);
+				if (propagationQueue != null)
+					propagationQueue.add(c, currentQueue);
+				else
+					changed[currentQueue].add(c);
 
 			}
 
@@ -0,0 +1,111 @@
+/**
+ *  TimeStampInt.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.core;
+
+/**
+ * This class provides the functionality of TimeStamp specialized for int 
+ * values. The stack of levels is kept by PrimitiveTimeStamp, the values are
+ * kept in an array of int parallel to the array of stamps.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class TimeStampInt extends PrimitiveTimeStamp {
+
+	public transient int[] values = new int[10];
+
+	/**
+	 * The constructor.
+	 * @param store the store where the timestamp is registered.
+	 * @param input the value of the stamp to be stored.
+	 */
+	public TimeStampInt(Store store, int input) {
+
+		int position = addLast(store.level);
+		values[position] = input;
+
+		index = store.putMutableVar(this);
+		this.store = store;
+	}
+
+	@Override
+	void resizeValues(int newCapacity) {
+		int oldValues[] = values;
+		values = new int[newCapacity];
+		System.arraycopy(oldValues, 0, values, 0, pointer4Last);
+	}
+
+	/**
+	 * It returns the previous value according to the stamp. It must
+	 * not be called if there is no previous value.
+	 * 
+	 * @return the previous value according to the stamp. 
+	 */
+	final public int previousValue() {
+		assert (pointer4Last > 0) : "There is no previous value in " + this; 
+		return values[pointer4Last - 1];
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer S = new StringBuffer();
+
+		S.append("TimeStampInt<").append(index).append("> = ");
+
+		for (int i = pointer4Last; i >= 0; i--) {
+			S.append("v").append(values[i]).append("s").append(stamps[i]);
+		}
+		return S.toString();
+	}
+
+	/**
+	 * It updates the value of the timestamp with the provided value.
+	 * @param val value to which the timestamp needs to be updated.
+	 */
+	public void update(int val) {
+		// the position is found first, as it may resize the array of values.
+		int position = currentPosition();
+		values[position] = val;
+	}
+
+	/**
+	 * It returns the most recent value of the timestamp.
+	 * 
+	 * @return the most recent value of the timestamp. 
+	 */
+	final public int value() {
+		return values[pointer4Last];
+	}
+
+}
@@ -66,6 +66,19 @@ public abstract class Var implements Backtrackable {
 	 */
 	
 	public int weight = 1;
+
+	/**
+	 * It specifies the current activity of the variable. It is increased by the 
+	 * store at each pruning event of the variable if the store manages activities.
+	 */
+	
+	public double activity = 0;
+
+	/**
+	 * It stores constraints registered at this variable when store uses 
+	 * event based scheduling. It is null if no constraint has registered.
+	 */
+	public EventDispatch dispatch;
 	
 	/**
 	 * Each variable is created in a store. This attribute represents the store
@@ -82,6 +82,8 @@ public class Constraints implements ParserTreeConstants {
 
     // =========== Annotations ===========
     boolean boundsConsistency = true, domainConsistency = false;
+    // bounds consistency given explicitly by bounds annotation
+    boolean boundsAnnotation = false;
     // defines_var
     IntVar definedVar = null;
 
@@ -159,6 +161,7 @@ public class Constraints implements ParserTreeConstants {
 	// default consistency - bounds
  	boundsConsistency = true; 
  	domainConsistency = false;
+ 	boundsAnnotation = false;
 	definedVar = null;
 
 	dictionary = table;
@@ -828,6 +831,14 @@ public class Constraints implements ParserTreeConstants {
 		    // else 
 		    pose(new Cumulative(s, d, r, b, true, true, false));
 
+		}
+		else if (p.startsWith("disjunctive", 6)) {
+
+		    IntVar[] s = getVarArray((SimpleNode)node.jjtGetChild(0));
+		    IntVar[] d = getVarArray((SimpleNode)node.jjtGetChild(1));
+
+		    pose(new Disjunctive(s, d));
+
 		}
 		else if (p.startsWith("circuit", 6)) {
 		    IntVar[] v = getVarArray((SimpleNode)node.jjtGetChild(0));
@@ -842,6 +853,12 @@ public class Constraints implements ParserTreeConstants {
 		else if (p.startsWith("alldiff", 6)) {
 		    IntVar[] v = getVarArray((SimpleNode)node.jjtGetChild(0));
 
+		    if (boundsAnnotation) {
+			// explicit bounds annotation selects O(n log n) bounds consistency
+			pose(new AlldiffBounds(v));
+			return;
+		    }
+
 		    IntervalDomain dom = new IntervalDomain();
 		    for (IntVar var : v)
 			dom = (IntervalDomain)dom.union( var.dom() );
@@ -2592,10 +2609,12 @@ public class Constraints implements ParserTreeConstants {
 	    if ( ann.getAnnId().equals("bounds") || ann.getAnnId().equals("boundsZ") ) {
 		boundsConsistency = true; 
 		domainConsistency = false;
+		boundsAnnotation = true;
 	    }
 	    else if ( ann.getAnnId().equals("domain") ) {
 		boundsConsistency = false; 
 		domainConsistency = true;
+		boundsAnnotation = false;
 	    }
 	    else if ( ann.getAnnId().equals("defines_var") ) {  // no used in JaCoP yet
 		ASTAnnExpr expr = (ASTAnnExpr)ann.jjtGetChild(0);
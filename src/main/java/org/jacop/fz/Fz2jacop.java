@@ -33,6 +33,7 @@
 package org.jacop.fz;
 
 import org.jacop.core.FailException;
+import org.jacop.core.PropagationProfiler;
 
 /**
  * 
@@ -83,6 +84,9 @@ public class Fz2jacop {
 	Parser parser = new Parser(opt.getFile());
 	parser.setOptions(opt);
 
+	if (opt.getProfile())
+	    parser.getStore().setProfiler(new PropagationProfiler());
+
 	RunWhenShuttingDown t = new RunWhenShuttingDown(parser);
 	if (opt.getStatistics())
 	    Runtime.getRuntime().addShutdownHook(t);
@@ -109,6 +113,9 @@ public class Fz2jacop {
 	    System.out.println("%% Stack overflow exception error; consider option -Xss... for JVM");
 	}
 
+	if (opt.getProfile())
+	    System.out.print(parser.getStore().getProfiler().report("%% ", 20));
+
 	if (opt.getStatistics()) {
 	    Runtime.getRuntime().removeShutdownHook(t); 
 	
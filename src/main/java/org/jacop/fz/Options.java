@@ -52,11 +52,19 @@ public class Options {
     boolean all = false, verbose = false;
 	
 	boolean statistics = false;
+
+	boolean profile = false;
 	
 	int time_out = 0;
 	
 	int number_solutions = -1;
 
+	String restart = null;
+
+	long restart_scale = 100;
+
+	boolean restart_nogoods = false;
+
 	/**
 	 * It constructs an Options object and parses all the parameters/options provided 
 	 * to flatzinc to jacop parser.
@@ -85,8 +93,16 @@ public class Options {
 						"    -t <value>, --time-out <value>\n"+
 						"        <value> - time in second.\n"+
 						"    -s, --statistics\n"+
+						"    -p, --profile\n"+
+						"        Print statistics of constraints propagation.\n"+
 						"    -n <value>, --num-solutions <value>\n"+
-						"        <value> - limit on solution number.\n"
+						"        <value> - limit on solution number.\n"+
+						"    -r <policy>, --restart <policy>\n"+
+						"        <policy> - luby, geometric or constant restarts of the search.\n"+
+						"    --restart-scale <value>\n"+
+						"        <value> - backtracks before the first restart (default 100).\n"+
+						"    --restart-nogoods\n"+
+						"        Record no-goods from interrupted runs.\n"
 				);
 				System.exit(0);
 			}
@@ -110,12 +126,32 @@ public class Options {
 					statistics = true;
 					i++;
 				}
+				else if (args[i].equals("-p") || args[i].equals("--profile")) {
+					profile = true;
+					i++;
+				}
 				else if (args[i].equals("-n") || args[i].equals("--num-solutions")) {
 					number_solutions = Integer.parseInt(args[++i]);
 					if (number_solutions > 1) 
 					    all = true;
 					i++;
 				}
+				else if (args[i].equals("-r") || args[i].equals("--restart")) {
+					restart = args[++i];
+					if (!restart.equals("luby") && !restart.equals("geometric") && !restart.equals("constant")) {
+						System.out.println("fz2jacop: not recognized restart policy "+ restart);
+						restart = null;
+					}
+					i++;
+				}
+				else if (args[i].equals("--restart-scale")) {
+					restart_scale = Long.parseLong(args[++i]);
+					i++;
+				}
+				else if (args[i].equals("--restart-nogoods")) {
+					restart_nogoods = true;
+					i++;
+				}
 				else if (args[i].equals("-v") || args[i].equals("--verbose")) {
 					    verbose = true;
 					i++;
@@ -178,6 +214,15 @@ public class Options {
 		return statistics;
 	}
 
+	/**
+	 * It returns true if the propagation profile is to be displayed. 
+	 * 
+	 * @return true if the propagation profile is to be displayed, false otherwise.
+	 */
+	public boolean getProfile() {
+		return profile;
+	}
+
 	/**
 	 * It returns time out set for the search. 
 	 * 
@@ -195,6 +240,33 @@ public class Options {
 	public int getNumberSolutions() {
 		return number_solutions;
 	}
+
+	/**
+	 * It returns the restart policy of the search. 
+	 * 
+	 * @return the restart policy (luby, geometric or constant), null if the search is not restarted.
+	 */
+	public String getRestart() {
+		return restart;
+	}
+
+	/**
+	 * It returns the number of backtracks before the first restart. 
+	 * 
+	 * @return the cutoff of the first run of the restarted search.
+	 */
+	public long getRestartScale() {
+		return restart_scale;
+	}
+
+	/**
+	 * It returns true if no-goods are recorded from the interrupted runs. 
+	 * 
+	 * @return true if no-goods are recorded by the restarted search, false otherwise.
+	 */
+	public boolean getRestartNoGoods() {
+		return restart_nogoods;
+	}
 	
 }
 
@@ -47,6 +47,7 @@ import org.jacop.search.CreditCalculator;
 import org.jacop.search.DepthFirstSearch;
 import org.jacop.search.IndomainMin;
 import org.jacop.search.LDS;
+import org.jacop.search.RestartSearch;
 import org.jacop.search.Search;
 import org.jacop.search.SelectChoicePoint;
 import org.jacop.search.SimpleSelect;
@@ -368,7 +369,10 @@ public class Solve implements ParserTreeConstants {
 
 		// printSearch(label);
 
-		Result = label.labeling(store, variable_selection);
+		if (options.getRestart() != null && !options.getAll() && si.exploration().equals("complete"))
+		    Result = restart_labeling(label, variable_selection, null);
+		else
+		    Result = label.labeling(store, variable_selection);
 		this.si = si;
 
 		break;
@@ -380,7 +384,10 @@ public class Solve implements ParserTreeConstants {
 		    last_search.getSolutionListener().setSolutionLimit(options.getNumberSolutions());
 		}
 
-		Result = label.labeling(store, variable_selection, cost);
+		if (options.getRestart() != null && si.exploration().equals("complete"))
+		    Result = restart_labeling(label, variable_selection, cost);
+		else
+		    Result = label.labeling(store, variable_selection, cost);
 		this.si = si;
 
 		break;
@@ -392,7 +399,10 @@ public class Solve implements ParserTreeConstants {
 		    last_search.getSolutionListener().setSolutionLimit(options.getNumberSolutions());
 		}
 
-		Result = label.labeling(store, variable_selection, max_cost);
+		if (options.getRestart() != null && si.exploration().equals("complete"))
+		    Result = restart_labeling(label, variable_selection, max_cost);
+		else
+		    Result = label.labeling(store, variable_selection, max_cost);
 		this.si = si;
 
 		break;
@@ -1106,6 +1116,32 @@ public class Solve implements ParserTreeConstants {
     }
     */
 
+    boolean restart_labeling(DepthFirstSearch<Var> label, SelectChoicePoint<Var> select, IntVar cost) {
+
+	RestartSearch<Var> restart = new RestartSearch<Var>(store, label, select, cost);
+
+	if (options.getRestart().equals("luby"))
+	    restart.setPolicy(RestartSearch.Policy.LUBY, options.getRestartScale());
+	else if (options.getRestart().equals("geometric"))
+	    restart.setPolicy(RestartSearch.Policy.GEOMETRIC, options.getRestartScale());
+	else
+	    restart.setPolicy(RestartSearch.Policy.CONSTANT, options.getRestartScale());
+
+	// no-goods are defined only for integer decision variables
+	restart.setRecordNoGoods(options.getRestartNoGoods() && !setSearch && label != final_search[2]);
+	restart.setPrintInfo(false);
+
+	boolean result = restart.labeling();
+
+	// statistics report time-out only if restarts were interrupted by time-out option
+	label.timeOutOccured = restart.timeOutOccured;
+
+	if (options.getVerbose())
+	    System.out.println("%% Restarts : " + restart.getRestarts());
+
+	return result;
+    }
+
     void lds_search(DepthFirstSearch<Var> label, int lds_value) {
 	//  	System.out.println("LDS("+lds_value+")");
 
@@ -0,0 +1,125 @@
+/**
+ *  ConstraintNeighbourhood.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import org.jacop.constraints.Constraint;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * It relaxes variables which are connected by the constraints of the model. 
+ * Starting from a randomly chosen variable, it relaxes the variables in the 
+ * scope of its constraints, then the variables in the scope of their constraints, 
+ * and so on (breadth first) until the required number of variables is relaxed. 
+ * If the connected part of the model is too small, another random variable is chosen.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class ConstraintNeighbourhood<T extends IntVar> implements Neighbourhood<T> {
+
+	T[] vars;
+
+	IdentityHashMap<Var, Integer> position;
+
+	int[] queue;
+
+	public void relax(Store store, T[] vars, int[] solution, int size, Random random, boolean[] relaxed) {
+
+		if (this.vars != vars) {
+			this.vars = vars;
+			position = new IdentityHashMap<Var, Integer>();
+			for (int i = 0; i < vars.length; i++)
+				position.put(vars[i], i);
+			queue = new int[vars.length];
+		}
+
+		if (size > vars.length)
+			size = vars.length;
+
+		int relaxedNo = 0;
+		ArrayList<Integer> neighbours = new ArrayList<Integer>();
+
+		while (relaxedNo < size) {
+
+			int seed = random.nextInt(vars.length);
+			while (relaxed[seed])
+				seed = (seed + 1) % vars.length;
+
+			relaxed[seed] = true;
+			relaxedNo++;
+
+			int head = 0, tail = 0;
+			queue[tail++] = seed;
+
+			while (head < tail && relaxedNo < size) {
+
+				T var = vars[queue[head++]];
+
+				neighbours.clear();
+				for (Constraint c : var.dom().constraints())
+					for (Var v : c.arguments()) {
+						Integer i = position.get(v);
+						if (i != null && !relaxed[i])
+							neighbours.add(i);
+					}
+				Collections.shuffle(neighbours, random);
+
+				for (int i = 0; i < neighbours.size() && relaxedNo < size; i++) {
+					int next = neighbours.get(i);
+					if (!relaxed[next]) {
+						relaxed[next] = true;
+						relaxedNo++;
+						queue[tail++] = next;
+					}
+				}
+
+			}
+
+		}
+
+	}
+
+	@Override
+	public String toString() {
+		return "constraint";
+	}
+
+}
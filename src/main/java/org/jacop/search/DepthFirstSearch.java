@@ -37,6 +37,7 @@ import org.jacop.constraints.Constraint;
 import org.jacop.constraints.Not;
 import org.jacop.constraints.PrimitiveConstraint;
 import org.jacop.constraints.XltC;
+import org.jacop.core.CancellationToken;
 import org.jacop.core.Domain;
 import org.jacop.core.FailException;
 import org.jacop.core.IntDomain;
@@ -56,7 +57,7 @@ import org.jacop.set.core.SetVar;
  * @param <T> type of variables used in this search. 
  */
 
-public class DepthFirstSearch<T extends Var> implements Search<T> {
+public class DepthFirstSearch<T extends Var> implements Search<T>, Cancellable {
 
 	//@todo make debugAll be used in printing statements.
 	static final boolean debugAll = true;
@@ -249,11 +250,30 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 
 	/**
 	 * It specifies the exact time point after which the timeout will occur (in
-	 * miliseconds).
+	 * nanoseconds, as returned by System.nanoTime()).
 	 */
 
 	long timeOut;
 
+	/**
+	 * It specifies how many checks of limits are performed between two readings 
+	 * of the clock.
+	 */
+
+	int timeCheckInterval = 16;
+
+	/**
+	 * It specifies the number of checks of limits left before the clock is read.
+	 */
+
+	int timeCheckCountdown = 0;
+
+	/**
+	 * It allows to stop the search from another thread, null if not used.
+	 */
+
+	CancellationToken cancellationToken = null;
+
 	/**
 	 * It specifies if the timeout is on.
 	 */
@@ -448,7 +468,8 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 	}
 
 	/**
-	 * This function is called recursively to assign variables one by one.
+	 * This function is called recursively to assign variables one by one. 
+	 * IterativeDepthFirstSearch implements it without recursion.
 	 */
 
 	public boolean label(int firstVariable) {
@@ -460,73 +481,13 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 
 		// int textInterfaceLength = 0;
 
-		if (check) {
-
-			if (timeOutCheck)
-				if (System.currentTimeMillis() > timeOut) {
-					timeOutOccured = true;
-					if (timeOutListener != null)
-						timeOutListener.executedAtTimeOut(solutionListener
-								.solutionsNo());
-					return false;
-				}
-
-			if (nodesOutCheck)
-				if (nodes > nodesOut) {
-					timeOutOccured = true;
-					if (timeOutListener != null)
-						timeOutListener.executedAtTimeOut(solutionListener
-								.solutionsNo());
-					return false;
-				}
-
-			if (decisionsOutCheck)
-				if (decisions > decisionsOut) {
-					timeOutOccured = true;
-					if (timeOutListener != null)
-						timeOutListener.executedAtTimeOut(solutionListener
-								.solutionsNo());
-					return false;
-				}
-
-			if (wrongDecisionsOutCheck)
-				if (wrongDecisions > wrongDecisionsOut) {
-					timeOutOccured = true;
-					if (timeOutListener != null)
-						timeOutListener.executedAtTimeOut(solutionListener
-								.solutionsNo());
-					return false;
-				}
-
-			if (backtracksOutCheck)
-				if (numberBacktracks > backtracksOut) {
-					timeOutOccured = true;
-					if (timeOutListener != null)
-						timeOutListener.executedAtTimeOut(solutionListener
-								.solutionsNo());
-					return false;
-				}
-
-		}
+		if (check && limitsExceeded())
+			return false;
 
 		// Instead of imposing constraint just restrict bounds
 		// -1 since costValue is the cost of last solution
-		if (optimize && cost != null)
-			try {
-				if (costVariable.min() <= costValue - 1)
-					costVariable.domain.in(store.level, costVariable,
-							costVariable.min(), costValue - 1);
-				else {
-				    if (consistencyListener != null)
-					consistencyListener.executeAfterConsistency(false);
-
-					return false;
-				}
-			} catch (FailException f) {
-			    if (consistencyListener != null)
-				consistencyListener.executeAfterConsistency(false);
-			    return false;
-			}
+		if (optimize && cost != null && !restrictCost())
+			return false;
 
 		// all search nodes begins here
 		nodes++;
@@ -589,104 +550,7 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 
 				if (choice == null) {
 
-					// Solution already found so this is not a search node
-					nodes--;
-					// Execute subsearches if given.
-					
-					if (childSearches != null) {
-
-						boolean childResult = false;
-                        boolean childFoundSolution = false;
-						currentChildSearch = 0;
-
-						for (; currentChildSearch < childSearches.length
-								&& !childResult; currentChildSearch++) {
-							childSearches[currentChildSearch].getSolutionListener().setParentSolutionListener(solutionListener);
-							childSearches[currentChildSearch].setStore(store);
-
-							if (costVariable != null)
-								childSearches[currentChildSearch].setCostVar(costVariable);
-
-                            int currentChildSolutionNo = childSearches[currentChildSearch].getSolutionListener().solutionsNo();
-							childResult = childSearches[currentChildSearch].labeling();
-                            if (childSearches[currentChildSearch].getSolutionListener().solutionsNo() > currentChildSolutionNo)
-                                childFoundSolution = true;
-
-							if (childResult)
-								break;
-
-                            if (costVariable != null) {
-                                int childCostValue = childSearches[currentChildSearch].getCostValue();
-                                if (childCostValue < costValue) {
-                                    costValue = childCostValue;
-                                    cost = new XltC(costVariable, costValue);
-                                }
-                                if (childCostValue <= costVariable.min())
-                                // other child searches will not be able to find any solutions.
-                                    break;
-                                else {
-                                    costVariable.domain.inMax(store.level, costVariable, childCostValue - 1);
-                                }
-                            }
-						}
-
-						if (childResult && costVariable != null) {
-							int childCostValue = childSearches[currentChildSearch].getCostValue();
-                            if (childCostValue < costValue)
-                                costValue = childCostValue;
-							cost = new XltC(costVariable, costValue);
-						}
-						
-						boolean stopMasterSearch = false;
-						
-						if (childResult || childFoundSolution) {
-							// Child search found solution, so there is a
-							// solution
-							// for this search too.
-
-							stopMasterSearch = solutionListener.executeAfterSolution(this, heuristic);
-
-                            if (!childResult)
-                                stopMasterSearch = false;
-						}
-
-						store.removeLevel(depth);
-						store.setLevel(--depth);
-						fdv = null;						
-						
-						if (!respectSolutionListenerAdvice && optimize) {
-
-							return false;
-						}
-
-						return stopMasterSearch;
-
-					}
-
-					if (costVariable != null) {
-						// it does not mean there is an optimization, only that we want to remember the value
-						// of the costVariable
-						costValue = costVariable.dom().min();
-						cost = new XltC(costVariable, costValue);
-						
-					}
-					
-					if (!respectSolutionListenerAdvice && optimize) {
-
-						solutionListener.executeAfterSolution(this, heuristic);
-
-						store.removeLevel(depth);
-						store.setLevel(--depth);
-					
-						return false;
-					}
-					
-					boolean returnCode = solutionListener.executeAfterSolution(this, heuristic);
-					
-					store.removeLevel(depth);
-					store.setLevel(--depth);
-					
-					return returnCode;
+					return solutionNode();
 
 				} else {
 
@@ -804,6 +668,210 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		}
 	}
 
+	/**
+	 * It checks if any of the search limits (time-out, nodes, decisions, wrong 
+	 * decisions, backtracks) has been exceeded. If so, time-out listener is informed.
+	 * 
+	 * @return true if the search has to be stopped, false otherwise.
+	 */
+	boolean limitsExceeded() {
+
+		if (cancellationToken != null)
+			if (cancellationToken.isCancelled()) {
+				timeOutOccured = true;
+				if (timeOutListener != null)
+					timeOutListener.executedAtTimeOut(solutionListener
+							.solutionsNo());
+				return true;
+			}
+
+		if (timeOutCheck && --timeCheckCountdown <= 0) {
+			if (System.nanoTime() - timeOut > 0) {
+				// the clock is read at every check from now on.
+				timeCheckCountdown = 0;
+				timeOutOccured = true;
+				if (timeOutListener != null)
+					timeOutListener.executedAtTimeOut(solutionListener
+							.solutionsNo());
+				return true;
+			}
+			timeCheckCountdown = timeCheckInterval;
+		}
+
+		if (nodesOutCheck)
+			if (nodes > nodesOut) {
+				timeOutOccured = true;
+				if (timeOutListener != null)
+					timeOutListener.executedAtTimeOut(solutionListener
+							.solutionsNo());
+				return true;
+			}
+
+		if (decisionsOutCheck)
+			if (decisions > decisionsOut) {
+				timeOutOccured = true;
+				if (timeOutListener != null)
+					timeOutListener.executedAtTimeOut(solutionListener
+							.solutionsNo());
+				return true;
+			}
+
+		if (wrongDecisionsOutCheck)
+			if (wrongDecisions > wrongDecisionsOut) {
+				timeOutOccured = true;
+				if (timeOutListener != null)
+					timeOutListener.executedAtTimeOut(solutionListener
+							.solutionsNo());
+				return true;
+			}
+
+		if (backtracksOutCheck)
+			if (numberBacktracks > backtracksOut) {
+				timeOutOccured = true;
+				if (timeOutListener != null)
+					timeOutListener.executedAtTimeOut(solutionListener
+							.solutionsNo());
+				return true;
+			}
+
+		return false;
+	}
+
+	/**
+	 * It restricts the cost variable below the cost of the last solution found.
+	 * 
+	 * @return false if the restriction fails, true otherwise.
+	 */
+	boolean restrictCost() {
+
+		try {
+			if (costVariable.min() <= costValue - 1)
+				costVariable.domain.in(store.level, costVariable,
+						costVariable.min(), costValue - 1);
+			else {
+				if (consistencyListener != null)
+					consistencyListener.executeAfterConsistency(false);
+
+				return false;
+			}
+		} catch (FailException f) {
+			if (consistencyListener != null)
+				consistencyListener.executeAfterConsistency(false);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * It is executed when all choices have been made, it executes the child 
+	 * searches if any and informs solution listener. It removes the current 
+	 * search level.
+	 * 
+	 * @return true if the search should stop, false otherwise.
+	 */
+	boolean solutionNode() {
+
+		// Solution already found so this is not a search node
+		nodes--;
+		// Execute subsearches if given.
+		
+		if (childSearches != null) {
+
+			boolean childResult = false;
+			boolean childFoundSolution = false;
+			currentChildSearch = 0;
+
+			for (; currentChildSearch < childSearches.length
+					&& !childResult; currentChildSearch++) {
+				childSearches[currentChildSearch].getSolutionListener().setParentSolutionListener(solutionListener);
+				childSearches[currentChildSearch].setStore(store);
+
+				if (costVariable != null)
+					childSearches[currentChildSearch].setCostVar(costVariable);
+
+				int currentChildSolutionNo = childSearches[currentChildSearch].getSolutionListener().solutionsNo();
+				childResult = childSearches[currentChildSearch].labeling();
+				if (childSearches[currentChildSearch].getSolutionListener().solutionsNo() > currentChildSolutionNo)
+					childFoundSolution = true;
+
+				if (childResult)
+					break;
+
+				if (costVariable != null) {
+					int childCostValue = childSearches[currentChildSearch].getCostValue();
+					if (childCostValue < costValue) {
+						costValue = childCostValue;
+						cost = new XltC(costVariable, costValue);
+					}
+					if (childCostValue <= costVariable.min())
+					// other child searches will not be able to find any solutions.
+						break;
+					else {
+						costVariable.domain.inMax(store.level, costVariable, childCostValue - 1);
+					}
+				}
+			}
+
+			if (childResult && costVariable != null) {
+				int childCostValue = childSearches[currentChildSearch].getCostValue();
+				if (childCostValue < costValue)
+					costValue = childCostValue;
+				cost = new XltC(costVariable, costValue);
+			}
+			
+			boolean stopMasterSearch = false;
+			
+			if (childResult || childFoundSolution) {
+				// Child search found solution, so there is a
+				// solution
+				// for this search too.
+
+				stopMasterSearch = solutionListener.executeAfterSolution(this, heuristic);
+
+				if (!childResult)
+					stopMasterSearch = false;
+			}
+
+			store.removeLevel(depth);
+			store.setLevel(--depth);
+			
+			if (!respectSolutionListenerAdvice && optimize) {
+
+				return false;
+			}
+
+			return stopMasterSearch;
+
+		}
+
+		if (costVariable != null) {
+			// it does not mean there is an optimization, only that we want to remember the value
+			// of the costVariable
+			costValue = costVariable.dom().min();
+			cost = new XltC(costVariable, costValue);
+			
+		}
+		
+		if (!respectSolutionListenerAdvice && optimize) {
+
+			solutionListener.executeAfterSolution(this, heuristic);
+
+			store.removeLevel(depth);
+			store.setLevel(--depth);
+		
+			return false;
+		}
+		
+		boolean returnCode = solutionListener.executeAfterSolution(this, heuristic);
+		
+		store.removeLevel(depth);
+		store.setLevel(--depth);
+		
+		return returnCode;
+
+	}
+
 	public void setStore(Store store) {
 		this.store = store;
 	}
@@ -832,8 +900,6 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 
 		depth = store.level;
 		cost = null;
-// 		timeOutOccured = false;
-// 		timeOut = System.currentTimeMillis() + tOut * 1000;
 
 		if (costVariable == null)
 			optimize = false;
@@ -852,6 +918,10 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		// after initialize listener.
 		int solutionNoBeforeSearch = solutionListener.solutionsNo();
 		
+		CancellationToken previousToken = store.cancellationToken;
+		if (cancellationToken != null)
+			store.cancellationToken = cancellationToken;
+
 		// If constraints employ only one time execution of the part of 
 		// the consistency technique then the results of that part must be
 		// stored in one level above the level search starts from as this
@@ -866,6 +936,11 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		store.removeLevel(store.level);
 		store.setLevel(store.level - 1);
 		depth--;			
+
+		store.cancellationToken = previousToken;
+
+		if (cancellationToken != null && cancellationToken.isCancelled())
+			timeOutOccured = true;
 				
 		if (exitListener != null)
 			exitListener.executedAtExit(store, solutionListener.solutionsNo());
@@ -936,8 +1011,6 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 
 		heuristic = select;
 		depth = store.level;
-// 		timeOutOccured = false;
-// 		timeOut = System.currentTimeMillis() + tOut * 1000;
 
 		if (costVariable == null)
 			optimize = false;
@@ -956,6 +1029,10 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		// after initialize listener.
 		int solutionNoBeforeSearch = solutionListener.solutionsNo();
 		
+		CancellationToken previousToken = store.cancellationToken;
+		if (cancellationToken != null)
+			store.cancellationToken = cancellationToken;
+
 		boolean result = store.consistency();
 		store.setLevel(store.level + 1);
 		depth = store.level;
@@ -967,6 +1044,11 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		store.setLevel(store.level - 1);
 		depth--;			
 
+		store.cancellationToken = previousToken;
+
+		if (cancellationToken != null && cancellationToken.isCancelled())
+			timeOutOccured = true;
+
 		if (exitListener != null)
 			exitListener.executedAtExit(store, solutionListener.solutionsNo() - solutionNoBeforeSearch);
 
@@ -1024,8 +1106,6 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		costVariable = costVar;
 		optimize = true;
 		cost = null;
-// 		timeOutOccured = false;
-// 		timeOut = System.currentTimeMillis() + tOut * 1000;
 
 // 		decisions = 0;
 // 		numberBacktracks = 0;
@@ -1041,6 +1121,10 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		// after initialize listener.
 		int solutionNoBeforeSearch = solutionListener.solutionsNo();
 		
+		CancellationToken previousToken = store.cancellationToken;
+		if (cancellationToken != null)
+			store.cancellationToken = cancellationToken;
+
 		boolean result = store.consistency();
 		store.setLevel(store.level + 1);
 		depth = store.level;
@@ -1051,6 +1135,11 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		store.removeLevel(store.level);
 		store.setLevel(store.level - 1);
 		depth--;		
+
+		store.cancellationToken = previousToken;
+
+		if (cancellationToken != null && cancellationToken.isCancelled())
+			timeOutOccured = true;
 		
 		if (exitListener != null)
 			exitListener.executedAtExit(store, solutionListener.solutionsNo());
@@ -1167,7 +1256,42 @@ public class DepthFirstSearch<T extends Var> implements Search<T> {
 		tOut = out;
 		check = true;
 		timeOutCheck = true;
-		timeOut = System.currentTimeMillis() + tOut * 1000;
+		timeOut = System.nanoTime() + tOut * 1000000000L;
+		timeCheckCountdown = 0;
+	}
+
+	/**
+	 * It sets how many checks of limits are performed between two readings of
+	 * the clock when the timeout is on. The larger the interval the cheaper the
+	 * checks, but the search may exceed the timeout by up to interval nodes.
+	 * 
+	 * @param interval
+	 *            the number of checks between two readings of the clock.
+	 */
+	public void setTimeCheckInterval(int interval) {
+		if (interval <= 0)
+			throw new IllegalArgumentException("Time check interval must be positive, got " + interval);
+		timeCheckInterval = interval;
+		timeCheckCountdown = 0;
+	}
+
+	/**
+	 * It returns how many checks of limits are performed between two readings 
+	 * of the clock.
+	 * @return the number of checks between two readings of the clock.
+	 */
+	public int getTimeCheckInterval() {
+		return timeCheckInterval;
+	}
+
+	public void setCancellationToken(CancellationToken token) {
+		cancellationToken = token;
+		if (token != null)
+			check = true;
+	}
+
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
 	}
 
 	/**
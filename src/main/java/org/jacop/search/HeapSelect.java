@@ -0,0 +1,612 @@
+/**
+ *  HeapSelect.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import org.jacop.constraints.Constraint;
+import org.jacop.constraints.PrimitiveConstraint;
+import org.jacop.core.Domain;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * It is a selector of variables which keeps not grounded variables in an 
+ * indexed binary heap ordered by the metric of the variable comparator. The 
+ * metric of a variable is recomputed only if the variable has changed, so 
+ * selecting a variable costs O(k log n) where k is the number of variables 
+ * changed since the last selection, instead of O(n) of SimpleSelect. 
+ * 
+ * Changes are delivered to a listener registered in dispatch arrays of the 
+ * variables (Store.registerEvents) with an empty event mask, so the listener is 
+ * never scheduled for reevaluation. Every change of the heap is trailed and 
+ * undone when the level is removed. Ties are broken by the metric of the tie 
+ * breaking comparator (if given) and then by the input order of variables.
+ * 
+ * The comparators must compute the metric from the domain of the variable only
+ * (e.g. SmallestDomain, SmallestMin, LargestMax, MaxRegret), as the metric is 
+ * not recomputed when the variable has not changed. Comparators which depend 
+ * on the number of constraints or their weights should be used with SimpleSelect.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of variable being used in the search.
+ */
+
+public class HeapSelect<T extends Var> implements SelectChoicePoint<T> {
+
+	Store store;
+
+	T[] searchVariables;
+
+	ComparatorVariable<T> variableOrdering;
+
+	ComparatorVariable<T> tieBreakingComparator = null;
+
+	Indomain<T> valueOrdering;
+
+	/**
+	 * It stores the original positions of variables.
+	 */
+	public IdentityHashMap<T, Integer> position;
+
+	/**
+	 * It specifies if smaller metric of the variable comparator is preferred.
+	 */
+	boolean smallerIsBetter;
+
+	/**
+	 * It specifies if smaller metric of the tie breaking comparator is preferred.
+	 */
+	boolean tieSmallerIsBetter;
+
+	/**
+	 * The metric of the variable comparator for each variable.
+	 */
+	float[] keys;
+
+	/**
+	 * The metric of the tie breaking comparator for each variable.
+	 */
+	float[] tieKeys;
+
+	/**
+	 * The heap of positions of variables, the best variable is at the root.
+	 */
+	int[] heap;
+
+	int heapSize = 0;
+
+	/**
+	 * The position of each variable within heap, -1 if the variable is not in the heap.
+	 */
+	int[] heapPosition;
+
+	/**
+	 * It specifies for each variable if it has changed since the last selection.
+	 */
+	boolean[] changed;
+
+	/**
+	 * The positions of the variables which have changed since the last selection.
+	 */
+	int[] changedVariables;
+
+	int changedSize = 0;
+
+	/**
+	 * The trail of the heap, each entry keeps the variable, the level, the old 
+	 * keys and if the variable was in the heap.
+	 */
+	int[] trailVariable = new int[16];
+
+	int[] trailLevel = new int[16];
+
+	float[] trailKey = new float[16];
+
+	float[] trailTieKey = new float[16];
+
+	boolean[] trailInHeap = new boolean[16];
+
+	int trailSize = 0;
+
+	/**
+	 * The level at which listener has been registered at the variables, -1 if it is not registered.
+	 */
+	int registeredLevel = -1;
+
+	ChangeListener listener;
+
+	int currentIndex = 0;
+
+	/**
+	 * It constructs a heap based selection mechanism for choice points.
+	 * @param store the constraint store in which variables reside.
+	 * @param variables variables upon which the choice points are created.
+	 * @param varSelect the variable comparator to choose the variable.
+	 * @param indomain the value heuristic to choose a value for a given variable.
+	 */
+	public HeapSelect(Store store, T[] variables, ComparatorVariable<T> varSelect,
+			Indomain<T> indomain) {
+		this(store, variables, varSelect, null, indomain);
+	}
+
+	/**
+	 * It constructs a heap based selection mechanism for choice points.
+	 * @param store the constraint store in which variables reside.
+	 * @param variables variables upon which the choice points are created.
+	 * @param varSelect the main variable comparator.
+	 * @param tieBreakerVarSelect secondary variable comparator employed if the first one gives the same metric.
+	 * @param indomain the value heuristic to choose a value for a given variable.
+	 */
+	@SuppressWarnings("unchecked")
+	public HeapSelect(Store store, T[] variables, ComparatorVariable<T> varSelect,
+			ComparatorVariable<T> tieBreakerVarSelect, Indomain<T> indomain) {
+
+		this.store = store;
+
+		position = new IdentityHashMap<T, Integer>();
+
+		ArrayList<T> unique = new ArrayList<T>();
+		for (int i = 0; i < variables.length; i++)
+			if (position.get(variables[i]) == null) {
+				position.put(variables[i], unique.size());
+				unique.add(variables[i]);
+			}
+
+		searchVariables = unique.toArray((T[]) new Var[unique.size()]);
+
+		variableOrdering = varSelect;
+		tieBreakingComparator = tieBreakerVarSelect;
+		valueOrdering = indomain;
+
+		int n = searchVariables.length;
+
+		keys = new float[n];
+		tieKeys = new float[n];
+		heap = new int[n];
+		heapPosition = new int[n];
+		changed = new boolean[n];
+		changedVariables = new int[n];
+
+		if (n > 0) {
+			if (variableOrdering != null)
+				smallerIsBetter = smallerIsBetter(variableOrdering, searchVariables[0]);
+			if (tieBreakingComparator != null)
+				tieSmallerIsBetter = smallerIsBetter(tieBreakingComparator, searchVariables[0]);
+		}
+
+		listener = new ChangeListener();
+
+	}
+
+	/**
+	 * It finds out the direction of the comparator, as it only compares
+	 * a metric against a variable.
+	 */
+	private boolean smallerIsBetter(ComparatorVariable<T> comparator, T var) {
+
+		float metric = comparator.metric(var);
+		float delta = Math.max(1, Math.abs(metric));
+
+		return comparator.compare(metric + delta, var) < 0 || comparator.compare(metric - delta, var) > 0;
+
+	}
+
+	/**
+	 * It returns the variable with the best metric which is not grounded. The
+	 * parameter index is not used as the heap keeps the best variable at its root.
+	 */
+	public T getChoiceVariable(int index) {
+
+		if (registeredLevel == -1)
+			register();
+		else
+			update();
+
+		if (heapSize == 0)
+			return null;
+
+		currentIndex = heap[0];
+
+		return searchVariables[currentIndex];
+
+	}
+
+	/**
+	 * It registers the listener at all variables at the current level and 
+	 * builds the heap from scratch, as changes which occurred when the listener 
+	 * was not registered are not known.
+	 */
+	void register() {
+
+		registeredLevel = store.level;
+
+		store.registerRemoveLevelListener(listener);
+		for (int i = 0; i < searchVariables.length; i++)
+			store.registerEvents(searchVariables[i], listener, 0, -1, i);
+
+		trailSize = 0;
+		changedSize = 0;
+		heapSize = 0;
+
+		for (int i = 0; i < searchVariables.length; i++) {
+
+			changed[i] = false;
+
+			if (searchVariables[i].singleton()) {
+				heapPosition[i] = -1;
+				continue;
+			}
+
+			computeKeys(i);
+			heap[heapSize] = i;
+			heapPosition[i] = heapSize++;
+
+		}
+
+		for (int i = heapSize / 2 - 1; i >= 0; i--)
+			siftDown(i);
+
+	}
+
+	/**
+	 * It updates the heap for all variables which have changed.
+	 */
+	void update() {
+
+		for (int k = 0; k < changedSize; k++) {
+
+			int i = changedVariables[k];
+			changed[i] = false;
+
+			boolean inHeap = heapPosition[i] != -1;
+
+			if (searchVariables[i].singleton()) {
+
+				if (inHeap) {
+					record(i);
+					remove(i);
+				}
+				continue;
+
+			}
+
+			T var = searchVariables[i];
+			float key = variableOrdering != null ? variableOrdering.metric(var) : 0;
+			float tieKey = tieBreakingComparator != null ? tieBreakingComparator.metric(var) : 0;
+
+			if (inHeap && key == keys[i] && tieKey == tieKeys[i])
+				continue;
+
+			record(i);
+			keys[i] = key;
+			tieKeys[i] = tieKey;
+
+			if (inHeap)
+				fix(i);
+			else
+				insert(i);
+
+		}
+
+		changedSize = 0;
+
+	}
+
+	void computeKeys(int i) {
+
+		if (variableOrdering != null)
+			keys[i] = variableOrdering.metric(searchVariables[i]);
+		if (tieBreakingComparator != null)
+			tieKeys[i] = tieBreakingComparator.metric(searchVariables[i]);
+
+	}
+
+	void markChanged(int i) {
+
+		if (!changed[i]) {
+			changed[i] = true;
+			changedVariables[changedSize++] = i;
+		}
+
+	}
+
+	/**
+	 * It records the keys and the heap membership of a variable before they change.
+	 */
+	void record(int i) {
+
+		if (trailSize == trailVariable.length) {
+
+			int newCapacity = trailSize * 2;
+
+			int[] oldVariable = trailVariable;
+			trailVariable = new int[newCapacity];
+			System.arraycopy(oldVariable, 0, trailVariable, 0, trailSize);
+
+			int[] oldLevel = trailLevel;
+			trailLevel = new int[newCapacity];
+			System.arraycopy(oldLevel, 0, trailLevel, 0, trailSize);
+
+			float[] oldKey = trailKey;
+			trailKey = new float[newCapacity];
+			System.arraycopy(oldKey, 0, trailKey, 0, trailSize);
+
+			float[] oldTieKey = trailTieKey;
+			trailTieKey = new float[newCapacity];
+			System.arraycopy(oldTieKey, 0, trailTieKey, 0, trailSize);
+
+			boolean[] oldInHeap = trailInHeap;
+			trailInHeap = new boolean[newCapacity];
+			System.arraycopy(oldInHeap, 0, trailInHeap, 0, trailSize);
+
+		}
+
+		trailVariable[trailSize] = i;
+		trailLevel[trailSize] = store.level;
+		trailKey[trailSize] = keys[i];
+		trailTieKey[trailSize] = tieKeys[i];
+		trailInHeap[trailSize] = heapPosition[i] != -1;
+		trailSize++;
+
+	}
+
+	/**
+	 * It restores the heap to the state before the given level. The restored 
+	 * variables are checked again at the next selection, as they may have 
+	 * changed at earlier levels after they were recorded.
+	 */
+	void removeLevel(int level) {
+
+		if (level <= registeredLevel) {
+			registeredLevel = -1;
+			return;
+		}
+
+		while (trailSize > 0 && trailLevel[trailSize - 1] >= level) {
+
+			trailSize--;
+			int i = trailVariable[trailSize];
+
+			keys[i] = trailKey[trailSize];
+			tieKeys[i] = trailTieKey[trailSize];
+
+			if (!trailInHeap[trailSize])
+				remove(i);
+			else if (heapPosition[i] == -1)
+				insert(i);
+			else
+				fix(i);
+
+			markChanged(i);
+
+		}
+
+	}
+
+	/**
+	 * It checks if the variable at position i is preferred over the variable at position j.
+	 */
+	boolean better(int i, int j) {
+
+		if (keys[i] != keys[j])
+			return (keys[i] < keys[j]) == smallerIsBetter;
+
+		if (tieKeys[i] != tieKeys[j])
+			return (tieKeys[i] < tieKeys[j]) == tieSmallerIsBetter;
+
+		return i < j;
+
+	}
+
+	void insert(int i) {
+
+		heap[heapSize] = i;
+		heapPosition[i] = heapSize;
+		siftUp(heapSize++);
+
+	}
+
+	void remove(int i) {
+
+		int hole = heapPosition[i];
+		if (hole == -1)
+			return;
+
+		heapPosition[i] = -1;
+		heapSize--;
+
+		if (hole == heapSize)
+			return;
+
+		int last = heap[heapSize];
+		heap[hole] = last;
+		heapPosition[last] = hole;
+		fix(last);
+
+	}
+
+	void fix(int i) {
+
+		int current = heapPosition[i];
+		siftUp(current);
+		if (heap[current] == i)
+			siftDown(current);
+
+	}
+
+	void siftUp(int current) {
+
+		int i = heap[current];
+
+		while (current > 0) {
+
+			int parent = (current - 1) >> 1;
+			if (!better(i, heap[parent]))
+				break;
+
+			heap[current] = heap[parent];
+			heapPosition[heap[current]] = current;
+			current = parent;
+
+		}
+
+		heap[current] = i;
+		heapPosition[i] = current;
+
+	}
+
+	void siftDown(int current) {
+
+		int i = heap[current];
+
+		while (true) {
+
+			int child = 2 * current + 1;
+			if (child >= heapSize)
+				break;
+
+			if (child + 1 < heapSize && better(heap[child + 1], heap[child]))
+				child++;
+
+			if (!better(heap[child], i))
+				break;
+
+			heap[current] = heap[child];
+			heapPosition[heap[current]] = current;
+			current = child;
+
+		}
+
+		heap[current] = i;
+		heapPosition[i] = current;
+
+	}
+
+	public int getChoiceValue() {
+
+		assert (currentIndex >= 0);
+		assert (currentIndex < searchVariables.length);
+
+		return valueOrdering.indomain(searchVariables[currentIndex]);
+
+	}
+
+	/**
+	 * It always returns null as choice point is obtained by getChoiceVariable
+	 * and getChoiceValue.
+	 */
+	public PrimitiveConstraint getChoiceConstraint(int index) {
+		return null;
+	}
+
+	public IdentityHashMap<T, Integer> getVariablesMapping() {
+		return position;
+	}
+
+	public int getIndex() {
+		return currentIndex;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer result = new StringBuffer("HeapSelect[");
+
+		for (int k = 0; k < heapSize; k++) {
+			if (k > 0)
+				result.append(", ");
+			result.append(searchVariables[heap[k]].id());
+		}
+
+		result.append("]");
+		return result.toString();
+
+	}
+
+	/**
+	 * It is informed about the changes of the variables and about the removed 
+	 * levels. It does not constrain the variables and it is never imposed.
+	 */
+	class ChangeListener extends Constraint {
+
+		@Override
+		public void queueVariable(int level, Var var, int index) {
+			markChanged(index);
+		}
+
+		@Override
+		public void removeLevel(int level) {
+			HeapSelect.this.removeLevel(level);
+		}
+
+		@Override
+		public ArrayList<Var> arguments() {
+			return new ArrayList<Var>(position.keySet());
+		}
+
+		@Override
+		public void consistency(Store store) {
+		}
+
+		@Override
+		public int getConsistencyPruningEvent(Var var) {
+			return Domain.NONE;
+		}
+
+		@Override
+		public void impose(Store store) {
+		}
+
+		@Override
+		public void removeConstraint() {
+		}
+
+		@Override
+		public boolean satisfied() {
+			return false;
+		}
+
+		@Override
+		public void increaseWeight() {
+		}
+
+		@Override
+		public String toString() {
+			return id() + " : HeapSelect listener";
+		}
+
+	}
+
+}
@@ -0,0 +1,145 @@
+/**
+ *  IndomainActivity.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.search;
+
+import java.util.Random;
+
+import org.jacop.core.FailException;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * It implements value ordering based on activities. The activity of the 
+ * assignment is the number of pruning events caused by the assignment. The 
+ * value with the smallest activity is chosen. It is used together with 
+ * variable ordering MostActive. 
+ * 
+ * Activities can be initialized before the search by random probing, which 
+ * also initializes the activities of variables if the store manages them.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of variable being used in the search.
+ */
+
+public class IndomainActivity<T extends IntVar> extends IndomainStatistics<T> {
+
+	/**
+	 * It creates activity based value ordering. It switches on activity 
+	 * management in the store, as pruning events are counted only then.
+	 * @param vars the search variables.
+	 */
+	public IndomainActivity(T[] vars) {
+		super(vars);
+		if (vars.length > 0)
+			vars[0].store.variableActivityManagement = true;
+	}
+
+	double observe() {
+
+		if (vars.length == 0)
+			return 0;
+
+		return vars[0].store.pruningEvents;
+
+	}
+
+	double measure(double before, boolean consistent) {
+
+		return observe() - before;
+
+	}
+
+	/**
+	 * It initializes the activities by a number of random dives from the current 
+	 * search node. Each dive assigns random values to random variables until 
+	 * failure or until all variables are assigned.
+	 * 
+	 * @param dives the number of dives.
+	 * @param seed the seed of the random generator.
+	 */
+	public void initialize(int dives, long seed) {
+
+		if (vars.length == 0)
+			return;
+
+		Random random = new Random(seed);
+		Store store = vars[0].store;
+		int level = store.level;
+
+		int[] free = new int[vars.length];
+
+		for (int dive = 0; dive < dives; dive++) {
+
+			boolean consistent = true;
+
+			while (consistent) {
+
+				int size = 0;
+				for (int i = 0; i < vars.length; i++)
+					if (!vars[i].singleton())
+						free[size++] = i;
+
+				if (size == 0)
+					break;
+
+				int no = free[random.nextInt(size)];
+				T var = vars[no];
+				int value = var.domain.getElementAt(random.nextInt(var.getSize()));
+
+				double before = observe();
+
+				store.setLevel(store.level + 1);
+
+				try {
+					var.domain.in(store.level, var, value, value);
+					consistent = store.consistency();
+				} catch (FailException f) {
+					consistent = false;
+				}
+
+				if (statistics[no] != null)
+					record(no, value, measure(before, consistent));
+
+			}
+
+			while (store.level > level) {
+				store.removeLevel(store.level);
+				store.setLevel(store.level - 1);
+			}
+
+		}
+
+	}
+
+}
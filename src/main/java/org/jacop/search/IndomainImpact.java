@@ -0,0 +1,135 @@
+/**
+ *  IndomainImpact.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.search;
+
+import org.jacop.core.IntVar;
+
+/**
+ * It implements value ordering based on impacts. The impact of the assignment 
+ * is the relative reduction of the search space (the product of domain sizes of 
+ * the search variables) caused by the assignment, a failure has impact 1. The 
+ * value with the smallest impact is chosen. It is used together with variable 
+ * ordering LargestImpact. 
+ * 
+ * Impacts can be initialized before the search by probing all the values of 
+ * the variables.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of variable being used in the search.
+ */
+
+public class IndomainImpact<T extends IntVar> extends IndomainStatistics<T> {
+
+	/**
+	 * It creates impact based value ordering.
+	 * @param vars the search variables, the search space is measured by their domains.
+	 */
+	public IndomainImpact(T[] vars) {
+		super(vars);
+	}
+
+	/**
+	 * It returns the logarithm of the size of the search space.
+	 */
+	double observe() {
+
+		double result = 0;
+		for (int i = 0; i < vars.length; i++)
+			result += Math.log(vars[i].getSize());
+
+		return result;
+
+	}
+
+	double measure(double before, boolean consistent) {
+
+		if (!consistent)
+			return 1;
+
+		return 1 - Math.exp(observe() - before);
+
+	}
+
+	/**
+	 * It initializes the impacts by assigning each value of each variable in 
+	 * the current search node. 
+	 */
+	public void initialize() {
+
+		for (int i = 0; i < vars.length; i++) {
+
+			T var = vars[i];
+
+			if (var.singleton() || statistics[i] == null)
+				continue;
+
+			int max = var.max();
+			for (int value = var.min(); ; value = var.domain.nextValue(value)) {
+				probe(i, value);
+				if (value >= max)
+					break;
+			}
+
+		}
+
+	}
+
+	/**
+	 * It returns the search space which remains after all values of the variable 
+	 * are tried, relative to the current search space. It is the sum of 
+	 * (1 - impact) over the values of the variable.
+	 * 
+	 * @param var the variable.
+	 * @return the relative size of the remaining search space.
+	 */
+	public double remainingSpace(T var) {
+
+		Integer no = position.get(var);
+
+		if (no == null || statistics[no] == null)
+			return var.getSize();
+
+		double result = 0;
+		int max = var.max();
+		for (int value = var.min(); ; value = var.domain.nextValue(value)) {
+			result += 1 - statistic(no, value);
+			if (value >= max)
+				break;
+		}
+
+		return result;
+
+	}
+
+}
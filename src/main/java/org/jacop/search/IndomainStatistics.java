@@ -0,0 +1,284 @@
+/**
+ *  IndomainStatistics.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.search;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import org.jacop.core.FailException;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * It defines a value ordering based on statistics of assignments observed 
+ * during search. The value with the smallest statistic is chosen, values 
+ * which have not been observed yet have statistic equal to zero. 
+ * 
+ * The assignment (the value returned by indomain) is observed by the consistency 
+ * listener, which is executed by search after consistency of the node in which 
+ * the assignment has been made. Therefore this object has to be set as a 
+ * consistency listener of the search (or a child of one).
+ * 
+ * Statistics are kept only for the search variables given in the constructor and
+ * for the values of their initial domains, if the initial domain is not larger 
+ * than maxDomainSize.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of variable being used in the search.
+ */
+
+public abstract class IndomainStatistics<T extends IntVar> implements Indomain<T>, ConsistencyListener {
+
+	/**
+	 * It specifies the weight of a new observation, the statistic becomes 
+	 * (1 - alpha) * statistic + alpha * observation. The first observation 
+	 * becomes the statistic.
+	 */
+	public double alpha = 0.25;
+
+	/**
+	 * It specifies the maximal size of the initial domain of the variable for 
+	 * which the statistics of values are kept. 
+	 */
+	public static int maxDomainSize = 65536;
+
+	/**
+	 * The variables for which statistics are kept.
+	 */
+	T[] vars;
+
+	IdentityHashMap<T, Integer> position;
+
+	/**
+	 * It specifies for each variable the value stored at the first position of its statistics.
+	 */
+	int[] offsets;
+
+	/**
+	 * It stores for each variable the statistic of each value, NaN if the value has
+	 * not been observed yet.
+	 */
+	double[][] statistics;
+
+	/**
+	 * The position of the variable of the observed assignment, -1 if there is none.
+	 */
+	int pending = -1;
+
+	int pendingValue;
+
+	double pendingObservation;
+
+	ConsistencyListener[] children;
+
+	/**
+	 * It creates statistics based value ordering.
+	 * @param vars the variables for which statistics are kept.
+	 */
+	public IndomainStatistics(T[] vars) {
+
+		this.vars = vars;
+
+		position = new IdentityHashMap<T, Integer>();
+		offsets = new int[vars.length];
+		statistics = new double[vars.length][];
+
+		for (int i = 0; i < vars.length; i++) {
+			position.put(vars[i], i);
+			offsets[i] = vars[i].min();
+			long size = (long) vars[i].max() - vars[i].min() + 1;
+			if (size <= maxDomainSize) {
+				statistics[i] = new double[(int) size];
+				Arrays.fill(statistics[i], Double.NaN);
+			}
+		}
+
+	}
+
+	/**
+	 * It returns the value of the observed quantity in the current search node.
+	 */
+	abstract double observe();
+
+	/**
+	 * It computes the observation of the assignment.
+	 * @param before the value of the observed quantity before the assignment.
+	 * @param consistent true if the store is consistent after the assignment.
+	 */
+	abstract double measure(double before, boolean consistent);
+
+	public int indomain(T var) {
+
+		assert (!var.singleton()) : "Indomain should not be called with singleton domain";
+
+		Integer no = position.get(var);
+
+		int value = var.min();
+
+		if (no != null && statistics[no] != null) {
+
+			double best = statistic(no, value);
+			int max = var.max();
+			for (int current = value; current < max; ) {
+				current = var.domain.nextValue(current);
+				double metric = statistic(no, current);
+				if (metric < best) {
+					best = metric;
+					value = current;
+				}
+			}
+
+			pending = no;
+			pendingValue = value;
+			pendingObservation = observe();
+
+		}
+
+		return value;
+
+	}
+
+	public boolean executeAfterConsistency(boolean consistent) {
+
+		if (pending != -1) {
+			record(pending, pendingValue, measure(pendingObservation, consistent));
+			pending = -1;
+		}
+
+		if (children != null) {
+			boolean code = false;
+			for (int i = 0; i < children.length; i++)
+				code |= children[i].executeAfterConsistency(consistent);
+			return code;
+		}
+
+		return consistent;
+
+	}
+
+	public void setChildrenListeners(ConsistencyListener[] children) {
+		this.children = children;
+	}
+
+	public void setChildrenListeners(ConsistencyListener child) {
+		children = new ConsistencyListener[1];
+		children[0] = child;
+	}
+
+	/**
+	 * It returns the statistic of the assignment of the value to the variable.
+	 * @param var the variable.
+	 * @param value the value.
+	 * @return the statistic, zero if it is not known.
+	 */
+	public double statistic(T var, int value) {
+
+		Integer no = position.get(var);
+
+		if (no == null || statistics[no] == null)
+			return 0;
+
+		return statistic(no, value);
+
+	}
+
+	double statistic(int no, int value) {
+
+		int index = value - offsets[no];
+
+		if (index < 0 || index >= statistics[no].length)
+			return 0;
+
+		double result = statistics[no][index];
+
+		if (result != result)
+			return 0;
+
+		return result;
+
+	}
+
+	void record(int no, int value, double observation) {
+
+		int index = value - offsets[no];
+
+		if (index < 0 || index >= statistics[no].length)
+			return;
+
+		double old = statistics[no][index];
+
+		if (old != old)
+			statistics[no][index] = observation;
+		else
+			statistics[no][index] = (1 - alpha) * old + alpha * observation;
+
+	}
+
+	/**
+	 * It assigns the value to the variable at the next level of the store, 
+	 * executes consistency and records the observation. The store is restored
+	 * to the current level afterwards. 
+	 * 
+	 * @param no the position of the variable.
+	 * @param value the value assigned to the variable.
+	 * @return true if the store is consistent after the assignment, false otherwise.
+	 */
+	boolean probe(int no, int value) {
+
+		T var = vars[no];
+		Store store = var.store;
+
+		double before = observe();
+
+		store.setLevel(store.level + 1);
+
+		boolean consistent;
+		try {
+			var.domain.in(store.level, var, value, value);
+			consistent = store.consistency();
+		} catch (FailException f) {
+			consistent = false;
+		}
+
+		if (statistics[no] != null)
+			record(no, value, measure(before, consistent));
+
+		store.removeLevel(store.level);
+		store.setLevel(store.level - 1);
+
+		return consistent;
+
+	}
+
+}
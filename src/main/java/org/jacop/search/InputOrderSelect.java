@@ -37,7 +37,7 @@ import java.util.Map;
 
 import org.jacop.constraints.PrimitiveConstraint;
 import org.jacop.core.Store;
-import org.jacop.core.TimeStamp;
+import org.jacop.core.TimeStampInt;
 import org.jacop.core.Var;
 
 /**
@@ -56,7 +56,7 @@ public class InputOrderSelect<T extends Var> implements SelectChoicePoint<T> {
 
 	Indomain<T> valueOrdering;
 
-	TimeStamp<Integer> currentIndex;
+	TimeStampInt currentIndex;
 	
 	/**
 	 * It stores the original positions of variables to be used for input order
@@ -95,7 +95,7 @@ public class InputOrderSelect<T extends Var> implements SelectChoicePoint<T> {
 
 		valueOrdering = indomain;
 
-		currentIndex = new TimeStamp<Integer>(store, 0);
+		currentIndex = new TimeStampInt(store, 0);
 	}
 
 
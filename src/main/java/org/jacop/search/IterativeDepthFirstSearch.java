@@ -0,0 +1,352 @@
+/**
+ *  IterativeDepthFirstSearch.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.search;
+
+import org.jacop.constraints.Not;
+import org.jacop.constraints.PrimitiveConstraint;
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.SwitchesPruningLogging;
+import org.jacop.core.Var;
+import org.jacop.set.core.SetDomain;
+import org.jacop.set.core.SetVar;
+
+/**
+ * Implements Depth First Search without recursion. The choice points of the 
+ * current path are kept in array based stack, so the depth of the search is 
+ * limited only by the memory and not by the size of the Java stack. It explores
+ * the search tree in the same order as DepthFirstSearch, and it executes the 
+ * same listeners, child searches, and limits.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of variables used in this search. 
+ */
+
+public class IterativeDepthFirstSearch<T extends Var> extends DepthFirstSearch<T> {
+
+	// Results of processing a choice point.
+	static final int FAILED = 0;
+
+	static final int SUCCEEDED = 1;
+
+	static final int DESCEND = 2;
+
+	// Choice points, the argument of label, the decision made, and if 
+	// the right child is being explored.
+	int[] stackFirstVariable = new int[64];
+
+	Var[] stackVar = new Var[64];
+
+	int[] stackValue = new int[64];
+
+	PrimitiveConstraint[] stackChoice = new PrimitiveConstraint[64];
+
+	boolean[] stackRight = new boolean[64];
+
+	int stackSize = 0;
+
+	/**
+	 * It creates iterative depth first search.
+	 */
+	public IterativeDepthFirstSearch() {
+		super();
+	}
+
+	/**
+	 * It returns the number of choice points on the current search path.
+	 * @return the size of the stack.
+	 */
+	public int getStackSize() {
+		return stackSize;
+	}
+
+	void push(int firstVariable) {
+
+		if (stackSize == stackVar.length) {
+			int length = stackSize * 2;
+
+			int[] intTmp = new int[length];
+			System.arraycopy(stackFirstVariable, 0, intTmp, 0, stackSize);
+			stackFirstVariable = intTmp;
+
+			intTmp = new int[length];
+			System.arraycopy(stackValue, 0, intTmp, 0, stackSize);
+			stackValue = intTmp;
+
+			Var[] varTmp = new Var[length];
+			System.arraycopy(stackVar, 0, varTmp, 0, stackSize);
+			stackVar = varTmp;
+
+			PrimitiveConstraint[] choiceTmp = new PrimitiveConstraint[length];
+			System.arraycopy(stackChoice, 0, choiceTmp, 0, stackSize);
+			stackChoice = choiceTmp;
+
+			boolean[] booleanTmp = new boolean[length];
+			System.arraycopy(stackRight, 0, booleanTmp, 0, stackSize);
+			stackRight = booleanTmp;
+		}
+
+		stackFirstVariable[stackSize] = firstVariable;
+		stackVar[stackSize] = null;
+		stackChoice[stackSize] = null;
+		stackRight[stackSize] = false;
+		stackSize++;
+
+	}
+
+	void pop() {
+
+		stackSize--;
+		stackVar[stackSize] = null;
+		stackChoice[stackSize] = null;
+
+	}
+
+	/**
+	 * It assigns variables one by one, it keeps the choice points on the 
+	 * stack instead of calling itself recursively.
+	 */
+	@Override
+	public boolean label(int firstVariable) {
+
+		int bottom = stackSize;
+		push(firstVariable);
+
+		int code = DESCEND;
+
+		while (true) {
+
+			if (code == DESCEND) {
+				code = enter(stackSize - 1);
+				continue;
+			}
+
+			pop();
+
+			if (stackSize == bottom)
+				return code == SUCCEEDED;
+
+			int frame = stackSize - 1;
+
+			if (stackRight[frame])
+				code = exitRight(frame, code == SUCCEEDED);
+			else
+				code = exitLeft(frame, code == SUCCEEDED);
+
+		}
+
+	}
+
+	/**
+	 * It processes a new choice point, it corresponds to the part of the recursive 
+	 * label function before the left child is explored.
+	 */
+	int enter(int frame) {
+
+		if (check && limitsExceeded())
+			return FAILED;
+
+		// Instead of imposing constraint just restrict bounds
+		// -1 since costValue is the cost of last solution
+		if (optimize && cost != null && !restrictCost())
+			return FAILED;
+
+		// all search nodes begins here
+		nodes++;
+
+		boolean consistent = store.consistency();
+
+		if (consistencyListener != null)
+			consistent = consistencyListener.executeAfterConsistency(consistent);
+
+		if (!consistent) {
+			// Failed leaf of the search tree
+			wrongDecisions++;
+			return FAILED;
+		}
+
+		store.setLevel(++depth);
+		maxDepth = (depth > maxDepth) ? depth : maxDepth;
+
+		T fdv = heuristic.getChoiceVariable(stackFirstVariable[frame]);
+
+		if (fdv != null) {
+
+			int val = heuristic.getChoiceValue();
+			assert (store.currentConstraint == null);
+
+			if (fdv instanceof IntVar)
+				((IntDomain)fdv.dom()).inValue(store.level, (IntVar)fdv, val);
+
+			if (fdv instanceof SetVar)
+				if (einAinleftTree)
+					((SetDomain)fdv.dom()).inGLB(store.level, (SetVar)fdv, val);
+				else
+					((SetDomain)fdv.dom()).inLUBComplement(store.level, (SetVar)fdv, val);
+
+			stackVar[frame] = fdv;
+			stackValue[frame] = val;
+
+		} else {
+
+			PrimitiveConstraint choice = heuristic.getChoiceConstraint(stackFirstVariable[frame]);
+
+			if (choice == null)
+				return solutionNode() ? SUCCEEDED : FAILED;
+
+			assert (store.currentConstraint == null);
+			store.impose(choice);
+
+			stackChoice[frame] = choice;
+
+		}
+
+		decisions++;
+
+		depthExcludePaths++;
+		if (depthExcludePaths > maxDepthExcludePaths)
+			maxDepthExcludePaths = depthExcludePaths;
+
+		// choice point imposed.
+		push(heuristic.getIndex());
+
+		return DESCEND;
+
+	}
+
+	/**
+	 * It processes the result of the left child, it corresponds to the part of 
+	 * the recursive label function before the right child is explored.
+	 */
+	@SuppressWarnings("unchecked")
+	int exitLeft(int frame, boolean consistent) {
+
+		T fdv = (T) stackVar[frame];
+		int val = stackValue[frame];
+		PrimitiveConstraint choice = stackChoice[frame];
+
+		if (exitChildListener != null)
+			if ((choice == null && !exitChildListener.leftChild(fdv, val, consistent))
+					|| (choice != null && !exitChildListener.leftChild(choice, consistent))) {
+				store.removeLevel(depth);
+				store.setLevel(--depth);
+				depthExcludePaths--;
+				return FAILED;
+			}
+
+		if (consistent) {
+			store.removeLevel(depth);
+			store.setLevel(--depth);
+			depthExcludePaths--;
+			return SUCCEEDED;
+		}
+
+		// Assigning current variable to a value indicated by
+		// indomain result in a failure, this value is removed
+		// from the domain and the right child is explored with 
+		// the same firstVariable.
+
+		store.removeLevel(depth);
+
+		if (SwitchesPruningLogging.traceSearchTree) {
+			Object args[] = {depth, fdv, val};
+			SwitchesPruningLogging.log(choice == null, DepthFirstSearch.class, "Store level: {}, Right branch: {} \\ {}", args);
+			SwitchesPruningLogging.log(choice != null, DepthFirstSearch.class, "Store level: {}, Right branch: {}", depth, choice);
+		}
+
+		if (choice != null) {
+
+			assert (store.currentConstraint == null);
+
+			store.setLevel(store.level);
+			store.impose(new Not(choice));
+
+		}
+		else if (!fdv.dom().singleton()) {
+
+			assert (store.currentConstraint == null);
+
+			store.setLevel(store.level);
+
+			if (fdv instanceof IntVar)
+				((IntDomain)fdv.dom()).inComplement(store.level, (IntVar)fdv, val);
+
+			if (fdv instanceof SetVar)
+				if (einAinleftTree)
+					((SetDomain)fdv.dom()).inLUBComplement(store.level, (SetVar)fdv, val);
+				else	
+					((SetDomain)fdv.dom()).inGLB(store.level, (SetVar)fdv, val);
+
+		} else {
+
+			store.setLevel(--depth);
+			depthExcludePaths--;
+			return FAILED;
+
+		}
+
+		stackRight[frame] = true;
+		push(stackFirstVariable[frame]);
+
+		return DESCEND;
+
+	}
+
+	/**
+	 * It processes the result of the right child, it corresponds to the part of 
+	 * the recursive label function after the right child is explored.
+	 */
+	@SuppressWarnings("unchecked")
+	int exitRight(int frame, boolean consistent) {
+
+		if (exitChildListener != null) {
+			if (stackChoice[frame] != null)
+				exitChildListener.rightChild(stackChoice[frame], consistent);
+			else
+				exitChildListener.rightChild((T) stackVar[frame], stackValue[frame], consistent);
+		}
+
+		if (!consistent)
+			numberBacktracks++;
+
+		store.removeLevel(depth);
+
+		store.setLevel(--depth);
+		depthExcludePaths--;
+
+		return consistent ? SUCCEEDED : FAILED;
+
+	}
+
+}
@@ -0,0 +1,660 @@
+/**
+ *  LargeNeighbourhoodSearch.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import org.jacop.core.CancellationToken;
+import org.jacop.core.Domain;
+import org.jacop.core.FailException;
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * It implements large neighbourhood search for optimization problems. First, 
+ * a solution is found by depth first search. Next, at each iteration a subset 
+ * of variables is relaxed by one of the neighbourhood generators, the other 
+ * variables are fixed to their values in the best solution found so far. The 
+ * relaxed part is searched by depth first search, limited by the number of 
+ * backtracks, for a solution with a smaller cost.
+ * 
+ * All iterations take place in the same store, each iteration at its own store 
+ * level which is removed after the iteration, so the model does not have to be 
+ * created again. The neighbourhood generator is chosen at random with probability 
+ * proportional to its recent success. The number of relaxed variables is adapted, 
+ * it grows if the neighbourhood was explored completely without improvement and 
+ * it shrinks if the search of the neighbourhood has reached the backtracks limit.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class LargeNeighbourhoodSearch<T extends IntVar> implements Cancellable {
+
+	/**
+	 * It specifies the store within which the search is executed.
+	 */
+	Store store;
+
+	/**
+	 * It specifies the search variables.
+	 */
+	T[] vars;
+
+	/**
+	 * It specifies the position of the search variables within array vars.
+	 */
+	IdentityHashMap<Var, Integer> position;
+
+	/**
+	 * It specifies the choice point heuristic used at each iteration.
+	 */
+	SelectChoicePoint<T> select;
+
+	/**
+	 * It specifies the cost variable which is minimized.
+	 */
+	IntVar costVariable;
+
+	/**
+	 * It specifies the neighbourhood generators.
+	 */
+	ArrayList<Neighbourhood<T>> neighbourhoods = new ArrayList<Neighbourhood<T>>();
+
+	/**
+	 * It specifies the recent success of each neighbourhood generator.
+	 */
+	double[] weights;
+
+	/**
+	 * It specifies how fast the weights of neighbourhood generators follow their 
+	 * success.
+	 */
+	double decay = 0.2;
+
+	/**
+	 * It specifies the smallest weight of the neighbourhood generator, so every 
+	 * generator is still chosen from time to time.
+	 */
+	double minWeight = 0.05;
+
+	/**
+	 * It specifies the random generator used to choose the neighbourhoods.
+	 */
+	Random random = new Random(0);
+
+	/**
+	 * It specifies the number of backtracks after which the search of one 
+	 * neighbourhood is interrupted.
+	 */
+	long failLimit = 100;
+
+	/**
+	 * It specifies the number of iterations, -1 if there is no limit.
+	 */
+	int iterationsLimit = -1;
+
+	/**
+	 * It specifies the number of seconds after which the search exits, -1 if 
+	 * there is no time-out.
+	 */
+	long timeOut = -1;
+
+	/**
+	 * It allows to stop the search from another thread, null if not used.
+	 */
+	CancellationToken cancellationToken = null;
+
+	/**
+	 * It specifies the initial number of relaxed variables, -1 if it is 
+	 * one tenth of the variables.
+	 */
+	int initialSize = -1;
+
+	/**
+	 * It specifies the current number of relaxed variables.
+	 */
+	int size;
+
+	/**
+	 * It decides if the best solution is assigned to store after search exits.
+	 */
+	boolean assignSolution = true;
+
+	/**
+	 * It decides if information about search is printed.
+	 */
+	boolean printInfo = true;
+
+	/**
+	 * It stores the values of the search variables in the best solution.
+	 */
+	int[] solution;
+
+	/**
+	 * It stores the cost of the best solution.
+	 */
+	int costValue = Integer.MAX_VALUE;
+
+	/**
+	 * It specifies if the last iteration has explored its neighbourhood completely.
+	 */
+	boolean exhausted;
+
+	/**
+	 * It specifies if the best solution was proven to be optimal.
+	 */
+	boolean complete = false;
+
+	/**
+	 * It specifies if the search has exited due to time-out.
+	 */
+	public boolean timeOutOccured = false;
+
+	int iterations = 0;
+
+	int improvements = 0;
+
+	int nodes = 0;
+
+	int decisions = 0;
+
+	int wrongDecisions = 0;
+
+	int backtracks = 0;
+
+	/**
+	 * It creates large neighbourhood search with the input order and minimal 
+	 * value choice point heuristic.
+	 * 
+	 * @param store the store within which the search is executed.
+	 * @param vars the search variables.
+	 * @param costVar the cost variable which is minimized.
+	 */
+	public LargeNeighbourhoodSearch(Store store, T[] vars, IntVar costVar) {
+		this(store, vars, new SimpleSelect<T>(vars, null, new IndomainMin<T>()), costVar);
+	}
+
+	/**
+	 * It creates large neighbourhood search.
+	 * 
+	 * @param store the store within which the search is executed.
+	 * @param vars the search variables.
+	 * @param select the choice point heuristic, it has to label exactly the search variables.
+	 * @param costVar the cost variable which is minimized.
+	 */
+	public LargeNeighbourhoodSearch(Store store, T[] vars, SelectChoicePoint<T> select, IntVar costVar) {
+
+		this.store = store;
+		this.vars = vars;
+		this.select = select;
+		this.costVariable = costVar;
+
+		position = new IdentityHashMap<Var, Integer>();
+		for (int i = 0; i < vars.length; i++)
+			position.put(vars[i], i);
+
+	}
+
+	/**
+	 * It adds a neighbourhood generator. If no generator is added then random 
+	 * neighbourhood is used.
+	 * 
+	 * @param neighbourhood the neighbourhood generator.
+	 */
+	public void addNeighbourhood(Neighbourhood<T> neighbourhood) {
+		neighbourhoods.add(neighbourhood);
+	}
+
+	/**
+	 * It sets the number of backtracks after which the search of one neighbourhood
+	 * is interrupted.
+	 * @param limit the number of backtracks.
+	 */
+	public void setFailLimit(long limit) {
+		assert (limit > 0) : "The fail limit must be positive.";
+		failLimit = limit;
+	}
+
+	/**
+	 * It sets the number of iterations.
+	 * @param limit the number of iterations, -1 if there is no limit.
+	 */
+	public void setIterationsLimit(int limit) {
+		iterationsLimit = limit;
+	}
+
+	/**
+	 * It turns on the timeout.
+	 * @param out defines how many seconds before the search exits.
+	 */
+	public void setTimeOut(long out) {
+		timeOut = out;
+	}
+
+	/**
+	 * It sets the cancellation token which is passed to each search of a neighbourhood.
+	 * @param token the cancellation token, null if cancellation is not used.
+	 */
+	public void setCancellationToken(CancellationToken token) {
+		cancellationToken = token;
+	}
+
+	/**
+	 * It returns the cancellation token passed to each search of a neighbourhood.
+	 * @return the cancellation token, null if cancellation is not used.
+	 */
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * It sets the initial number of relaxed variables.
+	 * @param size the number of variables relaxed at the first iteration.
+	 */
+	public void setInitialSize(int size) {
+		assert (size > 0) : "At least one variable has to be relaxed.";
+		initialSize = size;
+	}
+
+	/**
+	 * It sets the seed of the random generator choosing the neighbourhoods.
+	 * @param seed the seed of the random generator.
+	 */
+	public void setSeed(long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * It decides if the best solution is assigned to store after search exits.
+	 * @param value defines if solution is assigned.
+	 */
+	public void setAssignSolution(boolean value) {
+		assignSolution = value;
+	}
+
+	/**
+	 * It decides if information about search is printed.
+	 * @param value defines if info is printed to standard output.
+	 */
+	public void setPrintInfo(boolean value) {
+		printInfo = value;
+	}
+
+	/**
+	 * It executes large neighbourhood search. 
+	 * 
+	 * @return true if a solution was found, false otherwise.
+	 */
+	public boolean labeling() {
+
+		if (neighbourhoods.isEmpty())
+			neighbourhoods.add(new RandomNeighbourhood<T>());
+
+		weights = new double[neighbourhoods.size()];
+		Arrays.fill(weights, 1.0);
+
+		size = initialSize > 0 ? initialSize : Math.max(1, vars.length / 10);
+		if (size > vars.length)
+			size = vars.length;
+
+		solution = null;
+		costValue = Integer.MAX_VALUE;
+		complete = false;
+		timeOutOccured = false;
+		iterations = 0;
+		improvements = 0;
+		nodes = 0;
+		decisions = 0;
+		wrongDecisions = 0;
+		backtracks = 0;
+
+		long deadline = timeOut > 0 ? System.nanoTime() + timeOut * 1000000000L : 0;
+
+		boolean[] relaxed = new boolean[vars.length];
+		Arrays.fill(relaxed, true);
+
+		// If constraints employ only one time execution of the part of
+		// the consistency technique then it is executed at its own level,
+		// as in DepthFirstSearch, below the levels of the iterations.
+		boolean consistent = true;
+		if (store.raiseLevelBeforeConsistency) {
+			store.raiseLevelBeforeConsistency = false;
+			store.setLevel(store.level + 1);
+			consistent = store.consistency();
+		}
+
+		if (consistent)
+			iterate(relaxed, -1, deadline, true);
+
+		if (solution == null)
+			complete = !timeOutOccured;
+
+		while (solution != null && !timeOutOccured) {
+
+			if (iterationsLimit >= 0 && iterations >= iterationsLimit)
+				break;
+
+			if (costVariable.min() > costValue - 1) {
+				complete = true;
+				break;
+			}
+
+			int no = chooseNeighbourhood();
+
+			Arrays.fill(relaxed, false);
+			neighbourhoods.get(no).relax(store, vars, solution, size, random, relaxed);
+
+			int relaxedNo = 0;
+			for (int i = 0; i < relaxed.length; i++)
+				if (relaxed[i])
+					relaxedNo++;
+
+			iterations++;
+			boolean improved = iterate(relaxed, failLimit, deadline, false);
+
+			weights[no] = Math.max(minWeight, (1 - decay) * weights[no] + (improved ? decay : 0));
+
+			if (improved)
+				improvements++;
+
+			if (exhausted) {
+				// the whole search space was explored.
+				if (relaxedNo == vars.length) {
+					complete = true;
+					break;
+				}
+				if (!improved)
+					size = Math.min(vars.length, size + Math.max(1, size / 10));
+			}
+			else if (!improved)
+				size = Math.max(1, size - Math.max(1, size / 10));
+
+		}
+
+		if (solution != null && assignSolution) {
+
+			for (int i = 0; i < vars.length; i++)
+				vars[i].domain.in(store.level, vars[i], solution[i], solution[i]);
+
+			store.consistency();
+
+		}
+
+		if (printInfo)
+			System.out.println(this);
+
+		return solution != null;
+
+	}
+
+	/**
+	 * It chooses the neighbourhood generator with probability proportional to 
+	 * its weight.
+	 * 
+	 * @return the position of the chosen neighbourhood generator.
+	 */
+	int chooseNeighbourhood() {
+
+		double sum = 0;
+		for (double w : weights)
+			sum += w;
+
+		double r = random.nextDouble() * sum;
+		for (int i = 0; i < weights.length - 1; i++) {
+			r -= weights[i];
+			if (r < 0)
+				return i;
+		}
+
+		return weights.length - 1;
+
+	}
+
+	/**
+	 * It searches one neighbourhood of the best solution. 
+	 * 
+	 * @param relaxed it specifies the variables which are not fixed.
+	 * @param limit the number of backtracks of the search, -1 if no limit.
+	 * @param deadline the time (System.nanoTime()) at which the search exits.
+	 * @param first true if only the first solution is searched for.
+	 * @return true if a better solution was found, false otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	boolean iterate(boolean[] relaxed, long limit, long deadline, boolean first) {
+
+		store.setLevel(store.level + 1);
+		int level = store.level;
+
+		boolean consistent = true;
+		try {
+			if (solution != null) {
+				costVariable.domain.in(level, costVariable, costVariable.min(), costValue - 1);
+				for (int i = 0; i < vars.length; i++)
+					if (!relaxed[i])
+						vars[i].domain.in(level, vars[i], solution[i], solution[i]);
+			}
+		} catch (FailException f) {
+			consistent = false;
+		}
+
+		boolean found = false;
+		exhausted = true;
+
+		if (consistent) {
+
+			DepthFirstSearch<T> search = new DepthFirstSearch<T>();
+			search.setPrintInfo(false);
+			search.setAssignSolution(false);
+			search.respectSolutionListenerAdvice = first;
+			if (limit > 0)
+				search.setBacktracksOut(limit);
+			if (timeOut > 0) {
+				search.check = true;
+				search.timeOutCheck = true;
+				search.timeOut = deadline;
+			}
+			search.setCancellationToken(cancellationToken);
+
+			CancellationToken previousToken = store.cancellationToken;
+			boolean failed = false;
+			try {
+				found = search.labeling(store, select, costVariable);
+			} catch (FailException f) {
+				// a decision has failed outside of consistency, the neighbourhood 
+				// is treated as failed but the solutions found so far are kept.
+				failed = true;
+				found = search.getSolutionListener().solutionsNo() > 0;
+				store.cancellationToken = previousToken;
+				store.clearChanged();
+				while (store.level > level) {
+					store.removeLevel(store.level);
+					store.setLevel(store.level - 1);
+				}
+			}
+
+			if (found) {
+
+				SimpleSolutionListener<T> listener = (SimpleSolutionListener<T>) search.getSolutionListener();
+				T[] solutionVars = listener.getVariables();
+				Domain[] domains = listener.getSolutions()[0];
+
+				if (solution == null)
+					solution = new int[vars.length];
+				for (int i = 0; i < solutionVars.length; i++) {
+					Integer no = position.get(solutionVars[i]);
+					if (no != null)
+						solution[no] = ((IntDomain) domains[i]).min();
+				}
+
+				costValue = search.getCostValue();
+
+			}
+
+			exhausted = !search.timeOutOccured && !failed;
+			if (search.timeOutOccured)
+				if ((timeOut > 0 && System.nanoTime() - deadline > 0)
+					|| (cancellationToken != null && cancellationToken.isCancelled()))
+					timeOutOccured = true;
+
+			nodes += search.getNodes();
+			decisions += search.getDecisions();
+			wrongDecisions += search.getWrongDecisions();
+			backtracks += search.getBacktracks();
+
+		}
+
+		store.removeLevel(level);
+		store.setLevel(level - 1);
+
+		return found;
+
+	}
+
+	/**
+	 * It returns the cost of the best solution.
+	 * @return the cost of the best solution, Integer.MAX_VALUE if no solution was found.
+	 */
+	public int getCostValue() {
+		return costValue;
+	}
+
+	/**
+	 * It returns the values of the search variables in the best solution.
+	 * @return the best solution, null if no solution was found.
+	 */
+	public int[] getSolution() {
+		return solution;
+	}
+
+	/**
+	 * It specifies if the best solution was proven optimal, or the problem 
+	 * was proven to have no solution.
+	 * @return true if the search was complete, false otherwise.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * It returns the number of iterations performed by the last search.
+	 * @return the number of iterations.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * It returns the number of iterations which have improved the solution.
+	 * @return the number of improving iterations.
+	 */
+	public int getImprovements() {
+		return improvements;
+	}
+
+	/**
+	 * It returns the current number of relaxed variables.
+	 * @return the size of the neighbourhood.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * It returns the number of nodes visited by all iterations.
+	 * @return the number of nodes.
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * It returns the number of decisions made by all iterations.
+	 * @return the number of decisions.
+	 */
+	public int getDecisions() {
+		return decisions;
+	}
+
+	/**
+	 * It returns the number of wrong decisions made by all iterations.
+	 * @return the number of wrong decisions.
+	 */
+	public int getWrongDecisions() {
+		return wrongDecisions;
+	}
+
+	/**
+	 * It returns the number of backtracks performed by all iterations.
+	 * @return the number of backtracks.
+	 */
+	public int getBacktracks() {
+		return backtracks;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer buf = new StringBuffer();
+
+		buf.append("Large Neighbourhood Search\n");
+
+		if (solution == null)
+			buf.append("No solution found.\n");
+		else
+			buf.append("Cost ").append(costValue).append(complete ? " (optimal)\n" : "\n");
+
+		if (timeOutOccured)
+			buf.append("Time-out " + timeOut + "s\n");
+
+		buf.append("Iterations : ").append(iterations).append("\n");
+		buf.append("Improvements : ").append(improvements).append("\n");
+		buf.append("Neighbourhood size : ").append(size).append("\n");
+		if (weights != null)
+			for (int i = 0; i < weights.length; i++)
+				buf.append("Neighbourhood ").append(neighbourhoods.get(i)).append(" weight : ").append((float) weights[i]).append("\n");
+		buf.append("Nodes : ").append(nodes).append("\n");
+		buf.append("Decisions : ").append(decisions).append("\n");
+		buf.append("Wrong Decisions : ").append(wrongDecisions).append("\n");
+		buf.append("Backtracks : ").append(backtracks).append("\n");
+
+		return buf.toString();
+
+	}
+
+}
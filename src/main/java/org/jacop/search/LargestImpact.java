@@ -0,0 +1,97 @@
+/**
+ *  LargestImpact.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.search;
+
+import org.jacop.core.IntVar;
+
+/**
+ * Defines a comparator for variables based on impacts of their values. The 
+ * comparator will choose the variable which leaves the smallest search space 
+ * after all its values are tried, i.e. the variable with the smallest sum of 
+ * (1 - impact) over its values. The impacts are measured by the value ordering 
+ * IndomainImpact.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of variable being compared.
+ */
+
+public class LargestImpact<T extends IntVar> implements ComparatorVariable<T> {
+
+	final IndomainImpact<T> impacts;
+
+	/**
+	 * It constructs an impact based comparator.
+	 * @param impacts the value ordering which measures the impacts.
+	 */
+	public LargestImpact(IndomainImpact<T> impacts) {
+		this.impacts = impacts;
+	}
+
+	public int compare(float left, T var) {
+
+		float right = metric(var);
+
+		if (left < right)
+			return 1;
+
+		if (left > right)
+			return -1;
+
+		return 0;
+
+	}
+
+	public int compare(T leftVar, T rightVar) {
+
+		double left = impacts.remainingSpace(leftVar);
+
+		double right = impacts.remainingSpace(rightVar);
+
+		if (left < right)
+			return 1;
+
+		if (left > right)
+			return -1;
+
+		return 0;
+
+	}
+
+	public float metric(T var) {
+
+		return (float) impacts.remainingSpace(var);
+
+	}
+
+}
@@ -0,0 +1,66 @@
+/**
+ *  Neighbourhood.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.Random;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * Defines an interface of a neighbourhood generator used by large neighbourhood 
+ * search. The generator chooses the variables which are relaxed in the next 
+ * iteration, all the other variables are fixed to their values in the best 
+ * solution found so far.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public interface Neighbourhood<T extends IntVar> {
+
+	/**
+	 * It chooses the variables which are relaxed. The store is in the state before 
+	 * any variable is fixed, the generator may raise the store level to probe the 
+	 * model but it has to remove all the levels it has created.
+	 * 
+	 * @param store the store containing the variables.
+	 * @param vars the search variables.
+	 * @param solution the values of the search variables in the best solution.
+	 * @param size the number of variables which should be relaxed.
+	 * @param random the random generator used to diversify the neighbourhoods.
+	 * @param relaxed it is set to true at the positions of the relaxed variables.
+	 */
+	public void relax(Store store, T[] vars, int[] solution, int size, Random random, boolean[] relaxed);
+
+}
@@ -33,23 +33,26 @@ package org.jacop.search;
 
 import java.util.ArrayList;
 
-import org.jacop.constraints.NoGood;
+import org.jacop.constraints.NoGoodDatabase;
 import org.jacop.constraints.PrimitiveConstraint;
 import org.jacop.core.IntVar;
 import org.jacop.core.Store;
+import org.jacop.core.Var;
 
 /**
  * NoGoodCollector collects no-goods from search when timeout has occurred. As
  * time-out is executed the search will exit from deeper search levels and
  * no-goods collector will collect neccessary information to create no-goods
- * when finally exiting the search. The no-goods will be immmediately imposed
- * when collector is informed about exiting the search.
+ * when finally exiting the search. The no-goods will be immmediately added to
+ * the no-good database of the store (see NoGoodDatabase) when collector is 
+ * informed about exiting the search. Only no-goods consisting of IntVar 
+ * variables are added to the database.
  * 
  * @author Radoslaw Szymanek and Krzysztof Kuchcinski
  * @version 4.0
  */
 
-public class NoGoodsCollector<T extends IntVar> implements ExitChildListener<T>, TimeOutListener, ExitListener {
+public class NoGoodsCollector<T extends Var> implements ExitChildListener<T>, TimeOutListener, ExitListener {
 
 	ArrayList<ArrayList<T>> noGoodsVariables;
 
@@ -155,16 +158,36 @@ public class NoGoodsCollector<T extends IntVar> implements ExitChildListener<T>,
     public void executedAtExit(Store store, int solutionsNo) {
 
 		if (timeOut && solutionsNo == 0) {
-			for (int i = 0; i < noGoodsVariables.size(); i++)
-				store.impose(new NoGood(noGoodsVariables.get(i), noGoodsValues.get(i)));
+			NoGoodDatabase database = store.getNoGoodDatabase();
+			for (int i = 0; i < noGoodsVariables.size(); i++) {
+				ArrayList<IntVar> noGood = intVars(noGoodsVariables.get(i));
+				if (noGood != null)
+					database.addNoGood(noGood, noGoodsValues.get(i));
+			}
 
 		}
 
 		if (exitListeners != null)
-			for (int i = 0; i < exitChildListeners.length; i++)
+			for (int i = 0; i < exitListeners.length; i++)
 				exitListeners[i].executedAtExit(store, solutionsNo);
 	}
 
+	/**
+	 * It returns the variables of the no-good as IntVar variables, or null if 
+	 * the no-good contains a variable of other type.
+	 */
+	ArrayList<IntVar> intVars(ArrayList<T> noGood) {
+
+		ArrayList<IntVar> result = new ArrayList<IntVar>(noGood.size());
+		for (T var : noGood)
+			if (var instanceof IntVar)
+				result.add((IntVar) var);
+			else
+				return null;
+
+		return result;
+	}
+
 	public void setChildrenListeners(ExitChildListener<T>[] children) {
 		exitChildListeners = children;
 	}
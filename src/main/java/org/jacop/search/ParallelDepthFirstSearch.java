@@ -0,0 +1,982 @@
+/**
+ *  ParallelDepthFirstSearch.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jacop.constraints.Not;
+import org.jacop.constraints.PrimitiveConstraint;
+import org.jacop.core.CancellationToken;
+import org.jacop.core.Domain;
+import org.jacop.core.FailException;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * It implements depth first search which splits the search space between
+ * a number of workers. Each worker owns a replica of the model (see 
+ * StoreReplicaFactory) and explores its part of the search tree with an 
+ * explicit stack of binary decisions X = v / X != v. A worker which has run 
+ * out of work steals the open right branch (X != v) closest to the root from 
+ * one of the busy workers. The stolen branch is transferred as a decision path 
+ * (a sequence of X = v and X != v decisions from the root) which is replayed by 
+ * the thief in its own store replica.
+ * 
+ * The search can look for the first solution, all solutions or the optimal 
+ * solution. In case of optimization the cost of the best solution is shared 
+ * between workers and each search node is restricted to better solutions only.
+ * 
+ * The choice point heuristic may select constraints (e.g. SplitSelect) instead 
+ * of variables and values. Such choice points are explored as C / not(C) by the 
+ * worker which has created them. They can not be transferred between replicas, 
+ * so only the open right branches above the first constraint choice point of 
+ * a worker can be stolen.
+ * 
+ * An idle worker waits until a busy worker creates a decision which can be 
+ * stolen. The workers are stopped by a cancellation token, which is cancelled 
+ * when the search concludes, times out, or the token set by 
+ * setCancellationToken is cancelled.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class ParallelDepthFirstSearch<T extends IntVar> implements Cancellable {
+
+	/**
+	 * The left branch (X = v) of the decision is explored, right branch is still open.
+	 */
+	static final int LEFT = 0;
+
+	/**
+	 * The right branch (X != v) of the decision is explored.
+	 */
+	static final int RIGHT = 1;
+
+	/**
+	 * The left branch of the decision is explored, the right branch has been 
+	 * stolen by another worker.
+	 */
+	static final int STOLEN = 2;
+
+	/**
+	 * It specifies the factory used to create a model replica for each worker.
+	 */
+	StoreReplicaFactory<T> factory;
+
+	/**
+	 * It specifies the factory of the choice point heuristic used by workers. 
+	 */
+	SelectChoicePointFactory<T> heuristic;
+
+	/**
+	 * It specifies the number of workers.
+	 */
+	int workersNo = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * It specifies the number of seconds after which the search times out, -1 if 
+	 * there is no time-out.
+	 */
+	long timeOut = -1;
+
+	/**
+	 * It decides if information about search is printed.
+	 */
+	boolean printInfo = true;
+
+	/**
+	 * It specifies if all solutions are searched for.
+	 */
+	boolean searchAll = false;
+
+	/**
+	 * It guards the termination detection and work stealing.
+	 */
+	final Object lock = new Object();
+
+	/**
+	 * The number of workers which are exploring a part of the search tree.
+	 */
+	int busy = 0;
+
+	/**
+	 * The number of workers waiting for a decision which can be stolen.
+	 */
+	volatile int idle = 0;
+
+	/**
+	 * It allows to stop the search from another thread, null if not used.
+	 */
+	CancellationToken cancellationToken = null;
+
+	/**
+	 * It is shared by all workers and their stores. It is cancelled when the 
+	 * search has concluded or timed out, so all workers exit.
+	 */
+	CancellationToken stop;
+
+	/**
+	 * It specifies that the search has concluded before the search space was 
+	 * explored (the first solution was found or a worker has failed).
+	 */
+	boolean concluded = false;
+
+	/**
+	 * It specifies if the time-out has occurred.
+	 */
+	boolean timeOutOccured = false;
+
+	ArrayList<Worker> workers;
+
+	/**
+	 * The exception thrown by one of the workers. 
+	 */
+	Throwable failure;
+
+	/**
+	 * It stores the cost of the best solution found by any of the workers.
+	 */
+	final AtomicInteger bestCost = new AtomicInteger(Integer.MAX_VALUE);
+
+	/**
+	 * It stores the number of solutions found by all workers.
+	 */
+	final AtomicLong solutionsNo = new AtomicLong(0);
+
+	/**
+	 * The best (or the last in case of satisfaction problems) solution found.
+	 */
+	Domain[] solution;
+
+	/**
+	 * The variables for which the solution was recorded.
+	 */
+	T[] solutionVariables;
+
+	int nodes = 0;
+
+	int decisions = 0;
+
+	int wrongDecisions = 0;
+
+	int steals = 0;
+
+	/**
+	 * It creates parallel depth first search.
+	 * @param factory the factory creating a model replica for every worker.
+	 * @param heuristic the factory creating the choice point heuristic for every worker.
+	 */
+	public ParallelDepthFirstSearch(StoreReplicaFactory<T> factory, SelectChoicePointFactory<T> heuristic) {
+		this.factory = factory;
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * It sets the number of workers (threads). 
+	 * @param no the number of workers.
+	 */
+	public void setWorkers(int no) {
+		assert (no > 0) : "At least one worker is required.";
+		workersNo = no;
+	}
+
+	/**
+	 * It turns on the timeout.
+	 * @param out defines how many seconds before the search exits.
+	 */
+	public void setTimeOut(long out) {
+		timeOut = out;
+	}
+
+	/**
+	 * It decides if information about search is printed.
+	 * @param value defines if info is printed to standard output.
+	 */
+	public void setPrintInfo(boolean value) {
+		printInfo = value;
+	}
+
+	/**
+	 * It decides if all solutions are searched for. It is ignored for 
+	 * optimization problems.
+	 * @param status true if all solutions are searched for.
+	 */
+	public void searchAll(boolean status) {
+		searchAll = status;
+	}
+
+	/**
+	 * It executes the search. If the replicas specify the cost variable then
+	 * the optimal solution is searched for.
+	 * 
+	 * @return true if a solution was found, false otherwise.
+	 */
+	public boolean labeling() {
+
+		bestCost.set(Integer.MAX_VALUE);
+		solutionsNo.set(0);
+		solution = null;
+		solutionVariables = null;
+		failure = null;
+		concluded = false;
+		timeOutOccured = false;
+		idle = 0;
+		nodes = 0;
+		decisions = 0;
+		wrongDecisions = 0;
+		steals = 0;
+
+		stop = new CancellationToken(cancellationToken);
+		if (timeOut > 0)
+			stop.setTimeOutMillis(timeOut * 1000);
+
+		workers = new ArrayList<Worker>(workersNo);
+		for (int i = 0; i < workersNo; i++)
+			workers.add(new Worker(i));
+
+		// The first worker starts with the whole search tree.
+		busy = 1;
+		workers.get(0).task = new DecisionPath(0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(workersNo, new WorkerThreadFactory());
+
+		try {
+
+			ArrayList<Future<?>> results = new ArrayList<Future<?>>(workersNo);
+			for (int i = 0; i < workersNo; i++)
+				results.add(executor.submit(workers.get(i)));
+
+			for (Future<?> result : results)
+				result.get();
+
+		} catch (InterruptedException e) {
+			finish();
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			finish();
+			throw new RuntimeException("Parallel search worker has failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// The token was cancelled by the time-out or by the user.
+		if (!concluded && stop.isCancelled())
+			timeOutOccured = true;
+
+		if (failure != null)
+			throw new RuntimeException("Parallel search worker has failed", failure);
+
+		for (Worker worker : workers) {
+			nodes += worker.nodes;
+			decisions += worker.decisions;
+			wrongDecisions += worker.wrongDecisions;
+		}
+
+		if (printInfo)
+			System.out.println(this);
+
+		return solution != null;
+
+	}
+
+	public void setCancellationToken(CancellationToken token) {
+		cancellationToken = token;
+	}
+
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * It returns the best solution (the last solution for satisfaction problems).
+	 * @return the solution, null if no solution was found.
+	 */
+	public Domain[] getSolution() {
+		return solution;
+	}
+
+	/**
+	 * It returns the variables (of the replica which found the solution) in the 
+	 * order used by the solution.
+	 * @return search variables.
+	 */
+	public T[] getVariables() {
+		return solutionVariables;
+	}
+
+	/**
+	 * It returns the number of solutions found by all workers.
+	 * @return the number of solutions.
+	 */
+	public long getSolutionsNo() {
+		return solutionsNo.get();
+	}
+
+	/**
+	 * It returns the cost of the best solution.
+	 * @return the cost of the best solution, Integer.MAX_VALUE if no solution was found.
+	 */
+	public int getCostValue() {
+		return bestCost.get();
+	}
+
+	/**
+	 * It returns the number of search nodes explored by all workers.
+	 * @return number of search nodes.
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * It returns number of decisions performed by all workers.
+	 * @return the number of decisions.
+	 */
+	public int getDecisions() {
+		return decisions;
+	}
+
+	/**
+	 * It returns number of wrong decisions performed by all workers.
+	 * @return number of wrong decisions.
+	 */
+	public int getWrongDecisions() {
+		return wrongDecisions;
+	}
+
+	/**
+	 * It returns how many times a worker has stolen work from another worker.
+	 * @return number of steals.
+	 */
+	public int getSteals() {
+		return steals;
+	}
+
+	/**
+	 * It specifies if the time-out has occurred.
+	 * @return true if the search has timed out.
+	 */
+	public boolean timeOutOccured() {
+		return timeOutOccured;
+	}
+
+	/**
+	 * It records the solution found by a worker.
+	 */
+	synchronized void solutionFound(StoreReplica<T> replica) {
+
+		if (concluded)
+			return;
+
+		if (replica.cost != null) {
+			int value = replica.cost.min();
+			if (value >= bestCost.get())
+				return;
+			bestCost.set(value);
+		}
+
+		solutionsNo.incrementAndGet();
+
+		solution = new Domain[replica.vars.length];
+		for (int i = 0; i < replica.vars.length; i++)
+			solution[i] = replica.vars[i].dom().cloneLight();
+		solutionVariables = replica.vars;
+
+		if (replica.cost == null && !searchAll)
+			finish();
+
+	}
+
+	/**
+	 * It stops all the workers.
+	 */
+	synchronized void finish() {
+		concluded = true;
+		stop.cancel();
+		synchronized (lock) {
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * It wakes up the idle workers as a decision which can be stolen is available.
+	 */
+	void signal() {
+		synchronized (lock) {
+			lock.notifyAll();
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer buf = new StringBuffer();
+
+		buf.append("Parallel Depth First Search, workers : ").append(workersNo).append("\n");
+
+		if (solution == null)
+			buf.append("No solution found.\n");
+		else {
+			buf.append("Solutions : ").append(solutionsNo.get()).append("\n");
+			if (bestCost.get() != Integer.MAX_VALUE)
+				buf.append("Cost ").append(bestCost.get()).append("\n");
+		}
+
+		if (timeOutOccured)
+			buf.append("Time-out " + timeOut + "s\n");
+
+		buf.append("Nodes : ").append(nodes).append("\n");
+		buf.append("Decisions : ").append(decisions).append("\n");
+		buf.append("Wrong Decisions : ").append(wrongDecisions).append("\n");
+		buf.append("Steals : ").append(steals).append("\n");
+
+		return buf.toString();
+
+	}
+
+	/**
+	 * It is a sequence of decisions from the root of the search tree. Each decision 
+	 * is identified by the position of the variable within the search variables, 
+	 * the value, and the type of the decision (X = v or X != v).
+	 */
+	static class DecisionPath {
+
+		int[] vars;
+
+		int[] values;
+
+		boolean[] equal;
+
+		int size = 0;
+
+		DecisionPath(int capacity) {
+			vars = new int[capacity];
+			values = new int[capacity];
+			equal = new boolean[capacity];
+		}
+
+		void add(int var, int value, boolean isEqual) {
+			vars[size] = var;
+			values[size] = value;
+			equal[size] = isEqual;
+			size++;
+		}
+
+	}
+
+	/**
+	 * It explores tasks (parts of the search tree) using its own model replica.
+	 */
+	class Worker implements Runnable {
+
+		final int no;
+
+		StoreReplica<T> replica;
+
+		Store store;
+
+		SelectChoicePoint<T> select;
+
+		IdentityHashMap<IntVar, Integer> position;
+
+		int rootLevel;
+
+		/**
+		 * The task which will be explored next.
+		 */
+		DecisionPath task;
+
+		/**
+		 * The task currently explored, guarded by the worker.
+		 */
+		DecisionPath current;
+
+		/**
+		 * The decision stack, guarded by the worker as other workers may 
+		 * steal open right branches. A decision is either X = v / X != v, or 
+		 * C / not(C) if frameChoice is not null.
+		 */
+		int[] frameVar = new int[64];
+
+		int[] frameValue = new int[64];
+
+		int[] frameFirst = new int[64];
+
+		int[] frameState = new int[64];
+
+		PrimitiveConstraint[] frameChoice = new PrimitiveConstraint[64];
+
+		int frames = 0;
+
+		/**
+		 * The position of the lowest constraint choice point on the stack, 
+		 * frames if there is none. Only decisions below it can be stolen.
+		 */
+		int firstChoice = 0;
+
+		int nodes = 0;
+
+		int decisions = 0;
+
+		int wrongDecisions = 0;
+
+		Worker(int no) {
+			this.no = no;
+		}
+
+		/**
+		 * It creates the model replica and the choice point heuristic of the worker.
+		 */
+		void init() {
+
+			replica = factory.createReplica(no);
+			store = replica.store;
+			store.cancellationToken = stop;
+			select = heuristic.createSelect(replica.vars, no);
+
+			position = new IdentityHashMap<IntVar, Integer>();
+			for (int i = 0; i < replica.vars.length; i++)
+				position.put(replica.vars[i], i);
+
+		}
+
+		public void run() {
+
+			try {
+
+				init();
+
+				boolean consistent = store.consistency();
+				rootLevel = store.level;
+
+				while (true) {
+
+					if (task == null)
+						task = steal();
+
+					if (task == null)
+						break;
+
+					if (consistent && !stop.isCancelled())
+						explore(task);
+
+					task = null;
+
+					synchronized (lock) {
+						busy--;
+						if (busy == 0)
+							lock.notifyAll();
+					}
+
+				}
+
+			} catch (Throwable t) {
+				synchronized (ParallelDepthFirstSearch.this) {
+					if (failure == null)
+						failure = t;
+				}
+				finish();
+			}
+
+		}
+
+		/**
+		 * It obtains a new task from one of the busy workers. It waits until
+		 * a busy worker signals a decision which can be stolen or the search 
+		 * concludes.
+		 * @return the stolen task, null if the search has concluded.
+		 */
+		DecisionPath steal() {
+
+			boolean interrupted = false;
+
+			synchronized (lock) {
+
+				// busy workers signal new decisions only if some worker is idle, 
+				// idle is increased before the workers are checked so no signal is lost.
+				idle++;
+
+				try {
+
+					while (!interrupted) {
+
+						if (stop.isCancelled())
+							return null;
+
+						for (int i = 1; i < workersNo; i++) {
+							DecisionPath path = workers.get((no + i) % workersNo).split();
+							if (path != null) {
+								busy++;
+								steals++;
+								return path;
+							}
+						}
+
+						if (busy == 0)
+							return null;
+
+						try {
+							lock.wait();
+						} catch (InterruptedException e) {
+							interrupted = true;
+						}
+
+					}
+
+				} finally {
+					idle--;
+				}
+			}
+
+			// finish() takes the monitor of the search before lock, as solutionFound() 
+			// does, so it is called only after lock has been released.
+			finish();
+			Thread.currentThread().interrupt();
+			return null;
+
+		}
+
+		/**
+		 * It gives away the open right branch closest to the root.
+		 * @return the decision path leading to the right branch, null if there is no open right branch.
+		 */
+		synchronized DecisionPath split() {
+
+			for (int i = 0; i < firstChoice; i++)
+				if (frameState[i] == LEFT) {
+
+					DecisionPath path = new DecisionPath(current.size + i + 1);
+
+					for (int j = 0; j < current.size; j++)
+						path.add(current.vars[j], current.values[j], current.equal[j]);
+
+					for (int j = 0; j < i; j++)
+						path.add(frameVar[j], frameValue[j], frameState[j] != RIGHT);
+
+					path.add(frameVar[i], frameValue[i], false);
+
+					frameState[i] = STOLEN;
+
+					return path;
+				}
+
+			return null;
+		}
+
+		synchronized void push(int var, int value, PrimitiveConstraint choice, int first) {
+
+			if (frames == frameVar.length) {
+				int newCapacity = frames * 2;
+				frameVar = copy(frameVar, newCapacity);
+				frameValue = copy(frameValue, newCapacity);
+				frameFirst = copy(frameFirst, newCapacity);
+				frameState = copy(frameState, newCapacity);
+				PrimitiveConstraint[] oldChoice = frameChoice;
+				frameChoice = new PrimitiveConstraint[newCapacity];
+				System.arraycopy(oldChoice, 0, frameChoice, 0, oldChoice.length);
+			}
+
+			frameVar[frames] = var;
+			frameValue[frames] = value;
+			frameFirst[frames] = first;
+			frameState[frames] = LEFT;
+			frameChoice[frames] = choice;
+
+			if (choice == null && firstChoice == frames)
+				firstChoice++;
+
+			frames++;
+		}
+
+		/**
+		 * It removes the top decision from the stack.
+		 */
+		synchronized void pop() {
+
+			frames--;
+			frameChoice[frames] = null;
+
+			if (firstChoice > frames)
+				firstChoice = frames;
+		}
+
+		/**
+		 * It decides what to do with the top decision upon backtrack.
+		 * @return true if the right branch should be explored, false if the decision has been removed.
+		 */
+		synchronized boolean takeRightBranch() {
+
+			int top = frames - 1;
+
+			if (frameState[top] == LEFT) {
+				frameState[top] = RIGHT;
+				return true;
+			}
+
+			pop();
+			return false;
+		}
+
+		int[] copy(int[] array, int newCapacity) {
+			int[] result = new int[newCapacity];
+			System.arraycopy(array, 0, result, 0, array.length);
+			return result;
+		}
+
+		/**
+		 * It replays the decision path and explores the subtree below it.
+		 * @param path the decisions leading to the root of the subtree.
+		 */
+		void explore(DecisionPath path) {
+
+			int level = rootLevel + 1;
+			store.setLevel(level);
+
+			synchronized (this) {
+				current = path;
+				frames = 0;
+				firstChoice = 0;
+			}
+
+			boolean consistent = true;
+			try {
+				for (int i = 0; i < path.size; i++)
+					apply(replica.vars[path.vars[i]], path.values[i], path.equal[i]);
+			} catch (FailException f) {
+				consistent = false;
+			}
+
+			if (consistent)
+				consistent = propagate();
+
+			if (consistent)
+				dfs(level);
+
+			store.removeLevel(level);
+			store.setLevel(rootLevel);
+
+			synchronized (this) {
+				current = null;
+			}
+
+		}
+
+		/**
+		 * It explores the subtree rooted at the current (consistent) node. Upon exit
+		 * the store is at the same level as when the function was called.
+		 * @param base the store level of the root of the subtree.
+		 */
+		void dfs(int base) {
+
+			int first = 0;
+
+			node: while (true) {
+
+				nodes++;
+
+				if (stop.isCancelled()) {
+					while (frames > 0) {
+						store.removeLevel(base + frames);
+						pop();
+					}
+					store.setLevel(base);
+					return;
+				}
+
+				T var = select.getChoiceVariable(first);
+				PrimitiveConstraint choice = null;
+
+				if (var == null)
+					choice = select.getChoiceConstraint(first);
+
+				if (var == null && choice == null)
+					solutionFound(replica);
+				else {
+
+					boolean consistent;
+					int next;
+
+					if (var != null) {
+
+						int value = select.getChoiceValue();
+						next = select.getIndex();
+
+						push(position.get(var), value, null, first);
+
+						// the new decision can be stolen by an idle worker.
+						if (idle > 0 && firstChoice == frames)
+							signal();
+
+						store.setLevel(base + frames);
+						consistent = decide(var, value, true);
+
+					} else {
+
+						next = select.getIndex();
+
+						push(-1, 0, choice, first);
+						store.setLevel(base + frames);
+						consistent = decide(choice);
+
+					}
+
+					decisions++;
+
+					if (consistent) {
+						first = next;
+						continue node;
+					}
+
+					wrongDecisions++;
+				}
+
+				// backtrack
+				while (frames > 0) {
+
+					int childLevel = base + frames;
+					store.removeLevel(childLevel);
+
+					if (takeRightBranch()) {
+
+						store.setLevel(childLevel);
+
+						int top = frames - 1;
+						boolean consistent;
+						if (frameChoice[top] != null)
+							consistent = decide(new Not(frameChoice[top]));
+						else
+							consistent = decide(replica.vars[frameVar[top]], frameValue[top], false);
+
+						if (consistent) {
+							first = frameFirst[top];
+							continue node;
+						}
+
+						wrongDecisions++;
+
+					} else
+						store.setLevel(childLevel - 1);
+				}
+
+				return;
+			}
+
+		}
+
+		/**
+		 * It enforces the decision and the consistency of the store.
+		 * @return true if the store is consistent.
+		 */
+		boolean decide(IntVar var, int value, boolean equal) {
+
+			try {
+				apply(var, value, equal);
+			} catch (FailException f) {
+				return false;
+			}
+
+			return propagate();
+		}
+
+		/**
+		 * It imposes the constraint of the choice point and enforces the 
+		 * consistency of the store.
+		 * @return true if the store is consistent.
+		 */
+		boolean decide(PrimitiveConstraint choice) {
+
+			try {
+				store.impose(choice);
+			} catch (FailException f) {
+				return false;
+			}
+
+			return propagate();
+		}
+
+		void apply(IntVar var, int value, boolean equal) {
+			if (equal)
+				var.domain.in(store.level, var, value, value);
+			else
+				var.domain.inComplement(store.level, var, value);
+		}
+
+		/**
+		 * It restricts the cost variable by the best cost found so far and 
+		 * computes the consistency of the store.
+		 * @return true if the store is consistent.
+		 */
+		boolean propagate() {
+
+			IntVar cost = replica.cost;
+
+			if (cost != null) {
+				int bound = bestCost.get();
+				if (cost.max() >= bound)
+					try {
+						cost.domain.inMax(store.level, cost, bound - 1);
+					} catch (FailException f) {
+						return false;
+					}
+			}
+
+			return store.consistency();
+		}
+
+	}
+
+	/**
+	 * It creates daemon worker threads.
+	 */
+	class WorkerThreadFactory implements ThreadFactory {
+
+		int count = 0;
+
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "ParallelDFS" + count++);
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -0,0 +1,514 @@
+/**
+ *  ParallelShaving.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package org.jacop.search;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jacop.core.FailException;
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * It implements shaving executed before the search by a number of workers in 
+ * parallel. Each worker owns a replica of the model (see StoreReplicaFactory) 
+ * and probes the values of search variables in its own store. A value is 
+ * removed if assigning it to the variable makes the store inconsistent. 
+ * 
+ * Singleton arc consistency probes all the values of the variables, bounds 
+ * shaving probes only the minimal and maximal values. 
+ * 
+ * The shaving is done in rounds. In each round the variables are distributed 
+ * between the workers, the values removed by workers are then removed from the 
+ * master store and its consistency is executed. Before the next round each worker
+ * restricts the domains of its replica to the domains of the master store. 
+ * The rounds are repeated until no value is removed or the time-out occurs.
+ * 
+ * The search variables of the master store and of all replicas must be given 
+ * in the same order.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class ParallelShaving<T extends IntVar> {
+
+	/**
+	 * It specifies the factory used to create a model replica for each worker.
+	 */
+	StoreReplicaFactory<T> factory;
+
+	/**
+	 * It specifies the number of workers.
+	 */
+	int workersNo = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * It specifies if all values (singleton arc consistency) or only bounds 
+	 * of domains are probed.
+	 */
+	boolean singletonArcConsistency = true;
+
+	/**
+	 * It specifies the number of seconds after which the shaving stops, -1 if 
+	 * there is no time-out.
+	 */
+	long timeOut = -1;
+
+	/**
+	 * It specifies the maximal number of rounds, -1 if the rounds are 
+	 * repeated until no value is removed.
+	 */
+	int roundsLimit = -1;
+
+	/**
+	 * It decides if information about shaving is printed.
+	 */
+	boolean printInfo = false;
+
+	/**
+	 * The time point (System.nanoTime()) after which the shaving stops.
+	 */
+	long deadline;
+
+	/**
+	 * It specifies if the time-out has occurred.
+	 */
+	volatile boolean timeOutOccured = false;
+
+	/**
+	 * It specifies that one of the workers has proven the model inconsistent.
+	 */
+	volatile boolean inconsistent = false;
+
+	/**
+	 * The position of the next variable to be probed in the current round.
+	 */
+	final AtomicInteger nextVariable = new AtomicInteger(0);
+
+	/**
+	 * The domains of the master store at the beginning of the current round.
+	 */
+	IntDomain[] domains;
+
+	ArrayList<Worker> workers;
+
+	/**
+	 * The exception thrown by one of the workers. 
+	 */
+	Throwable failure;
+
+	int rounds = 0;
+
+	long probes = 0;
+
+	int removed = 0;
+
+	/**
+	 * It creates parallel shaving.
+	 * @param factory the factory creating a model replica for every worker.
+	 */
+	public ParallelShaving(StoreReplicaFactory<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * It sets the number of workers (threads). 
+	 * @param no the number of workers.
+	 */
+	public void setWorkers(int no) {
+		assert (no > 0) : "At least one worker is required.";
+		workersNo = no;
+	}
+
+	/**
+	 * It decides if all values of domains or only bounds are probed.
+	 * @param status true if all values are probed (singleton arc consistency), false if only bounds are probed.
+	 */
+	public void setSingletonArcConsistency(boolean status) {
+		singletonArcConsistency = status;
+	}
+
+	/**
+	 * It turns on the timeout.
+	 * @param out defines how many seconds before the shaving exits.
+	 */
+	public void setTimeOut(long out) {
+		timeOut = out;
+	}
+
+	/**
+	 * It sets the maximal number of rounds.
+	 * @param limit the maximal number of rounds, -1 if there is no limit.
+	 */
+	public void setRoundsLimit(int limit) {
+		roundsLimit = limit;
+	}
+
+	/**
+	 * It decides if information about shaving is printed.
+	 * @param value defines if info is printed to standard output.
+	 */
+	public void setPrintInfo(boolean value) {
+		printInfo = value;
+	}
+
+	/**
+	 * It shaves the domains of the variables of the master store. The values 
+	 * are removed at the current level of the master store, which is not 
+	 * changed otherwise, so the search can be started afterwards.
+	 * 
+	 * @param store the master store.
+	 * @param vars the search variables of the master store, in the same order as the variables of replicas.
+	 * @return false if the master store is inconsistent, true otherwise.
+	 */
+	public boolean shave(Store store, T[] vars) {
+
+		rounds = 0;
+		probes = 0;
+		removed = 0;
+		failure = null;
+		timeOutOccured = false;
+		inconsistent = false;
+
+		if (timeOut > 0)
+			deadline = System.nanoTime() + timeOut * 1000000000L;
+
+		if (!store.consistency())
+			return false;
+
+		if (workers == null || workers.size() != workersNo) {
+			workers = new ArrayList<Worker>(workersNo);
+			for (int i = 0; i < workersNo; i++)
+				workers.add(new Worker(i));
+		}
+
+		domains = new IntDomain[vars.length];
+
+		while (!timeOutOccured) {
+
+			if (roundsLimit >= 0 && rounds >= roundsLimit)
+				break;
+
+			rounds++;
+
+			for (int i = 0; i < vars.length; i++)
+				domains[i] = vars[i].dom().cloneLight();
+
+			nextVariable.set(0);
+
+			Thread[] threads = new Thread[workersNo];
+			for (int i = 0; i < workersNo; i++) {
+				threads[i] = new Thread(workers.get(i), "ParallelShaving" + i);
+				threads[i].setDaemon(true);
+				threads[i].start();
+			}
+
+			try {
+				for (int i = 0; i < workersNo; i++)
+					threads[i].join();
+			} catch (InterruptedException e) {
+				// the values removed in this round are not used.
+				timeOutOccured = true;
+				Thread.currentThread().interrupt();
+				return true;
+			}
+
+			if (failure != null)
+				throw new RuntimeException("Parallel shaving worker has failed", failure);
+
+			if (inconsistent)
+				return false;
+
+			int removedInRound = 0;
+
+			try {
+
+				for (Worker worker : workers) {
+					for (int i = 0; i < worker.pruned; i++) {
+						T var = vars[worker.prunedVars[i]];
+						int value = worker.prunedValues[i];
+						if (var.domain.contains(value)) {
+							var.domain.inComplement(store.level, var, value);
+							removedInRound++;
+						}
+					}
+					probes += worker.probes;
+				}
+
+			} catch (FailException f) {
+				return false;
+			}
+
+			if (!store.consistency())
+				return false;
+
+			removed += removedInRound;
+
+			if (removedInRound == 0)
+				break;
+
+		}
+
+		if (printInfo)
+			System.out.println(this);
+
+		return true;
+
+	}
+
+	/**
+	 * It returns the number of rounds executed by the last shaving.
+	 * @return number of rounds.
+	 */
+	public int getRounds() {
+		return rounds;
+	}
+
+	/**
+	 * It returns the number of probes executed by all workers.
+	 * @return number of probes.
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * It returns the number of values removed from the master store by probing. 
+	 * The values removed by consistency of the master store are not counted.
+	 * @return number of removed values.
+	 */
+	public int getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * It specifies if the time-out has occurred.
+	 * @return true if the shaving has timed out.
+	 */
+	public boolean timeOutOccured() {
+		return timeOutOccured;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer buf = new StringBuffer();
+
+		buf.append(singletonArcConsistency ? "Singleton arc consistency" : "Bounds shaving");
+		buf.append(", workers : ").append(workersNo).append("\n");
+
+		if (timeOutOccured)
+			buf.append("Time-out " + timeOut + "s\n");
+
+		buf.append("Rounds : ").append(rounds).append("\n");
+		buf.append("Probes : ").append(probes).append("\n");
+		buf.append("Removed values : ").append(removed).append("\n");
+
+		return buf.toString();
+
+	}
+
+	/**
+	 * It probes the variables using its own model replica.
+	 */
+	class Worker implements Runnable {
+
+		final int no;
+
+		StoreReplica<T> replica;
+
+		Store store;
+
+		int rootLevel;
+
+		/**
+		 * The variables and values removed in the current round.
+		 */
+		int[] prunedVars = new int[64];
+
+		int[] prunedValues = new int[64];
+
+		int pruned = 0;
+
+		long probes = 0;
+
+		Worker(int no) {
+			this.no = no;
+		}
+
+		public void run() {
+
+			pruned = 0;
+			probes = 0;
+
+			try {
+
+				if (replica == null) {
+					replica = factory.createReplica(no);
+					store = replica.store;
+
+					// If constraints employ only one time execution of the part of
+					// the consistency technique then it is executed at its own level,
+					// the domains are restricted and pruned only at the levels above.
+					if (store.raiseLevelBeforeConsistency) {
+						store.raiseLevelBeforeConsistency = false;
+						store.setLevel(store.level + 1);
+					}
+
+					if (!store.consistency()) {
+						// the replica is created again by the next shaving.
+						replica = null;
+						inconsistent = true;
+						return;
+					}
+
+					store.setLevel(store.level + 1);
+					rootLevel = store.level;
+				}
+
+				// the domains of the replica are restricted to the domains of the master store.
+				for (int i = 0; i < domains.length; i++)
+					replica.vars[i].domain.in(rootLevel, replica.vars[i], domains[i]);
+
+				if (!store.consistency()) {
+					inconsistent = true;
+					return;
+				}
+
+				int i;
+				while (!inconsistent && !timeOutOccured && (i = nextVariable.getAndIncrement()) < domains.length) {
+
+					T var = replica.vars[i];
+
+					if (singletonArcConsistency) {
+
+						int value = var.min();
+						while (!var.singleton()) {
+
+							if (var.domain.contains(value) && !probe(var, value))
+								remove(i, var, value);
+
+							if (value >= var.max() || inconsistent || timeOutOccured)
+								break;
+
+							value = var.domain.nextValue(value);
+
+						}
+
+					}
+					else {
+
+						while (!var.singleton() && !inconsistent && !timeOutOccured && !probe(var, var.min()))
+							remove(i, var, var.min());
+
+						while (!var.singleton() && !inconsistent && !timeOutOccured && !probe(var, var.max()))
+							remove(i, var, var.max());
+
+					}
+
+				}
+
+			} catch (FailException f) {
+				inconsistent = true;
+			} catch (Throwable t) {
+				synchronized (ParallelShaving.this) {
+					if (failure == null)
+						failure = t;
+				}
+				inconsistent = true;
+			}
+
+		}
+
+		/**
+		 * It checks if the store is consistent after the variable is assigned the value. 
+		 */
+		boolean probe(T var, int value) {
+
+			if (timeOut > 0 && System.nanoTime() - deadline > 0) {
+				timeOutOccured = true;
+				// the value is not removed.
+				return true;
+			}
+
+			probes++;
+
+			store.setLevel(rootLevel + 1);
+
+			boolean consistent;
+			try {
+				var.domain.in(store.level, var, value, value);
+				consistent = store.consistency();
+			} catch (FailException f) {
+				consistent = false;
+			}
+
+			store.removeLevel(rootLevel + 1);
+			store.setLevel(rootLevel);
+
+			return consistent;
+
+		}
+
+		/**
+		 * It removes the value from the replica and records it so it can be 
+		 * removed from the master store.
+		 */
+		void remove(int position, T var, int value) {
+
+			if (pruned == prunedVars.length) {
+				int[] oldVars = prunedVars;
+				prunedVars = new int[pruned * 2];
+				System.arraycopy(oldVars, 0, prunedVars, 0, pruned);
+				int[] oldValues = prunedValues;
+				prunedValues = new int[pruned * 2];
+				System.arraycopy(oldValues, 0, prunedValues, 0, pruned);
+			}
+
+			prunedVars[pruned] = position;
+			prunedValues[pruned] = value;
+			pruned++;
+
+			var.domain.inComplement(rootLevel, var, value);
+
+			if (!store.consistency())
+				inconsistent = true;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,666 @@
+/**
+ *  PortfolioSearch.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jacop.core.CancellationToken;
+import org.jacop.core.Domain;
+import org.jacop.core.FailException;
+import org.jacop.core.IntVar;
+import org.jacop.core.Var;
+
+/**
+ * It implements a parallel portfolio search. A number of workers is started, each
+ * working on its own replica of the model (see StoreReplicaFactory) with a different
+ * choice point heuristic (e.g. different variable ordering, different value ordering, 
+ * or different random seed). Each worker executes a standard DepthFirstSearch. 
+ * 
+ * For satisfaction problems the first worker which finds a solution or proves that 
+ * there is no solution stops all the other workers. For optimization problems the 
+ * workers share the cost of the best solution found so far, so every worker 
+ * restricts its cost variable to be smaller than the best cost found by any worker. 
+ * The first worker which explores its search space completely proves the optimality 
+ * of the best solution and stops all the other workers.
+ * 
+ * The workers are stopped by a cancellation token shared by their searches, so
+ * they stop also during long propagation. The token is cancelled when the search
+ * concludes, times out, or the token set by setCancellationToken is cancelled.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class PortfolioSearch<T extends Var> implements Cancellable {
+
+	/**
+	 * It specifies the factory used to create a model replica for each worker.
+	 */
+	StoreReplicaFactory<T> factory;
+
+	/**
+	 * It specifies the heuristics used by workers. The worker with number no
+	 * uses heuristic at position no modulo size of the list. If the list is empty
+	 * then the default diversification of heuristics is used.
+	 */
+	ArrayList<SelectChoicePointFactory<T>> strategies = new ArrayList<SelectChoicePointFactory<T>>();
+
+	/**
+	 * It specifies the number of workers.
+	 */
+	int workersNo = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * It specifies the number of seconds after which all workers time-out, -1 if 
+	 * there is no time-out.
+	 */
+	long timeOut = -1;
+
+	/**
+	 * It specifies the stack size of the worker threads. Depth first search is 
+	 * recursive so the default thread stack size is often not sufficient.
+	 */
+	long stackSize = 64 * 1024 * 1024;
+
+	/**
+	 * It decides if information about search is printed.
+	 */
+	boolean printInfo = true;
+
+	/**
+	 * It stores the cost of the best solution found by any of the workers.
+	 */
+	final AtomicInteger bestCost = new AtomicInteger(Integer.MAX_VALUE);
+
+	/**
+	 * It allows to stop the portfolio from another thread, null if not used.
+	 */
+	CancellationToken cancellationToken = null;
+
+	/**
+	 * It is shared by the searches of all workers. It is cancelled when one of 
+	 * the workers has concluded the search, so all other workers exit as soon 
+	 * as possible.
+	 */
+	CancellationToken stop;
+
+	/**
+	 * It specifies if the search space was fully explored by one of the workers.
+	 */
+	boolean complete = false;
+
+	/**
+	 * The worker which has concluded the search.
+	 */
+	int winner = -1;
+
+	/**
+	 * The search executed by the worker which has concluded the search.
+	 */
+	DepthFirstSearch<T> winnerSearch;
+
+	/**
+	 * The replica used by the worker which has concluded the search.
+	 */
+	StoreReplica<T> winnerReplica;
+
+	/**
+	 * The best solution found so far.
+	 */
+	Domain[] solution;
+
+	/**
+	 * The variables for which the best solution was recorded.
+	 */
+	T[] solutionVariables;
+
+	/**
+	 * The number of the worker which has found the best solution.
+	 */
+	int solutionWorker = -1;
+
+	/**
+	 * It stores the total number of nodes visited by all workers.
+	 */
+	long nodes = 0;
+
+	/**
+	 * It stores the total number of decisions made by all workers.
+	 */
+	long decisions = 0;
+
+	/**
+	 * It stores the total number of wrong decisions made by all workers.
+	 */
+	long wrongDecisions = 0;
+
+	/**
+	 * It stores the total number of backtracks made by all workers.
+	 */
+	long backtracks = 0;
+
+	/**
+	 * It creates a portfolio search.
+	 * @param factory the factory creating a model replica for every worker.
+	 */
+	public PortfolioSearch(StoreReplicaFactory<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * It adds a heuristic to the portfolio. 
+	 * @param strategy the factory creating choice point heuristic for a worker.
+	 */
+	public void addStrategy(SelectChoicePointFactory<T> strategy) {
+		strategies.add(strategy);
+	}
+
+	/**
+	 * It sets the number of workers (threads) used by the portfolio. 
+	 * @param no the number of workers.
+	 */
+	public void setWorkers(int no) {
+		assert (no > 0) : "At least one worker is required.";
+		workersNo = no;
+	}
+
+	/**
+	 * It turns on the timeout.
+	 * @param out defines how many seconds before the search exits.
+	 */
+	public void setTimeOut(long out) {
+		timeOut = out;
+	}
+
+	/**
+	 * It sets the stack size of the worker threads.
+	 * @param size the stack size in bytes.
+	 */
+	public void setStackSize(long size) {
+		stackSize = size;
+	}
+
+	/**
+	 * It decides if information about search is printed.
+	 * @param value defines if info is printed to standard output.
+	 */
+	public void setPrintInfo(boolean value) {
+		printInfo = value;
+	}
+
+	/**
+	 * It executes the portfolio. If the replicas specify the cost variable then 
+	 * the optimal solution is searched for, otherwise the search stops at the 
+	 * first solution found by any worker.
+	 * 
+	 * @return true if a solution was found, false otherwise.
+	 */
+	public boolean labeling() {
+
+		bestCost.set(Integer.MAX_VALUE);
+		stop = new CancellationToken(cancellationToken);
+		if (timeOut > 0)
+			stop.setTimeOutMillis(timeOut * 1000);
+		complete = false;
+		winner = -1;
+		winnerSearch = null;
+		winnerReplica = null;
+		solution = null;
+		solutionVariables = null;
+		solutionWorker = -1;
+		nodes = 0;
+		decisions = 0;
+		wrongDecisions = 0;
+		backtracks = 0;
+
+		ExecutorService executor = Executors.newFixedThreadPool(workersNo, new WorkerThreadFactory());
+
+		try {
+
+			ArrayList<Future<Boolean>> results = new ArrayList<Future<Boolean>>(workersNo);
+			for (int i = 0; i < workersNo; i++)
+				results.add(executor.submit(new Worker(i)));
+
+			for (Future<Boolean> result : results)
+				result.get();
+
+		} catch (InterruptedException e) {
+			stop.cancel();
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			stop.cancel();
+			throw new RuntimeException("Portfolio worker has failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (printInfo)
+			System.out.println(this);
+
+		return solution != null;
+
+	}
+
+	public void setCancellationToken(CancellationToken token) {
+		cancellationToken = token;
+	}
+
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * It returns the best solution found by the portfolio.
+	 * @return the best solution, null if no solution was found.
+	 */
+	public Domain[] getSolution() {
+		return solution;
+	}
+
+	/**
+	 * It returns the variables (of the replica which found the best solution)
+	 * in the order used by the solution.
+	 * @return search variables.
+	 */
+	public T[] getVariables() {
+		return solutionVariables;
+	}
+
+	/**
+	 * It returns the cost of the best solution.
+	 * @return the cost of the best solution, Integer.MAX_VALUE if no solution was found.
+	 */
+	public int getCostValue() {
+		return bestCost.get();
+	}
+
+	/**
+	 * It specifies if any of the workers has explored its search space completely, 
+	 * so the best solution is optimal or the problem has no solution.
+	 * @return true if the search was complete, false otherwise.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * It returns the number of the worker which has concluded the search.
+	 * @return the winner number, -1 if all workers have timed out.
+	 */
+	public int getWinner() {
+		return winner;
+	}
+
+	/**
+	 * It returns the replica of the worker which has concluded the search.
+	 * @return the replica of the winner, null if all workers have timed out.
+	 */
+	public StoreReplica<T> getWinnerReplica() {
+		return winnerReplica;
+	}
+
+	/**
+	 * It returns the search executed by the worker which has concluded the search.
+	 * @return the search of the winner, null if all workers have timed out.
+	 */
+	public DepthFirstSearch<T> getWinnerSearch() {
+		return winnerSearch;
+	}
+
+	/**
+	 * It returns the total number of nodes visited by all workers.
+	 * @return the number of nodes.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * It returns the total number of decisions made by all workers.
+	 * @return the number of decisions.
+	 */
+	public long getDecisions() {
+		return decisions;
+	}
+
+	/**
+	 * It returns the total number of wrong decisions made by all workers.
+	 * @return the number of wrong decisions.
+	 */
+	public long getWrongDecisions() {
+		return wrongDecisions;
+	}
+
+	/**
+	 * It returns the total number of backtracks made by all workers.
+	 * @return the number of backtracks.
+	 */
+	public long getBacktracks() {
+		return backtracks;
+	}
+
+	/**
+	 * It returns the heuristic for the given worker.
+	 * @param no the worker number.
+	 * @return the heuristic factory.
+	 */
+	SelectChoicePointFactory<T> strategy(int no) {
+
+		if (strategies.isEmpty())
+			return new DefaultStrategy();
+
+		return strategies.get(no % strategies.size());
+
+	}
+
+	/**
+	 * It is called by a worker every time it finds a solution.
+	 * @param no the number of the worker.
+	 * @param replica the replica of the worker.
+	 * @param search the search of the worker.
+	 */
+	synchronized void solutionFound(int no, StoreReplica<T> replica, DepthFirstSearch<T> search) {
+
+		if (winner != -1)
+			return;
+
+		if (replica.cost != null) {
+			int value = replica.cost.min();
+			if (value >= bestCost.get())
+				return;
+			bestCost.set(value);
+		}
+
+		solution = new Domain[replica.vars.length];
+		for (int i = 0; i < replica.vars.length; i++)
+			solution[i] = replica.vars[i].dom().cloneLight();
+		solutionVariables = replica.vars;
+		solutionWorker = no;
+
+		if (replica.cost == null)
+			conclude(no, replica, search, false);
+
+	}
+
+	/**
+	 * It records the worker which has concluded the search and stops all other workers.
+	 */
+	synchronized void conclude(int no, StoreReplica<T> replica, DepthFirstSearch<T> search, boolean complete) {
+
+		if (winner != -1)
+			return;
+
+		this.complete = complete;
+		winner = no;
+		winnerReplica = replica;
+		winnerSearch = search;
+
+		stop.cancel();
+
+	}
+
+	synchronized void collectStatistics(DepthFirstSearch<T> search) {
+		nodes += search.getNodes();
+		decisions += search.getDecisions();
+		wrongDecisions += search.getWrongDecisions();
+		backtracks += search.getBacktracks();
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer buf = new StringBuffer();
+
+		buf.append("Portfolio Search, workers : ").append(workersNo).append("\n");
+
+		if (solution == null)
+			buf.append("No solution found.\n");
+		else {
+			buf.append("Solution found by worker : ").append(solutionWorker).append("\n");
+			if (bestCost.get() != Integer.MAX_VALUE)
+				buf.append("Cost ").append(bestCost.get()).append("\n");
+		}
+
+		if (winner != -1)
+			buf.append("Search concluded by worker : ").append(winner).append(complete ? " (complete)\n" : "\n");
+		else
+			buf.append("Time-out " + timeOut + "s\n");
+
+		buf.append("Nodes : ").append(nodes).append("\n");
+		buf.append("Decisions : ").append(decisions).append("\n");
+		buf.append("Wrong Decisions : ").append(wrongDecisions).append("\n");
+		buf.append("Backtracks : ").append(backtracks).append("\n");
+
+		return buf.toString();
+
+	}
+
+	/**
+	 * It executes a depth first search on its own replica of the model.
+	 */
+	class Worker implements Callable<Boolean> {
+
+		final int no;
+
+		Worker(int no) {
+			this.no = no;
+		}
+
+		public Boolean call() {
+
+			if (stop.isCancelled())
+				return false;
+
+			StoreReplica<T> replica = factory.createReplica(no);
+			SelectChoicePoint<T> select = strategy(no).createSelect(replica.vars, no);
+
+			DepthFirstSearch<T> search = new DepthFirstSearch<T>();
+			search.setID("Portfolio" + no);
+			search.setPrintInfo(false);
+			search.setSolutionListener(new WorkerSolutionListener(no, replica, search));
+			search.setConsistencyListener(new BoundSharingListener(replica));
+			search.setCancellationToken(stop);
+
+			boolean result;
+			if (replica.cost != null)
+				result = search.labeling(replica.store, select, replica.cost);
+			else
+				result = search.labeling(replica.store, select);
+
+			collectStatistics(search);
+
+			// The search space has been explored completely without interruption.
+			if (!search.timeOutOccured)
+				conclude(no, replica, search, true);
+
+			return result;
+		}
+
+	}
+
+	/**
+	 * It informs the portfolio about each solution found by the worker.
+	 */
+	class WorkerSolutionListener extends SimpleSolutionListener<T> {
+
+		final int no;
+
+		final StoreReplica<T> replica;
+
+		final DepthFirstSearch<T> search;
+
+		WorkerSolutionListener(int no, StoreReplica<T> replica, DepthFirstSearch<T> search) {
+			this.no = no;
+			this.replica = replica;
+			this.search = search;
+		}
+
+		@Override
+		public boolean executeAfterSolution(Search<T> search, SelectChoicePoint<T> select) {
+
+			boolean code = super.executeAfterSolution(search, select);
+
+			solutionFound(no, replica, this.search);
+
+			return code;
+		}
+
+	}
+
+	/**
+	 * It restricts the cost variable by the best cost found by any worker.
+	 */
+	class BoundSharingListener implements ConsistencyListener {
+
+		final StoreReplica<T> replica;
+
+		ConsistencyListener[] children;
+
+		BoundSharingListener(StoreReplica<T> replica) {
+			this.replica = replica;
+		}
+
+		public boolean executeAfterConsistency(boolean consistent) {
+
+			if (consistent && replica.cost != null) {
+
+				// The bound is read from the shared atomic field only, the search 
+				// of the worker keeps its own cost value.
+				int bound = bestCost.get();
+
+				if (replica.cost.max() >= bound) {
+					try {
+						replica.cost.domain.inMax(replica.store.level, replica.cost, bound - 1);
+						consistent = replica.store.consistency();
+					} catch (FailException f) {
+						consistent = false;
+					}
+				}
+
+			}
+
+			if (children != null) {
+				boolean code = false;
+				for (int i = 0; i < children.length; i++)
+					code |= children[i].executeAfterConsistency(consistent);
+				return code;
+			}
+
+			return consistent;
+		}
+
+		public void setChildrenListeners(ConsistencyListener[] children) {
+			this.children = children;
+		}
+
+		public void setChildrenListeners(ConsistencyListener child) {
+			children = new ConsistencyListener[1];
+			children[0] = child;
+		}
+
+	}
+
+	/**
+	 * It diversifies the workers if no heuristics were supplied. The workers 
+	 * use in turn smallest domain, most constrained dynamic, weighted degree, and 
+	 * input order variable selection. The first round of workers uses indomain min, 
+	 * the remaining workers use random value selection with different seeds.
+	 */
+	class DefaultStrategy implements SelectChoicePointFactory<T> {
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public SelectChoicePoint<T> createSelect(T[] vars, int no) {
+
+			for (T var : vars)
+				if (!(var instanceof IntVar))
+					throw new IllegalArgumentException("Default portfolio heuristics require IntVar variables; add strategies explicitly.");
+
+			ComparatorVariable<T> varSelect = null;
+			ComparatorVariable<T> tieBreaking = null;
+
+			switch (no % 4) {
+			case 0:
+				varSelect = new SmallestDomain<T>();
+				break;
+			case 1:
+				varSelect = new MostConstrainedDynamic<T>();
+				tieBreaking = new SmallestDomain<T>();
+				break;
+			case 2:
+				if (vars.length > 0)
+					vars[0].store.variableWeightManagement = true;
+				varSelect = new WeightedDegree<T>();
+				tieBreaking = new SmallestDomain<T>();
+				break;
+			default:
+				break;
+			}
+
+			Indomain<T> indomain;
+			if (no < 4)
+				indomain = (Indomain<T>) new IndomainMin();
+			else
+				indomain = (Indomain<T>) new IndomainRandom(no);
+
+			if (tieBreaking != null)
+				return new SimpleSelect<T>(vars, varSelect, tieBreaking, indomain);
+			else
+				return new SimpleSelect<T>(vars, varSelect, indomain);
+
+		}
+
+	}
+
+	/**
+	 * It creates worker threads with a sufficiently large stack.
+	 */
+	class WorkerThreadFactory implements ThreadFactory {
+
+		int count = 0;
+
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(null, r, "PortfolioWorker" + count++, stackSize);
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
@@ -38,6 +38,7 @@ package org.jacop.search;
  * @author Radoslaw Szymanek and Krzysztof Kuchcinski
  * @version 4.0
  */
+import org.jacop.core.Domain;
 import org.jacop.core.Var;
 
 public class PrintOutListener<T extends Var> extends SimpleSolutionListener<T> implements SolutionListener<T> {
@@ -68,13 +69,15 @@ public class PrintOutListener<T extends Var> extends SimpleSolutionListener<T> i
 		if (recordSolutions)
 			solutionIndex = noSolutions - 1;
 		
-		if (vars != null)
+		if (vars != null) {
+			Domain[] solution = storedSolution(solutionIndex);
 			for (int i = 0; i < vars.length; i++) {
 				buf.append(vars[i].id()).append("=").append(
-						solutions[solutionIndex][i]);
+						solution[i]);
 				if (i < vars.length - 1)
 					buf.append(", ");
 			}
+		}
 
 		buf.append("]\n");
 
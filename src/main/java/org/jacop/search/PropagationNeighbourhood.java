@@ -0,0 +1,131 @@
+/**
+ *  PropagationNeighbourhood.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.jacop.core.FailException;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * It implements propagation guided neighbourhood. The variables are fixed one 
+ * by one to their values in the best solution and the consequences are propagated. 
+ * The next variable to fix is the one whose domain was reduced the most by the 
+ * propagation of the previous fixing, so the fixed variables are closely related. 
+ * If no domain was reduced, a random variable is fixed. The fixing stops when at 
+ * most the required number of variables remains not assigned, these variables 
+ * are relaxed.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class PropagationNeighbourhood<T extends IntVar> implements Neighbourhood<T> {
+
+	int[] sizes;
+
+	boolean[] fixed;
+
+	public void relax(Store store, T[] vars, int[] solution, int size, Random random, boolean[] relaxed) {
+
+		if (sizes == null || sizes.length != vars.length) {
+			sizes = new int[vars.length];
+			fixed = new boolean[vars.length];
+		}
+
+		Arrays.fill(fixed, false);
+
+		store.setLevel(store.level + 1);
+		int level = store.level;
+
+		int free = 0;
+		for (int i = 0; i < vars.length; i++) {
+			sizes[i] = vars[i].getSize();
+			if (sizes[i] > 1)
+				free++;
+		}
+
+		int next = -1;
+
+		while (free > size) {
+
+			if (next == -1) {
+				next = random.nextInt(vars.length);
+				while (fixed[next] || sizes[next] == 1)
+					next = (next + 1) % vars.length;
+			}
+
+			fixed[next] = true;
+
+			try {
+				vars[next].domain.in(level, vars[next], solution[next], solution[next]);
+				if (!store.consistency())
+					break;
+			} catch (FailException f) {
+				break;
+			}
+
+			next = -1;
+			free = 0;
+			int maxReduction = 0;
+			for (int i = 0; i < vars.length; i++) {
+				int current = vars[i].getSize();
+				if (current > 1) {
+					free++;
+					if (!fixed[i] && sizes[i] - current > maxReduction) {
+						maxReduction = sizes[i] - current;
+						next = i;
+					}
+				}
+				sizes[i] = current;
+			}
+
+		}
+
+		store.removeLevel(level);
+		store.setLevel(level - 1);
+
+		for (int i = 0; i < vars.length; i++)
+			if (!fixed[i])
+				relaxed[i] = true;
+
+	}
+
+	@Override
+	public String toString() {
+		return "propagation";
+	}
+
+}
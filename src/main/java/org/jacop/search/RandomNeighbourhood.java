@@ -0,0 +1,75 @@
+/**
+ *  RandomNeighbourhood.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import java.util.Random;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+/**
+ * It relaxes variables chosen uniformly at random.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class RandomNeighbourhood<T extends IntVar> implements Neighbourhood<T> {
+
+	int[] positions;
+
+	public void relax(Store store, T[] vars, int[] solution, int size, Random random, boolean[] relaxed) {
+
+		if (positions == null || positions.length != vars.length) {
+			positions = new int[vars.length];
+			for (int i = 0; i < positions.length; i++)
+				positions[i] = i;
+		}
+
+		// partial Fisher-Yates shuffle, the first size positions are relaxed.
+		for (int i = 0; i < size && i < positions.length; i++) {
+			int j = i + random.nextInt(positions.length - i);
+			int tmp = positions[i];
+			positions[i] = positions[j];
+			positions[j] = tmp;
+			relaxed[positions[i]] = true;
+		}
+
+	}
+
+	@Override
+	public String toString() {
+		return "random";
+	}
+
+}
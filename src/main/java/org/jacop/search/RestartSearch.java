@@ -0,0 +1,575 @@
+/**
+ *  RestartSearch.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import org.jacop.core.FailException;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * It implements a restart strategy on top of any search. The wrapped search is 
+ * executed a number of times, each run being interrupted after a cutoff on the 
+ * number of backtracks (or nodes). The cutoff of the consecutive runs is computed 
+ * according to the chosen policy, constant, geometric or Luby. 
+ * 
+ * All runs are executed at one store level created by restart search. At this 
+ * level the cost variable is restricted below the cost of the best solution found 
+ * so far, so each run continues to improve the solution of the previous runs. 
+ * Optionally, the no-goods collected at each interrupted run (see NoGoodsCollector) 
+ * are added to the no-good database of the store. The database keeps no-goods at 
+ * all levels, so they remain imposed after restart search exits. Therefore no-goods 
+ * should only be recorded if the store is not used afterwards for a search with a 
+ * weaker cost restriction. The variable weights, used for example by 
+ * WeightedDegree, are not restored upon backtracking, therefore the weights learned 
+ * during one run are used by the variable selection of the next run.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class RestartSearch<T extends Var> {
+
+	/**
+	 * It specifies how the cutoff changes between the consecutive runs.
+	 */
+	public enum Policy {
+		// every run has the same cutoff equal to scale.
+		CONSTANT,
+		// the cutoff of the run i is equal to scale * factor^(i-1).
+		GEOMETRIC,
+		// the cutoff of the run i is equal to scale * luby(i), 
+		// luby sequence is 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...
+		LUBY
+	}
+
+	/**
+	 * It specifies the store within which the search is executed.
+	 */
+	Store store;
+
+	/**
+	 * It specifies the search which is restarted.
+	 */
+	Search<T> search;
+
+	/**
+	 * It specifies the choice point heuristic used by the search.
+	 */
+	SelectChoicePoint<T> select;
+
+	/**
+	 * It specifies the cost variable, null if the first solution is searched for.
+	 */
+	IntVar costVariable;
+
+	/**
+	 * It specifies the restart policy.
+	 */
+	Policy policy = Policy.LUBY;
+
+	/**
+	 * It specifies the cutoff of the first run.
+	 */
+	long scale = 100;
+
+	/**
+	 * It specifies the growth of the cutoff for geometric policy.
+	 */
+	double factor = 1.5;
+
+	/**
+	 * It specifies if the cutoff counts nodes instead of backtracks.
+	 */
+	boolean nodesCutoff = false;
+
+	/**
+	 * It specifies if no-goods are collected from interrupted runs.
+	 */
+	boolean recordNoGoods = false;
+
+	/**
+	 * It specifies if the variable weights are collected during the search.
+	 */
+	boolean variableWeights = true;
+
+	/**
+	 * It decides if the best solution is assigned to store after search exits.
+	 */
+	boolean assignSolution = true;
+
+	/**
+	 * It decides if information about search is printed.
+	 */
+	boolean printInfo = true;
+
+	/**
+	 * It specifies the limit of the current run, in terms of the search counter.
+	 */
+	long limit;
+
+	/**
+	 * It specifies if the current run has been interrupted by its cutoff.
+	 */
+	boolean cutoffOccured;
+
+	/**
+	 * It specifies if the search has been interrupted by the time-out of the 
+	 * wrapped search (or any other limit not imposed by restart search).
+	 */
+	public boolean timeOutOccured = false;
+
+	/**
+	 * It specifies if the last run has explored its search space completely.
+	 */
+	boolean complete = false;
+
+	/**
+	 * It counts the restarts performed.
+	 */
+	int restarts = 0;
+
+	/**
+	 * It counts the no-goods imposed.
+	 */
+	int noGoods = 0;
+
+	/**
+	 * It stores the cost of the best solution found.
+	 */
+	int costValue = Integer.MAX_VALUE;
+
+	/**
+	 * It creates a restart search which looks for the first solution.
+	 * 
+	 * @param store the store within which the search is executed.
+	 * @param search the search being restarted.
+	 * @param select the choice point heuristic used by the search.
+	 */
+	public RestartSearch(Store store, Search<T> search, SelectChoicePoint<T> select) {
+		this(store, search, select, null);
+	}
+
+	/**
+	 * It creates a restart search which minimizes the cost variable.
+	 * 
+	 * @param store the store within which the search is executed.
+	 * @param search the search being restarted.
+	 * @param select the choice point heuristic used by the search.
+	 * @param costVar the cost variable, null if the first solution is searched for.
+	 */
+	public RestartSearch(Store store, Search<T> search, SelectChoicePoint<T> select, IntVar costVar) {
+		this.store = store;
+		this.search = search;
+		this.select = select;
+		this.costVariable = costVar;
+	}
+
+	/**
+	 * It sets the restart policy. 
+	 * 
+	 * @param policy the policy computing the cutoff of consecutive runs.
+	 * @param scale the cutoff of the first run.
+	 */
+	public void setPolicy(Policy policy, long scale) {
+		assert (scale > 0) : "The cutoff must be positive.";
+		this.policy = policy;
+		this.scale = scale;
+	}
+
+	/**
+	 * It sets the growth of the cutoff used by geometric policy. 
+	 * @param factor the growth of the cutoff between two consecutive runs.
+	 */
+	public void setFactor(double factor) {
+		assert (factor >= 1.0) : "The cutoff can not decrease.";
+		this.factor = factor;
+	}
+
+	/**
+	 * It decides if the cutoff counts nodes instead of backtracks.
+	 * @param value true if nodes are counted, false if backtracks are counted.
+	 */
+	public void setNodesCutoff(boolean value) {
+		nodesCutoff = value;
+	}
+
+	/**
+	 * It decides if no-goods are collected from the interrupted runs. It requires
+	 * that the search branches on integer variables. The no-goods are only collected 
+	 * as long as no solution was found.
+	 * 
+	 * @param value true if no-goods are collected, false otherwise.
+	 */
+	public void setRecordNoGoods(boolean value) {
+		recordNoGoods = value;
+	}
+
+	/**
+	 * It decides if the store manages the variable weights during the search, so 
+	 * they are carried from one run to the next one.
+	 * 
+	 * @param value true if the variable weights are managed, false otherwise.
+	 */
+	public void setVariableWeights(boolean value) {
+		variableWeights = value;
+	}
+
+	/**
+	 * It decides if the best solution is assigned to store after search exits.
+	 * @param value defines if solution is assigned.
+	 */
+	public void setAssignSolution(boolean value) {
+		assignSolution = value;
+	}
+
+	/**
+	 * It decides if information about search is printed.
+	 * @param value defines if info is printed to standard output.
+	 */
+	public void setPrintInfo(boolean value) {
+		printInfo = value;
+	}
+
+	/**
+	 * It computes the cutoff of the given run.
+	 * 
+	 * @param run the number of the run, starting from 1.
+	 * @return the cutoff of the run.
+	 */
+	public long cutoff(int run) {
+
+		switch (policy) {
+		case GEOMETRIC:
+			double value = scale * Math.pow(factor, run - 1);
+			if (value >= Long.MAX_VALUE / 2)
+				return Long.MAX_VALUE / 2;
+			return (long) value;
+		case LUBY:
+			return scale * luby(run);
+		default:
+			return scale;
+		}
+
+	}
+
+	/**
+	 * It computes the i-th element of the Luby sequence.
+	 * 
+	 * @param i the position within the sequence, starting from 1.
+	 * @return the element of the Luby sequence.
+	 */
+	public static long luby(int i) {
+
+		int k = 1;
+		while ((1L << k) - 1 < i)
+			k++;
+
+		if ((1L << k) - 1 == i)
+			return 1L << (k - 1);
+
+		return luby(i - (1 << (k - 1)) + 1);
+
+	}
+
+	/**
+	 * It executes the search with restarts. If cost variable was specified 
+	 * then the optimal solution is searched for, otherwise the search stops 
+	 * at the first solution.
+	 * 
+	 * @return true if a solution was found, false otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean labeling() {
+
+		restarts = 0;
+		noGoods = 0;
+		costValue = Integer.MAX_VALUE;
+		complete = false;
+		timeOutOccured = false;
+
+		if (variableWeights)
+			store.variableWeightManagement = true;
+
+		TimeOutListener timeOutListener = search.getTimeOutListener();
+		ExitChildListener<T> exitChildListener = search.getExitChildListener();
+		ExitListener exitListener = search.getExitListener();
+
+		CutoffListener cutoffListener = new CutoffListener();
+		if (timeOutListener != null)
+			cutoffListener.setChildrenListeners(timeOutListener);
+		search.setTimeOutListener(cutoffListener);
+		search.setAssignSolution(false);
+
+		boolean result = false;
+		boolean consistent = true;
+
+		// If constraints employ only one time execution of the part of
+		// the consistency technique then it is executed at its own level,
+		// as in DepthFirstSearch, below the level restricted by the runs.
+		if (store.raiseLevelBeforeConsistency) {
+			store.raiseLevelBeforeConsistency = false;
+			store.setLevel(store.level + 1);
+			consistent = store.consistency();
+			complete = !consistent;
+		}
+
+		store.setLevel(store.level + 1);
+		int level = store.level;
+
+		while (consistent) {
+
+			NoGoodsCollector<T> collector = null;
+			if (recordNoGoods) {
+				collector = new NoGoodsCollector<T>();
+				if (exitChildListener != null)
+					collector.setChildrenListeners(exitChildListener);
+				search.setExitChildListener(collector);
+				search.setExitListener(cutoffListener);
+			}
+			cutoffListener.collector = collector;
+			cutoffListener.exitChildren = exitListener;
+			cutoffListener.children = timeOutListener;
+
+			long out = cutoff(restarts + 1);
+			if (nodesCutoff) {
+				limit = search.getNodes() + out;
+				search.setNodesOut(limit);
+			}
+			else {
+				limit = search.getBacktracks() + out;
+				search.setBacktracksOut(limit);
+			}
+			cutoffOccured = false;
+
+			int solutionsNo = search.getSolutionListener().solutionsNo();
+			cutoffListener.runStartSolutions = solutionsNo;
+
+			if (costVariable == null)
+				search.labeling(store, select);
+			else
+				search.labeling(store, select, costVariable);
+
+			boolean found = search.getSolutionListener().solutionsNo() > solutionsNo;
+			if (found) {
+				result = true;
+				if (costVariable != null)
+					costValue = search.getCostValue();
+			}
+
+			if (collector != null && collector.timeOut && collector.noGoodsVariables != null)
+				noGoods += collector.noGoodsVariables.size();
+
+			if (!cutoffOccured) {
+				complete = !timeOutOccured;
+				break;
+			}
+
+			if (found && costVariable == null)
+				break;
+
+			// Instead of imposing constraint just restrict bounds, as search does
+			if (found)
+				try {
+					if (costVariable.min() <= costValue - 1)
+						costVariable.domain.in(level, costVariable, costVariable.min(), costValue - 1);
+					else {
+						complete = true;
+						break;
+					}
+				} catch (FailException f) {
+					complete = true;
+					break;
+				}
+
+			restarts++;
+
+		}
+
+		store.removeLevel(level);
+		store.setLevel(level - 1);
+
+		search.setTimeOutListener(timeOutListener);
+		search.setExitChildListener(exitChildListener);
+		search.setExitListener(exitListener);
+		if (nodesCutoff)
+			search.setNodesOut(Long.MAX_VALUE);
+		else
+			search.setBacktracksOut(Long.MAX_VALUE);
+		search.setAssignSolution(assignSolution);
+
+		if (result && assignSolution)
+			search.assignSolution();
+
+		if (printInfo)
+			System.out.println(this);
+
+		return result;
+
+	}
+
+	/**
+	 * It returns the cost of the best solution.
+	 * @return the cost of the best solution, Integer.MAX_VALUE if no solution was found.
+	 */
+	public int getCostValue() {
+		return costValue;
+	}
+
+	/**
+	 * It specifies if the last run has explored its search space completely, 
+	 * so the best solution is optimal or the problem has no solution.
+	 * @return true if the search was complete, false otherwise.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * It returns the number of restarts performed by the last search.
+	 * @return the number of restarts.
+	 */
+	public int getRestarts() {
+		return restarts;
+	}
+
+	/**
+	 * It returns the number of no-goods imposed by the last search.
+	 * @return the number of no-goods.
+	 */
+	public int getNoGoods() {
+		return noGoods;
+	}
+
+	/**
+	 * It returns the search being restarted.
+	 * @return the wrapped search.
+	 */
+	public Search<T> getSearch() {
+		return search;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuffer buf = new StringBuffer();
+
+		buf.append("Restart Search, policy : ").append(policy);
+		buf.append(", scale : ").append(scale).append("\n");
+
+		if (costValue != Integer.MAX_VALUE)
+			buf.append("Cost ").append(costValue).append(complete ? " (optimal)\n" : "\n");
+
+		if (timeOutOccured)
+			buf.append("Time-out\n");
+
+		buf.append("Restarts : ").append(restarts).append("\n");
+		if (recordNoGoods)
+			buf.append("No-goods : ").append(noGoods).append("\n");
+		buf.append("Nodes : ").append(search.getNodes()).append("\n");
+		buf.append("Decisions : ").append(search.getDecisions()).append("\n");
+		buf.append("Wrong Decisions : ").append(search.getWrongDecisions()).append("\n");
+		buf.append("Backtracks : ").append(search.getBacktracks()).append("\n");
+
+		return buf.toString();
+
+	}
+
+	/**
+	 * It distinguishes the cutoff of the run from the time-out of the wrapped 
+	 * search. The cutoff is only passed to no-goods collector, the other 
+	 * time-outs are passed to the time-out listener of the wrapped search. 
+	 * The number of solutions reported by the wrapped search is cumulative 
+	 * over all runs, the no-goods collector is given the number of solutions 
+	 * found within the current run, so no-goods are also collected from runs 
+	 * after the first solution.
+	 */
+	class CutoffListener implements TimeOutListener, ExitListener {
+
+		NoGoodsCollector<T> collector;
+
+		TimeOutListener children;
+
+		ExitListener exitChildren;
+
+		// number of solutions found before the current run has started
+		int runStartSolutions;
+
+		public void executedAtTimeOut(int solutionsNo) {
+
+			long counter = nodesCutoff ? search.getNodes() : search.getBacktracks();
+
+			if (counter > limit) {
+				cutoffOccured = true;
+				if (collector != null)
+					collector.executedAtTimeOut(solutionsNo - runStartSolutions);
+			}
+			else {
+				timeOutOccured = true;
+				if (children != null)
+					children.executedAtTimeOut(solutionsNo);
+			}
+
+		}
+
+		public void setChildrenListeners(TimeOutListener[] children) {
+			assert (children.length == 1) : "Only one child listener is supported.";
+			this.children = children[0];
+		}
+
+		public void setChildrenListeners(TimeOutListener child) {
+			children = child;
+		}
+
+		public void executedAtExit(Store store, int solutionsNo) {
+
+			if (collector != null)
+				collector.executedAtExit(store, solutionsNo - runStartSolutions);
+
+			if (exitChildren != null)
+				exitChildren.executedAtExit(store, solutionsNo);
+
+		}
+
+		public void setChildrenListeners(ExitListener[] children) {
+			assert (children.length == 1) : "Only one child listener is supported.";
+			exitChildren = children[0];
+		}
+
+		public void setChildrenListeners(ExitListener child) {
+			exitChildren = child;
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+/**
+ *  SelectChoicePointFactory.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import org.jacop.core.Var;
+
+/**
+ * Defines an interface of an object which creates a choice point heuristic
+ * for a given set of search variables. It is used by searches which run 
+ * multiple workers, each with its own store replica, as a choice point 
+ * heuristic is bound to variables of exactly one store.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public interface SelectChoicePointFactory<T extends Var> {
+
+	/**
+	 * It creates a choice point heuristic for the given variables.
+	 * @param vars the search variables of one store replica.
+	 * @param no the number of the worker which will use the heuristic.
+	 * @return the choice point heuristic.
+	 */
+	public SelectChoicePoint<T> createSelect(T[] vars, int no);
+
+}
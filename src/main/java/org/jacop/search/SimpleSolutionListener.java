@@ -39,6 +39,7 @@ import org.jacop.constraints.XeqC;
 import org.jacop.core.Domain;
 import org.jacop.core.IntDomain;
 import org.jacop.core.IntVar;
+import org.jacop.core.IntervalDomain;
 import org.jacop.core.Store;
 import org.jacop.core.Var;
 import org.jacop.set.core.SetVar;
@@ -81,6 +82,29 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 
 	public Domain[][] solutions;
 
+	/**
+	 * It specifies if the solutions are stored as values instead of domains. It 
+	 * can be used only for integer variables.
+	 */
+	boolean compactSolutions = false;
+
+	/**
+	 * It stores the values of recorded solutions if solutions are stored as values. 
+	 * The value of the i-th variable in solution no (the first solution has an 
+	 * index 0) is at position no * vars.length + i.
+	 */
+	public int[] values;
+
+	/**
+	 * It stores the values of the last solution. The array is reused for all solutions.
+	 */
+	int[] currentValues;
+
+	/**
+	 * It is informed about the values of each solution, null if it is not used.
+	 */
+	SolutionValuesListener valuesListener = null;
+
 	/**
 	 * If this search is a slave search than each solution within this search
 	 * must be connected to a solution of the master search. The parentSolutionListener
@@ -131,7 +155,17 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 
 	public Domain[][] getSolutions() {
 
-		return solutions;
+		if (!valuesStored())
+			return solutions;
+
+		if (vars == null)
+			return null;
+
+		Domain[][] result = new Domain[recordSolutions ? noSolutions : 1][];
+		for (int no = 0; no < result.length; no++)
+			result[no] = storedSolution(no);
+
+		return result;
 	}
 
 	/**
@@ -143,7 +177,101 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 		assert (no <= noSolutions);
 		assert (recordSolutions);
 		
-		return solutions[no - 1];
+		return storedSolution(no - 1);
+
+	}
+
+	/**
+	 * It returns the values of the solution number no. The first solution has an index 1. 
+	 * It can be used only for integer variables.
+	 * 
+	 * @param no the number of the solution.
+	 * @return the values of the variables in the solution.
+	 */
+
+	public int[] getSolutionValues(int no) {
+
+		assert (no <= noSolutions);
+		assert (recordSolutions || no == noSolutions);
+
+		int[] result = new int[vars.length];
+		for (int i = 0; i < vars.length; i++)
+			result[i] = storedValue(no - 1, i);
+
+		return result;
+
+	}
+
+	/**
+	 * It specifies if the solutions are stored as values (an array of integers) instead 
+	 * of domains of variables. It reduces the memory needed to record many 
+	 * solutions. It can be used only for integer variables.
+	 * 
+	 * @param status true if the solutions are stored as values, false otherwise.
+	 */
+
+	public void setCompactSolutions(boolean status) {
+
+		compactSolutions = status;
+
+	}
+
+	/**
+	 * It sets the listener which is informed about the values of each solution. If 
+	 * solutions are not recorded then the domains of the variables are not stored 
+	 * at all, only the values of the last solution are kept. It can be used only 
+	 * for integer variables.
+	 * 
+	 * @param listener the listener informed about solutions, null if not used.
+	 */
+
+	public void setSolutionValuesListener(SolutionValuesListener listener) {
+
+		valuesListener = listener;
+
+	}
+
+	/**
+	 * It specifies if the solutions are stored as values instead of domains.
+	 */
+	boolean valuesStored() {
+
+		return compactSolutions || (!recordSolutions && valuesListener != null);
+
+	}
+
+	/**
+	 * It returns the value of the given variable in the stored solution with 
+	 * the given index (the first solution has an index 0).
+	 */
+	int storedValue(int index, int var) {
+
+		if (!valuesStored())
+			return ((IntDomain) solutions[recordSolutions ? index : 0][var]).min();
+
+		if (recordSolutions)
+			return values[index * vars.length + var];
+		else
+			return currentValues[var];
+
+	}
+
+	/**
+	 * It returns the stored solution with the given index (the first solution 
+	 * has an index 0) as the domains of variables.
+	 */
+	Domain[] storedSolution(int index) {
+
+		if (!valuesStored())
+			return solutions[index];
+
+		Domain[] result = new Domain[vars.length];
+		for (int i = 0; i < vars.length; i++) {
+			int value = storedValue(index, i);
+			result[i] = new IntervalDomain(value, value);
+		}
+
+		return result;
 
 	}
 
@@ -187,13 +315,30 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 	 */
 	public void recordSolution() {
 
+		boolean storeValues = valuesStored();
+
+		if (storeValues || valuesListener != null) {
+
+			if (currentValues == null || currentValues.length != vars.length)
+				currentValues = new int[vars.length];
+
+			for (int i = 0; i < vars.length; i++) {
+				if (!vars[i].singleton())
+					throw new RuntimeException("Variable is not grounded in the solution");
+				currentValues[i] = ((IntVar) vars[i]).value();
+			}
+
+		}
+
 		if (recordSolutions) {
 
-			if (noSolutions >= solutions.length) {
+			if (noSolutions >= parentSolutionNo.length) {
 
-				Domain[][] oldSolutions = solutions;
-				solutions = new Domain[noSolutions * 2][];
-				System.arraycopy(oldSolutions, 0, solutions, 0, noSolutions);
+				if (!storeValues) {
+					Domain[][] oldSolutions = solutions;
+					solutions = new Domain[noSolutions * 2][];
+					System.arraycopy(oldSolutions, 0, solutions, 0, Math.min(noSolutions, oldSolutions.length));
+				}
 
 				int[] oldParentSolutionNo = parentSolutionNo;
 				parentSolutionNo = new int[noSolutions * 2];
@@ -202,15 +347,33 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 
 			}
 
-			Domain[] currentSolution = new Domain[vars.length];
+			if (storeValues) {
+
+				if (values == null)
+					values = new int[vars.length * 16];
+
+				if ((noSolutions + 1) * vars.length > values.length) {
+					int[] oldValues = values;
+					values = new int[oldValues.length * 2];
+					System.arraycopy(oldValues, 0, values, 0, noSolutions * vars.length);
+				}
+
+				System.arraycopy(currentValues, 0, values, noSolutions * vars.length, vars.length);
+
+			}
+			else {
+
+				Domain[] currentSolution = new Domain[vars.length];
+
+				for (int i = 0; i < vars.length; i++) {
+					if (!vars[i].singleton())
+						throw new RuntimeException("Variable is not grounded in the solution");
+					currentSolution[i] = solutionDomain(vars[i]);
+				}
+
+				solutions[noSolutions] = currentSolution;
 
-			for (int i = 0; i < vars.length; i++) {
-				if (!vars[i].singleton())
-					throw new RuntimeException("Variable is not grounded in the solution");
-				currentSolution[i] = vars[i].dom();
 			}
-			
-			solutions[noSolutions] = currentSolution;
 
 			//TODO connection between parent and child search depending if 
 			// they are recording solutions.
@@ -222,11 +385,12 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 
 		} else {
 
-			for (int i = 0; i < vars.length; i++) {
-				if (!vars[i].singleton())
-					throw new RuntimeException("Variable is not grounded in the solution");
-				solutions[0][i] = vars[i].dom();
-			}
+			if (!storeValues)
+				for (int i = 0; i < vars.length; i++) {
+					if (!vars[i].singleton())
+						throw new RuntimeException("Variable is not grounded in the solution");
+					solutions[0][i] = solutionDomain(vars[i]);
+				}
 			
 			//TODO connection between parent and child search depending if 
 			// they are recording solutions.
@@ -236,6 +400,9 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 
 		}
 
+		if (valuesListener != null)
+			valuesListener.executedAtSolution(currentValues);
+
 	}
 
 	public boolean executeAfterSolution(Search<T> search, SelectChoicePoint<T> select) {
@@ -258,6 +425,9 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 				vars[position.get(current)] = current;
 			}
 
+			if ((compactSolutions || valuesListener != null) && !(vars instanceof IntVar[]))
+				throw new RuntimeException("Solutions can be stored as values only for integer variables");
+
 			solutions = new Domain[1][vars.length];
 			parentSolutionNo = new int[1];
 
@@ -285,6 +455,20 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 	 * @param store the store in the context of which the search took place.
 	 * @return true if the store is consistent after assigning a solution, false otherwise.
 	 */
+	/**
+	 * It returns the domain of the variable which can be kept as a part of 
+	 * the solution. Domains changed in place by the store are copied as they
+	 * would be restored during backtracking. 
+	 */
+	Domain solutionDomain(T var) {
+
+		if (var.store.domainTrail != null)
+			return var.dom().cloneLight();
+
+		return var.dom();
+
+	}
+
 	public boolean assignSolution(Store store) {
 		if (recordSolutions)
 			return assignSolution(store, noSolutions - 1);
@@ -299,15 +483,21 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 		
 		assert (number < noSolutions) : "Smaller number of solutions were found.";
 		assert (recordSolutions || number == 0) : "The solutions were not stored.";
-		assert (solutions.length > number) : "The solution of the given number was not stored.";
+		assert (valuesStored() || solutions.length > number) : "The solution of the given number was not stored.";
 		
 		if (vars != null) {
 
 			assert ( store.currentConstraint == null);
 
-			for (int i = 0; i < vars.length; i++) {
-				vars[i].dom().in(store.level, vars[i], solutions[number][i]);
-			}
+			if (valuesStored())
+				for (int i = 0; i < vars.length; i++) {
+					int value = storedValue(number, i);
+					((IntVar) vars[i]).domain.in(store.level, vars[i], value, value);
+				}
+			else
+				for (int i = 0; i < vars.length; i++) {
+					vars[i].dom().in(store.level, vars[i], solutions[number][i]);
+				}
 
 			boolean result = store.consistency();
 
@@ -332,13 +522,15 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 		if (recordSolutions)
 			solutionIndex = noSolutions - 1;
 		
-		if (vars != null)
+		if (vars != null) {
+			Domain[] solution = storedSolution(solutionIndex);
 			for (int i = 0; i < vars.length; i++) {
 				buf.append(vars[i].id()).append("=").append(
-						solutions[solutionIndex][i]);
+						solution[i]);
 				if (i < vars.length - 1)
 					buf.append(", ");
 			}
+		}
 
 		buf.append("]\n");
 
@@ -370,7 +562,7 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
 			for (int i = 0; i < vars.length; i++) {
 				
 				if (vars[i] instanceof IntVar)
-					result[no] = new XeqC((IntVar)vars[i], ((IntDomain)solutions[i][number]).min() );
+					result[no] = new XeqC((IntVar)vars[i], storedValue(number, i) );
 								
 				no++;
 			}
@@ -447,13 +639,14 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
     	if (recordSolutions) {
     		System.out.println("\nAll solutions: \n");
     		System.out.println("Number of Solutions: " + noSolutions);
-                for(int i = 0; i < solutions[0].length; i++) {
+                for(int i = 0; i < vars.length; i++) {
     				System.out.print(vars[i].id() + " ");
     			}
                 System.out.println();
     		for(int s = 0; s < noSolutions; s++) {
-    			for(int i = 0; i < solutions[0].length; i++) {
-    				System.out.print(solutions[s][i] + " ");
+    			Domain[] solution = storedSolution(s);
+    			for(int i = 0; i < vars.length; i++) {
+    				System.out.print(solution[i] + " ");
     			}
     			System.out.println();
     		}
@@ -464,12 +657,13 @@ public class SimpleSolutionListener<T extends Var> implements SolutionListener<T
     			System.out.println("\nLast recorded solution: \n");
     			System.out.println("Number of Solutions: " + noSolutions);
     		
-                        for(int i = 0; i < solutions[0].length; i++) {
+                        for(int i = 0; i < vars.length; i++) {
     				System.out.print(vars[i].id() + " ");
     			}
                         System.out.println();
-    			for(int i = 0; i < solutions[0].length; i++) {
-    				System.out.print(solutions[0][i] + " ");
+    			Domain[] solution = storedSolution(0);
+    			for(int i = 0; i < vars.length; i++) {
+    				System.out.print(solution[i] + " ");
     			}
     			System.out.println();
     		}
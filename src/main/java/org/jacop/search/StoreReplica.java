@@ -0,0 +1,92 @@
+/**
+ *  StoreReplica.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.core.Var;
+
+/**
+ * It holds one independent copy of a model. The copy consists of its own store
+ * with all the constraints imposed, the search variables created within that store,
+ * and (optionally) the cost variable. Searches which work in parallel (e.g. portfolio
+ * search) create one replica for every worker as store is not thread-safe and 
+ * must never be shared between threads.
+ * 
+ * The search variables of all replicas of the same model must be given in 
+ * the same order, so the position of the variable can be used to exchange
+ * information (solutions, decisions, pruned values) between replicas.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public class StoreReplica<T extends Var> {
+
+	/**
+	 * It specifies the store in which the model copy is imposed.
+	 */
+	public Store store;
+
+	/**
+	 * It specifies the search variables of the model copy.
+	 */
+	public T[] vars;
+
+	/**
+	 * It specifies the cost variable, null if the model is not optimized.
+	 */
+	public IntVar cost;
+
+	/**
+	 * It creates a replica of a satisfaction model.
+	 * @param store the store in which the model has been imposed.
+	 * @param vars the search variables.
+	 */
+	public StoreReplica(Store store, T[] vars) {
+		this(store, vars, null);
+	}
+
+	/**
+	 * It creates a replica of an optimization model.
+	 * @param store the store in which the model has been imposed.
+	 * @param vars the search variables.
+	 * @param cost the cost variable which is minimized.
+	 */
+	public StoreReplica(Store store, T[] vars, IntVar cost) {
+		this.store = store;
+		this.vars = vars;
+		this.cost = cost;
+	}
+
+}
@@ -0,0 +1,60 @@
+/**
+ *  StoreReplicaFactory.java 
+ *  This file is part of JaCoP.
+ *
+ *  JaCoP is a Java Constraint Programming solver. 
+ *	
+ *	Copyright (C) 2000-2008 Krzysztof Kuchcinski and Radoslaw Szymanek
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Affero General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Affero General Public License for more details.
+ *  
+ *  Notwithstanding any other provision of this License, the copyright
+ *  owners of this work supplement the terms of this License with terms
+ *  prohibiting misrepresentation of the origin of this work and requiring
+ *  that modified versions of this work be marked in reasonable ways as
+ *  different from the original version. This supplement of the license
+ *  terms is in accordance with Section 7 of GNU Affero General Public
+ *  License version 3.
+ *
+ *  You should have received a copy of the GNU Affero General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package org.jacop.search;
+
+import org.jacop.core.Var;
+
+/**
+ * Defines an interface of an object which is able to create independent copies
+ * of a model. A store together with its constraints can not be copied generically,
+ * therefore the model is simply created again in a fresh store, e.g. by calling
+ * the model() function of an example. Each call must return a new store which does
+ * not share any variable, constraint or mutable data structure with previously
+ * returned replicas, as replicas are used concurrently by different threads.
+ * 
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ * @param <T> type of the search variables.
+ */
+
+public interface StoreReplicaFactory<T extends Var> {
+
+	/**
+	 * It creates a new copy of the model. 
+	 * 
+	 * @param no the number of the worker for which the copy is created, it 
+	 * can be used to diversify the models (e.g. redundant constraints).
+	 * @return the model copy imposed in a new store.
+	 */
+	public StoreReplica<T> createReplica(int no);
+
+}
@@ -310,7 +310,7 @@ public class SetVar extends Var {
 			if (domain.searchConstraints.get(i) == c)
 				domain.removeSearchConstraint(store.level, this, i, c);
 
-		if (i == -1)
+		if (i == -1 && (dispatch == null || !store.removeEvents(this, c)))
 			domain.removeModelConstraint(store.level, this, c);
 
 		store.recordChange(this);
@@ -333,6 +333,8 @@ public class SetVar extends Var {
 	 * @return number of constraints attached to the variable.
 	 */
 	public int sizeConstraints() {
+		if (dispatch != null)
+			return domain.sizeConstraints() + dispatch.active;
 		return domain.sizeConstraints();
 	}
 
@@ -342,6 +344,8 @@ public class SetVar extends Var {
 	 * @return number of constraints attached at the earliest level of the variable.
 	 */
 	public int sizeConstraintsOriginal() {
+		if (dispatch != null)
+			return domain.sizeConstraintsOriginal() + dispatch.size;
 		return domain.sizeConstraintsOriginal();
 	}
 
@@ -3,7 +3,12 @@ package org.jacop;
 import static org.junit.Assert.*;
 import junit.framework.Assert;
 
+import org.jacop.constraints.Alldiff;
+import org.jacop.constraints.Linear;
 import org.jacop.constraints.XeqC;
+import org.jacop.constraints.XneqY;
+import org.jacop.constraints.XltY;
+import org.jacop.constraints.XplusYeqZ;
 import org.jacop.examples.fd.ArchFriends;
 import org.jacop.examples.fd.BIBD;
 import org.jacop.examples.fd.BabySitting;
@@ -35,9 +40,49 @@ import org.jacop.examples.fd.LeastDiff;
 import org.jacop.examples.fd.LectureSeries;
 import org.jacop.examples.fd.MagicSquares;
 import org.jacop.examples.fd.MasterClass;
+import org.jacop.examples.fd.Queens;
 import org.jacop.examples.fd.carsequencing.CarSequencing;
+import org.jacop.core.BitSetDomain;
+import org.jacop.core.BooleanVar;
+import org.jacop.core.CancellationToken;
+import org.jacop.core.Domain;
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.PropagationProfiler;
+import org.jacop.core.Store;
+import org.jacop.search.ConstraintNeighbourhood;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.HeapSelect;
+import org.jacop.search.IndomainActivity;
+import org.jacop.search.IndomainImpact;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.IndomainMiddle;
+import org.jacop.search.IterativeDepthFirstSearch;
+import org.jacop.search.LargeNeighbourhoodSearch;
+import org.jacop.search.LargestImpact;
+import org.jacop.search.MostActive;
+import org.jacop.search.ParallelDepthFirstSearch;
+import org.jacop.search.ParallelShaving;
+import org.jacop.search.PortfolioSearch;
+import org.jacop.search.PropagationNeighbourhood;
+import org.jacop.search.RandomNeighbourhood;
+import org.jacop.search.RestartSearch;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SelectChoicePointFactory;
+import org.jacop.search.SimpleMatrixSelect;
+import org.jacop.search.SimpleSelect;
+import org.jacop.search.SimpleSolutionListener;
+import org.jacop.search.SmallestDomain;
+import org.jacop.search.SolutionValuesListener;
+import org.jacop.search.SplitSelect;
+import org.jacop.search.StoreReplica;
+import org.jacop.search.StoreReplicaFactory;
+import org.jacop.search.WeightedDegree;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 public class ExampleBasedTest {
 
 
@@ -384,6 +429,162 @@ public class ExampleBasedTest {
 
 	}
 
+	@Test
+	public void testGolombPortfolio() {
+
+		PortfolioSearch<IntVar> portfolio = new PortfolioSearch<IntVar>(new StoreReplicaFactory<IntVar>() {
+
+			public StoreReplica<IntVar> createReplica(int no) {
+
+				Golomb example = new Golomb();
+				example.noMarks = 8;
+				example.model();
+
+				return new StoreReplica<IntVar>(example.store, example.vars.toArray(new IntVar[0]), example.cost);
+			}
+
+		});
+
+		portfolio.setWorkers(4);
+
+		CancellationToken token = new CancellationToken();
+		portfolio.setCancellationToken(token);
+
+		Assert.assertEquals(portfolio.labeling(), true);
+		Assert.assertEquals(portfolio.isComplete(), true);
+		Assert.assertEquals(portfolio.getCostValue(), 34);
+
+		// the workers are stopped without cancelling the token of the user.
+		Assert.assertEquals(token.isCancelled(), false);
+
+		token.cancel();
+
+		Assert.assertEquals(portfolio.labeling(), false);
+		Assert.assertEquals(portfolio.isComplete(), false);
+		Assert.assertEquals(portfolio.getWinner(), -1);
+
+	}
+
+	@Test
+	public void testQueensParallel() {
+
+		ParallelDepthFirstSearch<IntVar> search = new ParallelDepthFirstSearch<IntVar>(new StoreReplicaFactory<IntVar>() {
+
+			public StoreReplica<IntVar> createReplica(int no) {
+
+				Queens example = new Queens();
+				example.numberQ = 8;
+				example.modelBasic();
+
+				return new StoreReplica<IntVar>(example.store, example.vars.toArray(new IntVar[0]));
+			}
+
+		}, new SelectChoicePointFactory<IntVar>() {
+
+			public SelectChoicePoint<IntVar> createSelect(IntVar[] vars, int no) {
+				return new SimpleSelect<IntVar>(vars, new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+			}
+
+		});
+
+		search.setWorkers(4);
+		search.searchAll(true);
+
+		Assert.assertEquals(search.labeling(), true);
+		Assert.assertEquals(search.getSolutionsNo(), 92);
+
+	}
+
+	@Test
+	public void testParallelSplitSelect() {
+
+		ParallelDepthFirstSearch<IntVar> search = new ParallelDepthFirstSearch<IntVar>(new StoreReplicaFactory<IntVar>() {
+
+			public StoreReplica<IntVar> createReplica(int no) {
+
+				Queens example = new Queens();
+				example.numberQ = 8;
+				example.modelBasic();
+
+				return new StoreReplica<IntVar>(example.store, example.vars.toArray(new IntVar[0]));
+			}
+
+		}, new SelectChoicePointFactory<IntVar>() {
+
+			public SelectChoicePoint<IntVar> createSelect(IntVar[] vars, int no) {
+				// constraint choice points are explored by the worker which created them.
+				if (no % 2 == 0)
+					return new SplitSelect<IntVar>(vars, new SmallestDomain<IntVar>(), new IndomainMiddle<IntVar>());
+				return new SimpleSelect<IntVar>(vars, new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+			}
+
+		});
+
+		search.setWorkers(4);
+		search.searchAll(true);
+
+		Assert.assertEquals(search.labeling(), true);
+		Assert.assertEquals(search.getSolutionsNo(), 92);
+		Assert.assertEquals(search.timeOutOccured(), false);
+
+		// the search is stopped by the token of the user.
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		search.setCancellationToken(token);
+
+		Assert.assertEquals(search.labeling(), false);
+		Assert.assertEquals(search.timeOutOccured(), true);
+
+	}
+
+	@Test
+	public void testParallelShaving() {
+
+		for (int n = 3; n <= 4; n++) {
+
+			final int size = n;
+			StoreReplicaFactory<IntVar> factory = new StoreReplicaFactory<IntVar>() {
+
+				public StoreReplica<IntVar> createReplica(int no) {
+
+					Queens example = new Queens();
+					example.numberQ = size;
+					example.modelBasic();
+
+					return new StoreReplica<IntVar>(example.store, example.vars.toArray(new IntVar[0]));
+				}
+
+			};
+
+			StoreReplica<IntVar> master = factory.createReplica(0);
+
+			ParallelShaving<IntVar> shaving = new ParallelShaving<IntVar>(factory);
+			shaving.setWorkers(3);
+
+			Assert.assertEquals(shaving.shave(master.store, master.vars), n == 4);
+
+			if (n == 4) {
+
+				// only the values used by the two solutions are left.
+				Assert.assertEquals(shaving.getRemoved(), 8);
+				for (IntVar var : master.vars)
+					Assert.assertEquals(var.getSize(), 2);
+
+				DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+				search.setPrintInfo(false);
+				search.getSolutionListener().searchAll(true);
+				search.getSolutionListener().recordSolutions(false);
+
+				Assert.assertEquals(search.labeling(master.store, new SimpleSelect<IntVar>(master.vars, null, 
+						new IndomainMin<IntVar>())), true);
+				Assert.assertEquals(search.getSolutionListener().solutionsNo(), 2);
+
+			}
+
+		}
+
+	}
+
 	@Test
 	public void testHistoricHomes() {
 
@@ -455,6 +656,629 @@ public class ExampleBasedTest {
 		Assert.assertEquals(example.search.getSolutionListener().solutionsNo(), 1760);	
 	}
 
+	@Test
+	public void testRestartSearch() {
+
+		Golomb example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+
+		Assert.assertEquals(example.searchOptimalInfo(), true);
+		int optimalCost = example.cost.value();
+
+		example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+				new WeightedDegree<IntVar>(), new IndomainMin<IntVar>());
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+
+		RestartSearch<IntVar> restart = new RestartSearch<IntVar>(example.store, search, select, example.cost);
+		restart.setPolicy(RestartSearch.Policy.LUBY, 10);
+
+		Assert.assertEquals(restart.labeling(), true);
+		Assert.assertEquals(restart.isComplete(), true);
+		Assert.assertEquals(restart.getCostValue(), optimalCost);
+		Assert.assertEquals(example.cost.value(), optimalCost);
+		Assert.assertTrue(restart.getRestarts() > 0);
+
+		// no-goods are collected also in the runs after the first solution
+		example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+
+		select = new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+				new WeightedDegree<IntVar>(), new IndomainMin<IntVar>());
+		search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+
+		restart = new RestartSearch<IntVar>(example.store, search, select, example.cost);
+		restart.setPolicy(RestartSearch.Policy.LUBY, 10);
+		restart.setRecordNoGoods(true);
+
+		Assert.assertEquals(restart.labeling(), true);
+		Assert.assertEquals(restart.getCostValue(), optimalCost);
+		Assert.assertTrue(example.store.getNoGoodDatabase().size() > 0);
+
+		Assert.assertEquals(RestartSearch.luby(1), 1);
+		Assert.assertEquals(RestartSearch.luby(3), 2);
+		Assert.assertEquals(RestartSearch.luby(7), 4);
+		Assert.assertEquals(RestartSearch.luby(10), 2);
+
+		Queens queens = new Queens();
+		queens.numberQ = 40;
+		queens.modelBasic();
+
+		IntVar[] vars = queens.vars.toArray(new IntVar[0]);
+		search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+
+		restart = new RestartSearch<IntVar>(queens.store, search, 
+				new SimpleSelect<IntVar>(vars, new WeightedDegree<IntVar>(), new IndomainMin<IntVar>()));
+		restart.setPolicy(RestartSearch.Policy.GEOMETRIC, 5);
+		restart.setRecordNoGoods(true);
+		restart.setPrintInfo(false);
+
+		Assert.assertEquals(restart.labeling(), true);
+		for (IntVar v : vars)
+			Assert.assertTrue(v.singleton());
+		Assert.assertEquals(queens.store.consistency(), true);
+
+	}
+
+	@Test
+	public void testLargeNeighbourhoodSearch() {
+
+		Golomb example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+
+		IntVar[] vars = example.vars.toArray(new IntVar[0]);
+		LargeNeighbourhoodSearch<IntVar> lns = new LargeNeighbourhoodSearch<IntVar>(example.store, vars, example.cost);
+		lns.addNeighbourhood(new RandomNeighbourhood<IntVar>());
+		lns.addNeighbourhood(new PropagationNeighbourhood<IntVar>());
+		lns.addNeighbourhood(new ConstraintNeighbourhood<IntVar>());
+		lns.setIterationsLimit(100);
+		lns.setPrintInfo(false);
+
+		Assert.assertEquals(lns.labeling(), true);
+		Assert.assertEquals(lns.getIterations(), 100);
+		Assert.assertEquals(example.cost.value(), lns.getCostValue());
+		for (int i = 0; i < vars.length; i++)
+			Assert.assertEquals(vars[i].value(), lns.getSolution()[i]);
+
+		// neighbourhood covering all variables explored without limit proves optimality.
+		example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+
+		vars = example.vars.toArray(new IntVar[0]);
+		lns = new LargeNeighbourhoodSearch<IntVar>(example.store, vars, example.cost);
+		lns.setInitialSize(vars.length);
+		lns.setFailLimit(Long.MAX_VALUE);
+		lns.setPrintInfo(false);
+
+		Assert.assertEquals(lns.labeling(), true);
+		Assert.assertEquals(lns.isComplete(), true);
+		Assert.assertEquals(lns.getCostValue(), 34);
+
+	}
+
+	@Test
+	public void testExplanations() {
+
+		Golomb example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+		example.store.setExplanations(true);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]),
+				null, new IndomainMin<IntVar>());
+
+		Assert.assertEquals(search.labeling(example.store, select, example.cost), true);
+		Assert.assertEquals(example.cost.value(), 34);
+		Assert.assertTrue(example.store.explanationTrail.learnedNoGoods > 0);
+
+		// learned no-goods do not remove solutions.
+		int[] solutions = new int[2];
+		for (int k = 0; k < 2; k++) {
+
+			Store store = new Store();
+			IntVar[] x = new IntVar[6];
+			for (int i = 0; i < x.length; i++)
+				x[i] = new IntVar(store, "x" + i, 0, 5);
+
+			store.impose(new Linear(store, x, new int[] {2, -1, 3, 1, -2, 1}, "==", 7));
+			store.impose(new Linear(store, x, new int[] {1, 1, 1, -1, -1, -1}, ">", -2));
+			store.impose(new Linear(store, x, new int[] {-1, 2, 0, 3, 1, -2}, "<=", 6));
+			store.impose(new XplusYeqZ(x[0], x[1], x[4]));
+			store.impose(new XltY(x[2], x[5]));
+
+			if (k == 1)
+				store.setExplanations(true);
+
+			search = new DepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+			search.getSolutionListener().searchAll(true);
+			search.getSolutionListener().recordSolutions(false);
+
+			Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(x, null, new IndomainMin<IntVar>())), true);
+			solutions[k] = search.getSolutionListener().solutionsNo();
+		}
+
+		Assert.assertEquals(solutions[0], 4);
+		Assert.assertEquals(solutions[1], solutions[0]);
+
+	}
+
+	@Test
+	public void testNoGoodDatabase() {
+
+		// no-goods with the lowest activity are removed from the full database.
+		Golomb example = new Golomb();
+		example.noMarks = 8;
+		example.model();
+		example.store.setExplanations(true);
+		example.store.getNoGoodDatabase().maxNoGoods = 20;
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]),
+				null, new IndomainMin<IntVar>());
+
+		Assert.assertEquals(search.labeling(example.store, select, example.cost), true);
+		Assert.assertEquals(example.cost.value(), 34);
+		Assert.assertTrue(example.store.noGoodDatabase.size() <= 20);
+		Assert.assertTrue(example.store.noGoodDatabase.removed > 0);
+
+	}
+
+	@Test
+	public void testIterativeDepthFirstSearch() {
+
+		int[][] statistics = new int[2][];
+
+		for (int k = 0; k < 2; k++) {
+
+			Queens example = new Queens();
+			example.numberQ = 8;
+			example.model();
+
+			DepthFirstSearch<IntVar> search = k == 0 ? new DepthFirstSearch<IntVar>() : new IterativeDepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+			search.getSolutionListener().searchAll(true);
+			search.getSolutionListener().recordSolutions(false);
+
+			Assert.assertEquals(search.labeling(example.store, new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+					new SmallestDomain<IntVar>(), new IndomainMin<IntVar>())), true);
+
+			statistics[k] = new int[] {search.getSolutionListener().solutionsNo(), search.getNodes(), 
+					search.getDecisions(), search.getWrongDecisions(), search.getBacktracks(), search.getMaximumDepth()};
+		}
+
+		Assert.assertEquals(statistics[0][0], 92);
+		for (int i = 0; i < statistics[0].length; i++)
+			Assert.assertEquals(statistics[1][i], statistics[0][i]);
+
+		// search path too deep for recursive search.
+		Store store = new Store();
+		BooleanVar[] vars = new BooleanVar[100000];
+		for (int i = 0; i < vars.length; i++)
+			vars[i] = new BooleanVar(store, "b" + i);
+
+		IterativeDepthFirstSearch<BooleanVar> search = new IterativeDepthFirstSearch<BooleanVar>();
+		search.setPrintInfo(false);
+
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<BooleanVar>(vars, null, new IndomainMin<BooleanVar>())), true);
+		Assert.assertEquals(search.getMaximumDepth(), vars.length);
+		Assert.assertEquals(search.getStackSize(), 0);
+
+	}
+
+	@Test
+	public void testIterativeDepthFirstSearchEdgeCases() {
+
+		// all variables assigned at the root, failure at the root, failure found by search, 
+		// solution limit, optimization, and choice points given by constraints
+		boolean[] expected = {true, false, false, true, true, true};
+
+		for (int model = 0; model < expected.length; model++) {
+
+			int[][] statistics = new int[2][];
+
+			for (int k = 0; k < 2; k++) {
+
+				DepthFirstSearch<IntVar> search = k == 0 ? new DepthFirstSearch<IntVar>() : new IterativeDepthFirstSearch<IntVar>();
+				search.setPrintInfo(false);
+				search.getSolutionListener().recordSolutions(false);
+
+				Store store = new Store();
+				IntVar[] vars = {new IntVar(store, "assigned", 1, 1)};
+				IntVar cost = null;
+
+				if (model == 1) {
+					vars = new IntVar[] {new IntVar(store, "x", 0, 2)};
+					store.impose(new XeqC(vars[0], 5));
+				}
+				if (model == 2 || model == 3) {
+					vars = new IntVar[model + 1];
+					for (int i = 0; i < vars.length; i++)
+						vars[i] = new IntVar(store, "x" + i, 1, 2);
+					for (int i = 0; i < vars.length; i++)
+						for (int j = i + 1; j < vars.length; j++)
+							if (model == 2)
+								store.impose(new XneqY(vars[i], vars[j]));
+					search.getSolutionListener().searchAll(true);
+					search.getSolutionListener().setSolutionLimit(5);
+				}
+				if (model == 4) {
+					Golomb example = new Golomb();
+					example.noMarks = 6;
+					example.model();
+					store = example.store;
+					vars = example.vars.toArray(new IntVar[0]);
+					cost = example.cost;
+				}
+				if (model == 5) {
+					Queens example = new Queens();
+					example.numberQ = 6;
+					example.model();
+					store = example.store;
+					vars = example.vars.toArray(new IntVar[0]);
+					search.getSolutionListener().searchAll(true);
+				}
+
+				SelectChoicePoint<IntVar> select = model == 5 ? new SplitSelect<IntVar>(vars, null, new IndomainMin<IntVar>())
+						: new SimpleSelect<IntVar>(vars, null, new IndomainMin<IntVar>());
+
+				boolean result = cost == null ? search.labeling(store, select) : search.labeling(store, select, cost);
+
+				Assert.assertEquals(result, expected[model]);
+				statistics[k] = new int[] {search.getSolutionListener().solutionsNo(), search.getNodes(), search.getDecisions(), 
+						search.getWrongDecisions(), search.getBacktracks(), search.getMaximumDepth(), cost == null ? 0 : cost.value()};
+				if (k == 1)
+					Assert.assertEquals(((IterativeDepthFirstSearch<IntVar>) search).getStackSize(), 0);
+			}
+
+			for (int i = 0; i < statistics[0].length; i++)
+				Assert.assertEquals(statistics[1][i], statistics[0][i]);
+
+			if (model == 3)
+				Assert.assertEquals(statistics[0][0], 5);
+			if (model == 4)
+				Assert.assertEquals(statistics[0][6], 17);
+			if (model == 5)
+				Assert.assertEquals(statistics[0][0], 4);
+
+		}
+
+	}
+
+	@Test
+	public void testCancellationToken() {
+
+		Queens example = new Queens();
+		example.numberQ = 14;
+		example.model();
+
+		// the search is stopped by the deadline of the token.
+		CancellationToken token = new CancellationToken(100);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+		search.setCancellationToken(token);
+
+		search.labeling(example.store, new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+				new SmallestDomain<IntVar>(), new IndomainMin<IntVar>()));
+
+		Assert.assertEquals(search.timeOutOccured, true);
+		Assert.assertEquals(token.isCancelled(), true);
+		Assert.assertEquals(example.store.cancellationToken, null);
+		Assert.assertEquals(example.store.level, 0);
+
+		// the search is stopped by another thread.
+		final CancellationToken other = new CancellationToken();
+		Thread thread = new Thread() {
+			public void run() {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+				}
+				other.cancel();
+			}
+		};
+
+		example = new Queens();
+		example.numberQ = 14;
+		example.model();
+
+		search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+		search.setCancellationToken(other);
+
+		thread.start();
+		search.labeling(example.store, new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+				new SmallestDomain<IntVar>(), new IndomainMin<IntVar>()));
+
+		Assert.assertEquals(search.timeOutOccured, true);
+
+		// the token which is not cancelled does not change the search.
+		token.reset();
+
+		example = new Queens();
+		example.numberQ = 8;
+		example.model();
+
+		search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+		search.setCancellationToken(token);
+
+		Assert.assertEquals(search.labeling(example.store, new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+				new SmallestDomain<IntVar>(), new IndomainMin<IntVar>())), true);
+		Assert.assertEquals(search.getSolutionListener().solutionsNo(), 92);
+		Assert.assertEquals(search.timeOutOccured, false);
+
+		// the child token is cancelled with its parent but not the other way round.
+		CancellationToken child = new CancellationToken(token);
+		child.cancel();
+		Assert.assertEquals(token.isCancelled(), false);
+
+		child = new CancellationToken(token);
+		token.cancel();
+		Assert.assertEquals(child.isCancelled(), true);
+
+		try {
+			search.setTimeCheckInterval(0);
+			Assert.fail("Time check interval must be positive.");
+		} catch (IllegalArgumentException e) {
+		}
+
+	}
+
+	@Test
+	public void testSolutionValues() {
+
+		int[][][] solutions = new int[2][][];
+		final int[] streamed = new int[2];
+
+		for (int mode = 0; mode < 3; mode++) {
+
+			Queens example = new Queens();
+			example.numberQ = 8;
+			example.model();
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+
+			SimpleSolutionListener<IntVar> listener = (SimpleSolutionListener<IntVar>) search.getSolutionListener();
+			listener.searchAll(true);
+
+			if (mode < 2) {
+				listener.recordSolutions(true);
+				listener.setCompactSolutions(mode == 1);
+			}
+			else {
+				listener.recordSolutions(false);
+				listener.setSolutionValuesListener(new SolutionValuesListener() {
+					public void executedAtSolution(int[] values) {
+						streamed[0]++;
+						streamed[1] += values[0];
+					}
+				});
+			}
+
+			Assert.assertEquals(search.labeling(example.store, new SimpleSelect<IntVar>(example.vars.toArray(new IntVar[0]), 
+					null, new IndomainMin<IntVar>())), true);
+			Assert.assertEquals(listener.solutionsNo(), 92);
+
+			if (mode < 2) {
+				solutions[mode] = new int[listener.solutionsNo()][];
+				for (int no = 1; no <= listener.solutionsNo(); no++) {
+					solutions[mode][no - 1] = listener.getSolutionValues(no);
+					Domain[] solution = listener.getSolution(no);
+					for (int i = 0; i < solution.length; i++)
+						Assert.assertEquals(((IntDomain) solution[i]).min(), solutions[mode][no - 1][i]);
+				}
+			}
+
+		}
+
+		int sum = 0;
+		for (int no = 0; no < 92; no++) {
+			Assert.assertEquals(Arrays.equals(solutions[1][no], solutions[0][no]), true);
+			sum += solutions[0][no][0];
+		}
+
+		Assert.assertEquals(streamed[0], 92);
+		Assert.assertEquals(streamed[1], sum);
+
+	}
+
+	@Test
+	public void testActivityAndImpact() {
+
+		for (int mode = 0; mode < 4; mode++) {
+
+			Queens example = new Queens();
+			example.numberQ = 6;
+			example.modelBasic();
+
+			IntVar[] vars = example.vars.toArray(new IntVar[0]);
+			IntVar[][] matrix = {vars};
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+			search.getSolutionListener().searchAll(true);
+			search.getSolutionListener().recordSolutions(false);
+
+			SelectChoicePoint<IntVar> select;
+
+			if (mode < 2) {
+				IndomainActivity<IntVar> indomain = new IndomainActivity<IntVar>(vars);
+				MostActive<IntVar> comparator = new MostActive<IntVar>(example.store);
+				indomain.initialize(5, 1);
+				search.setConsistencyListener(indomain);
+				if (mode == 0)
+					select = new SimpleSelect<IntVar>(vars, comparator, indomain);
+				else
+					select = new SimpleMatrixSelect<IntVar>(matrix, comparator, indomain);
+			}
+			else {
+				IndomainImpact<IntVar> indomain = new IndomainImpact<IntVar>(vars);
+				indomain.initialize();
+				search.setConsistencyListener(indomain);
+				if (mode == 2)
+					select = new SimpleSelect<IntVar>(vars, new LargestImpact<IntVar>(indomain), indomain);
+				else
+					select = new SimpleMatrixSelect<IntVar>(matrix, new LargestImpact<IntVar>(indomain), indomain);
+			}
+
+			Assert.assertEquals(search.labeling(example.store, select), true);
+			Assert.assertEquals(search.getSolutionListener().solutionsNo(), 4);
+
+			if (mode < 2) {
+				double activity = 0;
+				for (IntVar var : vars)
+					activity += var.activity;
+				Assert.assertEquals(activity > 0, true);
+			}
+
+		}
+
+	}
+
+	@Test
+	public void testHeapSelect() {
+
+		int[] solutions = new int[2];
+		int[] nodes = new int[2];
+
+		for (int mode = 0; mode < 2; mode++) {
+
+			Queens example = new Queens();
+			example.numberQ = 10;
+			example.modelBasic();
+
+			IntVar[] vars = example.vars.toArray(new IntVar[0]);
+			SelectChoicePoint<IntVar> select;
+			if (mode == 0)
+				select = new SimpleSelect<IntVar>(vars, new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+			else
+				select = new HeapSelect<IntVar>(example.store, vars, new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.getSolutionListener().searchAll(true);
+			search.setPrintInfo(false);
+
+			Assert.assertEquals(search.labeling(example.store, select), true);
+			solutions[mode] = search.getSolutionListener().solutionsNo();
+			nodes[mode] = search.getNodes();
+		}
+
+		Assert.assertEquals(solutions[0], 724);
+		Assert.assertEquals(solutions[1], solutions[0]);
+		Assert.assertEquals(nodes[1], nodes[0]);
+
+	}
+
+	@Test
+	public void testGolombBitSetDomain() {
+
+		Assert.assertEquals(golombCost(8, 4096, false), golombCost(8, 0, false));
+
+	}
+
+	@Test
+	public void testGolombDomainTrail() {
+
+		Assert.assertEquals(golombCost(8, 0, true), golombCost(8, 0, false));
+
+	}
+
+	/**
+	 * It finds the length of the optimal Golomb ruler with a given number of marks 
+	 * placed within 0..100, so variables are encoded by BitSetDomain if the 
+	 * threshold is larger than 100.
+	 */
+	int golombCost(int marks, int bitSetDomainThreshold, boolean domainTrail) {
+
+		Store store = new Store();
+		store.setBitSetDomainThreshold(bitSetDomainThreshold);
+		store.setDomainTrail(domainTrail);
+
+		IntVar[] numbers = new IntVar[marks];
+		ArrayList<IntVar> differences = new ArrayList<IntVar>();
+
+		for (int i = 0; i < marks; i++) {
+			numbers[i] = new IntVar(store, "n" + i, 0, 100);
+			if (i > 0)
+				store.impose(new XltY(numbers[i - 1], numbers[i]));
+			else
+				store.impose(new XeqC(numbers[0], 0));
+			for (int j = 0; j < i; j++) {
+				IntVar difference = new IntVar(store, "d" + i + "_" + j, 1, 100);
+				store.impose(new XplusYeqZ(difference, numbers[j], numbers[i]));
+				differences.add(difference);
+			}
+		}
+
+		store.impose(new XltY(differences.get(0), differences.get(differences.size() - 1)));
+		store.impose(new Alldiff(differences));
+
+		Assert.assertEquals(numbers[1].domain instanceof BitSetDomain, bitSetDomainThreshold > 100);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(numbers, null, 
+				new IndomainMin<IntVar>()), numbers[marks - 1]), true);
+
+		return numbers[marks - 1].value();
+
+	}
+
+	@Test
+	public void testMagicSquaresProfiled() {
+
+		MagicSquares example = new MagicSquares();
+		
+		example.model();
+		example.store.setProfiler(new PropagationProfiler());
+
+		Assert.assertEquals(example.searchAllAtOnce(), true);
+		Assert.assertEquals(example.search.getSolutionListener().solutionsNo(), 1760);	
+
+		long calls = 0, failures = 0;
+		for (PropagationProfiler.Statistics s : example.store.getProfiler().getClassStatistics()) {
+			calls += s.calls;
+			failures += s.failures;
+		}
+
+		Assert.assertEquals(calls > 0, true);
+		Assert.assertEquals(failures > 0, true);
+	}
+
+	@Test
+	public void testMagicSquaresArrayBasedQueue() {
+
+		MagicSquares example = new MagicSquares();
+		
+		example.model();
+		example.store.setArrayBasedQueue(true);
+
+		Assert.assertEquals(example.searchAllAtOnce(), true);
+		Assert.assertEquals(example.search.getSolutionListener().solutionsNo(), 1760);	
+	}
+
 	@Test
 	public void testMasterClass() {
 		
@@ -0,0 +1,130 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+import org.jacop.search.SmallestDomain;
+
+import org.junit.Test;
+
+/**
+ * It tests the bounds consistent pruning of AlldiffBounds.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class AlldiffBoundsTest {
+
+	@Test
+	public void testAlldiffBounds() {
+
+		Store store = new Store();
+
+		IntVar x = new IntVar(store, "x", 1, 2);
+		IntVar y = new IntVar(store, "y", 1, 2);
+		IntVar z = new IntVar(store, "z", 1, 3);
+		IntVar w = new IntVar(store, "w", 2, 5);
+
+		store.impose(new AlldiffBounds(new IntVar[] {x, y, z, w}));
+
+		Assert.assertEquals(store.consistency(), true);
+
+		// {1, 2} and {1, 2, 3} are Hall intervals
+		Assert.assertEquals(z.value(), 3);
+		Assert.assertEquals(w.min(), 4);
+		Assert.assertEquals(w.max(), 5);
+
+		store = new Store();
+
+		int n = 8;
+		IntVar[] queens = new IntVar[n];
+		IntVar[] up = new IntVar[n];
+		IntVar[] down = new IntVar[n];
+		for (int i = 0; i < n; i++) {
+			queens[i] = new IntVar(store, "q" + i, 0, n - 1);
+			up[i] = new IntVar(store, "u" + i, i, n - 1 + i);
+			down[i] = new IntVar(store, "d" + i, -i, n - 1 - i);
+			store.impose(new XplusCeqZ(queens[i], i, up[i]));
+			store.impose(new XplusCeqZ(queens[i], -i, down[i]));
+		}
+
+		store.impose(new AlldiffBounds(queens));
+		store.impose(new AlldiffBounds(up));
+		store.impose(new AlldiffBounds(down));
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(queens, new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+
+		Assert.assertEquals(search.labeling(store, select), true);
+		Assert.assertEquals(search.getSolutionListener().solutionsNo(), 92);
+
+	}
+
+	@Test
+	public void testAlldiffBoundsPruning() {
+
+		// no variables
+		Store store = new Store();
+		store.impose(new AlldiffBounds(new IntVar[0]));
+		Assert.assertEquals(store.consistency(), true);
+
+		// [1, 3] is a Hall interval, holes of x and y are not used to prune z 
+		// and the new minimum of w is moved over its hole
+		store = new Store();
+		IntVar x = values(store, "x", 1, 3);
+		IntVar y = values(store, "y", 1, 3);
+		IntVar z = new IntVar(store, "z", 1, 3);
+		IntVar w = values(store, "w", 1, 2, 3, 5, 6);
+		IntVar u = new IntVar(store, "u", 1, 6);
+		store.impose(new AlldiffBounds(new IntVar[] {x, y, z, w, u}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(z.getSize(), 3);
+		Assert.assertEquals(w.min(), 5);
+		Assert.assertEquals(u.min(), 4);
+
+		store.setLevel(1);
+		w.domain.in(store.level, w, 6, 6);
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(u.max(), 5);
+		store.removeLevel(1);
+		store.setLevel(0);
+		Assert.assertEquals(w.min() == 5 && u.max() == 6, true);
+
+		// three variables with bounds [1, 3] are consistent even if they can take only values 1 and 3
+		store = new Store();
+		store.impose(new AlldiffBounds(new IntVar[] {values(store, "a", 1, 3), values(store, "b", 1, 3), values(store, "c", 1, 3)}));
+		Assert.assertEquals(store.consistency(), true);
+
+		// values of grounded variables are removed also from the middle of domains
+		store = new Store();
+		IntVar h = new IntVar(store, "h", 1, 5);
+		store.impose(new AlldiffBounds(new IntVar[] {new IntVar(store, 3, 3), h}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(h.dom().toString(), "{1..2, 4..5}");
+
+		store = new Store();
+		store.impose(new AlldiffBounds(new IntVar[] {new IntVar(store, 2, 2), new IntVar(store, 2, 2), new IntVar(store, 1, 5)}));
+		Assert.assertEquals(store.consistency(), false);
+
+	}
+
+	IntVar values(Store store, String name, int... values) {
+
+		IntVar var = new IntVar(store, name);
+		for (int value : values)
+			var.addDom(value, value);
+		return var;
+
+	}
+
+}
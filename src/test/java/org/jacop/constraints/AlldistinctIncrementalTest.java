@@ -0,0 +1,136 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+import org.jacop.search.SmallestDomain;
+
+import org.junit.Test;
+
+/**
+ * It tests the incremental matching and pruning of AlldistinctIncremental.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class AlldistinctIncrementalTest {
+
+	@Test
+	public void testAlldistinctIncremental() {
+
+		Store store = new Store();
+
+		IntVar x = new IntVar(store, "x", 1, 2);
+		IntVar y = new IntVar(store, "y", 1, 2);
+		IntVar z = new IntVar(store, "z", 1, 4);
+		IntVar w = new IntVar(store, "w", 3, 3);
+
+		store.impose(new AlldistinctIncremental(new IntVar[] {x, y, z, w}));
+
+		Assert.assertEquals(store.consistency(), true);
+
+		// values 1 and 2 are taken by x and y, value 3 by w
+		Assert.assertEquals(z.singleton(), true);
+		Assert.assertEquals(z.value(), 4);
+
+		store = new Store();
+
+		int n = 8;
+		IntVar[] queens = new IntVar[n];
+		IntVar[] up = new IntVar[n];
+		IntVar[] down = new IntVar[n];
+		for (int i = 0; i < n; i++) {
+			queens[i] = new IntVar(store, "q" + i, 0, n - 1);
+			up[i] = new IntVar(store, "u" + i, i, n - 1 + i);
+			down[i] = new IntVar(store, "d" + i, -i, n - 1 - i);
+			store.impose(new XplusCeqZ(queens[i], i, up[i]));
+			store.impose(new XplusCeqZ(queens[i], -i, down[i]));
+		}
+
+		store.impose(new AlldistinctIncremental(queens));
+		store.impose(new AlldistinctIncremental(up));
+		store.impose(new AlldistinctIncremental(down));
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(queens, new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+
+		Assert.assertEquals(search.labeling(store, select), true);
+		Assert.assertEquals(search.getSolutionListener().solutionsNo(), 92);
+
+	}
+
+	@Test
+	public void testAlldistinctIncrementalPruning() {
+
+		// {1, 5} is a Hall set of x and y, values inside the holes are kept
+		Store store = new Store();
+		IntVar x = values(store, "x", 1, 5);
+		IntVar y = values(store, "y", 1, 5);
+		IntVar z = values(store, "z", 1, 3, 5);
+		IntVar w = new IntVar(store, "w", 1, 6);
+		store.impose(new AlldistinctIncremental(new IntVar[] {x, y, z, w}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(z.value(), 3);
+		Assert.assertEquals(w.dom().toString(), "{2, 4, 6}");
+
+		// three variables can not take two distinct values
+		store = new Store();
+		store.impose(new AlldistinctIncremental(new IntVar[] {values(store, "a", 1, 3), values(store, "b", 1, 3), values(store, "c", 1, 3)}));
+		Assert.assertEquals(store.consistency(), false);
+
+		// the matching is repaired after backtracking, also from a failure
+		store = new Store();
+		IntVar[] vars = new IntVar[5];
+		for (int i = 0; i < vars.length; i++)
+			vars[i] = new IntVar(store, "v" + i, 1, 5);
+		store.impose(new AlldistinctIncremental(vars));
+		Assert.assertEquals(store.consistency(), true);
+
+		store.setLevel(1);
+		for (int i = 0; i < 3; i++)
+			vars[i].domain.in(store.level, vars[i], 1, 3);
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(vars[3].min() == 4 && vars[4].min() == 4, true);
+		store.removeLevel(1);
+		store.setLevel(0);
+
+		store.setLevel(1);
+		for (int i = 0; i < 3; i++)
+			vars[i].domain.in(store.level, vars[i], 2, 3);
+		Assert.assertEquals(store.consistency(), false);
+		store.removeLevel(1);
+		store.setLevel(0);
+
+		store.setLevel(1);
+		vars[0].domain.in(store.level, vars[0], 1, 1);
+		Assert.assertEquals(store.consistency(), true);
+		for (int i = 1; i < vars.length; i++)
+			Assert.assertEquals(vars[i].min() == 2 && vars[i].max() == 5, true);
+		store.removeLevel(1);
+		store.setLevel(0);
+
+		for (int i = 0; i < vars.length; i++)
+			Assert.assertEquals(vars[i].getSize(), 5);
+
+	}
+
+	IntVar values(Store store, String name, int... values) {
+
+		IntVar var = new IntVar(store, name);
+		for (int value : values)
+			var.addDom(value, value);
+		return var;
+
+	}
+
+}
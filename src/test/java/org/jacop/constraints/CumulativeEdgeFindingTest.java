@@ -0,0 +1,124 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+
+import org.junit.Test;
+
+/**
+ * It tests the edge-finding and timetable pruning of CumulativeEdgeFinding.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class CumulativeEdgeFindingTest {
+
+	@Test
+	public void testCumulativeEdgeFinding() {
+
+		for (int strength = CumulativeEdgeFinding.TIMETABLE; strength <= CumulativeEdgeFinding.ENERGETIC; strength++) {
+
+			Store store = new Store();
+
+			IntVar[] starts = {new IntVar(store, "a", 0, 2), new IntVar(store, "b", 0, 3), 
+							   new IntVar(store, "c", 0, 2), new IntVar(store, "d", 1, 5)};
+			IntVar[] durations = {new IntVar(store, 3, 3), new IntVar(store, 2, 2), 
+								  new IntVar(store, 3, 3), new IntVar(store, 3, 3)};
+			IntVar[] resources = {new IntVar(store, 1, 1), new IntVar(store, 1, 1), 
+								  new IntVar(store, 1, 1), new IntVar(store, 2, 2)};
+
+			store.impose(new CumulativeEdgeFinding(starts, durations, resources, new IntVar(store, 2, 2), strength));
+
+			Assert.assertEquals(store.consistency(), true);
+
+			// tasks a, b and c fill the resource within [0, 5) so d has to start after them
+			if (strength == CumulativeEdgeFinding.TIMETABLE)
+				Assert.assertEquals(starts[3].min(), 3);
+			else
+				Assert.assertEquals(starts[3].min(), 4);
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+			search.getSolutionListener().searchAll(true);
+			search.getSolutionListener().recordSolutions(false);
+
+			SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(starts, null, new IndomainMin<IntVar>());
+
+			Assert.assertEquals(search.labeling(store, select), true);
+			Assert.assertEquals(search.getSolutionListener().solutionsNo(), 10);
+
+		}
+
+	}
+
+	@Test
+	public void testCumulativeEdgeFindingPruning() {
+
+		for (int strength = CumulativeEdgeFinding.TIMETABLE; strength <= CumulativeEdgeFinding.ENERGETIC; strength++) {
+
+			// no tasks
+			Store store = new Store();
+			IntVar limit = new IntVar(store, "limit", 0, 3);
+			store.impose(new CumulativeEdgeFinding(new IntVar[0], new IntVar[0], new IntVar[0], limit, strength));
+			Assert.assertEquals(store.consistency(), true);
+			Assert.assertEquals(limit.min(), 0);
+
+			// a task can not overlap the compulsory part which uses the whole resource, tasks 
+			// with zero duration or zero resource usage are not moved and do not use the resource
+			store = new Store();
+			IntVar full = new IntVar(store, "full", 2, 2);
+			IntVar task = new IntVar(store, "task", 0, 10);
+			IntVar instant = new IntVar(store, "instant", 0, 10);
+			IntVar idle = new IntVar(store, "idle", 0, 10);
+			IntVar usage = new IntVar(store, "usage", 0, 5);
+			limit = new IntVar(store, "limit", 0, 2);
+			store.impose(new CumulativeEdgeFinding(new IntVar[] {full, task, instant, idle}, 
+					new IntVar[] {new IntVar(store, 3, 3), new IntVar(store, 3, 3), new IntVar(store, 0, 0), new IntVar(store, 3, 3)}, 
+					new IntVar[] {new IntVar(store, 2, 2), usage, new IntVar(store, 5, 5), new IntVar(store, 0, 0)}, 
+					limit, strength));
+			Assert.assertEquals(store.consistency(), true);
+			Assert.assertEquals(limit.min(), 2);
+			Assert.assertEquals(usage.max(), 2);
+			Assert.assertEquals(instant.min() == 0 && instant.max() == 10, true);
+			Assert.assertEquals(idle.min() == 0 && idle.max() == 10, true);
+			Assert.assertEquals(task.min(), 0);
+
+			store.setLevel(1);
+			usage.domain.in(store.level, usage, 1, 2);
+			Assert.assertEquals(store.consistency(), true);
+			Assert.assertEquals(task.min(), 5);
+			store.removeLevel(1);
+			store.setLevel(0);
+
+			// the mirrored instance of testCumulativeEdgeFinding, the latest completion time of d is pruned
+			store = new Store();
+			IntVar[] starts = {new IntVar(store, "a", 5, 7), new IntVar(store, "b", 5, 8), 
+							   new IntVar(store, "c", 5, 7), new IntVar(store, "d", 2, 6)};
+			store.impose(new CumulativeEdgeFinding(starts, 
+					new IntVar[] {new IntVar(store, 3, 3), new IntVar(store, 2, 2), new IntVar(store, 3, 3), new IntVar(store, 3, 3)}, 
+					new IntVar[] {new IntVar(store, 1, 1), new IntVar(store, 1, 1), new IntVar(store, 1, 1), new IntVar(store, 2, 2)}, 
+					new IntVar(store, 2, 2), strength));
+			Assert.assertEquals(store.consistency(), true);
+			Assert.assertEquals(starts[3].max(), strength == CumulativeEdgeFinding.TIMETABLE ? 4 : 3);
+
+			// three unit tasks without compulsory parts do not fit within [0, 2) of a unary resource
+			store = new Store();
+			starts = new IntVar[] {new IntVar(store, "a", 0, 1), new IntVar(store, "b", 0, 1), new IntVar(store, "c", 0, 1)};
+			IntVar unit = new IntVar(store, 1, 1);
+			store.impose(new CumulativeEdgeFinding(starts, new IntVar[] {unit, unit, unit}, 
+					new IntVar[] {unit, unit, unit}, unit, strength));
+			// only timetable reasoning does not detect the overload
+			Assert.assertEquals(store.consistency(), strength == CumulativeEdgeFinding.TIMETABLE);
+
+		}
+
+	}
+
+}
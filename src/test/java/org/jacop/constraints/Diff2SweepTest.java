@@ -0,0 +1,135 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+
+import org.junit.Test;
+
+/**
+ * It tests the sweep based pruning of Diff2Sweep and compares it with Diff2.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class Diff2SweepTest {
+
+	@Test
+	public void testDiff2Sweep() {
+
+		Store store = new Store();
+
+		IntVar x = new IntVar(store, "x", 0, 6);
+		IntVar[][] rectangles = {{new IntVar(store, 0, 0), new IntVar(store, 0, 0), new IntVar(store, 4, 4), new IntVar(store, 4, 4)},
+								 {x, new IntVar(store, 0, 0), new IntVar(store, 2, 2), new IntVar(store, 5, 5)}};
+
+		store.impose(new Diff2Sweep(rectangles));
+
+		Assert.assertEquals(store.consistency(), true);
+
+		// the second rectangle overlaps the first one in the second dimension so it is placed after it
+		Assert.assertEquals(x.min(), 4);
+
+		int[] solutions = new int[2];
+
+		for (int mode = 0; mode < 2; mode++) {
+
+			store = new Store();
+
+			int[][] sizes = {{2, 2}, {1, 3}, {3, 1}, {2, 1}};
+			IntVar[][] rects = new IntVar[sizes.length][];
+			IntVar[] vars = new IntVar[2 * sizes.length];
+			for (int i = 0; i < sizes.length; i++) {
+				rects[i] = new IntVar[] {new IntVar(store, "x" + i, 0, 5 - sizes[i][0]), new IntVar(store, "y" + i, 0, 3 - sizes[i][1]), 
+										 new IntVar(store, sizes[i][0], sizes[i][0]), new IntVar(store, sizes[i][1], sizes[i][1])};
+				vars[2 * i] = rects[i][0];
+				vars[2 * i + 1] = rects[i][1];
+			}
+
+			if (mode == 0)
+				store.impose(new Diff2(rects));
+			else
+				store.impose(new Diff2Sweep(rects));
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+			search.getSolutionListener().searchAll(true);
+			search.getSolutionListener().recordSolutions(false);
+
+			SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(vars, null, new IndomainMin<IntVar>());
+
+			Assert.assertEquals(search.labeling(store, select), true);
+			solutions[mode] = search.getSolutionListener().solutionsNo();
+		}
+
+		Assert.assertEquals(solutions[1], solutions[0]);
+
+	}
+
+	@Test
+	public void testDiff2SweepPruning() {
+
+		// no rectangles
+		Store store = new Store();
+		store.impose(new Diff2Sweep(new IntVar[0][]));
+		Assert.assertEquals(store.consistency(), true);
+
+		// rectangles with zero length are not moved over the fixed square [0, 4) x [0, 4)
+		store = new Store();
+		IntVar x = new IntVar(store, "x", 0, 6);
+		IntVar y = new IntVar(store, "y", 0, 6);
+		IntVar thin = new IntVar(store, "thin", 0, 6);
+		IntVar flat = new IntVar(store, "flat", 0, 6);
+		store.impose(new Diff2Sweep(new IntVar[][] {
+				{new IntVar(store, 0, 0), new IntVar(store, 0, 0), new IntVar(store, 4, 4), new IntVar(store, 4, 4)},
+				{x, y, new IntVar(store, 2, 2), new IntVar(store, 2, 2)},
+				{thin, new IntVar(store, 1, 1), new IntVar(store, 0, 0), new IntVar(store, 3, 3)},
+				{flat, new IntVar(store, 5, 5), new IntVar(store, 3, 3), new IntVar(store, 0, 0)}}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(x.min() == 0 && x.max() == 6 && y.min() == 0 && y.max() == 6, true);
+		Assert.assertEquals(thin.min() == 0 && thin.max() == 6, true);
+		Assert.assertEquals(flat.min() == 0 && flat.max() == 6, true);
+
+		// all origins 0..2 of y are covered by the square for x < 4 
+		store.setLevel(1);
+		y.domain.in(store.level, y, 0, 2);
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(x.min(), 4);
+		store.removeLevel(1);
+		store.setLevel(0);
+		Assert.assertEquals(x.min(), 0);
+
+		// the maximal origin is pruned in the first dimension
+		store = new Store();
+		x = new IntVar(store, "x", 0, 6);
+		store.impose(new Diff2Sweep(new IntVar[][] {
+				{new IntVar(store, 4, 4), new IntVar(store, 0, 0), new IntVar(store, 4, 4), new IntVar(store, 4, 4)},
+				{x, new IntVar(store, 1, 1), new IntVar(store, 2, 2), new IntVar(store, 2, 2)}}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(x.max(), 2);
+
+		// the minimal origin is pruned in the second dimension
+		store = new Store();
+		y = new IntVar(store, "y", 0, 6);
+		store.impose(new Diff2Sweep(new IntVar[][] {
+				{new IntVar(store, 0, 0), new IntVar(store, 0, 0), new IntVar(store, 4, 4), new IntVar(store, 4, 4)},
+				{new IntVar(store, 1, 1), y, new IntVar(store, 2, 2), new IntVar(store, 2, 2)}}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(y.min(), 4);
+
+		// the second rectangle can be placed only over the square
+		store = new Store();
+		store.impose(new Diff2Sweep(new IntVar[][] {
+				{new IntVar(store, 0, 0), new IntVar(store, 0, 0), new IntVar(store, 4, 4), new IntVar(store, 4, 4)},
+				{new IntVar(store, 0, 2), new IntVar(store, 0, 2), new IntVar(store, 2, 2), new IntVar(store, 2, 2)}}));
+		Assert.assertEquals(store.consistency(), false);
+
+	}
+
+}
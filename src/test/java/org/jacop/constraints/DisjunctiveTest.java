@@ -0,0 +1,126 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SelectChoicePoint;
+import org.jacop.search.SimpleSelect;
+
+import org.junit.Test;
+
+/**
+ * It tests the pruning of the Disjunctive unary resource constraint.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class DisjunctiveTest {
+
+	@Test
+	public void testDisjunctive() {
+
+		Store store = new Store();
+
+		IntVar[] starts = {new IntVar(store, "a", 0, 2), new IntVar(store, "b", 0, 2), 
+						   new IntVar(store, "c", 1, 8), new IntVar(store, "o", 0, 2)};
+		IntVar[] durations = {new IntVar(store, 2, 2), new IntVar(store, 2, 2), 
+							  new IntVar(store, 3, 3), new IntVar(store, 1, 1)};
+		IntVar present = new IntVar(store, 1, 1);
+		IntVar[] presences = {present, present, present, new IntVar(store, "p", 0, 1)};
+
+		store.impose(new Disjunctive(starts, durations, presences));
+
+		Assert.assertEquals(store.consistency(), true);
+
+		// tasks a and b occupy [0, 4) so c is scheduled after them and optional task o does not fit
+		Assert.assertEquals(starts[2].min(), 4);
+		Assert.assertEquals(presences[3].max(), 0);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+
+		IntVar[] vars = {starts[0], starts[1], starts[2]};
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(vars, null, new IndomainMin<IntVar>());
+
+		Assert.assertEquals(search.labeling(store, select), true);
+		Assert.assertEquals(search.getSolutionListener().solutionsNo(), 10);
+
+	}
+
+	@Test
+	public void testDisjunctivePruning() {
+
+		// no tasks
+		Store store = new Store();
+		store.impose(new Disjunctive(new IntVar[0], new IntVar[0], new IntVar[0]));
+		Assert.assertEquals(store.consistency(), true);
+
+		// x precedes y, task z with zero duration is not moved
+		store = new Store();
+		IntVar x = new IntVar(store, "x", 0, 1);
+		IntVar y = new IntVar(store, "y", 2, 10);
+		IntVar z = new IntVar(store, "z", 0, 10);
+		store.impose(new Disjunctive(new IntVar[] {x, y, z}, 
+				new IntVar[] {new IntVar(store, 3, 3), new IntVar(store, 3, 3), new IntVar(store, 0, 0)}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(y.min(), 3);
+		Assert.assertEquals(z.min() == 0 && z.max() == 10, true);
+
+		// p can be neither after q nor after r so it is scheduled first
+		store = new Store();
+		IntVar p = new IntVar(store, "p", 0, 6);
+		IntVar q = new IntVar(store, "q", 1, 5);
+		IntVar r = new IntVar(store, "r", 1, 5);
+		store.impose(new Disjunctive(new IntVar[] {p, q, r}, 
+				new IntVar[] {new IntVar(store, 2, 2), new IntVar(store, 3, 3), new IntVar(store, 3, 3)}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(p.singleton(0), true);
+		Assert.assertEquals(q.min(), 2);
+		Assert.assertEquals(r.min(), 2);
+
+		// starts of optional tasks are pruned only when the tasks become present
+		store = new Store();
+		IntVar o = new IntVar(store, "o", 0, 10);
+		IntVar u = new IntVar(store, "u", 0, 10);
+		IntVar presentO = new IntVar(store, "presentO", 0, 1);
+		IntVar presentU = new IntVar(store, "presentU", 0, 1);
+		store.impose(new Disjunctive(new IntVar[] {o, new IntVar(store, "t", 0, 0), u}, 
+				new IntVar[] {new IntVar(store, 3, 3), new IntVar(store, 5, 5), new IntVar(store, 2, 2)}, 
+				new IntVar[] {presentO, new IntVar(store, 1, 1), presentU}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(o.min(), 0);
+		Assert.assertEquals(u.min(), 0);
+
+		store.setLevel(1);
+		presentO.domain.in(store.level, presentO, 1, 1);
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(o.min(), 5);
+		Assert.assertEquals(u.min(), 0);
+		Assert.assertEquals(presentU.singleton(), false);
+		store.removeLevel(1);
+		store.setLevel(0);
+		Assert.assertEquals(o.min(), 0);
+
+		// two present tasks do not fit, an optional one is made absent instead
+		store = new Store();
+		store.impose(new Disjunctive(new IntVar[] {new IntVar(store, 0, 2), new IntVar(store, 0, 2)}, 
+				new IntVar[] {new IntVar(store, 3, 3), new IntVar(store, 3, 3)}));
+		Assert.assertEquals(store.consistency(), false);
+
+		store = new Store();
+		IntVar optional = new IntVar(store, "optional", 0, 1);
+		store.impose(new Disjunctive(new IntVar[] {new IntVar(store, 0, 2), new IntVar(store, 0, 2)}, 
+				new IntVar[] {new IntVar(store, 3, 3), new IntVar(store, 3, 3)}, 
+				new IntVar[] {new IntVar(store, 1, 1), optional}));
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(optional.max(), 0);
+
+	}
+
+}
@@ -0,0 +1,71 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SimpleSelect;
+
+import org.junit.Test;
+
+/**
+ * It tests Linear and SumWeight with event based scheduling of the store.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class LinearTest {
+
+	@Test
+	public void testLinearEventScheduling() {
+
+		int[] solutions = new int[2];
+		
+		for (int mode = 0; mode < 2; mode++) {
+
+			Store store = new Store();
+			store.setEventScheduling(mode == 1);
+
+			IntVar[] x = new IntVar[6];
+			for (int i = 0; i < x.length; i++)
+				x[i] = new IntVar(store, "x" + i, 0, 5);
+			IntVar total = new IntVar(store, "total", 20, 30);
+
+			store.impose(new SumWeight(x, new int[] {1, 2, 3, 4, 5, 6}, total));
+			store.impose(new Linear(store, x, new int[] {3, -1, 2, -2, 1, 1}, "<=", 4));
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.getSolutionListener().searchAll(true);
+			search.setPrintInfo(false);
+
+			Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(x, null, new IndomainMin<IntVar>())), true);
+			solutions[mode] = search.getSolutionListener().solutionsNo();
+		}
+
+		Assert.assertEquals(solutions[1], solutions[0]);	
+
+		// a constraint queued at another index is not queued again by an event
+		Store store = new Store();
+		store.setEventScheduling(true);
+		IntVar a = new IntVar(store, "a", 0, 5);
+		IntVar b = new IntVar(store, "b", 0, 5);
+		Linear linear = new Linear(store, new IntVar[] {a, b}, new int[] {1, 1}, "<=", 8);
+		store.impose(linear);
+		Assert.assertEquals(store.consistency(), true);
+
+		store.addChanged(linear, 0);
+		a.domain.in(store.level, a, 0, 4);
+
+		int queued = 0;
+		for (store.currentQueue = 0; store.currentQueue < store.queueNo; store.currentQueue++)
+			for (Constraint c = store.getFirstChanged(); c != null; c = store.getFirstChanged())
+				if (c == linear)
+					queued++;
+
+		Assert.assertEquals(queued, 1);
+	}
+
+}
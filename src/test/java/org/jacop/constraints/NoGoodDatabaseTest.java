@@ -0,0 +1,86 @@
+package org.jacop.constraints;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SimpleSelect;
+
+import org.junit.Test;
+
+/**
+ * It tests the no-goods stored in NoGoodDatabase.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class NoGoodDatabaseTest {
+
+	@Test
+	public void testNoGoodDatabase() {
+
+		// the same no-goods as NoGood constraints and in the database, the last 
+		// database keeps literals in the hash table as the literal tables are too small.
+		int[] solutions = new int[3];
+		for (int k = 0; k < 3; k++) {
+
+			Store store = new Store();
+			IntVar[] x = new IntVar[4];
+			for (int i = 0; i < x.length; i++)
+				x[i] = new IntVar(store, "x" + i, 0, 3);
+			if (k == 2)
+				store.getNoGoodDatabase().maxTableSpan = 2;
+
+			for (int i = 0; i < x.length; i++)
+				for (int j = i + 1; j < x.length; j++)
+					for (int v = 0; v < 3; v++) {
+						IntVar[] vars = {x[i], x[j]};
+						int[] values = {v, v + 1};
+						if (k == 0)
+							store.impose(new NoGood(vars, values));
+						else
+							store.getNoGoodDatabase().addNoGood(vars, values);
+					}
+
+			DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+			search.setPrintInfo(false);
+			search.getSolutionListener().searchAll(true);
+			search.getSolutionListener().recordSolutions(false);
+
+			Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(x, null, new IndomainMin<IntVar>())), true);
+			solutions[k] = search.getSolutionListener().solutionsNo();
+		}
+
+		Assert.assertEquals(solutions[1], solutions[0]);
+		Assert.assertEquals(solutions[2], solutions[0]);
+
+	}
+
+	@Test
+	public void testNoGoodDatabaseLiteralOutsideDomain() {
+
+		Store store = new Store();
+		IntVar x = new IntVar(store, "x", 0, 1);
+		IntVar y = new IntVar(store, "y", 0, 3);
+		IntVar[] vars = {x, y};
+		int[] kinds = {NoGoodDatabase.EQ, NoGoodDatabase.EQ};
+
+		// the literal table of x is created by a value outside of its domain
+		store.getNoGoodDatabase().addNoGood(vars, kinds, new int[] {5, 0});
+		store.getNoGoodDatabase().addNoGood(vars, kinds, new int[] {-3, 1});
+		store.getNoGoodDatabase().addNoGood(vars, kinds, new int[] {1, 2});
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		search.getSolutionListener().searchAll(true);
+		search.getSolutionListener().recordSolutions(false);
+
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(vars, null, new IndomainMin<IntVar>())), true);
+		Assert.assertEquals(search.getSolutionListener().solutionsNo(), 7);
+
+	}
+
+}
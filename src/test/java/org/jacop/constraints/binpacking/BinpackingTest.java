@@ -0,0 +1,47 @@
+package org.jacop.constraints.binpacking;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+import org.jacop.search.DepthFirstSearch;
+import org.jacop.search.IndomainMin;
+import org.jacop.search.SimpleSelect;
+
+import org.junit.Test;
+
+/**
+ * It tests the Binpacking constraint.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class BinpackingTest {
+
+	@Test
+	public void testBinpacking() {
+
+		Store store = new Store();
+
+		int[] w = {4, 3, 3, 2, 2};
+		IntVar[] bin = new IntVar[w.length];
+		for (int i = 0; i < w.length; i++)
+			bin[i] = new IntVar(store, "bin" + i, 0, 2);
+		IntVar[] load = new IntVar[3];
+		for (int i = 0; i < load.length; i++)
+			load[i] = new IntVar(store, "load" + i, 0, 5);
+
+		store.impose(new Binpacking(bin, load, w));
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.getSolutionListener().searchAll(true);
+		search.setPrintInfo(false);
+
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(bin, null, new IndomainMin<IntVar>())), true);
+		// item of size 4 is alone (3 bins), the remaining ones form pairs 3+2 (2 ways) in two bins (2 orders).
+		Assert.assertEquals(search.getSolutionListener().solutionsNo(), 12);
+
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.jacop.core;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * It tests BitSetDomain and its mixing with other domain representations.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class BitSetDomainTest {
+
+	@Test
+	public void testBitSetDomain() {
+
+		Store store = new Store();
+		Assert.assertEquals(new IntVar(store, "y", 0, 1000).domain instanceof IntervalDomain, true);
+
+		store.setBitSetDomainThreshold(4096);
+		IntVar x = new IntVar(store, "x", 0, 1000);
+		Assert.assertEquals(x.domain instanceof BitSetDomain, true);
+
+		store.setLevel(1);
+		x.domain.in(store.level, x, 100, 900);
+		x.domain.inComplement(store.level, x, 100);
+		x.domain.inComplement(store.level, x, 500);
+		Assert.assertEquals(x.domain.toString(), "{101..499, 501..900}");
+		Assert.assertEquals(x.getSize(), 799);
+
+		store.setLevel(2);
+		x.domain.inMax(store.level, x, 500);
+		Assert.assertEquals(x.max(), 499);
+		Assert.assertEquals(x.domain.recentDomainPruning(store.level).getSize(), 400);
+
+		store.removeLevel(2);
+		store.setLevel(1);
+		Assert.assertEquals(x.max(), 900);
+
+		store.removeLevel(1);
+		store.setLevel(0);
+		Assert.assertEquals(x.getSize(), 1001);
+
+		// mixed operations give the same result as operations on converted domain.
+		BitSetDomain bits = new BitSetDomain(0, 1000);
+		bits.unionAdapt(2000, 2000);
+		bits.subtractAdapt(3, 10);
+		bits.subtractAdapt(70, 70);
+		IntervalDomain converted = bits.toIntervalDomain();
+
+		IntDomain[] initial = {new SmallDenseDomain(0, 63), new SmallDenseDomain(40, 100), 
+				new IntervalDomain(0, 200), new IntervalDomain(20, 60)};
+		((IntervalDomain) initial[3]).unionAdapt(2000, 2100);
+
+		for (IntDomain domain : initial) {
+			for (int shift = -40; shift <= 40; shift += 20) {
+				Assert.assertEquals(domain + " " + shift, mixedIn(domain, bits, shift), mixedIn(domain, converted, shift));
+				Assert.assertEquals(domain + " " + shift, mixedIntersectAdapt(domain, shifted(bits, shift)), 
+						mixedIntersectAdapt(domain, shifted(converted, shift)));
+			}
+			if (domain.domainID() == IntDomain.SmallDenseDomainID)
+				Assert.assertEquals(domain.intersect(bits).toString(), domain.intersect(converted).toString());
+		}
+
+		// only the bounds of the last domain change, it is pruned without converting bits.
+		Assert.assertEquals(mixedIn(initial[3], bits, 0), "{20..60, 2000}");
+
+	}
+
+	String mixedIn(IntDomain initial, IntDomain input, int shift) {
+
+		Store store = new Store();
+		IntVar var = new IntVar(store, "v", initial.cloneLight());
+
+		store.setLevel(1);
+		if (shift == 0)
+			var.domain.in(store.level, var, input);
+		else
+			var.domain.inShift(store.level, var, input, shift);
+
+		return var.domain.toString();
+
+	}
+
+	String mixedIntersectAdapt(IntDomain initial, IntDomain input) {
+
+		IntDomain result = initial.cloneLight();
+		result.intersectAdapt(input);
+
+		return result.toString();
+
+	}
+
+	IntDomain shifted(BitSetDomain domain, int shift) {
+
+		BitSetDomain result = new BitSetDomain(domain.min() + shift, domain.max() + shift);
+		for (int v = domain.min(); v <= domain.max(); v++)
+			if (!domain.contains(v))
+				result.subtractAdapt(v + shift);
+
+		return result;
+
+	}
+
+	IntDomain shifted(IntervalDomain domain, int shift) {
+
+		IntervalDomain result = new IntervalDomain();
+		for (int i = 0; i < domain.size; i++)
+			result.unionAdapt(domain.intervals[i].min + shift, domain.intervals[i].max + shift);
+
+		return result;
+
+	}
+
+}
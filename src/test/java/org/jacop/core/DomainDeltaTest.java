@@ -0,0 +1,157 @@
+package org.jacop.core;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * It tests DomainDelta cursors over the domains of integer variables.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class DomainDeltaTest {
+
+	@Test
+	public void testDomainDelta() {
+
+		Store store = new Store();
+		IntVar x = new IntVar(store, "x", 0, 20);
+		DomainDelta delta = x.domainDelta();
+
+		store.setLevel(1);
+		x.domain.in(store.level, x, 2, 15);
+		x.domain.inComplement(store.level, x, 7);
+
+		Assert.assertEquals(delta.update(), true);
+		Assert.assertEquals(delta.getSize(), 8);
+		Assert.assertEquals(delta.contains(1) && delta.contains(7) && delta.contains(16), true);
+		Assert.assertEquals(delta.contains(2) || delta.contains(15), false);
+		Assert.assertEquals(delta.update(), false);
+
+		store.setLevel(2);
+		x.domain.in(store.level, x, 5, 15);
+		Assert.assertEquals(delta.update(), true);
+		Assert.assertEquals(delta.getSize(), 3);
+
+		// after backtracking the delta is computed from the start of the level.
+		store.removeLevel(2);
+		store.setLevel(2);
+		x.domain.in(store.level, x, 10, 15);
+		Assert.assertEquals(delta.update(), true);
+		Assert.assertEquals(delta.getSize(), 7);
+		Assert.assertEquals(delta.contains(7), false);
+
+	}
+
+	@Test
+	public void testDomainDeltaOfAllDomains() {
+
+		Random random = new Random(7);
+
+		for (int kind = 0; kind < 4; kind++) {
+
+			Store store = new Store();
+			IntVar x = new IntVar(store, "x", randomDomain(kind, 0, 63, random));
+			DomainDelta delta = x.domainDelta();
+
+			for (int level = 1; level < 40 && x.getSize() > 1; level++) {
+
+				store.setLevel(level);
+				IntDomain levelStart = x.dom().cloneLight();
+
+				for (int i = 0; i < 3; i++) {
+
+					IntDomain before = x.dom().cloneLight();
+
+					try {
+						randomPruning(x, random);
+					} catch (FailException f) {
+						// the failed level is removed and the delta starts from the beginning of the level.
+						store.removeLevel(level);
+						store.setLevel(level);
+						Assert.assertEquals(delta.update(), !x.dom().eq(levelStart));
+						Assert.assertEquals(removed(delta), removed(levelStart, x.dom()));
+						break;
+					}
+
+					Assert.assertEquals(delta.update(), !x.dom().eq(before));
+					Assert.assertEquals(kind + " " + before + " " + x.dom(), removed(delta), removed(before, x.dom()));
+				}
+
+			}
+
+		}
+
+	}
+
+	IntDomain randomDomain(int kind, int min, int max, Random random) {
+
+		IntDomain result;
+		switch (kind) {
+			case 0 : result = new IntervalDomain(min, max); break;
+			case 1 : result = new SmallDenseDomain(min, Math.min(max, min + 63)); break;
+			case 2 : result = new BitSetDomain(min, max); break;
+			default : return new BoundDomain(min, max);
+		}
+
+		for (int i = 0; i < 5 && result.getSize() > 1; i++) {
+			int value = min + random.nextInt(max - min + 1);
+			if (result.contains(value) && result.getSize() > 1)
+				result.subtractAdapt(value, value);
+		}
+
+		return result;
+
+	}
+
+	void randomPruning(IntVar x, Random random) {
+
+		Store store = x.store;
+		int value = x.min() + random.nextInt(x.max() - x.min() + 1);
+		int other = value + random.nextInt(8);
+
+		switch (random.nextInt(7)) {
+			case 0 : x.domain.inMin(store.level, x, value); break;
+			case 1 : x.domain.inMax(store.level, x, value); break;
+			case 2 : x.domain.in(store.level, x, value - 20, other + 20); break;
+			case 3 : x.domain.inComplement(store.level, x, value); break;
+			case 4 : x.domain.inComplement(store.level, x, value, other); break;
+			case 5 : x.domain.in(store.level, x, randomDomain(random.nextInt(4), x.min() - 5, x.max() + 5, random)); break;
+			default : 
+				int shift = random.nextInt(5) - 2;
+				x.domain.inShift(store.level, x, randomDomain(random.nextInt(4), x.min() - 5 - shift, x.max() + 5 - shift, random), shift);
+		}
+
+	}
+
+	String removed(DomainDelta delta) {
+
+		IntervalDomain result = new IntervalDomain();
+		for (int i = 0; i < delta.size; i++) {
+			// each value is reported only once.
+			Assert.assertEquals(result.isIntersecting(delta.min[i], delta.max[i]), false);
+			result.unionAdapt(delta.min[i], delta.max[i]);
+		}
+
+		return result.toString();
+
+	}
+
+	String removed(IntDomain before, IntDomain after) {
+
+		IntervalDomain result = new IntervalDomain();
+		for (ValueEnumeration e = before.valueEnumeration(); e.hasMoreElements();) {
+			int value = e.nextElement();
+			if (!after.contains(value))
+				result.unionAdapt(value, value);
+		}
+
+		return result.toString();
+
+	}
+
+}
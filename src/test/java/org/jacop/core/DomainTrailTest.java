@@ -0,0 +1,60 @@
+package org.jacop.core;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * It tests in-place trailing of IntervalDomain with DomainTrail.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class DomainTrailTest {
+
+	@Test
+	public void testDomainTrail() {
+
+		Store store = new Store();
+		store.setDomainTrail(true);
+		IntVar x = new IntVar(store, "x", new IntervalDomain(0, 100));
+		IntDomain initial = x.domain;
+
+		store.setLevel(1);
+		x.domain.in(store.level, x, 10, 90);
+		x.domain.inComplement(store.level, x, 50);
+		Assert.assertEquals(x.domain == initial, true);
+		Assert.assertEquals(x.domain.toString(), "{10..49, 51..90}");
+		Assert.assertEquals(x.recentDomainPruning().getSize(), 21);
+
+		store.setLevel(2);
+		x.domain.inMax(store.level, x, 40);
+		Assert.assertEquals(x.recentDomainPruning().getSize(), 49);
+
+		store.removeLevel(2);
+		store.setLevel(1);
+		Assert.assertEquals(x.domain.toString(), "{10..49, 51..90}");
+
+		store.removeLevel(1);
+		store.setLevel(0);
+		Assert.assertEquals(x.domain.toString(), "{0..100}");
+		Assert.assertEquals(store.domainTrail.size(), 0);
+
+		// changes at level 0 are not recorded and look the same as in copy mode.
+		for (int i = 0; i < 2; i++) {
+			store = new Store();
+			store.setDomainTrail(i == 1);
+			x = new IntVar(store, "x", new IntervalDomain(0, 100));
+			x.domain.in(store.level, x, 10, 90);
+			x.domain.inComplement(store.level, x, 50);
+			Assert.assertEquals(x.domain.toString(), "{10..49, 51..90}");
+			Assert.assertEquals(x.recentDomainPruning().isEmpty(), true);
+			Assert.assertEquals(x.domain.previousDomain(), null);
+			if (i == 1)
+				Assert.assertEquals(store.domainTrail.size(), 0);
+		}
+
+	}
+
+}
@@ -0,0 +1,126 @@
+package org.jacop.fz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import junit.framework.Assert;
+
+import org.jacop.constraints.AlldiffBounds;
+import org.jacop.constraints.Constraint;
+import org.jacop.constraints.Disjunctive;
+import org.jacop.core.IntVar;
+
+import org.junit.Test;
+
+/**
+ * It tests the translation of flatzinc constraints to JaCoP constraints.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class FlatzincTest {
+
+	static final String alldiff =
+		"predicate jacop_alldiff(array [int] of var int: x);\n" +
+		"var {1, 3}: x :: output_var;\n" +
+		"var {1, 3}: y :: output_var;\n" +
+		"var 1..3: z :: output_var;\n" +
+		"var 1..5: w :: output_var;\n" +
+		"constraint jacop_alldiff([x, y, z, w])";
+
+	@Test
+	public void testAlldiffBoundsAnnotation() throws Exception {
+
+		Parser parser = solve(alldiff + " :: bounds;\nsolve satisfy;\n");
+
+		Assert.assertEquals(countAlldiffBounds(parser), 1);
+		// x and y take 1 and 3, z is 2 and w is 4 or 5
+		Assert.assertEquals(solutions, 4);
+
+	}
+
+	@Test
+	public void testAlldiffWithoutAnnotation() throws Exception {
+
+		Parser parser = solve(alldiff + ";\nsolve satisfy;\n");
+
+		Assert.assertEquals(countAlldiffBounds(parser), 0);
+		Assert.assertEquals(solutions, 4);
+
+	}
+
+	@Test
+	public void testDisjunctive() throws Exception {
+
+		Parser parser = solve("predicate jacop_disjunctive(array [int] of var int: s, array [int] of var int: d);\n" +
+				"var 0..2: x :: output_var;\n" +
+				"var 0..2: y :: output_var;\n" +
+				"var 0..2: z :: output_var;\n" +
+				"constraint jacop_disjunctive([x, y, z], [1, 1, 1]);\n" +
+				"solve satisfy;\n");
+
+		IntVar x = (IntVar) parser.getStore().findVariable("x");
+
+		int count = 0;
+		for (Constraint c : x.dom().constraints())
+			if (c instanceof Disjunctive)
+				count++;
+
+		Assert.assertEquals(count, 1);
+		// the three unit tasks fill 0..2 in any order
+		Assert.assertEquals(solutions, 6);
+
+	}
+
+	int solutions;
+
+	Parser solve(String model) throws IOException, ParseException {
+
+		File file = File.createTempFile("jacop", ".fzn");
+		file.deleteOnExit();
+
+		FileWriter writer = new FileWriter(file);
+		writer.write(model);
+		writer.close();
+
+		Options opt = new Options(new String[] {"-a", file.getPath()});
+
+		Parser parser = new Parser(opt.getFile());
+		parser.setOptions(opt);
+
+		PrintStream out = System.out;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(buffer));
+		try {
+			parser.model();
+		} finally {
+			System.setOut(out);
+		}
+
+		solutions = 0;
+		for (String line : buffer.toString().split("\n"))
+			if (line.trim().equals("----------"))
+				solutions++;
+
+		return parser;
+
+	}
+
+	int countAlldiffBounds(Parser parser) {
+
+		IntVar x = (IntVar) parser.getStore().findVariable("x");
+
+		int count = 0;
+		for (Constraint c : x.dom().constraints())
+			if (c instanceof AlldiffBounds)
+				count++;
+
+		return count;
+
+	}
+
+}
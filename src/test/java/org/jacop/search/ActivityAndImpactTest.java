@@ -0,0 +1,100 @@
+package org.jacop.search;
+
+import junit.framework.Assert;
+
+import org.jacop.constraints.XltY;
+import org.jacop.constraints.XneqY;
+import org.jacop.core.IntVar;
+import org.jacop.core.PropagationProfiler;
+import org.jacop.core.Store;
+
+import org.junit.Test;
+
+/**
+ * It tests the statistics kept by IndomainActivity and IndomainImpact.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class ActivityAndImpactTest {
+
+	@Test
+	public void testActivityAndImpactValues() {
+
+		// assigning x = 4 prunes x and y, assigning x = 5 prunes only x
+		Store store = new Store();
+		IntVar x = new IntVar(store, "x", 4, 5);
+		IntVar y = new IntVar(store, "y", 0, 5);
+		IntVar other = new IntVar(store, "other", 0, 3);
+		store.impose(new XltY(y, x));
+		Assert.assertEquals(store.consistency(), true);
+
+		// values which have not been observed yet are chosen first, then the least active one
+		IndomainActivity<IntVar> activity = new IndomainActivity<IntVar>(new IntVar[] {x, y});
+		int[] values = {4, 5, 5};
+		for (int i = 0; i < values.length; i++) {
+			int value = activity.indomain(x);
+			Assert.assertEquals(value, values[i]);
+			store.setLevel(store.level + 1);
+			x.domain.in(store.level, x, value, value);
+			activity.executeAfterConsistency(store.consistency());
+			store.removeLevel(store.level);
+			store.setLevel(store.level - 1);
+		}
+		Assert.assertEquals(activity.statistic(x, 4), 2.0);
+		Assert.assertEquals(activity.statistic(x, 5), 1.0);
+		Assert.assertEquals(activity.statistic(other, 0), 0.0);
+
+		// the profiler does not change the counting of pruning events
+		store.setProfiler(new PropagationProfiler());
+		store.setLevel(store.level + 1);
+		x.domain.in(store.level, x, 4, 4);
+		long before = store.pruningEvents;
+		Assert.assertEquals(store.consistency(), true);
+		Assert.assertEquals(store.pruningEvents - before, 1);
+		store.removeLevel(store.level);
+		store.setLevel(store.level - 1);
+
+		// the search space of w, x and y is 4 * 2 * 2 after x < y is imposed
+		store = new Store();
+		x = new IntVar(store, "x", 0, 2);
+		y = new IntVar(store, "y", 0, 2);
+		IntVar w = new IntVar(store, "w", 0, 3);
+		store.impose(new XltY(x, y));
+		Assert.assertEquals(store.consistency(), true);
+
+		IndomainImpact<IntVar> impact = new IndomainImpact<IntVar>(new IntVar[] {w, x, y});
+		impact.initialize();
+		Assert.assertEquals(impact.statistic(x, 0), 0.5, 1e-9);
+		Assert.assertEquals(impact.statistic(x, 1), 0.75, 1e-9);
+		Assert.assertEquals(impact.statistic(y, 2), 0.5, 1e-9);
+		Assert.assertEquals(impact.statistic(w, 0), 0.75, 1e-9);
+		Assert.assertEquals(impact.indomain(x), 0);
+		Assert.assertEquals(impact.indomain(y), 2);
+		impact.executeAfterConsistency(true);
+
+		// x leaves the smallest search space after all its values are tried
+		Assert.assertEquals(impact.remainingSpace(x), 0.75, 1e-9);
+		Assert.assertEquals(impact.remainingSpace(w), 1.0, 1e-9);
+		SelectChoicePoint<IntVar> select = new SimpleSelect<IntVar>(new IntVar[] {w, x, y}, new LargestImpact<IntVar>(impact), impact);
+		Assert.assertEquals(select.getChoiceVariable(0), x);
+
+		// each assignment fails, its impact is 1
+		store = new Store();
+		IntVar[] vars = {new IntVar(store, "a", 0, 1), new IntVar(store, "b", 0, 1), new IntVar(store, "c", 0, 1)};
+		for (int i = 0; i < vars.length; i++)
+			for (int j = i + 1; j < vars.length; j++)
+				store.impose(new XneqY(vars[i], vars[j]));
+		Assert.assertEquals(store.consistency(), true);
+
+		impact = new IndomainImpact<IntVar>(vars);
+		impact.initialize();
+		Assert.assertEquals(impact.statistic(vars[0], 0), 1.0);
+		Assert.assertEquals(impact.remainingSpace(vars[1]), 0.0);
+		Assert.assertEquals(store.level, 0);
+		Assert.assertEquals(vars[2].getSize(), 2);
+
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.jacop.search;
+
+import junit.framework.Assert;
+
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+import org.junit.Test;
+
+/**
+ * It tests the order in which HeapSelect chooses variables.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class HeapSelectTest {
+
+	@Test
+	public void testHeapSelectOrder() {
+
+		Store store = new Store();
+		IntVar a = new IntVar(store, "a", 1, 5);
+		IntVar b = new IntVar(store, "b", 1, 3);
+		IntVar c = new IntVar(store, "c", 2, 4);
+		IntVar d = new IntVar(store, "d", 1, 1);
+
+		// grounded d is skipped, ties are broken by the input order, duplicates are removed
+		HeapSelect<IntVar> smallest = new HeapSelect<IntVar>(store, new IntVar[] {d, a, b, c, b}, 
+				new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+		Assert.assertEquals(smallest.getChoiceVariable(0), b);
+		Assert.assertEquals(smallest.getIndex(), 2);
+		Assert.assertEquals(smallest.getChoiceValue(), 1);
+		Assert.assertEquals(smallest.getVariablesMapping().size(), 4);
+
+		HeapSelect<IntVar> tieBreaking = new HeapSelect<IntVar>(store, new IntVar[] {d, a, b, c}, 
+				new SmallestDomain<IntVar>(), new LargestMax<IntVar>(), new IndomainMin<IntVar>());
+		Assert.assertEquals(tieBreaking.getChoiceVariable(0), c);
+
+		HeapSelect<IntVar> largest = new HeapSelect<IntVar>(store, new IntVar[] {d, b, a, c}, 
+				new LargestDomain<IntVar>(), new IndomainMax<IntVar>());
+		Assert.assertEquals(largest.getChoiceVariable(0), a);
+		Assert.assertEquals(largest.getChoiceValue(), 5);
+
+		// only changed variables are moved within the heaps
+		store.setLevel(1);
+		a.domain.in(store.level, a, 1, 2);
+		Assert.assertEquals(smallest.getChoiceVariable(0), a);
+		Assert.assertEquals(tieBreaking.getChoiceVariable(0), a);
+		Assert.assertEquals(largest.getChoiceVariable(0), b);
+
+		store.setLevel(2);
+		a.domain.in(store.level, a, 1, 1);
+		b.domain.in(store.level, b, 1, 1);
+		c.domain.in(store.level, c, 4, 4);
+		Assert.assertEquals(smallest.getChoiceVariable(0), null);
+		Assert.assertEquals(tieBreaking.getChoiceVariable(0), null);
+		Assert.assertEquals(largest.getChoiceVariable(0), null);
+
+		// the heaps are restored when levels are removed
+		store.removeLevel(2);
+		store.setLevel(1);
+		Assert.assertEquals(smallest.getChoiceVariable(0), a);
+		Assert.assertEquals(largest.getChoiceVariable(0), b);
+
+		store.removeLevel(1);
+		store.setLevel(0);
+		Assert.assertEquals(smallest.getChoiceVariable(0), b);
+		Assert.assertEquals(tieBreaking.getChoiceVariable(0), c);
+		Assert.assertEquals(largest.getChoiceVariable(0), a);
+
+		HeapSelect<IntVar> empty = new HeapSelect<IntVar>(store, new IntVar[0], 
+				new SmallestDomain<IntVar>(), new IndomainMin<IntVar>());
+		Assert.assertEquals(empty.getChoiceVariable(0), null);
+
+	}
+
+}
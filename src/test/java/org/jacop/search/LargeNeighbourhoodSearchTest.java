@@ -0,0 +1,129 @@
+package org.jacop.search;
+
+import junit.framework.Assert;
+
+import org.jacop.constraints.Alldistinct;
+import org.jacop.constraints.Linear;
+import org.jacop.constraints.SumWeight;
+import org.jacop.constraints.XplusCeqZ;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+import org.junit.Test;
+
+/**
+ * It tests LargeNeighbourhoodSearch on models which need special care of
+ * the store levels.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class LargeNeighbourhoodSearchTest {
+
+	@Test
+	public void testLargeNeighbourhoodSearchWithAlldistinct() {
+
+		Store store = new Store();
+		IntVar[] q = new IntVar[6];
+		IntVar cost = queens(store, q);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(q, null, new IndomainMin<IntVar>()), cost), true);
+		int optimalCost = search.getCostValue();
+
+		store = new Store();
+		cost = queens(store, q);
+		Assert.assertEquals(store.raiseLevelBeforeConsistency, true);
+
+		// the neighbourhood of all variables explored without limit proves optimality.
+		LargeNeighbourhoodSearch<IntVar> lns = new LargeNeighbourhoodSearch<IntVar>(store, q, cost);
+		lns.setInitialSize(q.length);
+		lns.setFailLimit(Long.MAX_VALUE);
+		lns.setAssignSolution(false);
+		lns.setPrintInfo(false);
+
+		Assert.assertEquals(lns.labeling(), true);
+		Assert.assertEquals(lns.isComplete(), true);
+		Assert.assertEquals(lns.getCostValue(), optimalCost);
+
+		// only the level of the first consistency is left, the restrictions of iterations are removed
+		Assert.assertEquals(store.level, 1);
+		Assert.assertEquals(cost.max() > optimalCost, true);
+		Assert.assertEquals(q[0].getSize(), 6);
+		Assert.assertEquals(store.consistency(), true);
+
+	}
+
+	@Test
+	public void testLargeNeighbourhoodSearchFailedDecision() {
+
+		Store store = new Store();
+		IntVar[] x = new IntVar[4];
+		IntVar cost = linear(store, x);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(x, null, new IndomainMin<IntVar>()), cost), true);
+		int optimalCost = search.getCostValue();
+
+		// Linear fails when a decision made after backtracking makes it entailed 
+		// in negation, the neighbourhood is then treated as failed.
+		store = new Store();
+		cost = linear(store, x);
+
+		LargeNeighbourhoodSearch<IntVar> lns = new LargeNeighbourhoodSearch<IntVar>(store, x, cost);
+		lns.setIterationsLimit(100);
+		lns.setSeed(714);
+		lns.setPrintInfo(false);
+
+		Assert.assertEquals(lns.labeling(), true);
+		Assert.assertEquals(lns.getCostValue(), optimalCost);
+		Assert.assertEquals(cost.value(), optimalCost);
+		Assert.assertEquals(store.level, 0);
+
+	}
+
+	IntVar linear(Store store, IntVar[] x) {
+
+		for (int i = 0; i < x.length; i++)
+			x[i] = new IntVar(store, "x" + i, -3, 3);
+
+		store.impose(new Linear(store, x, new int[] {0, -2, 0, 0}, "<=", 4));
+		store.impose(new Linear(store, x, new int[] {1, -3, -2, -3}, "<=", 3));
+
+		IntVar cost = new IntVar(store, "cost", -100, 100);
+		store.impose(new SumWeight(x, new int[] {3, 2, -3, 2}, cost));
+
+		return cost;
+
+	}
+
+	IntVar queens(Store store, IntVar[] q) {
+
+		IntVar[] up = new IntVar[q.length];
+		IntVar[] down = new IntVar[q.length];
+		int[] weights = new int[q.length];
+
+		for (int i = 0; i < q.length; i++) {
+			q[i] = new IntVar(store, "q" + i, 0, q.length - 1);
+			up[i] = new IntVar(store, "u" + i, 0, 2 * q.length);
+			down[i] = new IntVar(store, "d" + i, -q.length, q.length);
+			store.impose(new XplusCeqZ(q[i], i, up[i]));
+			store.impose(new XplusCeqZ(q[i], -i, down[i]));
+			weights[i] = i + 1;
+		}
+
+		store.impose(new Alldistinct(q));
+		store.impose(new Alldistinct(up));
+		store.impose(new Alldistinct(down));
+
+		IntVar cost = new IntVar(store, "cost", 0, 1000);
+		store.impose(new SumWeight(q, weights, cost));
+
+		return cost;
+
+	}
+
+}
@@ -0,0 +1,87 @@
+package org.jacop.search;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.jacop.constraints.XeqY;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+import org.junit.Test;
+
+/**
+ * It tests the variables relaxed by the neighbourhoods of LargeNeighbourhoodSearch.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class NeighbourhoodTest {
+
+	@Test
+	public void testNeighbourhoods() {
+
+		// two pairs of equal variables, v0 = v1 and v2 = v3
+		Store store = new Store();
+		IntVar[] vars = new IntVar[4];
+		for (int i = 0; i < vars.length; i++)
+			vars[i] = new IntVar(store, "v" + i, 0, 5);
+		store.impose(new XeqY(vars[0], vars[1]));
+		store.impose(new XeqY(vars[2], vars[3]));
+		Assert.assertEquals(store.consistency(), true);
+
+		int[] solution = {1, 1, 2, 2};
+		Random random = new Random(7);
+
+		RandomNeighbourhood<IntVar> randomNeighbourhood = new RandomNeighbourhood<IntVar>();
+		PropagationNeighbourhood<IntVar> propagationNeighbourhood = new PropagationNeighbourhood<IntVar>();
+		ConstraintNeighbourhood<IntVar> constraintNeighbourhood = new ConstraintNeighbourhood<IntVar>();
+
+		for (int i = 0; i < 20; i++) {
+
+			for (int size = 0; size <= vars.length + 1; size++) {
+
+				boolean[] relaxed = new boolean[vars.length];
+				randomNeighbourhood.relax(store, vars, solution, size, random, relaxed);
+				Assert.assertEquals(relaxedNo(relaxed), Math.min(size, vars.length));
+
+				relaxed = new boolean[vars.length];
+				constraintNeighbourhood.relax(store, vars, solution, size, random, relaxed);
+				Assert.assertEquals(relaxedNo(relaxed), Math.min(size, vars.length));
+				// the variables of the first constraint chosen are relaxed together
+				if (size >= 2)
+					Assert.assertEquals((relaxed[0] && relaxed[1]) || (relaxed[2] && relaxed[3]), true);
+
+				relaxed = new boolean[vars.length];
+				propagationNeighbourhood.relax(store, vars, solution, size, random, relaxed);
+				// fixing a variable fixes its pair, the variables assigned by propagation are relaxed
+				if (size == 0 || size == 1)
+					Assert.assertEquals(relaxed[0] != relaxed[1] && relaxed[2] != relaxed[3], true);
+				else if (size < vars.length)
+					Assert.assertEquals(relaxedNo(relaxed), 3);
+				else
+					Assert.assertEquals(relaxedNo(relaxed), vars.length);
+
+				// the store is left in the state it was before
+				Assert.assertEquals(store.level, 0);
+				for (IntVar var : vars)
+					Assert.assertEquals(var.getSize(), 6);
+
+			}
+
+		}
+
+	}
+
+	int relaxedNo(boolean[] relaxed) {
+
+		int no = 0;
+		for (boolean r : relaxed)
+			if (r)
+				no++;
+		return no;
+
+	}
+
+}
@@ -0,0 +1,181 @@
+package org.jacop.search;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.jacop.constraints.Alldistinct;
+import org.jacop.constraints.Linear;
+import org.jacop.core.FailException;
+import org.jacop.core.IntDomain;
+import org.jacop.core.IntVar;
+import org.jacop.core.IntervalDomain;
+import org.jacop.core.Store;
+
+import org.junit.Test;
+
+/**
+ * It tests ParallelShaving on models with constraints which raise the level
+ * before their first consistency.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class ParallelShavingTest {
+
+	@Test
+	public void testParallelShavingWithAlldistinct() {
+
+		for (int seed = 0; seed < 10; seed++) {
+
+			final int[][] model = randomModel(new Random(seed));
+
+			StoreReplicaFactory<IntVar> factory = new StoreReplicaFactory<IntVar>() {
+
+				public StoreReplica<IntVar> createReplica(int no) {
+					Store store = new Store();
+					return new StoreReplica<IntVar>(store, impose(store, model));
+				}
+
+			};
+
+			String[] expected = shavedDomains(factory);
+
+			for (int workers = 1; workers <= 3; workers++) {
+
+				StoreReplica<IntVar> master = factory.createReplica(0);
+
+				ParallelShaving<IntVar> shaving = new ParallelShaving<IntVar>(factory);
+				shaving.setWorkers(workers);
+
+				boolean consistent = shaving.shave(master.store, master.vars);
+				Assert.assertEquals("seed " + seed, consistent, expected != null);
+
+				if (consistent)
+					for (int i = 0; i < master.vars.length; i++)
+						Assert.assertEquals("seed " + seed + " workers " + workers, master.vars[i].dom().toString(), expected[i]);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * It creates the rows of a random model, the first row is an assignment of 
+	 * distinct values which is a solution, the others are weights of Linear constraints.
+	 */
+	int[][] randomModel(Random random) {
+
+		int[][] model = new int[3][6];
+		for (int i = 0; i < model[0].length; i++) {
+			model[0][i] = i;
+			model[1][i] = random.nextInt(4);
+			model[2][i] = random.nextInt(4);
+		}
+
+		for (int i = model[0].length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int value = model[0][i];
+			model[0][i] = model[0][j];
+			model[0][j] = value;
+		}
+
+		return model;
+
+	}
+
+	IntVar[] impose(Store store, int[][] model) {
+
+		IntVar[] x = new IntVar[model[0].length];
+		for (int i = 0; i < x.length; i++)
+			x[i] = new IntVar(store, "x" + i, 0, x.length);
+
+		store.impose(new Alldistinct(x));
+		store.impose(new Linear(store, x, model[1], "<=", weighted(model[1], model[0])));
+		store.impose(new Linear(store, x, model[2], ">=", weighted(model[2], model[0])));
+
+		return x;
+
+	}
+
+	int weighted(int[] weights, int[] values) {
+
+		int result = 0;
+		for (int i = 0; i < weights.length; i++)
+			result += weights[i] * values[i];
+
+		return result;
+
+	}
+
+	/**
+	 * It computes singleton arc consistency with a new replica for each probe,
+	 * null if the model is inconsistent.
+	 */
+	String[] shavedDomains(StoreReplicaFactory<IntVar> factory) {
+
+		IntDomain[] domains = new IntDomain[factory.createReplica(0).vars.length];
+		for (int i = 0; i < domains.length; i++)
+			domains[i] = new IntervalDomain(0, domains.length);
+
+		if (!propagate(factory, domains))
+			return null;
+
+		boolean changed = true;
+		while (changed) {
+
+			changed = false;
+			for (int i = 0; i < domains.length; i++)
+				for (int value = domains[i].min(); value <= domains[i].max(); value++) {
+
+					if (!domains[i].contains(value))
+						continue;
+
+					IntDomain[] probed = domains.clone();
+					probed[i] = new IntervalDomain(value, value);
+					if (propagate(factory, probed))
+						continue;
+
+					domains[i] = domains[i].subtract(value);
+					if (domains[i].isEmpty() || !propagate(factory, domains))
+						return null;
+					changed = true;
+
+				}
+
+		}
+
+		String[] result = new String[domains.length];
+		for (int i = 0; i < result.length; i++)
+			result[i] = domains[i].toString();
+
+		return result;
+
+	}
+
+	/**
+	 * It restricts the variables of a new replica to the domains and replaces 
+	 * the domains with the result of consistency.
+	 */
+	boolean propagate(StoreReplicaFactory<IntVar> factory, IntDomain[] domains) {
+
+		StoreReplica<IntVar> replica = factory.createReplica(0);
+		try {
+			for (int i = 0; i < domains.length; i++)
+				replica.vars[i].domain.in(replica.store.level, replica.vars[i], domains[i]);
+			if (!replica.store.consistency())
+				return false;
+		} catch (FailException f) {
+			return false;
+		}
+
+		for (int i = 0; i < domains.length; i++)
+			domains[i] = replica.vars[i].dom().cloneLight();
+
+		return true;
+
+	}
+
+}
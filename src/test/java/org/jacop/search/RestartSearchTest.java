@@ -0,0 +1,85 @@
+package org.jacop.search;
+
+import junit.framework.Assert;
+
+import org.jacop.constraints.Alldistinct;
+import org.jacop.constraints.SumWeight;
+import org.jacop.constraints.XplusCeqZ;
+import org.jacop.core.IntVar;
+import org.jacop.core.Store;
+
+import org.junit.Test;
+
+/**
+ * It tests RestartSearch on models with constraints which raise the level
+ * before their first consistency.
+ *
+ * @author Radoslaw Szymanek and Krzysztof Kuchcinski
+ * @version 4.0
+ */
+
+public class RestartSearchTest {
+
+	@Test
+	public void testRestartSearchWithAlldistinct() {
+
+		Store store = new Store();
+		IntVar[] q = new IntVar[6];
+		IntVar cost = queens(store, q);
+
+		DepthFirstSearch<IntVar> search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		Assert.assertEquals(search.labeling(store, new SimpleSelect<IntVar>(q, null, new IndomainMin<IntVar>()), cost), true);
+		int optimalCost = search.getCostValue();
+
+		store = new Store();
+		cost = queens(store, q);
+		Assert.assertEquals(store.raiseLevelBeforeConsistency, true);
+
+		search = new DepthFirstSearch<IntVar>();
+		search.setPrintInfo(false);
+		RestartSearch<IntVar> restart = new RestartSearch<IntVar>(store, search,
+				new SimpleSelect<IntVar>(q, new MostConstrainedDynamic<IntVar>(), new IndomainMiddle<IntVar>()), cost);
+		restart.setPolicy(RestartSearch.Policy.LUBY, 2);
+		restart.setAssignSolution(false);
+		restart.setPrintInfo(false);
+
+		Assert.assertEquals(restart.labeling(), true);
+		Assert.assertEquals(restart.isComplete(), true);
+		Assert.assertEquals(restart.getCostValue(), optimalCost);
+
+		// only the level of the first consistency is left, the restrictions of the runs are removed
+		Assert.assertEquals(store.level, 1);
+		Assert.assertEquals(cost.max() > optimalCost, true);
+		Assert.assertEquals(q[0].getSize(), 6);
+		Assert.assertEquals(store.consistency(), true);
+
+	}
+
+	IntVar queens(Store store, IntVar[] q) {
+
+		IntVar[] up = new IntVar[q.length];
+		IntVar[] down = new IntVar[q.length];
+		int[] weights = new int[q.length];
+
+		for (int i = 0; i < q.length; i++) {
+			q[i] = new IntVar(store, "q" + i, 0, q.length - 1);
+			up[i] = new IntVar(store, "u" + i, 0, 2 * q.length);
+			down[i] = new IntVar(store, "d" + i, -q.length, q.length);
+			store.impose(new XplusCeqZ(q[i], i, up[i]));
+			store.impose(new XplusCeqZ(q[i], -i, down[i]));
+			weights[i] = i + 1;
+		}
+
+		store.impose(new Alldistinct(q));
+		store.impose(new Alldistinct(up));
+		store.impose(new Alldistinct(down));
+
+		IntVar cost = new IntVar(store, "cost", 0, 1000);
+		store.impose(new SumWeight(q, weights, cost));
+
+		return cost;
+
+	}
+
+}